@@ -0,0 +1,38 @@
+package com.travelmap.config;
+
+import com.travelmap.service.CountryStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * country_stats 집계 테이블이 비어 있으면(처음 배포됐을 때) 기존 visit_countries로 한 번 채워 넣는다.
+ * 이후로는 CountryDetectionService가 저장할 때마다 증분으로 맞춰 간다.
+ */
+@Component
+public class CountryStatsInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CountryStatsInitializer.class);
+
+    private final CountryStatsService countryStatsService;
+
+    @Autowired
+    public CountryStatsInitializer(CountryStatsService countryStatsService) {
+        this.countryStatsService = countryStatsService;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            if (countryStatsService.needsInitialBuild()) {
+                logger.info("국가 집계 테이블이 비어 있어 초기 재계산 실행");
+                countryStatsService.reconcile();
+            }
+        } catch (Exception e) {
+            // 집계가 없어도 지도는 느린 경로로 답할 수 있으니 기동은 계속한다
+            logger.error("국가 집계 초기화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.travelmap.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 끝난 구간을 로컬 파일에 Chrome Trace Event 배열로 이어 쓰는 내보내기 (travelmap.tracing.exporter=file).
+ * 파일은 "["로 시작하고 이벤트마다 ",\n"을 붙여 쓰기만 한다 - 닫는 "]"가 없어도 Perfetto/chrome://tracing이 읽으므로
+ * 실행 중에도, 프로세스가 죽은 뒤에도 그대로 열어 볼 수 있다. 파일을 지우면 다음 내보내기 때 새로 시작한다.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    private final Path path;
+    private final String namePrefix;
+    private final ObjectMapper objectMapper;
+
+    public FileSpanExporter(Path path, String namePrefix, ObjectMapper objectMapper) {
+        this.path = path;
+        this.namePrefix = namePrefix;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanData> kept = new ArrayList<>();
+        for (SpanData span : spans) {
+            if (span.getName().startsWith(namePrefix)) {
+                kept.add(span);
+            }
+        }
+        if (kept.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            boolean fresh = !Files.exists(path) || Files.size(path) == 0;
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (fresh) {
+                    writer.write("[\n");
+                }
+                for (Map<String, Object> event : TraceEvents.toEvents(kept)) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.write(",\n");
+                }
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            logger.warn("추적 파일 쓰기 실패: {} - {}", path, e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
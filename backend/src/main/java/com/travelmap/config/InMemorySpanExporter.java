@@ -0,0 +1,106 @@
+package com.travelmap.config;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 최근 추적을 메모리에 들고 있는 구간 내보내기 (travelmap.tracing.exporter=memory, 기본값).
+ * 전체 구간 수가 max-spans를 넘으면 가장 먼저 들어온 추적부터 통째로 버린다. 인스턴스마다 따로 들고 있고 재기동하면 사라진다.
+ * 어드민 /api/admin/traces로 목록과 추적 하나의 타임라인({@link TraceEvents})을 본다.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final String namePrefix;
+    private final int maxSpans;
+
+    // 추적 id → 끝난 구간들 (추적이 처음 들어온 순서)
+    private final LinkedHashMap<String, List<SpanData>> traces = new LinkedHashMap<>();
+    private int spanCount = 0;
+
+    public InMemorySpanExporter(String namePrefix, int maxSpans) {
+        this.namePrefix = namePrefix;
+        this.maxSpans = Math.max(1, maxSpans);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            if (!span.getName().startsWith(namePrefix)) {
+                continue;
+            }
+            traces.computeIfAbsent(span.getTraceId(), traceId -> new ArrayList<>()).add(span);
+            spanCount++;
+        }
+        Iterator<List<SpanData>> oldest = traces.values().iterator();
+        while (spanCount > maxSpans && oldest.hasNext()) {
+            spanCount -= oldest.next().size();
+            oldest.remove();
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * 들고 있는 추적 요약 (최근 것부터): 추적 id, 맨 위 구간 이름, 시작 시각, 길이, 구간 수, 오류 여부
+     */
+    public synchronized List<Map<String, Object>> recentTraces() {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        for (Map.Entry<String, List<SpanData>> entry : traces.entrySet()) {
+            List<SpanData> spans = entry.getValue();
+            long start = Long.MAX_VALUE;
+            long end = Long.MIN_VALUE;
+            SpanData root = null;
+            boolean error = false;
+            for (SpanData span : spans) {
+                start = Math.min(start, span.getStartEpochNanos());
+                end = Math.max(end, span.getEndEpochNanos());
+                if (root == null || span.getStartEpochNanos() < root.getStartEpochNanos()) {
+                    root = span;
+                }
+                error |= span.getStatus().getStatusCode() == StatusCode.ERROR;
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("traceId", entry.getKey());
+            summary.put("root", root != null ? root.getName() : null);
+            summary.put("startEpochMillis", start / 1_000_000);
+            summary.put("durationMillis", (end - start) / 1_000_000);
+            summary.put("spans", spans.size());
+            summary.put("error", error);
+            summaries.add(0, summary);
+        }
+        return summaries;
+    }
+
+    /**
+     * 추적 하나의 타임라인 (시작 순서의 Chrome Trace Event, 없으면 빈 목록)
+     */
+    public List<Map<String, Object>> getTimeline(String traceId) {
+        List<SpanData> spans;
+        synchronized (this) {
+            spans = new ArrayList<>(traces.getOrDefault(traceId, List.of()));
+        }
+        spans.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+        return TraceEvents.toEvents(spans);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        traces.clear();
+        spanCount = 0;
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,43 @@
+package com.travelmap.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 요청별 SQL 문 수 집계 설정 ({@link SqlStatementCounter}).
+ * Hibernate 세션마다 실행 리스너/SQL 검사기를 붙이고, /api/** 요청 앞뒤로 집계를 열고 닫는다.
+ */
+@Configuration
+public class SqlStatementConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${travelmap.sql.warn-statements:20}")
+    private int warnStatements;
+
+    @Autowired
+    public SqlStatementConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatementCounter.Listener.class.getName());
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, SqlStatementCounter.Inspector.class.getName());
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatementInterceptor(meterRegistry, warnStatements))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,118 @@
+package com.travelmap.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 요청 하나(스레드 하나)가 실행한 SQL 문 수와 실행 시간.
+ * {@link SqlStatementInterceptor}가 요청 시작에 {@link #begin()}, 끝에 {@link #end()}를 부르고,
+ * 그 사이 이 스레드의 모든 Hibernate 세션(OSIV 세션, TransactionTemplate 새 트랜잭션 등)이 {@link Listener}로 센다.
+ * 다른 스레드로 넘긴 일(파이프라인 워커, 비동기 실행)은 요청에 넣지 않는다.
+ */
+public final class SqlStatementCounter {
+
+    // 끝난 요청의 집계를 요청 속성으로 남긴다 (MockMvc 예산 검사에서 읽음)
+    public static final String REQUEST_ATTRIBUTE = SqlStatementCounter.class.getName() + ".SCOPE";
+
+    // N+1을 찾을 때 볼 SQL 앞부분 몇 개만 남긴다
+    private static final int MAX_RECORDED_SQL = 20;
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope begin() {
+        Scope scope = new Scope();
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * 이 스레드의 집계를 끝내고 돌려준다 (시작하지 않았으면 null)
+     */
+    public static Scope end() {
+        Scope scope = CURRENT.get();
+        CURRENT.remove();
+        return scope;
+    }
+
+    /**
+     * 요청 하나의 집계
+     */
+    public static final class Scope {
+        private int statements;
+        private long nanos;
+        private final List<String> sql = new ArrayList<>();
+
+        public int getStatements() { return statements; }
+        public long getNanos() { return nanos; }
+        public long getMillis() { return nanos / 1_000_000; }
+        public List<String> getSql() { return Collections.unmodifiableList(sql); }
+
+        private void executed(long elapsedNanos) {
+            statements++;
+            nanos += elapsedNanos;
+        }
+
+        private void prepared(String statement) {
+            if (sql.size() < MAX_RECORDED_SQL) {
+                sql.add(statement);
+            }
+        }
+    }
+
+    /**
+     * 세션마다 하나씩 만들어지는 JDBC 실행 리스너 (hibernate.session.events.auto).
+     * 문 하나(배치는 한 번)를 실행할 때마다 실행 시간과 함께 현재 스레드의 집계에 더한다.
+     */
+    public static class Listener implements SessionEventListener {
+        private long statementStarted;
+        private long batchStarted;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statementStarted = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            record(statementStarted);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batchStarted = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            record(batchStarted);
+        }
+
+        private void record(long started) {
+            Scope scope = CURRENT.get();
+            if (scope != null) {
+                scope.executed(System.nanoTime() - started);
+            }
+        }
+    }
+
+    /**
+     * 준비되는 SQL 원문을 현재 요청 집계에 남긴다 (문은 바꾸지 않는다)
+     */
+    public static class Inspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            Scope scope = CURRENT.get();
+            if (scope != null) {
+                scope.prepared(sql);
+            }
+            return sql;
+        }
+    }
+}
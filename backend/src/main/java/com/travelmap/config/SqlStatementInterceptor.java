@@ -0,0 +1,78 @@
+package com.travelmap.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청마다 실행한 SQL 문 수/시간을 엔드포인트(매핑 패턴)별로 남긴다.
+ * 지표: travelmap.http.sql.statements (요청당 문 수 분포), travelmap.http.sql.time (요청당 SQL 실행 시간).
+ * 한 요청이 warn-statements를 넘기면 경고 로그를 남긴다 (N+1 회귀를 운영에서 바로 보기 위해).
+ */
+public class SqlStatementInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int warnStatements;
+
+    public SqlStatementInterceptor(MeterRegistry meterRegistry, int warnStatements) {
+        this.meterRegistry = meterRegistry;
+        this.warnStatements = warnStatements;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.begin();
+        return true;
+    }
+
+    /**
+     * 비동기 응답(SSE 등)은 여기서 요청 스레드를 놓는다. 끝날 때 다시 디스패치되면서 새로 센다.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementCounter.Scope scope = SqlStatementCounter.end();
+        if (scope == null) {
+            return;
+        }
+        request.setAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE, scope);
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("travelmap.http.sql.statements")
+                .description("요청 하나가 실행한 SQL 문 수")
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(scope.getStatements());
+        Timer.builder("travelmap.http.sql.time")
+                .description("요청 하나가 SQL 실행에 쓴 시간")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (scope.getStatements() > warnStatements) {
+            logger.warn("SQL 문이 많은 요청: {} {} - {}개, {}ms", method, uri, scope.getStatements(), scope.getMillis());
+        } else {
+            logger.debug("요청 SQL: {} {} - {}개, {}ms", method, uri, scope.getStatements(), scope.getMillis());
+        }
+    }
+}
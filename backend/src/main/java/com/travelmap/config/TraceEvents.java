@@ -0,0 +1,101 @@
+package com.travelmap.config;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 끝난 구간을 Chrome Trace Event 형식(Perfetto, chrome://tracing에서 여는 JSON)으로 바꾼다.
+ * 구간 하나가 완료 이벤트("X") 하나이고, 추적 하나가 프로세스 하나, 구간이 돌던 스레드가 트랙 하나다.
+ * 같은 스레드의 구간은 안쪽으로 포개져 불꽃 그래프처럼 보인다. 시작한 스레드보다 오래 사는 구간(파이프라인의 채널 구간 등)은
+ * {@link #TRACK} 속성으로 트랙을 따로 잡는다 - 안 그러면 그 스레드의 다음 구간들과 겹쳐서 포개지지 않는다.
+ */
+public final class TraceEvents {
+
+    // 구간을 시작한 스레드 (TracingConfig의 SpanProcessor가 붙인다)
+    public static final String THREAD_NAME = "thread.name";
+    // 스레드 대신 쓸 트랙 이름
+    public static final String TRACK = "timeline.track";
+
+    private static final AttributeKey<String> THREAD_NAME_KEY = AttributeKey.stringKey(THREAD_NAME);
+    private static final AttributeKey<String> TRACK_KEY = AttributeKey.stringKey(TRACK);
+
+    private TraceEvents() {
+    }
+
+    /**
+     * 구간들을 트레이스 이벤트로 바꾼다. 묶음 안에서 처음 나온 추적/트랙마다 이름 메타데이터 이벤트를 앞에 넣는다.
+     */
+    public static List<Map<String, Object>> toEvents(Collection<SpanData> spans) {
+        List<Map<String, Object>> events = new ArrayList<>();
+        Set<String> named = new HashSet<>();
+        for (SpanData span : spans) {
+            int pid = processId(span.getTraceId());
+            String track = track(span);
+            int tid = track.hashCode() & 0x7fffffff;
+
+            if (named.add(span.getTraceId())) {
+                events.add(metadata("process_name", pid, 0, "trace " + span.getTraceId()));
+            }
+            if (named.add(pid + "/" + track)) {
+                events.add(metadata("thread_name", pid, tid, track));
+            }
+
+            Map<String, Object> args = new LinkedHashMap<>();
+            args.put("traceId", span.getTraceId());
+            args.put("spanId", span.getSpanId());
+            if (span.getParentSpanContext().isValid()) {
+                args.put("parentSpanId", span.getParentSpanId());
+            }
+            span.getAttributes().forEach((key, value) -> args.put(key.getKey(), String.valueOf(value)));
+            if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+                args.put("error", span.getStatus().getDescription());
+            }
+
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", span.getName());
+            event.put("cat", "travelmap");
+            event.put("ph", "X");
+            event.put("ts", span.getStartEpochNanos() / 1_000);
+            event.put("dur", Math.max(0, span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+            event.put("pid", pid);
+            event.put("tid", tid);
+            event.put("args", args);
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * 추적 id 뒤쪽을 잘라 만든 프로세스 번호 (같은 추적은 파일 어디서 나와도 같은 번호)
+     */
+    static int processId(String traceId) {
+        return (int) (Long.parseUnsignedLong(traceId.substring(traceId.length() - 8), 16) & 0x7fffffff);
+    }
+
+    private static String track(SpanData span) {
+        String track = span.getAttributes().get(TRACK_KEY);
+        if (track == null) {
+            track = span.getAttributes().get(THREAD_NAME_KEY);
+        }
+        return track != null ? track : "unknown";
+    }
+
+    private static Map<String, Object> metadata(String name, int pid, int tid, String value) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", name);
+        event.put("ph", "M");
+        event.put("pid", pid);
+        event.put("tid", tid);
+        event.put("args", Map.of("name", value));
+        return event;
+    }
+}
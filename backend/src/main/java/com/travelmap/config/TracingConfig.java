@@ -0,0 +1,102 @@
+package com.travelmap.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * 추적 설정. 수집 실행/채널 파이프라인/YouTube 호출/국가 감지/Nominatim 호출은 Micrometer Observation으로 남기고,
+ * OpenTelemetry 브리지가 그걸 구간으로 만든다. 끝난 구간은 스프링 부트가 SpanExporter 빈 전부에 넘기므로
+ * 내보내기는 빈으로 갈아 끼운다 (travelmap.tracing.exporter):
+ *   memory (기본) - 최근 추적을 메모리에 들고 /api/admin/traces로 본다 ({@link InMemorySpanExporter})
+ *   file          - 로컬 파일에 Chrome Trace Event로 이어 쓴다 ({@link FileSpanExporter})
+ *   none          - 여기서는 아무것도 내보내지 않는다
+ * OTLP/Zipkin 같은 외부 수집기는 해당 exporter 의존성과 management.otlp.tracing.* / management.zipkin.* 설정만 더하면
+ * 스프링 부트가 자기 SpanExporter를 만들어 같이 붙는다.
+ */
+@Configuration
+public class TracingConfig {
+
+    // travelmap.* 구간만 남긴다 (HTTP 요청/스케줄 작업 구간이 수집 추적을 밀어내지 않도록, 빈 값이면 전부)
+    @Value("${travelmap.tracing.span-prefix:travelmap.}")
+    private String spanPrefix;
+
+    @Bean
+    @ConditionalOnProperty(name = "travelmap.tracing.exporter", havingValue = "memory", matchIfMissing = true)
+    public InMemorySpanExporter inMemorySpanExporter(@Value("${travelmap.tracing.memory.max-spans:20000}") int maxSpans) {
+        return new InMemorySpanExporter(spanPrefix, maxSpans);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "travelmap.tracing.exporter", havingValue = "file")
+    public FileSpanExporter fileSpanExporter(@Value("${travelmap.tracing.file.path:traces/travelmap-trace.json}") String path,
+                                             ObjectMapper objectMapper) {
+        return new FileSpanExporter(Path.of(path), spanPrefix, objectMapper);
+    }
+
+    /**
+     * 수집 실행은 하루 몇 번뿐이라 표본을 고르지 않고 전부 남긴다 (부모가 있으면 부모 결정을 따른다).
+     * 스프링 부트 기본 표본(management.tracing.sampling.probability, 10%) 대신 쓴다.
+     */
+    @Bean
+    public Sampler tracingSampler(@Value("${travelmap.tracing.sampling-probability:1.0}") double probability) {
+        return Sampler.parentBased(Sampler.traceIdRatioBased(probability));
+    }
+
+    /**
+     * 구간을 시작한 스레드 이름을 붙인다 (타임라인에서 스레드별 트랙으로 나눌 때 쓴다)
+     */
+    @Bean
+    public SpanProcessor threadNameSpanProcessor() {
+        return new SpanProcessor() {
+            @Override
+            public void onStart(Context parentContext, ReadWriteSpan span) {
+                span.setAttribute(TraceEvents.THREAD_NAME, Thread.currentThread().getName());
+            }
+
+            @Override
+            public boolean isStartRequired() {
+                return true;
+            }
+
+            @Override
+            public void onEnd(ReadableSpan span) {
+            }
+
+            @Override
+            public boolean isEndRequired() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Observation으로 옮긴 지연 지표도 예전처럼 히스토그램을 내보낸다 (Prometheus에서 분위수 계산용)
+     */
+    @Bean
+    public MeterFilter latencyHistogramFilter() {
+        Set<String> names = Set.of("travelmap.youtube.call", "travelmap.detection.stage");
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() == Meter.Type.TIMER && names.contains(id.getName())) {
+                    return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+                }
+                return config;
+            }
+        };
+    }
+}
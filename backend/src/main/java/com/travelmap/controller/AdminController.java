@@ -1,17 +1,31 @@
 package com.travelmap.controller;
 
-import com.travelmap.service.DataCollectionService;
+import com.travelmap.config.InMemorySpanExporter;
+import com.travelmap.entity.CollectionJob;
+import com.travelmap.service.CityClusterIndex;
+import com.travelmap.service.CityTileIndex;
+import com.travelmap.service.CollectionJobService;
+import com.travelmap.service.CountryDetectionWorker;
+import com.travelmap.service.CountryStatsService;
+import com.travelmap.service.IngestionPipeline;
+import com.travelmap.service.MapDataService;
+import com.travelmap.service.VisitFactIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 데이터 수집 관리(어드민) 엔드포인트.
  * 지도/영상 조회는 {@link TravelMapController}에서 담당하고, 여긴 유튜브 채널 데이터 수집을 트리거하는 쪽만 모아둔다.
+ * 수집 요청은 작업({@link CollectionJobService})으로 등록만 하고 작업 id를 바로 돌려준다 (202). 진행/결과는 /jobs로 조회.
  */
 @RestController
 @RequestMapping("/api/admin")
@@ -20,11 +34,36 @@ public class AdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
 
-    private final DataCollectionService dataCollectionService;
+    private final CountryStatsService countryStatsService;
+    private final VisitFactIndex visitFactIndex;
+    private final MapDataService mapDataService;
+    private final CityClusterIndex cityClusterIndex;
+    private final CityTileIndex cityTileIndex;
+    private final CollectionJobService collectionJobService;
+    private final IngestionPipeline ingestionPipeline;
+    private final CountryDetectionWorker countryDetectionWorker;
+    // travelmap.tracing.exporter=memory일 때만 있다
+    private final ObjectProvider<InMemorySpanExporter> traceStore;
 
     @Autowired
-    public AdminController(DataCollectionService dataCollectionService) {
-        this.dataCollectionService = dataCollectionService;
+    public AdminController(CountryStatsService countryStatsService,
+                           VisitFactIndex visitFactIndex,
+                           MapDataService mapDataService,
+                           CityClusterIndex cityClusterIndex,
+                           CityTileIndex cityTileIndex,
+                           CollectionJobService collectionJobService,
+                           IngestionPipeline ingestionPipeline,
+                           CountryDetectionWorker countryDetectionWorker,
+                           ObjectProvider<InMemorySpanExporter> traceStore) {
+        this.countryStatsService = countryStatsService;
+        this.visitFactIndex = visitFactIndex;
+        this.mapDataService = mapDataService;
+        this.cityClusterIndex = cityClusterIndex;
+        this.cityTileIndex = cityTileIndex;
+        this.collectionJobService = collectionJobService;
+        this.ingestionPipeline = ingestionPipeline;
+        this.countryDetectionWorker = countryDetectionWorker;
+        this.traceStore = traceStore;
     }
 
     /**
@@ -35,8 +74,8 @@ public class AdminController {
         logger.info("전체 데이터 수집 요청");
 
         try {
-            Map<String, Object> result = dataCollectionService.collectAllData();
-            return ResponseEntity.ok(result);
+            Map<String, Object> result = collectionJobService.submit(CollectionJob.Type.COLLECT_ALL, null, null);
+            return submitted(result);
         } catch (Exception e) {
             logger.error("전체 데이터 수집 API 오류", e);
             return ResponseEntity.internalServerError()
@@ -52,8 +91,8 @@ public class AdminController {
         logger.info("특정 채널 데이터 수집 요청: {}", searchQuery);
 
         try {
-            Map<String, Object> result = dataCollectionService.collectChannelData(searchQuery);
-            return ResponseEntity.ok(result);
+            Map<String, Object> result = collectionJobService.submit(CollectionJob.Type.COLLECT_CHANNEL, searchQuery, null);
+            return submitted(result);
         } catch (Exception e) {
             logger.error("특정 채널 데이터 수집 API 오류", e);
             return ResponseEntity.internalServerError()
@@ -69,8 +108,8 @@ public class AdminController {
         logger.info("전체 채널 데이터 업데이트 요청");
 
         try {
-            Map<String, Object> result = dataCollectionService.updateAllChannelsData();
-            return ResponseEntity.ok(result);
+            Map<String, Object> result = collectionJobService.submit(CollectionJob.Type.UPDATE_ALL, null, null);
+            return submitted(result);
         } catch (Exception e) {
             logger.error("전체 채널 데이터 업데이트 API 오류", e);
             return ResponseEntity.internalServerError()
@@ -86,8 +125,8 @@ public class AdminController {
         logger.info("처리되지 않은 영상들 처리 요청");
 
         try {
-            Map<String, Object> result = dataCollectionService.processUnprocessedVideos();
-            return ResponseEntity.ok(result);
+            Map<String, Object> result = collectionJobService.submit(CollectionJob.Type.PROCESS_UNPROCESSED, null, null);
+            return submitted(result);
         } catch (Exception e) {
             logger.error("처리되지 않은 영상들 처리 API 오류", e);
             return ResponseEntity.internalServerError()
@@ -95,13 +134,64 @@ public class AdminController {
         }
     }
 
+    /**
+     * 최근 수집 작업 목록 (최신순)
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<?> getJobs(@RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<CollectionJob> jobs = collectionJobService.findRecentJobs(limit);
+            return ResponseEntity.ok(jobs);
+        } catch (Exception e) {
+            logger.error("수집 작업 목록 조회 API 오류", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
+    /**
+     * 수집 작업 하나 조회 (상태, 시각, 처리 수, 오류)
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return collectionJobService.findJob(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("수집 작업 조회 API 오류: {}", id, e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
+    /**
+     * 수집 작업 취소 요청 (실행 중이면 다음 채널/영상으로 넘어가기 전에 멈춘다)
+     */
+    @PostMapping("/jobs/{id}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable Long id) {
+        logger.info("수집 작업 취소 요청: {}", id);
+
+        try {
+            if (!collectionJobService.cancel(id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("status", "error", "message", "취소할 수 있는 작업이 없습니다 (없거나 이미 끝남)."));
+            }
+            return ResponseEntity.ok(Map.of("status", "success", "message", "작업 취소를 요청했습니다.", "jobId", id));
+        } catch (Exception e) {
+            logger.error("수집 작업 취소 API 오류: {}", id, e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
     /**
      * 수집 상태 조회
      */
     @GetMapping("/collection-status")
     public ResponseEntity<Map<String, Object>> getCollectionStatus() {
         try {
-            Map<String, Object> status = dataCollectionService.getCollectionStatus();
+            Map<String, Object> status = collectionJobService.getCollectionStatus();
             return ResponseEntity.ok(status);
         } catch (Exception e) {
             logger.error("수집 상태 조회 API 오류", e);
@@ -110,6 +200,68 @@ public class AdminController {
         }
     }
 
+    /**
+     * 수집 파이프라인 단계별 상태 (큐 깊이, 워커 사용률, 처리량, 앞 단계가 막혀 있던 시간)와
+     * 아웃박스 국가 감지 소비자 상태 (대기/처리 중/실패 이벤트 수)
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineMetrics() {
+        try {
+            return ResponseEntity.ok(Map.of("status", "success",
+                    "stages", ingestionPipeline.getMetrics(),
+                    "detection", countryDetectionWorker.getMetrics()));
+        } catch (Exception e) {
+            logger.error("수집 파이프라인 상태 조회 API 오류", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
+    /**
+     * 이 인스턴스 메모리에 있는 최근 추적 목록 (수집 실행, 국가 감지 등)
+     */
+    @GetMapping("/traces")
+    public ResponseEntity<Map<String, Object>> getTraces() {
+        try {
+            InMemorySpanExporter store = traceStore.getIfAvailable();
+            if (store == null) {
+                return traceStoreDisabled();
+            }
+            return ResponseEntity.ok(Map.of("status", "success", "traces", store.recentTraces()));
+        } catch (Exception e) {
+            logger.error("추적 목록 조회 API 오류", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
+    /**
+     * 추적 하나의 타임라인 (Chrome Trace Event 형식 - 저장해서 Perfetto/chrome://tracing에서 열면 불꽃 그래프로 보인다)
+     */
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<Map<String, Object>> getTrace(@PathVariable String traceId) {
+        try {
+            InMemorySpanExporter store = traceStore.getIfAvailable();
+            if (store == null) {
+                return traceStoreDisabled();
+            }
+            List<Map<String, Object>> events = store.getTimeline(traceId);
+            if (events.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(Map.of("displayTimeUnit", "ms", "traceEvents", events));
+        } catch (Exception e) {
+            logger.error("추적 조회 API 오류: {}", traceId, e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> traceStoreDisabled() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("status", "error", "message", "메모리 추적 저장이 꺼져 있습니다 (travelmap.tracing.exporter=memory)."));
+    }
+
     /**
      * 새 채널 추가
      */
@@ -120,12 +272,92 @@ public class AdminController {
         logger.info("새 채널 추가 요청: {} ({})", channelName, searchQuery);
 
         try {
-            Map<String, Object> result = dataCollectionService.addNewChannel(searchQuery, channelName);
-            return ResponseEntity.ok(result);
+            Map<String, Object> result = collectionJobService.submit(CollectionJob.Type.ADD_CHANNEL, searchQuery, channelName);
+            return submitted(result);
         } catch (Exception e) {
             logger.error("새 채널 추가 API 오류", e);
             return ResponseEntity.internalServerError()
                     .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
         }
     }
+
+    /**
+     * 작업이 등록됐으면 202, 같은 작업이 이미 돌고 있어 거절됐으면 200 + status=error (기존 작업 id 포함)
+     */
+    private static ResponseEntity<Map<String, Object>> submitted(Map<String, Object> result) {
+        if ("accepted".equals(result.get("status"))) {
+            return ResponseEntity.accepted().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 국가 집계(country_stats) 재계산 - visit_countries에서 처음부터 다시 만들고 어긋난 정도를 돌려준다
+     */
+    @PostMapping("/country-stats/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileCountryStats() {
+        logger.info("국가 집계 재계산 요청");
+
+        try {
+            Map<String, Object> result = countryStatsService.reconcile();
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            logger.error("국가 집계 재계산 API 오류", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
+    /**
+     * 메모리 읽기 모델(방문 국가 사실) 적재 상태와 메모리 사용량 (거기서 만드는 도시 클러스터/타일 인덱스 상태 포함)
+     */
+    @GetMapping("/visit-index")
+    public ResponseEntity<Map<String, Object>> getVisitIndexReport() {
+        try {
+            Map<String, Object> report = new LinkedHashMap<>(visitFactIndex.getReport());
+            report.put("cityClusters", cityClusterIndex.getReport());
+            report.put("cityTiles", cityTileIndex.getReport());
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            logger.error("읽기 모델 상태 조회 API 오류", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
+    /**
+     * 메모리 읽기 모델을 DB에서 다시 적재 (백그라운드로 진행, 끝날 때까지 조회는 DB 경로)
+     */
+    @PostMapping("/visit-index/reload")
+    public ResponseEntity<Map<String, Object>> reloadVisitIndex() {
+        logger.info("읽기 모델 재적재 요청");
+
+        try {
+            visitFactIndex.requestFullReload();
+            return ResponseEntity.ok(Map.of("status", "success", "message", "재적재를 시작했습니다."));
+        } catch (Exception e) {
+            logger.error("읽기 모델 재적재 API 오류", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
+
+    /**
+     * 지도 집계 벤치마크: 메모리 읽기 모델 vs JPA(findByFilters) 경로, 필터 조합별 평균 마이크로초
+     */
+    @PostMapping("/visit-index/benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkVisitIndex(@RequestParam(defaultValue = "10") int iterations) {
+        logger.info("읽기 모델 벤치마크 요청: {}회", iterations);
+
+        try {
+            List<Map<String, Object>> results = mapDataService.benchmark(Math.max(1, Math.min(iterations, 1000)));
+            return ResponseEntity.ok(Map.of("status", "success", "results", results));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("읽기 모델 벤치마크 API 오류", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("status", "error", "message", "서버 오류가 발생했습니다."));
+        }
+    }
 }
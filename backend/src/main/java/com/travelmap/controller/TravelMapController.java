@@ -1,75 +1,133 @@
 package com.travelmap.controller;
 
 import com.travelmap.dto.*;
-import com.travelmap.entity.User;
-import com.travelmap.entity.Video;
-import com.travelmap.entity.VisitCountry;
-import com.travelmap.repository.UserRepository;
 import com.travelmap.repository.VideoRepository;
-import com.travelmap.repository.VisitCountryRepository;
+import com.travelmap.service.CityClusterIndex;
+import com.travelmap.service.CityTileIndex;
+import com.travelmap.service.CountryGeometryService;
+import com.travelmap.service.LiveEventHub;
+import com.travelmap.service.MapChangeLogService;
+import com.travelmap.service.MapDataService;
+import com.travelmap.service.ResponseSnapshotService;
+import com.travelmap.service.VideoQueryService;
+import com.travelmap.service.VisitFactIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 지도/영상 조회용 읽기 전용 엔드포인트. 데이터 수집 관리(어드민) 쪽은 {@link AdminController}에서 담당한다.
+ * 모든 응답에 데이터 버전 + 요청 파라미터로 만든 강한 ETag를 붙이고, If-None-Match가 맞으면 DB를 건드리기 전에 304로 답한다.
  */
 @RestController
 @RequestMapping("/api")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {TravelMapController.NEXT_CURSOR_HEADER, TravelMapController.TOTAL_COUNT_HEADER,
+        TravelMapController.DATA_VERSION_HEADER})
 public class TravelMapController {
 
     private static final Logger logger = LoggerFactory.getLogger(TravelMapController.class);
 
-    private final UserRepository userRepository;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    // 응답을 만든 데이터 버전 (/api/map-data/changes?since=에 넘겨 이후 변경만 받는다)
+    static final String DATA_VERSION_HEADER = "X-Data-Version";
+
+    // 한 번에 줄 수 있는 최대 영상 수
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 엔드포인트별 캐시 정책: 필터/지도/영상 상세는 잠깐 그대로 쓰고, 목록은 매번 ETag로 재검증 (304라 싸다)
+    private static final CacheControl FILTERS_CACHE = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+    private static final CacheControl MAP_DATA_CACHE = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+    private static final CacheControl VIDEO_LIST_CACHE = CacheControl.noCache().cachePublic();
+    private static final CacheControl VIDEO_DETAIL_CACHE = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+    // 국가별 영상은 지도 팝업에서 열 때마다 최신 목록이어야 하므로 목록처럼 매번 재검증
+    private static final CacheControl COUNTRY_VIDEOS_CACHE = CacheControl.noCache().cachePublic();
+    // 지도 변경분은 같은 since라도 버전이 오르면 답이 늘어나므로 저장은 하되 매번 재검증 (안 바뀌었으면 304)
+    private static final CacheControl MAP_CHANGES_CACHE = CacheControl.noCache().cachePublic();
+    // 타일은 내용 해시가 붙은 URL(?v=)이면 내용이 절대 안 바뀌므로 오래 두고, 해시 없이 오면 짧게 두고 ETag로 재검증
+    private static final CacheControl TILE_VERSIONED_CACHE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl TILE_CACHE = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+    // 국가 경계: 구간 목록은 배포 사이에만 바뀌고, 버전(내용 해시) 붙은 본문은 영원히 같다
+    private static final CacheControl GEOMETRY_INDEX_CACHE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+    private static final CacheControl GEOMETRY_CACHE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
     private final VideoRepository videoRepository;
-    private final VisitCountryRepository visitCountryRepository;
+    private final MapDataService mapDataService;
+    private final VideoQueryService videoQueryService;
+    private final VisitFactIndex visitFactIndex;
+    private final ResponseSnapshotService responseSnapshotService;
+    private final CityClusterIndex cityClusterIndex;
+    private final CityTileIndex cityTileIndex;
+    private final CountryGeometryService countryGeometryService;
+    private final MapChangeLogService mapChangeLogService;
+    private final LiveEventHub liveEventHub;
 
     @Autowired
-    public TravelMapController(UserRepository userRepository,
-                              VideoRepository videoRepository,
-                              VisitCountryRepository visitCountryRepository) {
-        this.userRepository = userRepository;
+    public TravelMapController(VideoRepository videoRepository,
+                              MapDataService mapDataService,
+                              VideoQueryService videoQueryService,
+                              VisitFactIndex visitFactIndex,
+                              ResponseSnapshotService responseSnapshotService,
+                              CityClusterIndex cityClusterIndex,
+                              CityTileIndex cityTileIndex,
+                              CountryGeometryService countryGeometryService,
+                              MapChangeLogService mapChangeLogService,
+                              LiveEventHub liveEventHub) {
         this.videoRepository = videoRepository;
-        this.visitCountryRepository = visitCountryRepository;
+        this.mapDataService = mapDataService;
+        this.videoQueryService = videoQueryService;
+        this.visitFactIndex = visitFactIndex;
+        this.responseSnapshotService = responseSnapshotService;
+        this.cityClusterIndex = cityClusterIndex;
+        this.cityTileIndex = cityTileIndex;
+        this.countryGeometryService = countryGeometryService;
+        this.mapChangeLogService = mapChangeLogService;
+        this.liveEventHub = liveEventHub;
+    }
+
+    /**
+     * 실시간 이벤트 스트림 (SSE): data-version(새 데이터 버전, /map-data/changes로 받아 가면 됨), collection-status(수집 진행),
+     * collection-job(수집 작업 상태).
+     * 폴링 대신 연결 하나를 열어 두고 바뀔 때만 받는다.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return liveEventHub.connect();
     }
     
     /**
-     * 필터 옵션 목록 제공
+     * 필터 옵션 목록 제공 (데이터 버전마다 한 번 직렬화/압축해 둔 스냅샷을 그대로 내보낸다)
      */
     @GetMapping("/filters")
-    public ResponseEntity<FilterOptionsDto> getFilterOptions() {
+    public ResponseEntity<byte[]> getFilterOptions(WebRequest webRequest) {
         logger.info("필터 옵션 요청");
         
         try {
-            // 유튜버 목록
-            List<User> users = userRepository.findAll();
-            List<UserDto> userDtos = users.stream()
-                    .map(UserDto::new)
-                    .collect(Collectors.toList());
-            
-            // 국가 목록
-            List<String> countries = visitCountryRepository.findDistinctCountryNames();
-            
-            // 대륙 목록
-            List<String> continents = visitCountryRepository.findDistinctContinents();
-            
-            // 연도 목록 (영상 업로드 연도 기준)
-            List<String> years = getDistinctYears();
-            
-            FilterOptionsDto filterOptions = new FilterOptionsDto(
-                    userDtos, countries, years, continents
-            );
+            boolean gzipped = acceptsGzip(webRequest);
+            String etag = encodingVariant(etagFor("filters"), gzipped);
+            if (webRequest.checkNotModified(etag)) {
+                return notModifiedSnapshot(etag, FILTERS_CACHE);
+            }
+
+            ResponseSnapshotService.Snapshot snapshot = responseSnapshotService.getFiltersSnapshot();
             
             logger.info("필터 옵션 반환 완료");
-            return ResponseEntity.ok(filterOptions);
+            return respondWithSnapshot(snapshot, gzipped, etag, FILTERS_CACHE);
             
         } catch (Exception e) {
             logger.error("필터 옵션 조회 오류", e);
@@ -78,69 +136,47 @@ public class TravelMapController {
     }
     
     /**
-     * 지도 시각화 데이터 제공
+     * 지도 시각화 데이터 제공 (필터 조합별 메모리 캐시 - 데이터 버전이 바뀔 때만 다시 계산).
+     * 필터가 하나도 없는 요청은 가장 많이 오므로 미리 직렬화/압축해 둔 스냅샷으로 답한다.
      */
     @GetMapping("/map-data")
-    public ResponseEntity<MapDataDto> getMapData(
+    public ResponseEntity<?> getMapData(
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) String countryCode,
             @RequestParam(required = false) String continent,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            WebRequest webRequest) {
 
         logger.info("지도 데이터 요청: userId={}, countryCode={}, continent={}, year={}, startDate={}, endDate={}",
                    userId, countryCode, continent, year, startDate, endDate);
 
         try {
-            // 필터링된 방문 국가 데이터 조회
-            List<VisitCountry> visitCountries = visitCountryRepository.findByFilters(
-                    userId, countryCode, continent, year, startDate, endDate);
-            
-            // 국가별 집계
-            Map<String, List<VisitCountry>> countryGroups = visitCountries.stream()
-                    .collect(Collectors.groupingBy(VisitCountry::getCountryCode));
-            
-            List<MapDataDto.CountryDataDto> countryDataList = new ArrayList<>();
-            
-            for (Map.Entry<String, List<VisitCountry>> entry : countryGroups.entrySet()) {
-                List<VisitCountry> countryVisits = entry.getValue();
-                VisitCountry representative = countryVisits.get(0);
-                
-                Long visitCount = (long) countryVisits.size();
-                Long youtuberCount = countryVisits.stream()
-                        .map(vc -> vc.getVideo().getUser())
-                        .distinct()
-                        .count();
-                
-                // 해당 국가를 방문한 유튜버들
-                List<UserDto> youtubers = countryVisits.stream()
-                        .map(vc -> vc.getVideo().getUser())
-                        .distinct()
-                        .map(UserDto::new)
-                        .collect(Collectors.toList());
-                
-                MapDataDto.CountryDataDto countryData = new MapDataDto.CountryDataDto(
-                        representative.getCountryCode(),
-                        representative.getCountryName(),
-                        representative.getCountryEmoji(),
-                        representative.getContinent(),
-                        visitCount,
-                        youtuberCount
-                );
-                countryData.setYoutubers(youtubers);
-                
-                countryDataList.add(countryData);
+            if (userId == null && countryCode == null && continent == null && year == null
+                    && startDate == null && endDate == null) {
+                boolean gzipped = acceptsGzip(webRequest);
+                String etag = encodingVariant(etagFor("map-data"), gzipped);
+                if (webRequest.checkNotModified(etag)) {
+                    return notModifiedSnapshot(etag, MAP_DATA_CACHE);
+                }
+                logger.info("지도 데이터 반환 완료(스냅샷)");
+                return respondWithSnapshot(responseSnapshotService.getMapDataSnapshot(), gzipped, etag, MAP_DATA_CACHE);
             }
-            
-            // 방문 횟수 기준 정렬
-            countryDataList.sort((a, b) -> b.getVisitCount().compareTo(a.getVisitCount()));
-            
-            MapDataDto mapData = new MapDataDto(countryDataList);
-            
-            logger.info("지도 데이터 반환 완료: {}개 국가", countryDataList.size());
-            return ResponseEntity.ok(mapData);
-            
+
+            String etag = etagFor("map-data", userId, countryCode, continent, year, startDate, endDate);
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, MAP_DATA_CACHE);
+            }
+
+            long version = visitFactIndex.servedVersion();
+            MapDataDto mapData = mapDataService.getMapData(
+                    new MapDataFilter(userId, countryCode, continent, year, startDate, endDate));
+            logger.info("지도 데이터 반환 완료: {}개 국가", mapData.getCountries().size());
+            return ResponseEntity.ok().eTag(etag).cacheControl(MAP_DATA_CACHE)
+                    .header(DATA_VERSION_HEADER, String.valueOf(version))
+                    .body(mapData);
+
         } catch (Exception e) {
             logger.error("지도 데이터 조회 오류", e);
             return ResponseEntity.internalServerError().build();
@@ -148,7 +184,217 @@ public class TravelMapController {
     }
     
     /**
-     * 영상 목록 조회
+     * since 버전 이후 바뀐 국가들의 새 합계 (필터 없는 지도 기준). 지도 전체 대신 바뀐 국가만 받아 덮어쓰는 용도.
+     * 로그로 이어 줄 수 없으면 reset=true로 답하고, 클라이언트는 /api/map-data를 다시 받는다.
+     */
+    @GetMapping("/map-data/changes")
+    public ResponseEntity<MapChangesDto> getMapDataChanges(@RequestParam long since, WebRequest webRequest) {
+        try {
+            String etag = etagFor("map-data-changes", since);
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, MAP_CHANGES_CACHE);
+            }
+
+            MapChangesDto changes = mapChangeLogService.findChangesSince(since);
+            logger.debug("지도 변경 조회: since={}, version={}, reset={}, {}개 국가",
+                    since, changes.getVersion(), changes.isReset(), changes.getChanges().size());
+            return ResponseEntity.ok().eTag(etag).cacheControl(MAP_CHANGES_CACHE)
+                    .header(DATA_VERSION_HEADER, String.valueOf(changes.getVersion()))
+                    .body(changes);
+
+        } catch (Exception e) {
+            logger.error("지도 변경 조회 오류", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 도시 마커 클러스터 (줌 + 화면 범위). 메모리 격자 인덱스에서 미리 합쳐 둔 칸만 꺼내므로 전체 도시 수와 상관없이
+     * 화면에 걸친 칸 수만큼만 일한다. west > east면 날짜 변경선을 넘는 범위. 인덱스가 아직 준비 전이면 503.
+     */
+    @GetMapping("/map/city-clusters")
+    public ResponseEntity<List<CityClusterDto>> getCityClusters(
+            @RequestParam int zoom,
+            @RequestParam double north,
+            @RequestParam double south,
+            @RequestParam double east,
+            @RequestParam double west,
+            WebRequest webRequest) {
+
+        logger.debug("도시 클러스터 요청: zoom={}, north={}, south={}, east={}, west={}", zoom, north, south, east, west);
+
+        try {
+            if (zoom < 0 || north < south || Math.abs(north) > 90 || Math.abs(south) > 90
+                    || Math.abs(east) > 180 || Math.abs(west) > 180) {
+                logger.warn("도시 클러스터 요청 파라미터 오류: zoom={}, north={}, south={}, east={}, west={}",
+                        zoom, north, south, east, west);
+                return ResponseEntity.badRequest().build();
+            }
+            if (!cityClusterIndex.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+
+            String etag = etagFor("city-clusters", cityClusterIndex.getGeneration(), zoom, north, south, east, west);
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, MAP_DATA_CACHE);
+            }
+
+            List<CityClusterDto> clusters = cityClusterIndex.findClusters(zoom, north, south, east, west);
+            return ResponseEntity.ok().eTag(etag).cacheControl(MAP_DATA_CACHE).body(clusters);
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            logger.error("도시 클러스터 조회 오류", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 화면 범위에 걸친, 도시가 있는 타일들의 내용 해시 목록 ({"x/y": 해시}).
+     * 클라이언트는 이걸 보고 가진 적 없는 (타일, 해시)만 /tiles/{z}/{x}/{y}?v=해시 로 받는다.
+     * ETag는 데이터 버전이 아니라 목록 내용의 해시라서, 범위 안 타일이 그대로면 다른 곳 데이터가 바뀌어도 304로 답한다.
+     */
+    @GetMapping("/tiles/{z}/manifest")
+    public ResponseEntity<Map<String, String>> getTileManifest(
+            @PathVariable int z,
+            @RequestParam double north,
+            @RequestParam double south,
+            @RequestParam double east,
+            @RequestParam double west,
+            WebRequest webRequest) {
+
+        try {
+            if (!cityTileIndex.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+
+            Map<String, String> manifest = cityTileIndex.manifest(z, north, south, east, west);
+            String etag = manifestEtag(z, manifest);
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, MAP_DATA_CACHE);
+            }
+
+            return ResponseEntity.ok().eTag(etag).cacheControl(MAP_DATA_CACHE).body(manifest);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("타일 목록 요청 파라미터 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            logger.error("타일 목록 조회 오류", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 도시 방문 타일 (표준 z/x/y 주소). 본문은 [[도시명, 위도, 경도, 국가 코드, 방문 횟수, [[유튜버 id, 이름, 방문 횟수], ...]], ...].
+     * ETag는 타일 내용 해시라서 도시가 바뀐 타일만 달라진다. v가 현재 해시와 같으면 1년 immutable로 캐시하게 한다.
+     */
+    @GetMapping("/tiles/{z}/{x}/{y}")
+    public ResponseEntity<byte[]> getCityTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            @RequestParam(required = false) String v,
+            WebRequest webRequest) {
+
+        try {
+            if (!cityTileIndex.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+
+            String hash = cityTileIndex.tileHash(z, x, y);
+            CacheControl cacheControl = hash.equals(v) ? TILE_VERSIONED_CACHE : TILE_CACHE;
+            String etag = "\"" + hash + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, cacheControl);
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(cityTileIndex.tileBody(z, x, y));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("타일 요청 파라미터 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            logger.error("타일 조회 오류: {}/{}/{}", z, x, y, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 국가 경계 GeoJSON 줌 구간 목록 ([{name, minZoom, maxZoom, version, path}]).
+     * 클라이언트는 현재 줌에 맞는 구간의 path(버전 포함)를 받는다. 경계 원본이 없는 배포면 503.
+     */
+    @GetMapping("/geometry/countries")
+    public ResponseEntity<List<Map<String, Object>>> getCountryGeometryIndex(WebRequest webRequest) {
+        try {
+            if (!countryGeometryService.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+
+            List<Map<String, Object>> bands = new ArrayList<>();
+            StringBuilder versions = new StringBuilder();
+            for (CountryGeometryService.Band band : countryGeometryService.getBands()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", band.getName());
+                entry.put("minZoom", band.getMinZoom());
+                entry.put("maxZoom", band.getMaxZoom());
+                entry.put("version", band.getVersion());
+                entry.put("path", "/geometry/countries/" + band.getName() + "/" + band.getVersion());
+                bands.add(entry);
+                versions.append(band.getName()).append('=').append(band.getVersion()).append(';');
+            }
+
+            String etag = "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, GEOMETRY_INDEX_CACHE);
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(GEOMETRY_INDEX_CACHE).body(bands);
+
+        } catch (Exception e) {
+            logger.error("국가 경계 목록 조회 오류", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 단순화된 국가 경계 GeoJSON 한 구간 (미리 압축해 둔 바이트). 버전이 현재 것과 다르면 404.
+     */
+    @GetMapping("/geometry/countries/{band}/{version}")
+    public ResponseEntity<byte[]> getCountryGeometry(@PathVariable String band,
+                                                     @PathVariable String version,
+                                                     WebRequest webRequest) {
+        try {
+            Optional<CountryGeometryService.Band> found = countryGeometryService.findBand(band, version);
+            if (found.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            boolean gzipped = acceptsGzip(webRequest);
+            String etag = encodingVariant("\"" + version + "\"", gzipped);
+            if (webRequest.checkNotModified(etag)) {
+                return notModifiedSnapshot(etag, GEOMETRY_CACHE);
+            }
+            return respondWithSnapshot(found.get().getSnapshot(), gzipped, etag, GEOMETRY_CACHE);
+
+        } catch (Exception e) {
+            logger.error("국가 경계 조회 오류: {}/{}", band, version, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 영상 목록 조회 (업로드 날짜 내림차순, 정렬/LIMIT은 DB에서 처리).
+     * 무한 스크롤은 응답 헤더 X-Next-Cursor 값을 cursor로 넘겨 이어 받는다. page는 예전 클라이언트 호환용 오프셋 페이징.
+     * 전체 개수는 includeTotal=true일 때만 따로 세서 X-Total-Count 헤더로 준다.
      */
     @GetMapping("/videos")
     public ResponseEntity<List<VideoDto>> getVideos(
@@ -159,33 +405,30 @@ public class TravelMapController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            WebRequest webRequest) {
 
-        logger.info("영상 목록 요청: userId={}, countryCode={}, continent={}, year={}, page={}, size={}",
-                   userId, countryCode, continent, year, page, size);
+        logger.info("영상 목록 요청: userId={}, countryCode={}, continent={}, year={}, page={}, size={}, cursor={}",
+                   userId, countryCode, continent, year, page, size, cursor);
 
         try {
-            List<Video> videos = videoRepository.findByFilters(userId, countryCode, continent, year, startDate, endDate);
-            
-            // 업로드 날짜 기준 내림차순 정렬
-            videos.sort((a, b) -> {
-                LocalDateTime dateA = a.getUploadDate() != null ? a.getUploadDate() : LocalDateTime.MIN;
-                LocalDateTime dateB = b.getUploadDate() != null ? b.getUploadDate() : LocalDateTime.MIN;
-                return dateB.compareTo(dateA);
-            });
-            
-            // 페이징 처리
-            int start = page * size;
-            int end = Math.min(start + size, videos.size());
-            List<Video> pagedVideos = videos.subList(start, end);
-            
-            List<VideoDto> videoDtos = pagedVideos.stream()
-                    .map(VideoDto::new)
-                    .collect(Collectors.toList());
-            
-            logger.info("영상 목록 반환 완료: {}개 (전체 {}개)", pagedVideos.size(), videos.size());
-            return ResponseEntity.ok(videoDtos);
+            String etag = etagFor("videos", userId, countryCode, continent, year, startDate, endDate,
+                    page, size, cursor, includeTotal);
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, VIDEO_LIST_CACHE);
+            }
+
+            ResponseEntity<List<VideoDto>> response = respondWithVideoPage(
+                    ResponseEntity.ok().eTag(etag).cacheControl(VIDEO_LIST_CACHE),
+                    userId, countryCode, continent, year, startDate, endDate, page, size, cursor, includeTotal);
+            logger.info("영상 목록 반환 완료: {}개", response.getBody() != null ? response.getBody().size() : 0);
+            return response;
             
+        } catch (IllegalArgumentException e) {
+            logger.warn("영상 목록 요청 파라미터 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("영상 목록 조회 오류", e);
             return ResponseEntity.internalServerError().build();
@@ -196,21 +439,26 @@ public class TravelMapController {
      * 개별 영상 상세 조회
      */
     @GetMapping("/videos/{id}")
-    public ResponseEntity<VideoDto> getVideo(@PathVariable Long id) {
+    public ResponseEntity<VideoDto> getVideo(@PathVariable Long id, WebRequest webRequest) {
         logger.info("영상 상세 조회: {}", id);
         
         try {
-            Optional<Video> videoOpt = videoRepository.findById(id);
+            String etag = etagFor("video", id);
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, VIDEO_DETAIL_CACHE);
+            }
+
+            Optional<VideoRow> videoOpt = videoRepository.findRowById(id);
             
             if (videoOpt.isEmpty()) {
                 logger.warn("영상을 찾을 수 없음: {}", id);
                 return ResponseEntity.notFound().build();
             }
             
-            VideoDto videoDto = new VideoDto(videoOpt.get());
+            VideoDto videoDto = videoQueryService.toDto(videoOpt.get());
             
             logger.info("영상 상세 조회 완료: {}", videoDto.getTitle());
-            return ResponseEntity.ok(videoDto);
+            return ResponseEntity.ok().eTag(etag).cacheControl(VIDEO_DETAIL_CACHE).body(videoDto);
             
         } catch (Exception e) {
             logger.error("영상 상세 조회 오류", e);
@@ -219,22 +467,32 @@ public class TravelMapController {
     }
     
     /**
-     * 특정 국가의 영상 목록 조회
+     * 특정 국가의 영상 목록 조회 (업로드 날짜 내림차순, 영상당 한 번만).
+     * 인기 국가(특히 기본값인 KR)는 영상이 아주 많으므로 limit(기본 50)개씩 끊어서 주고, 이어 받기는 cursor로 한다.
      */
     @GetMapping("/countries/{countryCode}/videos")
-    public ResponseEntity<List<VideoDto>> getVideosByCountry(@PathVariable String countryCode) {
-        logger.info("국가별 영상 조회: {}", countryCode);
+    public ResponseEntity<List<VideoDto>> getVideosByCountry(
+            @PathVariable String countryCode,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
+        logger.info("국가별 영상 조회: {}, limit={}, cursor={}", countryCode, limit, cursor);
         
         try {
-            List<Video> videos = videoRepository.findByCountryCode(countryCode);
-            
-            List<VideoDto> videoDtos = videos.stream()
-                    .map(VideoDto::new)
-                    .collect(Collectors.toList());
-            
-            logger.info("국가별 영상 조회 완료: {}개", videoDtos.size());
-            return ResponseEntity.ok(videoDtos);
+            String etag = etagFor("country-videos", countryCode, limit, cursor);
+            if (webRequest.checkNotModified(etag)) {
+                return notModified(etag, COUNTRY_VIDEOS_CACHE);
+            }
+
+            ResponseEntity<List<VideoDto>> response = respondWithVideoPage(
+                    ResponseEntity.ok().eTag(etag).cacheControl(COUNTRY_VIDEOS_CACHE),
+                    null, countryCode, null, null, null, null, 0, limit, cursor, false);
+            logger.info("국가별 영상 조회 완료: {}개", response.getBody() != null ? response.getBody().size() : 0);
+            return response;
             
+        } catch (IllegalArgumentException e) {
+            logger.warn("국가별 영상 요청 파라미터 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("국가별 영상 조회 오류", e);
             return ResponseEntity.internalServerError().build();
@@ -242,15 +500,118 @@ public class TravelMapController {
     }
     
     /**
-     * 연도 목록 추출
+     * 필터 조건으로 영상 한 페이지를 조회해서 response에 담는다.
+     * cursor가 있으면 키셋 페이징, 없으면 page 기반 오프셋. 꽉 찬 페이지면 X-Next-Cursor 헤더를 붙인다.
+     * 잘못된 커서는 IllegalArgumentException.
+     */
+    private ResponseEntity<List<VideoDto>> respondWithVideoPage(ResponseEntity.BodyBuilder response,
+                                                                Long userId, String countryCode, String continent,
+                                                                Integer year, LocalDateTime startDate, LocalDateTime endDate,
+                                                                int page, int size, String cursor, boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        VideoCursor position = cursor != null && !cursor.isBlank() ? VideoCursor.decode(cursor) : null;
+        List<VideoRow> videos = videoQueryService.findPage(userId, countryCode, continent, year, startDate, endDate,
+                position, Math.max(page, 0), pageSize);
+
+        List<VideoDto> videoDtos = videoQueryService.toDtos(videos);
+
+        // 꽉 찬 페이지면 다음 페이지가 있을 수 있으니 마지막 영상 위치를 커서로 준다
+        if (videos.size() == pageSize) {
+            VideoRow last = videos.get(videos.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new VideoCursor(last.getUploadDate(), last.getId()).encode());
+        }
+
+        if (includeTotal) {
+            long total = videoQueryService.countByFilters(userId, countryCode, continent, year, startDate, endDate);
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(total));
+        }
+
+        return response.body(videoDtos);
+    }
+
+    /**
+     * 타일 목록 내용으로 강한 ETag를 만든다 (목록은 타일 키 순서라 같은 내용이면 같은 값)
+     */
+    private static String manifestEtag(int zoom, Map<String, String> manifest) {
+        StringBuilder key = new StringBuilder("tile-manifest|").append(zoom);
+        manifest.forEach((tile, hash) -> key.append('|').append(tile).append('=').append(hash));
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * 지금 답하는 데이터 버전과 요청 파라미터로 강한 ETag를 만든다 (같은 버전, 같은 파라미터면 같은 응답).
+     * 읽기 모델이 반영 대기 중이면 그 스냅샷이 담은 버전이라, 옛 스냅샷으로 만든 응답이 새 버전의 ETag로 남지 않는다.
+     */
+    private String etagFor(String resource, Object... params) {
+        StringBuilder key = new StringBuilder()
+                .append(visitFactIndex.servedVersion()).append('|').append(resource);
+        for (Object param : params) {
+            key.append('|').append(param);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    private <T> ResponseEntity<T> notModifiedSnapshot(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+    }
+
+    /**
+     * 스냅샷 바이트를 그대로 응답 본문으로 쓴다 (gzip이면 Content-Encoding을 붙여 서버가 다시 압축하지 않게 한다)
+     */
+    private ResponseEntity<byte[]> respondWithSnapshot(ResponseSnapshotService.Snapshot snapshot, boolean gzipped,
+                                                       String etag, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (snapshot.getVersion() > 0) {
+            response.header(DATA_VERSION_HEADER, String.valueOf(snapshot.getVersion()));
+        }
+        return response.body(snapshot.body(gzipped));
+    }
+
+    /**
+     * Accept-Encoding에 gzip이 있고 q=0으로 막혀 있지 않은지
+     */
+    private boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean disabled = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                    disabled = true;
+                }
+            }
+            if (!disabled) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 압축본은 바이트가 다르므로 강한 ETag도 달라야 한다
      */
-    private List<String> getDistinctYears() {
-        List<Video> videos = videoRepository.findAll();
-        return videos.stream()
-                .filter(v -> v.getUploadDate() != null)
-                .map(v -> String.valueOf(v.getUploadDate().getYear()))
-                .distinct()
-                .sorted(Comparator.reverseOrder())
-                .collect(Collectors.toList());
+    private String encodingVariant(String etag, boolean gzipped) {
+        return gzipped ? etag.substring(0, etag.length() - 1) + "-gzip\"" : etag;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.travelmap.dto;
+
+/**
+ * 도시 마커 클러스터 하나 (/api/map/city-clusters).
+ * 좌표는 칸 안 도시들의 방문 횟수 가중 중심이고, 도시가 하나뿐인 칸이면 cityName/countryCode가 채워진다.
+ */
+public class CityClusterDto {
+    private final double latitude;
+    private final double longitude;
+    private final int cityCount;
+    private final long visitCount;
+    private final String cityName;
+    private final String countryCode;
+
+    public CityClusterDto(double latitude, double longitude, int cityCount, long visitCount,
+                          String cityName, String countryCode) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.cityCount = cityCount;
+        this.visitCount = visitCount;
+        this.cityName = cityName;
+        this.countryCode = countryCode;
+    }
+
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public int getCityCount() { return cityCount; }
+    public long getVisitCount() { return visitCount; }
+    public String getCityName() { return cityName; }
+    public String getCountryCode() { return countryCode; }
+}
@@ -0,0 +1,27 @@
+package com.travelmap.dto;
+
+import java.util.List;
+
+/**
+ * /api/map-data/changes 응답. reset이면 changes는 비어 있고 클라이언트는 /api/map-data를 통째로 다시 받아야 한다.
+ * 아니면 changes의 국가들을 자기 지도 데이터에 덮어쓴다 (visitCount가 0인 국가는 지운다).
+ */
+public class MapChangesDto {
+    private final long version;
+    private final boolean reset;
+    private final List<MapDataDto.CountryDataDto> changes;
+
+    public MapChangesDto(long version, boolean reset, List<MapDataDto.CountryDataDto> changes) {
+        this.version = version;
+        this.reset = reset;
+        this.changes = changes;
+    }
+
+    public static MapChangesDto reset(long version) {
+        return new MapChangesDto(version, true, List.of());
+    }
+
+    public long getVersion() { return version; }
+    public boolean isReset() { return reset; }
+    public List<MapDataDto.CountryDataDto> getChanges() { return changes; }
+}
@@ -0,0 +1,68 @@
+package com.travelmap.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * /api/map-data 필터 조합 (userId, countryCode, continent, year, startDate, endDate).
+ * 응답 캐시의 키로 쓰므로 값 기준 equals/hashCode를 가진다.
+ */
+public class MapDataFilter {
+    private final Long userId;
+    private final String countryCode;
+    private final String continent;
+    private final Integer year;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+
+    public MapDataFilter(Long userId, String countryCode, String continent, Integer year,
+                         LocalDateTime startDate, LocalDateTime endDate) {
+        this.userId = userId;
+        this.countryCode = countryCode;
+        this.continent = continent;
+        this.year = year;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getCountryCode() { return countryCode; }
+    public String getContinent() { return continent; }
+    public Integer getYear() { return year; }
+    public LocalDateTime getStartDate() { return startDate; }
+    public LocalDateTime getEndDate() { return endDate; }
+
+    public boolean hasDateRange() {
+        return startDate != null || endDate != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MapDataFilter)) return false;
+        MapDataFilter that = (MapDataFilter) o;
+        return Objects.equals(userId, that.userId)
+                && Objects.equals(countryCode, that.countryCode)
+                && Objects.equals(continent, that.continent)
+                && Objects.equals(year, that.year)
+                && Objects.equals(startDate, that.startDate)
+                && Objects.equals(endDate, that.endDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, countryCode, continent, year, startDate, endDate);
+    }
+
+    @Override
+    public String toString() {
+        return "MapDataFilter{" +
+                "userId=" + userId +
+                ", countryCode='" + countryCode + '\'' +
+                ", continent='" + continent + '\'' +
+                ", year=" + year +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.travelmap.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 영상 목록 키셋 페이징 커서. (upload_date, id) 위치를 담고 있고, 클라이언트에는 불투명한 문자열로만 내보낸다.
+ * 목록은 upload_date DESC, id DESC 순이라 "이 위치보다 뒤"는 (날짜가 더 이르거나, 같은 날짜에서 id가 더 작은) 영상이다.
+ */
+public class VideoCursor {
+
+    private final LocalDateTime uploadDate;
+    private final Long id;
+
+    public VideoCursor(LocalDateTime uploadDate, Long id) {
+        this.uploadDate = uploadDate;
+        this.id = id;
+    }
+
+    public LocalDateTime getUploadDate() {
+        return uploadDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = uploadDate.toEpochSecond(ZoneOffset.UTC) + ":" + uploadDate.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 문자열 해석. 형식이 잘못됐으면 IllegalArgumentException.
+     */
+    public static VideoCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            LocalDateTime uploadDate = LocalDateTime.ofEpochSecond(
+                    Long.parseLong(parts[0]), Integer.parseInt(parts[1]), ZoneOffset.UTC);
+            return new VideoCursor(uploadDate, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+}
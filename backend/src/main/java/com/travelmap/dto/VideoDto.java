@@ -41,6 +41,23 @@ public class VideoDto {
         }
     }
     
+    /**
+     * 프로젝션 경로용: 유튜버와 방문 국가는 호출하는 쪽에서 한 번에 모아 조회해서 넘겨준다
+     */
+    public VideoDto(VideoRow row, UserDto user, List<VisitCountryDto> visitCountries) {
+        this.id = row.getId();
+        this.title = row.getTitle();
+        this.videoId = row.getVideoId();
+        this.uploadDate = row.getUploadDate();
+        this.thumbnailUrl = row.getThumbnailUrl();
+        this.videoUrl = row.getVideoUrl();
+        this.viewCount = row.getViewCount();
+        this.likeCount = row.getLikeCount();
+        this.duration = row.getDuration();
+        this.user = user;
+        this.visitCountries = visitCountries;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,45 @@
+package com.travelmap.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 영상 목록/상세 조회용 프로젝션. VideoDto에 필요한 컬럼만 담고(description TEXT 제외),
+ * 유튜버는 id만 들고 있다가 한 번에 모아서 조회한다.
+ */
+public class VideoRow {
+    private final Long id;
+    private final String title;
+    private final String videoId;
+    private final LocalDateTime uploadDate;
+    private final String thumbnailUrl;
+    private final String videoUrl;
+    private final Long viewCount;
+    private final Long likeCount;
+    private final String duration;
+    private final Long userId;
+
+    public VideoRow(Long id, String title, String videoId, LocalDateTime uploadDate, String thumbnailUrl,
+                    String videoUrl, Long viewCount, Long likeCount, String duration, Long userId) {
+        this.id = id;
+        this.title = title;
+        this.videoId = videoId;
+        this.uploadDate = uploadDate;
+        this.thumbnailUrl = thumbnailUrl;
+        this.videoUrl = videoUrl;
+        this.viewCount = viewCount;
+        this.likeCount = likeCount;
+        this.duration = duration;
+        this.userId = userId;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getVideoId() { return videoId; }
+    public LocalDateTime getUploadDate() { return uploadDate; }
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public String getVideoUrl() { return videoUrl; }
+    public Long getViewCount() { return viewCount; }
+    public Long getLikeCount() { return likeCount; }
+    public String getDuration() { return duration; }
+    public Long getUserId() { return userId; }
+}
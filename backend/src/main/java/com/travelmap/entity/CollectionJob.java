@@ -0,0 +1,173 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 데이터 수집 작업(collection_jobs)의 한 행. 어드민/스케줄러가 수집을 요청하면 이 행이 먼저 만들어지고(작업 id),
+ * 실제 수집은 백그라운드 작업 스레드에서 돌면서 진행 상황/결과를 여기에 남긴다.
+ * 취소는 cancel_requested를 세우는 것으로 요청하고, 돌고 있는 작업이 채널/영상 사이마다 확인해서 스스로 멈춘다.
+ * 작업을 가진 인스턴스는 heartbeat_at을 주기적으로 갱신하고, 이게 오래 멈춘 작업(인스턴스가 죽음)은 다른 인스턴스가 가져가 이어서 돈다.
+ * 동시에 하나만 돌아야 하는 작업은 대기/실행 중인 동안 active_scope에 범위 이름을 들고 있고, 고유 제약이라 같은 범위 작업은 하나만 생긴다.
+ */
+@Entity
+@Table(name = "collection_jobs", indexes = {
+        @Index(name = "idx_collection_jobs_status", columnList = "status"),
+        @Index(name = "idx_collection_jobs_created_at", columnList = "created_at")
+})
+public class CollectionJob {
+
+    public enum Type { COLLECT_ALL, COLLECT_CHANNEL, UPDATE_ALL, PROCESS_UNPROCESSED, ADD_CHANNEL }
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isActive() {
+            return this == QUEUED || this == RUNNING;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    // 채널 단위 작업의 요청 값
+    @Column(name = "search_query", length = 255)
+    private String searchQuery;
+
+    @Column(name = "channel_name", length = 255)
+    private String channelName;
+
+    // 작업을 가진 인스턴스 (등록한 인스턴스, 다른 인스턴스가 이어받으면 바뀜)
+    @Column(name = "owner_instance", length = 100)
+    private String ownerInstance;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    // 지금 실행 중인 쪽이 가진 작업 임대의 토큰. 진행/결과 쓰기는 이 값이 맞을 때만 반영된다 (임대를 잃은 쪽의 쓰기를 막음)
+    @Column(name = "fence_token")
+    private Long fenceToken;
+
+    // 다른 인스턴스가 이어받은 횟수
+    @Column(name = "resume_count")
+    private Integer resumeCount = 0;
+
+    @Column(name = "current_status", length = 255)
+    private String currentStatus;
+
+    @Column(name = "processed_count")
+    private Integer processedCount = 0;
+
+    @Column(name = "total_count")
+    private Integer totalCount = 0;
+
+    @Column(name = "error_count")
+    private Integer errorCount = 0;
+
+    @Column(name = "result_message", columnDefinition = "TEXT")
+    private String resultMessage;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    // 대기/실행 중일 때만 채우고 끝나면 비운다 (NULL은 고유 제약에 걸리지 않음 - 끝난 작업은 얼마든지 남는다)
+    @Column(name = "active_scope", unique = true, length = 30)
+    private String activeScope;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public CollectionJob() {}
+
+    public CollectionJob(Type type, String searchQuery, String channelName, String ownerInstance) {
+        this.type = type;
+        this.ownerInstance = ownerInstance;
+        this.heartbeatAt = LocalDateTime.now();
+        this.status = Status.QUEUED;
+        this.searchQuery = searchQuery;
+        this.channelName = channelName;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getSearchQuery() { return searchQuery; }
+    public void setSearchQuery(String searchQuery) { this.searchQuery = searchQuery; }
+
+    public String getChannelName() { return channelName; }
+    public void setChannelName(String channelName) { this.channelName = channelName; }
+
+    public String getOwnerInstance() { return ownerInstance; }
+    public void setOwnerInstance(String ownerInstance) { this.ownerInstance = ownerInstance; }
+
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+
+    public Long getFenceToken() { return fenceToken; }
+    public void setFenceToken(Long fenceToken) { this.fenceToken = fenceToken; }
+
+    public Integer getResumeCount() { return resumeCount; }
+    public void setResumeCount(Integer resumeCount) { this.resumeCount = resumeCount; }
+
+    public String getCurrentStatus() { return currentStatus; }
+    public void setCurrentStatus(String currentStatus) { this.currentStatus = currentStatus; }
+
+    public Integer getProcessedCount() { return processedCount; }
+    public void setProcessedCount(Integer processedCount) { this.processedCount = processedCount; }
+
+    public Integer getTotalCount() { return totalCount; }
+    public void setTotalCount(Integer totalCount) { this.totalCount = totalCount; }
+
+    public Integer getErrorCount() { return errorCount; }
+    public void setErrorCount(Integer errorCount) { this.errorCount = errorCount; }
+
+    public String getResultMessage() { return resultMessage; }
+    public void setResultMessage(String resultMessage) { this.resultMessage = resultMessage; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public String getActiveScope() { return activeScope; }
+    public void setActiveScope(String activeScope) { this.activeScope = activeScope; }
+
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
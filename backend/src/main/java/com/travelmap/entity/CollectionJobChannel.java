@@ -0,0 +1,64 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 전체 수집/업데이트 작업의 채널별 체크포인트(collection_job_channels).
+ * 채널 하나를 끝낼 때마다 한 행을 남기고, 작업이 다른 인스턴스에서 이어질 때 DONE인 채널은 다시 수집하지 않는다.
+ * 실패(FAILED)한 채널은 이어서 돌 때 한 번 더 시도한다.
+ */
+@Entity
+@Table(name = "collection_job_channels",
+        uniqueConstraints = @UniqueConstraint(name = "uk_collection_job_channels_job_user", columnNames = {"job_id", "user_id"}))
+public class CollectionJobChannel {
+
+    public enum Status { DONE, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    // 이 채널에서 새로 저장한 영상 수
+    @Column(name = "video_count")
+    private Integer videoCount;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "finished_at", nullable = false)
+    private LocalDateTime finishedAt;
+
+    public CollectionJobChannel() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Integer getVideoCount() { return videoCount; }
+    public void setVideoCount(Integer videoCount) { this.videoCount = videoCount; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
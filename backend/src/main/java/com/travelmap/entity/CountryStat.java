@@ -0,0 +1,82 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 지도용 국가별 방문 집계(country_stats)의 한 칸. (국가, 유튜버, 업로드 연도) 단위로 방문 횟수를 들고 있다.
+ * visit_countries를 매번 GROUP BY 하지 않도록 CountryDetectionService가 저장/삭제할 때마다 같이 증감시키고,
+ * 유튜버별/연도별 조회는 이 칸들을 다시 묶어서 답한다. 어긋나면 CountryStatsService.reconcile()로 재계산한다.
+ */
+@Entity
+@Table(name = "country_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_country_stats_cell",
+                columnNames = {"country_code", "user_id", "upload_year"}))
+public class CountryStat {
+
+    // 업로드 날짜를 모르는 영상은 이 연도 칸으로 모은다 (연도 필터에는 걸리지 않음)
+    public static final int UNKNOWN_YEAR = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "country_code", nullable = false, length = 5)
+    private String countryCode;
+
+    @Column(name = "country_name", nullable = false, length = 100)
+    private String countryName;
+
+    @Column(name = "country_emoji", length = 10)
+    private String countryEmoji;
+
+    @Column(length = 50)
+    private String continent;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "upload_year", nullable = false)
+    private Integer uploadYear;
+
+    @Column(name = "visit_count", nullable = false)
+    private Long visitCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public CountryStat() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCountryCode() { return countryCode; }
+    public void setCountryCode(String countryCode) { this.countryCode = countryCode; }
+
+    public String getCountryName() { return countryName; }
+    public void setCountryName(String countryName) { this.countryName = countryName; }
+
+    public String getCountryEmoji() { return countryEmoji; }
+    public void setCountryEmoji(String countryEmoji) { this.countryEmoji = countryEmoji; }
+
+    public String getContinent() { return continent; }
+    public void setContinent(String continent) { this.continent = continent; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Integer getUploadYear() { return uploadYear; }
+    public void setUploadYear(Integer uploadYear) { this.uploadYear = uploadYear; }
+
+    public Long getVisitCount() { return visitCount; }
+    public void setVisitCount(Long visitCount) { this.visitCount = visitCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,36 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 조회 데이터 전체의 버전 번호 (data_versions 테이블의 한 행).
+ * 여러 인스턴스가 같은 번호를 보도록 DB에 두고, ETag와 응답 캐시가 이 번호를 기준으로 유효성을 판단한다.
+ */
+@Entity
+@Table(name = "data_versions")
+public class DataVersion {
+
+    // 전역 버전은 이 id의 한 행만 쓴다
+    public static final long GLOBAL_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public DataVersion() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,52 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 데이터 버전 하나가 오를 때 바뀐 영상 id들 (data_version_changes, 버전마다 한 행).
+ * 다른 인스턴스는 자기 버전 이후의 행을 읽어 메모리 읽기 모델에 그 영상들만 다시 반영한다.
+ * 무엇이 바뀌었는지 모르는 올림(실행 끝 일괄 올림, 집계 재계산 등)은 complete=false로 남기고, 받는 쪽은 통째로 다시 읽는다.
+ */
+@Entity
+@Table(name = "data_version_changes")
+public class DataVersionChange {
+
+    @Id
+    private Long version;
+
+    // 바뀐 영상 id들 (쉼표로 구분)
+    @Column(name = "video_ids", columnDefinition = "TEXT")
+    private String videoIds;
+
+    @Column(name = "users_changed", nullable = false)
+    private boolean usersChanged;
+
+    @Column(nullable = false)
+    private boolean complete;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public DataVersionChange() {}
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public String getVideoIds() { return videoIds; }
+    public void setVideoIds(String videoIds) { this.videoIds = videoIds; }
+
+    public boolean isUsersChanged() { return usersChanged; }
+    public void setUsersChanged(boolean usersChanged) { this.usersChanged = usersChanged; }
+
+    public boolean isComplete() { return complete; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
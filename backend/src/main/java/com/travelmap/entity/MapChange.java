@@ -0,0 +1,98 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 지도 변경 로그(map_changes)의 한 행. 데이터 버전이 오를 때 그 커밋으로 바뀐 국가의 새 합계(필터 없는 지도 기준)를 남긴다.
+ * reset 행은 "이 버전까지의 변경은 로그에 없음"을 뜻한다 (집계 재계산, 오래된 로그 정리, 로그 시작 시점).
+ * 클라이언트는 /api/map-data/changes?since=로 자기 버전 이후의 행만 받아 지도 데이터에 덮어쓴다.
+ */
+@Entity
+@Table(name = "map_changes",
+        indexes = @Index(name = "idx_map_changes_version", columnList = "version"))
+public class MapChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private boolean reset;
+
+    @Column(name = "country_code", length = 5)
+    private String countryCode;
+
+    @Column(name = "country_name", length = 100)
+    private String countryName;
+
+    @Column(name = "country_emoji", length = 10)
+    private String countryEmoji;
+
+    @Column(length = 50)
+    private String continent;
+
+    // 0이면 그 국가가 지도에서 빠짐
+    @Column(name = "visit_count")
+    private Long visitCount;
+
+    @Column(name = "youtuber_count")
+    private Long youtuberCount;
+
+    // 방문한 유튜버 id들 (쉼표로 구분)
+    @Column(name = "youtuber_ids", columnDefinition = "TEXT")
+    private String youtuberIds;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public MapChange() {}
+
+    public static MapChange resetAt(long version) {
+        MapChange change = new MapChange();
+        change.setVersion(version);
+        change.setReset(true);
+        return change;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public boolean isReset() { return reset; }
+    public void setReset(boolean reset) { this.reset = reset; }
+
+    public String getCountryCode() { return countryCode; }
+    public void setCountryCode(String countryCode) { this.countryCode = countryCode; }
+
+    public String getCountryName() { return countryName; }
+    public void setCountryName(String countryName) { this.countryName = countryName; }
+
+    public String getCountryEmoji() { return countryEmoji; }
+    public void setCountryEmoji(String countryEmoji) { this.countryEmoji = countryEmoji; }
+
+    public String getContinent() { return continent; }
+    public void setContinent(String continent) { this.continent = continent; }
+
+    public Long getVisitCount() { return visitCount; }
+    public void setVisitCount(Long visitCount) { this.visitCount = visitCount; }
+
+    public Long getYoutuberCount() { return youtuberCount; }
+    public void setYoutuberCount(Long youtuberCount) { this.youtuberCount = youtuberCount; }
+
+    public String getYoutuberIds() { return youtuberIds; }
+    public void setYoutuberIds(String youtuberIds) { this.youtuberIds = youtuberIds; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
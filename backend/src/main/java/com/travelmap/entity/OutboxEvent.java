@@ -0,0 +1,102 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 트랜잭션 아웃박스(outbox_events). 데이터를 쓰는 트랜잭션 안에서 "무슨 일이 있었는지"를 같이 넣어 두면,
+ * 어느 인스턴스의 소비자든 나중에 가져가서 후속 처리를 한다 (커밋된 것만 보이고, 처리 중 죽어도 다시 가져갈 수 있음).
+ * 지금은 영상 저장 → 국가 감지({@link #VIDEO_INGESTED})에만 쓴다.
+ */
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_type_status", columnList = "event_type, status, available_at"))
+public class OutboxEvent {
+
+    // 새 영상이 저장됨 (aggregateId = videos.id)
+    public static final String VIDEO_INGESTED = "VIDEO_INGESTED";
+
+    public enum Status {
+        PENDING,    // 처리 대기 (available_at 이후에 가져갈 수 있음)
+        CLAIMED,    // 소비자가 가져가서 처리 중
+        FAILED      // 재시도 횟수를 다 써서 멈춤 (관리자 확인용으로 남겨 둔다)
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "claimed_by", length = 150)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // 기록한 쪽의 추적 문맥 (W3C traceparent) - 소비자의 처리 구간이 같은 추적에 이어 붙는다
+    @Column(name = "trace_parent", length = 100)
+    private String traceParent;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(String eventType, Long aggregateId) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.createdAt = LocalDateTime.now();
+        this.availableAt = this.createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getAvailableAt() { return availableAt; }
+    public void setAvailableAt(LocalDateTime availableAt) { this.availableAt = availableAt; }
+
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public String getTraceParent() { return traceParent; }
+    public void setTraceParent(String traceParent) { this.traceParent = traceParent; }
+}
@@ -0,0 +1,48 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 클러스터 전체에서 하나만 가질 수 있는 실행 임대(run_leases)의 한 행.
+ * 키마다 한 행이고, 새로 가져갈 때마다 token이 1씩 오른다 (행을 지우지 않으므로 토큰은 키별로 계속 증가).
+ * 토큰은 펜싱 값으로 쓰여서, 임대를 잃은 뒤에도 돌고 있던 쪽의 쓰기는 더 큰 토큰을 가진 쪽에 밀려 반영되지 않는다.
+ */
+@Entity
+@Table(name = "run_leases")
+public class RunLease {
+
+    @Id
+    @Column(name = "lease_key", length = 200)
+    private String leaseKey;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(nullable = false)
+    private Long token;
+
+    @Column(name = "acquired_at")
+    private LocalDateTime acquiredAt;
+
+    // 이 시각이 지나면 다른 인스턴스가 가져갈 수 있다 (DB 시계 기준)
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public RunLease() {}
+
+    public String getLeaseKey() { return leaseKey; }
+    public void setLeaseKey(String leaseKey) { this.leaseKey = leaseKey; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public Long getToken() { return token; }
+    public void setToken(Long token) { this.token = token; }
+
+    public LocalDateTime getAcquiredAt() { return acquiredAt; }
+    public void setAcquiredAt(LocalDateTime acquiredAt) { this.acquiredAt = acquiredAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,48 @@
+package com.travelmap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 스케줄 작업 한 번의 실행 권리(scheduled_firings). 모든 인스턴스가 같은 시각에 같은 스케줄을 깨우므로,
+ * (작업 이름, 예정 시각) 행을 먼저 넣은 인스턴스 하나만 실제로 실행한다.
+ */
+@Entity
+@Table(name = "scheduled_firings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_scheduled_firings_job_fire_time", columnNames = {"job_name", "fire_time"}))
+public class ScheduledFiring {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    // 분 단위로 자른 예정 시각
+    @Column(name = "fire_time", nullable = false)
+    private LocalDateTime fireTime;
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    public ScheduledFiring() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public LocalDateTime getFireTime() { return fireTime; }
+    public void setFireTime(LocalDateTime fireTime) { this.fireTime = fireTime; }
+
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+}
@@ -50,6 +50,10 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // 영상 수집이 마지막으로 성공한 시각 (수집 파이프라인이 채널을 끝낼 때 기록)
+    @Column(name = "last_collected_at")
+    private LocalDateTime lastCollectedAt;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Video> videos;
     
@@ -170,6 +174,14 @@ public class User {
         this.updatedAt = updatedAt;
     }
     
+    public LocalDateTime getLastCollectedAt() {
+        return lastCollectedAt;
+    }
+    
+    public void setLastCollectedAt(LocalDateTime lastCollectedAt) {
+        this.lastCollectedAt = lastCollectedAt;
+    }
+    
     public List<Video> getVideos() {
         return videos;
     }
@@ -7,7 +7,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "videos")
+@Table(name = "videos", indexes = {
+        // 영상 목록 키셋 페이징(upload_date DESC, id DESC) 및 유튜버별 목록용
+        @Index(name = "idx_videos_upload_date_id", columnList = "upload_date, id"),
+        @Index(name = "idx_videos_user_upload_date_id", columnList = "user_id, upload_date, id")
+})
 public class Video {
     
     @Id
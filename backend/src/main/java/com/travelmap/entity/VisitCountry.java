@@ -6,7 +6,11 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "visit_countries")
+@Table(name = "visit_countries", indexes = {
+        // 국가별 영상 목록(EXISTS 조건)과 영상별 방문 국가 IN 조회용
+        @Index(name = "idx_visit_countries_country_video", columnList = "country_code, video_id"),
+        @Index(name = "idx_visit_countries_video_id", columnList = "video_id")
+})
 public class VisitCountry {
     
     @Id
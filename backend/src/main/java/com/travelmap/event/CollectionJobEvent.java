@@ -0,0 +1,18 @@
+package com.travelmap.event;
+
+import java.util.Map;
+
+/**
+ * 수집 작업의 상태/진행 상황이 바뀌어 작업 행에 남길 때마다 발행된다 (작업을 돌리는 인스턴스에서).
+ * 내용은 작업 id, 종류, 상태, 진행 수치, 결과/오류 메시지.
+ */
+public class CollectionJobEvent {
+
+    private final Map<String, Object> job;
+
+    public CollectionJobEvent(Map<String, Object> job) {
+        this.job = job;
+    }
+
+    public Map<String, Object> getJob() { return job; }
+}
@@ -0,0 +1,18 @@
+package com.travelmap.event;
+
+import java.util.Map;
+
+/**
+ * 데이터 수집 진행 상태(현재 상태 문구, 처리 수, 전체 수)가 바뀔 때마다 발행된다.
+ * 내용은 /api/admin/collection-status 응답과 같은 형태.
+ */
+public class CollectionProgressEvent {
+
+    private final Map<String, Object> status;
+
+    public CollectionProgressEvent(Map<String, Object> status) {
+        this.status = status;
+    }
+
+    public Map<String, Object> getStatus() { return status; }
+}
@@ -0,0 +1,98 @@
+package com.travelmap.event;
+
+import com.travelmap.entity.Video;
+import com.travelmap.entity.VisitCountry;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 수집/감지 과정에서 DB에 반영된 변경 내용(어떤 유튜버/영상/연도/국가가 바뀌었는지).
+ * 쓰는 쪽 트랜잭션 안에서 발행하고, 받는 쪽은 @TransactionalEventListener(AFTER_COMMIT)로 커밋된 뒤에만 캐시를 정리한다.
+ */
+public class DataChangedEvent {
+
+    private final Set<Long> userIds = new HashSet<>();
+    private final Set<Long> videoIds = new HashSet<>();
+    private final Set<Integer> years = new HashSet<>();
+    private final Set<String> countryCodes = new HashSet<>();
+    private final Set<String> countryNames = new HashSet<>();
+    private final Set<String> continents = new HashSet<>();
+    private boolean visitsRemoved;
+
+    /**
+     * 유튜버(채널) 정보가 새로 저장되거나 갱신됨
+     */
+    public DataChangedEvent userChanged(Long userId) {
+        if (userId != null) {
+            userIds.add(userId);
+        }
+        return this;
+    }
+
+    /**
+     * 새 영상이 저장됨
+     */
+    public DataChangedEvent videoAdded(Video video) {
+        videoIds.add(video.getId());
+        if (video.getUploadDate() != null) {
+            years.add(video.getUploadDate().getYear());
+        }
+        return this;
+    }
+
+    /**
+     * 방문 국가 행이 추가되거나 표시 정보가 바뀜
+     */
+    public DataChangedEvent visitSaved(VisitCountry visitCountry) {
+        recordVisit(visitCountry);
+        return this;
+    }
+
+    /**
+     * 방문 국가 행이 삭제됨
+     */
+    public DataChangedEvent visitRemoved(VisitCountry visitCountry) {
+        recordVisit(visitCountry);
+        visitsRemoved = true;
+        return this;
+    }
+
+    private void recordVisit(VisitCountry visitCountry) {
+        if (visitCountry.getVideo() != null) {
+            videoIds.add(visitCountry.getVideo().getId());
+        }
+        countryCodes.add(visitCountry.getCountryCode());
+        countryNames.add(visitCountry.getCountryName());
+        if (visitCountry.getContinent() != null) {
+            continents.add(visitCountry.getContinent());
+        }
+    }
+
+    /**
+     * 다른 변경 내용을 여기에 합친다 (여러 커밋을 버전 한 번으로 묶을 때)
+     */
+    public DataChangedEvent merge(DataChangedEvent other) {
+        userIds.addAll(other.userIds);
+        videoIds.addAll(other.videoIds);
+        years.addAll(other.years);
+        countryCodes.addAll(other.countryCodes);
+        countryNames.addAll(other.countryNames);
+        continents.addAll(other.continents);
+        visitsRemoved |= other.visitsRemoved;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return userIds.isEmpty() && videoIds.isEmpty() && countryCodes.isEmpty();
+    }
+
+    public Set<Long> getUserIds() { return Collections.unmodifiableSet(userIds); }
+    public Set<Long> getVideoIds() { return Collections.unmodifiableSet(videoIds); }
+    public Set<Integer> getYears() { return Collections.unmodifiableSet(years); }
+    public Set<String> getCountryCodes() { return Collections.unmodifiableSet(countryCodes); }
+    public Set<String> getCountryNames() { return Collections.unmodifiableSet(countryNames); }
+    public Set<String> getContinents() { return Collections.unmodifiableSet(continents); }
+    public boolean isVisitsRemoved() { return visitsRemoved; }
+}
@@ -0,0 +1,17 @@
+package com.travelmap.event;
+
+/**
+ * 이 인스턴스가 들고 있는 데이터 버전이 올라갈 때마다 발행된다 (직접 올렸든 다른 인스턴스 것을 읽어 왔든).
+ * 방문 국가 읽기 모델이 반영 대기 중에 낮은 버전으로 답했다가 따라잡았을 때도 현재 버전으로 한 번 더 발행된다.
+ * 캐시 무효화용인 {@link DataVersionChangedEvent}와 달리 클라이언트에 "새 데이터가 있다"고 알리는 데 쓴다.
+ */
+public class DataVersionAdvancedEvent {
+
+    private final long version;
+
+    public DataVersionAdvancedEvent(long version) {
+        this.version = version;
+    }
+
+    public long getVersion() { return version; }
+}
@@ -0,0 +1,19 @@
+package com.travelmap.event;
+
+/**
+ * 다른 인스턴스가 데이터 버전을 올린 것을 이 인스턴스가 알아챘을 때 발행된다.
+ * 버전과 상관없이 이벤트로만 무효화하는 캐시들은 이걸 받아서 비운다 (어떤 변경인지 모르므로 통째로).
+ */
+public class DataVersionChangedEvent {
+
+    private final long previousVersion;
+    private final long version;
+
+    public DataVersionChangedEvent(long previousVersion, long version) {
+        this.previousVersion = previousVersion;
+        this.version = version;
+    }
+
+    public long getPreviousVersion() { return previousVersion; }
+    public long getVersion() { return version; }
+}
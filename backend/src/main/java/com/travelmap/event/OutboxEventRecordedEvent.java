@@ -0,0 +1,16 @@
+package com.travelmap.event;
+
+/**
+ * 아웃박스에 이벤트가 새로 쌓였다는 알림 (쓰는 트랜잭션 안에서 발행).
+ * 같은 인스턴스의 소비자가 커밋 직후 바로 깨어나는 데만 쓴다. 다른 인스턴스 소비자는 주기적으로 조회해서 가져간다.
+ */
+public class OutboxEventRecordedEvent {
+
+    private final String eventType;
+
+    public OutboxEventRecordedEvent(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getEventType() { return eventType; }
+}
@@ -0,0 +1,18 @@
+package com.travelmap.event;
+
+import com.travelmap.service.VisitFacts;
+
+/**
+ * 방문 국가 읽기 모델({@link VisitFacts}) 스냅샷이 새로 갈아 끼워졌을 때 발행된다 (갱신 스레드에서).
+ * 읽기 모델이 꺼지면 facts가 null로 온다. 같은 사실 행에서 파생되는 인덱스들은 이걸 받아서 다시 만든다.
+ */
+public class VisitFactsRefreshedEvent {
+
+    private final VisitFacts facts;
+
+    public VisitFactsRefreshedEvent(VisitFacts facts) {
+        this.facts = facts;
+    }
+
+    public VisitFacts getFacts() { return facts; }
+}
@@ -0,0 +1,33 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.CollectionJobChannel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CollectionJobChannelRepository extends JpaRepository<CollectionJobChannel, Long> {
+
+    @Query("SELECT c.userId FROM CollectionJobChannel c WHERE c.jobId = :jobId " +
+           "AND c.status = com.travelmap.entity.CollectionJobChannel.Status.DONE")
+    List<Long> findDoneUserIds(@Param("jobId") Long jobId);
+
+    /**
+     * 채널 체크포인트를 남긴다. 같은 채널을 다시 돌았으면(실패 후 재시도) 덮어쓴다.
+     * 작업 행의 펜싱 토큰이 맞을 때만 남긴다 (임대를 잃은 쪽이면 0).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO collection_job_channels (job_id, user_id, status, video_count, error_message, finished_at) " +
+           "SELECT :jobId, :userId, :status, :videoCount, :errorMessage, now() " +
+           "WHERE EXISTS (SELECT 1 FROM collection_jobs j WHERE j.id = :jobId AND j.fence_token = :fenceToken) " +
+           "ON CONFLICT (job_id, user_id) DO UPDATE SET status = EXCLUDED.status, video_count = EXCLUDED.video_count, " +
+           "error_message = EXCLUDED.error_message, finished_at = EXCLUDED.finished_at",
+           nativeQuery = true)
+    int upsert(@Param("jobId") Long jobId, @Param("fenceToken") Long fenceToken, @Param("userId") Long userId,
+               @Param("status") String status, @Param("videoCount") Integer videoCount,
+               @Param("errorMessage") String errorMessage);
+}
@@ -0,0 +1,138 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.CollectionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CollectionJobRepository extends JpaRepository<CollectionJob, Long> {
+
+    @Query("SELECT j FROM CollectionJob j ORDER BY j.id DESC")
+    List<CollectionJob> findRecent(Pageable pageable);
+
+    /**
+     * 범위가 비어 있으면 대기 상태 작업을 만든다. 만들었으면 새 id 하나, 같은 범위 작업이 이미 대기/실행 중이면 빈 목록
+     * (active_scope 고유 제약에 거는 한 문장이라 여러 인스턴스가 동시에 등록해도 한 곳만 만든다).
+     */
+    @Query(value = "INSERT INTO collection_jobs (type, status, search_query, channel_name, owner_instance, heartbeat_at, " +
+           "resume_count, processed_count, total_count, error_count, cancel_requested, created_at, active_scope) " +
+           "VALUES (:type, 'QUEUED', :searchQuery, :channelName, :owner, :now, 0, 0, 0, 0, false, :now, :scope) " +
+           "ON CONFLICT (active_scope) DO NOTHING " +
+           "RETURNING id",
+           nativeQuery = true)
+    List<Long> insertIfScopeFree(@Param("type") String type, @Param("searchQuery") String searchQuery,
+                                 @Param("channelName") String channelName, @Param("owner") String owner,
+                                 @Param("scope") String scope, @Param("now") LocalDateTime now);
+
+    /**
+     * 이 범위를 잡고 있는(대기/실행 중인) 작업
+     */
+    @Query("SELECT j FROM CollectionJob j WHERE j.activeScope = :scope")
+    Optional<CollectionJob> findByActiveScope(@Param("scope") String scope);
+
+    /**
+     * 다른 인스턴스가 가진 끝나지 않은 작업들 (실시간 스트림 중계용)
+     */
+    @Query("SELECT j FROM CollectionJob j " +
+           "WHERE j.status IN (com.travelmap.entity.CollectionJob.Status.QUEUED, com.travelmap.entity.CollectionJob.Status.RUNNING) " +
+           "AND (j.ownerInstance IS NULL OR j.ownerInstance <> :owner) ORDER BY j.id")
+    List<CollectionJob> findActiveOwnedByOthers(@Param("owner") String owner);
+
+    @Query("SELECT j.cancelRequested FROM CollectionJob j WHERE j.id = :id")
+    Optional<Boolean> findCancelRequested(@Param("id") Long id);
+
+    /**
+     * 이 인스턴스가 가진 대기 중인 작업을 실행 중으로 바꾼다 (그 사이 취소됐거나 다른 인스턴스가 가져갔으면 0).
+     * 이어받은 작업은 처음 시작 시각을 그대로 둔다. 이후 이 작업 행 쓰기는 fenceToken이 맞아야 반영된다.
+     */
+    @Modifying
+    @Query("UPDATE CollectionJob j SET j.status = com.travelmap.entity.CollectionJob.Status.RUNNING, " +
+           "j.startedAt = COALESCE(j.startedAt, :now), j.heartbeatAt = :now, j.fenceToken = :fenceToken " +
+           "WHERE j.id = :id AND j.ownerInstance = :owner " +
+           "AND j.status = com.travelmap.entity.CollectionJob.Status.QUEUED AND j.cancelRequested = false")
+    int markRunning(@Param("id") Long id, @Param("owner") String owner, @Param("fenceToken") Long fenceToken,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * 이 인스턴스가 가진 끝나지 않은 작업들이 살아 있음을 표시
+     */
+    @Modifying
+    @Query("UPDATE CollectionJob j SET j.heartbeatAt = :now WHERE j.ownerInstance = :owner " +
+           "AND j.status IN (com.travelmap.entity.CollectionJob.Status.QUEUED, com.travelmap.entity.CollectionJob.Status.RUNNING)")
+    int heartbeat(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * 가진 인스턴스가 cutoff 이후로 살아 있다는 표시를 안 한 끝나지 않은 작업들 (오래된 것부터)
+     */
+    @Query("SELECT j.id FROM CollectionJob j " +
+           "WHERE j.status IN (com.travelmap.entity.CollectionJob.Status.QUEUED, com.travelmap.entity.CollectionJob.Status.RUNNING) " +
+           "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :cutoff) ORDER BY j.id")
+    List<Long> findStaleIds(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 멈춘 작업을 이 인스턴스로 가져와 대기 상태로 돌린다 (여러 인스턴스가 동시에 시도해도 한 곳만 1을 받는다)
+     */
+    @Modifying
+    @Query("UPDATE CollectionJob j SET j.status = com.travelmap.entity.CollectionJob.Status.QUEUED, " +
+           "j.ownerInstance = :owner, j.heartbeatAt = :now, j.resumeCount = COALESCE(j.resumeCount, 0) + 1 " +
+           "WHERE j.id = :id AND j.cancelRequested = false " +
+           "AND j.status IN (com.travelmap.entity.CollectionJob.Status.QUEUED, com.travelmap.entity.CollectionJob.Status.RUNNING) " +
+           "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :cutoff)")
+    int claimStale(@Param("id") Long id, @Param("owner") String owner,
+                   @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+
+    /**
+     * 취소 요청을 받은 채 멈춘 작업은 이어서 돌지 않고 취소로 끝낸다
+     */
+    @Modifying
+    @Query("UPDATE CollectionJob j SET j.status = com.travelmap.entity.CollectionJob.Status.CANCELLED, j.finishedAt = :now, " +
+           "j.activeScope = NULL " +
+           "WHERE j.id = :id AND j.cancelRequested = true " +
+           "AND j.status IN (com.travelmap.entity.CollectionJob.Status.QUEUED, com.travelmap.entity.CollectionJob.Status.RUNNING) " +
+           "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :cutoff)")
+    int cancelStale(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+
+    /**
+     * 진행 상황 저장 (임대를 잃어 토큰이 바뀌었으면 0)
+     */
+    @Modifying
+    @Query("UPDATE CollectionJob j SET j.currentStatus = :currentStatus, j.processedCount = :processed, " +
+           "j.totalCount = :total, j.errorCount = :errors WHERE j.id = :id AND j.fenceToken = :fenceToken")
+    int updateProgress(@Param("id") Long id, @Param("fenceToken") Long fenceToken,
+                       @Param("currentStatus") String currentStatus,
+                       @Param("processed") int processed, @Param("total") int total, @Param("errors") int errors);
+
+    /**
+     * 작업 종료 (임대를 잃어 토큰이 바뀌었으면 0 - 이어받은 쪽이 끝낸다)
+     */
+    @Modifying
+    @Query("UPDATE CollectionJob j SET j.status = :status, j.finishedAt = :now, j.activeScope = NULL, " +
+           "j.resultMessage = :resultMessage, j.errorMessage = :errorMessage WHERE j.id = :id AND j.fenceToken = :fenceToken")
+    int finish(@Param("id") Long id, @Param("fenceToken") Long fenceToken, @Param("status") CollectionJob.Status status, @Param("now") LocalDateTime now,
+               @Param("resultMessage") String resultMessage, @Param("errorMessage") String errorMessage);
+
+    /**
+     * 끝나지 않은 작업에 취소 요청 표시 (실행 중인 작업은 다음 확인 때 스스로 멈춘다)
+     */
+    @Modifying
+    @Query("UPDATE CollectionJob j SET j.cancelRequested = true WHERE j.id = :id " +
+           "AND j.status IN (com.travelmap.entity.CollectionJob.Status.QUEUED, com.travelmap.entity.CollectionJob.Status.RUNNING)")
+    int requestCancel(@Param("id") Long id);
+
+    /**
+     * 아직 시작 전인 작업은 바로 취소로 끝낸다
+     */
+    @Modifying
+    @Query("UPDATE CollectionJob j SET j.status = com.travelmap.entity.CollectionJob.Status.CANCELLED, j.finishedAt = :now, " +
+           "j.activeScope = NULL " +
+           "WHERE j.id = :id AND j.status = com.travelmap.entity.CollectionJob.Status.QUEUED")
+    int cancelQueued(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
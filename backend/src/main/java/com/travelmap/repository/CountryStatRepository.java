@@ -0,0 +1,152 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.CountryStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CountryStatRepository extends JpaRepository<CountryStat, Long> {
+
+    /**
+     * (국가, 유튜버, 연도) 칸의 방문 횟수를 delta만큼 증감한다. 칸이 없으면 새로 만든다.
+     * 동시에 여러 영상이 감지돼도 행 단위 원자적 증감이라 값이 꼬이지 않는다.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO country_stats (country_code, country_name, country_emoji, continent, user_id, upload_year, visit_count, updated_at) " +
+           "VALUES (:countryCode, :countryName, :countryEmoji, :continent, :userId, :uploadYear, :delta, now()) " +
+           "ON CONFLICT (country_code, user_id, upload_year) DO UPDATE SET " +
+           "visit_count = country_stats.visit_count + EXCLUDED.visit_count, " +
+           "country_name = EXCLUDED.country_name, " +
+           "country_emoji = EXCLUDED.country_emoji, " +
+           "continent = EXCLUDED.continent, " +
+           "updated_at = now()",
+           nativeQuery = true)
+    int applyDelta(@Param("countryCode") String countryCode,
+                   @Param("countryName") String countryName,
+                   @Param("countryEmoji") String countryEmoji,
+                   @Param("continent") String continent,
+                   @Param("userId") Long userId,
+                   @Param("uploadYear") Integer uploadYear,
+                   @Param("delta") long delta);
+
+    /**
+     * 칸의 표시 정보(국가명/이모지/대륙)만 고친다. 횟수가 그대로인 수정이라 칸이 없으면 만들지 않는다 (없는 칸은 재계산이 채움).
+     */
+    @Modifying
+    @Query("UPDATE CountryStat c SET c.countryName = :countryName, c.countryEmoji = :countryEmoji, " +
+           "c.continent = :continent, c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.countryCode = :countryCode AND c.userId = :userId AND c.uploadYear = :uploadYear")
+    int updateCellInfo(@Param("countryCode") String countryCode,
+                       @Param("countryName") String countryName,
+                       @Param("countryEmoji") String countryEmoji,
+                       @Param("continent") String continent,
+                       @Param("userId") Long userId,
+                       @Param("uploadYear") Integer uploadYear);
+
+    /**
+     * 재계산 동안 증감을 막는다 (트랜잭션 끝까지 - 재계산은 아래 문 하나뿐이라 잠깐). EXCLUSIVE는 INSERT/UPDATE/DELETE(ROW EXCLUSIVE)와만
+     * 충돌하고 조회(ACCESS SHARE)는 막지 않으므로 지도 조회는 재계산 중에도 그대로 답한다.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE country_stats IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    /**
+     * visit_countries를 (국가, 유튜버, 업로드 연도)로 다시 묶어서 값이 다른 칸만 고치고, 원본에 없는 칸은 지운다 (문 하나).
+     * 안 바뀐 칸은 건드리지 않는다. 비교는 고치기 전 값 기준:
+     * [다시 묶은 칸 수, 값이 어긋난 칸 수, 방문 횟수 차이 합, 고치거나 지운 칸 수]
+     */
+    @Query(value = "WITH expected AS (" +
+           "SELECT vc.country_code, v.user_id, COALESCE(CAST(EXTRACT(YEAR FROM v.upload_date) AS integer), 0) AS upload_year, " +
+           "COUNT(*) AS visit_count, MAX(vc.country_name) AS country_name, MAX(vc.country_emoji) AS country_emoji, " +
+           "MAX(vc.continent) AS continent " +
+           "FROM visit_countries vc JOIN videos v ON v.id = vc.video_id " +
+           "WHERE v.user_id IS NOT NULL " +
+           "GROUP BY vc.country_code, v.user_id, COALESCE(CAST(EXTRACT(YEAR FROM v.upload_date) AS integer), 0)" +
+           "), upserted AS (" +
+           "INSERT INTO country_stats (country_code, country_name, country_emoji, continent, user_id, upload_year, visit_count, updated_at) " +
+           "SELECT country_code, country_name, country_emoji, continent, user_id, upload_year, visit_count, now() FROM expected " +
+           "ON CONFLICT (country_code, user_id, upload_year) DO UPDATE SET " +
+           "visit_count = EXCLUDED.visit_count, " +
+           "country_name = EXCLUDED.country_name, " +
+           "country_emoji = EXCLUDED.country_emoji, " +
+           "continent = EXCLUDED.continent, " +
+           "updated_at = now() " +
+           "WHERE country_stats.visit_count <> EXCLUDED.visit_count " +
+           "OR country_stats.country_name IS DISTINCT FROM EXCLUDED.country_name " +
+           "OR country_stats.country_emoji IS DISTINCT FROM EXCLUDED.country_emoji " +
+           "OR country_stats.continent IS DISTINCT FROM EXCLUDED.continent " +
+           "RETURNING 1" +
+           "), deleted AS (" +
+           "DELETE FROM country_stats c WHERE NOT EXISTS (SELECT 1 FROM expected e " +
+           "WHERE e.country_code = c.country_code AND e.user_id = c.user_id AND e.upload_year = c.upload_year) " +
+           "RETURNING 1" +
+           ") " +
+           "SELECT (SELECT COUNT(*) FROM expected), " +
+           "COUNT(*) FILTER (WHERE COALESCE(e.visit_count, 0) <> COALESCE(c.visit_count, 0)), " +
+           "COALESCE(SUM(ABS(COALESCE(e.visit_count, 0) - COALESCE(c.visit_count, 0))), 0), " +
+           "(SELECT COUNT(*) FROM upserted) + (SELECT COUNT(*) FROM deleted) " +
+           "FROM expected e FULL OUTER JOIN country_stats c " +
+           "ON c.country_code = e.country_code AND c.user_id = e.user_id AND c.upload_year = e.upload_year",
+           nativeQuery = true)
+    List<Object[]> reconcileWithVisits();
+
+    @Modifying
+    @Query("DELETE FROM CountryStat c WHERE c.countryCode = :countryCode AND c.userId = :userId " +
+           "AND c.uploadYear = :uploadYear AND c.visitCount <= 0")
+    int deleteIfEmpty(@Param("countryCode") String countryCode,
+                      @Param("userId") Long userId,
+                      @Param("uploadYear") Integer uploadYear);
+
+    /**
+     * 국가별 합계: [countryCode, countryName, countryEmoji, continent, visitCount, youtuberCount]
+     */
+    @Query("SELECT c.countryCode, MAX(c.countryName), MAX(c.countryEmoji), MAX(c.continent), " +
+           "SUM(c.visitCount), COUNT(DISTINCT c.userId) FROM CountryStat c " +
+           "WHERE c.visitCount > 0 " +
+           "AND (:userId IS NULL OR c.userId = :userId) " +
+           "AND (:countryCode IS NULL OR c.countryCode = :countryCode) " +
+           "AND (:continent IS NULL OR c.continent = :continent) " +
+           "AND (:year IS NULL OR c.uploadYear = :year) " +
+           "GROUP BY c.countryCode")
+    List<Object[]> aggregateByCountry(@Param("userId") Long userId,
+                                      @Param("countryCode") String countryCode,
+                                      @Param("continent") String continent,
+                                      @Param("year") Integer year);
+
+    /**
+     * 국가별 방문 유튜버 목록: [countryCode, userId]
+     */
+    @Query("SELECT DISTINCT c.countryCode, c.userId FROM CountryStat c " +
+           "WHERE c.visitCount > 0 " +
+           "AND (:userId IS NULL OR c.userId = :userId) " +
+           "AND (:countryCode IS NULL OR c.countryCode = :countryCode) " +
+           "AND (:continent IS NULL OR c.continent = :continent) " +
+           "AND (:year IS NULL OR c.uploadYear = :year)")
+    List<Object[]> findCountryUserPairs(@Param("userId") Long userId,
+                                       @Param("countryCode") String countryCode,
+                                       @Param("continent") String continent,
+                                       @Param("year") Integer year);
+
+    /**
+     * 특정 국가들의 필터 없는 합계 (변경 로그용, 컬럼 순서는 aggregateByCountry와 같음)
+     */
+    @Query("SELECT c.countryCode, MAX(c.countryName), MAX(c.countryEmoji), MAX(c.continent), " +
+           "SUM(c.visitCount), COUNT(DISTINCT c.userId) FROM CountryStat c " +
+           "WHERE c.visitCount > 0 AND c.countryCode IN :countryCodes " +
+           "GROUP BY c.countryCode")
+    List<Object[]> aggregateByCountryCodes(@Param("countryCodes") Collection<String> countryCodes);
+
+    /**
+     * 특정 국가들의 방문 유튜버: [countryCode, userId]
+     */
+    @Query("SELECT DISTINCT c.countryCode, c.userId FROM CountryStat c " +
+           "WHERE c.visitCount > 0 AND c.countryCode IN :countryCodes")
+    List<Object[]> findCountryUserPairsByCountryCodes(@Param("countryCodes") Collection<String> countryCodes);
+}
@@ -0,0 +1,25 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.DataVersionChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DataVersionChangeRepository extends JpaRepository<DataVersionChange, Long> {
+
+    /**
+     * since 다음 버전부터 upTo 버전까지의 변경 (버전 순)
+     */
+    @Query("SELECT c FROM DataVersionChange c WHERE c.version > :since AND c.version <= :upTo ORDER BY c.version")
+    List<DataVersionChange> findChangesBetween(@Param("since") Long since, @Param("upTo") Long upTo);
+
+    @Modifying
+    @Query("DELETE FROM DataVersionChange c WHERE c.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
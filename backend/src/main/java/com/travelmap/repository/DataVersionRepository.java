@@ -0,0 +1,33 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.DataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DataVersionRepository extends JpaRepository<DataVersion, Long> {
+
+    /**
+     * 버전 행이 없으면 1로 만든다 (이미 있으면 그대로)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO data_versions (id, version, updated_at) VALUES (:id, 1, now()) " +
+           "ON CONFLICT (id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("id") Long id);
+
+    /**
+     * 행 단위 원자적 증가 (여러 인스턴스가 동시에 올려도 번호가 겹치지 않는다)
+     */
+    @Modifying
+    @Query("UPDATE DataVersion d SET d.version = d.version + 1, d.updatedAt = CURRENT_TIMESTAMP WHERE d.id = :id")
+    int increment(@Param("id") Long id);
+
+    @Query("SELECT d.version FROM DataVersion d WHERE d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
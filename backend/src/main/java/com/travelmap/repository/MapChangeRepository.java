@@ -0,0 +1,42 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.MapChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MapChangeRepository extends JpaRepository<MapChange, Long> {
+
+    /**
+     * since 다음 버전부터 upTo 버전까지의 국가 변경 (버전 순)
+     */
+    @Query("SELECT m FROM MapChange m WHERE m.reset = false AND m.version > :since AND m.version <= :upTo " +
+           "ORDER BY m.version, m.id")
+    List<MapChange> findChangesBetween(@Param("since") Long since, @Param("upTo") Long upTo);
+
+    @Query("SELECT COUNT(m) FROM MapChange m WHERE m.reset = false AND m.version > :since AND m.version <= :upTo")
+    long countChangesBetween(@Param("since") Long since, @Param("upTo") Long upTo);
+
+    /**
+     * 가장 최근 reset 표시의 버전 (이보다 앞선 버전에서 이어 받으려는 클라이언트는 전체를 다시 받아야 함)
+     */
+    @Query("SELECT MAX(m.version) FROM MapChange m WHERE m.reset = true")
+    Optional<Long> findLatestResetVersion();
+
+    /**
+     * 정리 기준 시각 전에 기록된 국가 변경 중 가장 큰 버전
+     */
+    @Query("SELECT MAX(m.version) FROM MapChange m WHERE m.reset = false AND m.createdAt < :cutoff")
+    Optional<Long> findMaxVersionCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM MapChange m WHERE m.version <= :version")
+    int deleteUpToVersion(@Param("version") Long version);
+}
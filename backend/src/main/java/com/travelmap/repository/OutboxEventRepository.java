@@ -0,0 +1,52 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * 처리할 이벤트를 최대 limit개 가져간다 (대기 중이면서 시각이 된 것 + 가져간 쪽이 너무 오래 붙잡고 있는 것).
+     * FOR UPDATE SKIP LOCKED라 여러 소비자(다른 인스턴스 포함)가 동시에 불러도 서로 다른 행을 받고 기다리지 않는다.
+     * 가져간 행의 id 목록을 돌려준다.
+     */
+    @Query(value = "UPDATE outbox_events SET status = 'CLAIMED', claimed_by = :owner, claimed_at = now(), " +
+           "attempts = attempts + 1 " +
+           "WHERE id IN (SELECT id FROM outbox_events WHERE event_type = :eventType " +
+           "AND ((status = 'PENDING' AND available_at <= now()) " +
+           "OR (status = 'CLAIMED' AND claimed_at < now() - (:claimTimeoutMs * interval '1 millisecond'))) " +
+           "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+           "RETURNING id",
+           nativeQuery = true)
+    List<Long> claim(@Param("eventType") String eventType, @Param("owner") String owner,
+                     @Param("limit") int limit, @Param("claimTimeoutMs") long claimTimeoutMs);
+
+    /**
+     * 처리를 마친 이벤트 삭제 (그 사이 다른 소비자가 다시 가져갔으면 0)
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id = :id AND e.claimedBy = :owner")
+    int complete(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * 처리 실패: 나중에 다시 하도록 돌려놓거나(PENDING + 대기 시각), 재시도를 다 썼으면 FAILED로 멈춘다
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.availableAt = :availableAt, e.lastError = :error, " +
+           "e.claimedBy = NULL, e.claimedAt = NULL WHERE e.id = :id AND e.claimedBy = :owner")
+    int release(@Param("id") Long id, @Param("owner") String owner, @Param("status") OutboxEvent.Status status,
+                @Param("availableAt") LocalDateTime availableAt, @Param("error") String error);
+
+    long countByEventTypeAndStatus(String eventType, OutboxEvent.Status status);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.eventType = :eventType AND e.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("eventType") String eventType, @Param("status") OutboxEvent.Status status);
+}
@@ -0,0 +1,53 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.RunLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RunLeaseRepository extends JpaRepository<RunLease, String> {
+
+    /**
+     * 임대를 가져간다: 행이 없으면 토큰 1로 만들고, 있으면 만료된 경우에만 토큰을 올려 가져간다.
+     * 가져갔으면 새 토큰 하나, 다른 쪽이 가지고 있으면 빈 목록 (한 문장이라 동시에 시도해도 한 곳만 받는다).
+     */
+    @Query(value = "INSERT INTO run_leases (lease_key, owner, token, acquired_at, expires_at) " +
+           "VALUES (:key, :owner, 1, now(), now() + (:ttlMs * interval '1 millisecond')) " +
+           "ON CONFLICT (lease_key) DO UPDATE SET owner = EXCLUDED.owner, token = run_leases.token + 1, " +
+           "acquired_at = EXCLUDED.acquired_at, expires_at = EXCLUDED.expires_at " +
+           "WHERE run_leases.expires_at < now() " +
+           "RETURNING token",
+           nativeQuery = true)
+    List<Long> tryAcquire(@Param("key") String key, @Param("owner") String owner, @Param("ttlMs") long ttlMs);
+
+    /**
+     * 가진 임대의 만료를 늦춘다. 그 사이 다른 쪽이 가져갔으면(토큰이 바뀜) 0.
+     */
+    @Modifying
+    @Query(value = "UPDATE run_leases SET expires_at = now() + (:ttlMs * interval '1 millisecond') " +
+           "WHERE lease_key = :key AND token = :token",
+           nativeQuery = true)
+    int renew(@Param("key") String key, @Param("token") long token, @Param("ttlMs") long ttlMs);
+
+    /**
+     * 임대가 아직 이 토큰이고 만료 전이면 행을 공유 잠금으로 잡고 토큰을 돌려준다 (아니면 빈 목록).
+     * 쓰는 쪽 트랜잭션이 끝날 때까지 다른 쪽이 가져가지 못하므로, 잡은 뒤의 쓰기는 임대를 가진 채로 커밋된다.
+     */
+    @Query(value = "SELECT token FROM run_leases WHERE lease_key = :key AND token = :token AND expires_at > now() FOR SHARE",
+           nativeQuery = true)
+    List<Long> lockIfHeld(@Param("key") String key, @Param("token") long token);
+
+    /**
+     * 임대를 놓는다 (행과 토큰은 남겨 두고 바로 만료시킴)
+     */
+    @Modifying
+    @Query(value = "UPDATE run_leases SET expires_at = now() - interval '1 millisecond' " +
+           "WHERE lease_key = :key AND token = :token",
+           nativeQuery = true)
+    int release(@Param("key") String key, @Param("token") long token);
+}
@@ -0,0 +1,28 @@
+package com.travelmap.repository;
+
+import com.travelmap.entity.ScheduledFiring;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ScheduledFiringRepository extends JpaRepository<ScheduledFiring, Long> {
+
+    /**
+     * 실행 권리를 가져간다. 다른 인스턴스가 먼저 넣었으면 0 (유니크 제약으로 한 곳만 1을 받는다).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduled_firings (job_name, fire_time, claimed_by, claimed_at) " +
+           "VALUES (:jobName, :fireTime, :claimedBy, now()) ON CONFLICT (job_name, fire_time) DO NOTHING",
+           nativeQuery = true)
+    int claim(@Param("jobName") String jobName, @Param("fireTime") LocalDateTime fireTime,
+              @Param("claimedBy") String claimedBy);
+
+    @Modifying
+    @Query("DELETE FROM ScheduledFiring f WHERE f.fireTime < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,10 +2,12 @@ package com.travelmap.repository;
 
 import com.travelmap.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +22,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findUsersWithMinimumVideos(@Param("minVideoCount") Long minVideoCount);
     
     boolean existsByYoutubeChannelId(String youtubeChannelId);
+    
+    /**
+     * 전체 채널을 도는 작업용 - 이어서 돌 때도 같은 순서가 되도록 id 순
+     */
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    List<User> findAllOrderById();
+    
+    /**
+     * 채널 영상 수집이 끝난 시각 기록 (채널별 수집 지연 지표용)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.lastCollectedAt = :collectedAt WHERE u.id = :id")
+    int markCollected(@Param("id") Long id, @Param("collectedAt") LocalDateTime collectedAt);
+    
+    // 수집한 적 있는 채널의 [이름, 마지막 수집 시각]
+    @Query("SELECT u.name, u.lastCollectedAt FROM User u WHERE u.lastCollectedAt IS NOT NULL")
+    List<Object[]> findLastCollectedTimes();
 } 
\ No newline at end of file
@@ -1,13 +1,17 @@
 package com.travelmap.repository;
 
+import com.travelmap.dto.VideoRow;
 import com.travelmap.entity.Video;
 import com.travelmap.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +24,14 @@ public interface VideoRepository extends JpaRepository<Video, Long> {
     
     List<Video> findByUserId(Long userId);
     
-    List<Video> findByProcessedFalse();
+    long countByProcessedFalse();
+    
+    @Query("SELECT MIN(v.createdAt) FROM Video v WHERE v.processed = false")
+    LocalDateTime findOldestUnprocessedCreatedAt();
+    
+    // 미처리 영상 백로그를 id 순 키셋 청크로 (한 번에 다 올리지 않기 위해)
+    @Query("SELECT v FROM Video v WHERE v.processed = false AND v.id > :afterId ORDER BY v.id")
+    List<Video> findUnprocessedAfter(@Param("afterId") Long afterId, Limit limit);
     
     List<Video> findByOcrProcessedFalse();
     
@@ -48,8 +59,76 @@ public interface VideoRepository extends JpaRepository<Video, Long> {
                           @Param("endDate") LocalDateTime endDate);
 
     
+    // 영상 목록 공통 필터. 국가/대륙 조건은 EXISTS로 걸어서, 방문 국가가 여러 개인 영상도 한 번만 나온다.
+    String PAGE_FILTER =
+            "(:userId IS NULL OR v.user.id = :userId) " +
+            "AND (:year IS NULL OR YEAR(v.uploadDate) = :year) " +
+            "AND (COALESCE(:startDate, v.uploadDate) <= v.uploadDate) " +
+            "AND (COALESCE(:endDate, v.uploadDate) >= v.uploadDate) " +
+            "AND EXISTS (SELECT 1 FROM VisitCountry vc WHERE vc.video = v " +
+            "AND (:countryCode IS NULL OR vc.countryCode = :countryCode) " +
+            "AND (:continent IS NULL OR vc.continent = :continent)) ";
+    
+    String PAGE_ORDER = "ORDER BY v.uploadDate DESC, v.id DESC";
+    
+    // VideoDto에 필요한 컬럼만 (description 제외, 유튜버는 id만)
+    String ROW_SELECT = "SELECT new com.travelmap.dto.VideoRow(v.id, v.title, v.videoId, v.uploadDate, " +
+            "v.thumbnailUrl, v.videoUrl, v.viewCount, v.likeCount, v.duration, v.user.id) ";
+    
+    /**
+     * 첫 페이지 (또는 page 파라미터 기반 오프셋 페이지). 정렬과 LIMIT/OFFSET은 DB에서 처리한다.
+     */
+    @Query(ROW_SELECT + "FROM Video v WHERE " + PAGE_FILTER + PAGE_ORDER)
+    List<VideoRow> findPageByFilters(@Param("userId") Long userId,
+                                  @Param("countryCode") String countryCode,
+                                  @Param("continent") String continent,
+                                  @Param("year") Integer year,
+                                  @Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate,
+                                  Pageable pageable);
+    
+    /**
+     * 키셋 커서 (cursorDate, cursorId) 다음 위치부터 limit개
+     */
+    @Query(ROW_SELECT + "FROM Video v WHERE " + PAGE_FILTER +
+           "AND (v.uploadDate < :cursorDate OR (v.uploadDate = :cursorDate AND v.id < :cursorId)) " +
+           PAGE_ORDER)
+    List<VideoRow> findPageByFiltersAfter(@Param("userId") Long userId,
+                                       @Param("countryCode") String countryCode,
+                                       @Param("continent") String continent,
+                                       @Param("year") Integer year,
+                                       @Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate,
+                                       @Param("cursorDate") LocalDateTime cursorDate,
+                                       @Param("cursorId") Long cursorId,
+                                       Limit limit);
+    
+    /**
+     * 메모리 인덱스가 고른 영상 id들의 행 (순서는 보장 안 됨 - 호출하는 쪽에서 id 순서대로 맞춘다)
+     */
+    @Query(ROW_SELECT + "FROM Video v WHERE v.id IN :ids")
+    List<VideoRow> findRowsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query(ROW_SELECT + "FROM Video v WHERE v.id = :id")
+    Optional<VideoRow> findRowById(@Param("id") Long id);
+    
+    @Query("SELECT COUNT(v) FROM Video v WHERE " + PAGE_FILTER)
+    long countByFilters(@Param("userId") Long userId,
+                        @Param("countryCode") String countryCode,
+                        @Param("continent") String continent,
+                        @Param("year") Integer year,
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT DISTINCT YEAR(v.uploadDate) FROM Video v WHERE v.uploadDate IS NOT NULL")
+    List<Integer> findDistinctUploadYears();
+    
     @Query("SELECT COUNT(v) FROM Video v WHERE v.user = :user")
     Long countByUser(@Param("user") User user);
     
     boolean existsByVideoId(String videoId);
+    
+    // 수집 파이프라인에서 이미 저장된 영상을 페이지 단위로 한 번에 걸러낼 때 사용
+    @Query("SELECT v.videoId FROM Video v WHERE v.videoId IN :videoIds")
+    List<String> findExistingVideoIds(@Param("videoIds") Collection<String> videoIds);
 } 
\ No newline at end of file
@@ -2,12 +2,14 @@ package com.travelmap.repository;
 
 import com.travelmap.entity.VisitCountry;
 import com.travelmap.entity.Video;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,6 +19,10 @@ public interface VisitCountryRepository extends JpaRepository<VisitCountry, Long
     
     List<VisitCountry> findByVideoId(Long videoId);
     
+    // 영상 목록 한 페이지의 방문 국가를 IN 쿼리 한 번으로 가져온다 (video는 프록시로만 두고 로딩하지 않음)
+    @Query("SELECT vc FROM VisitCountry vc WHERE vc.video.id IN :videoIds ORDER BY vc.id")
+    List<VisitCountry> findByVideoIdIn(@Param("videoIds") Collection<Long> videoIds);
+    
     List<VisitCountry> findByCountryCode(String countryCode);
     
     List<VisitCountry> findByCountryName(String countryName);
@@ -40,7 +46,7 @@ public interface VisitCountryRepository extends JpaRepository<VisitCountry, Long
     @Query("SELECT vc.countryCode, COUNT(DISTINCT vc.video.user) as youtuberCount FROM VisitCountry vc GROUP BY vc.countryCode ORDER BY youtuberCount DESC")
     List<Object[]> findCountryYoutuberCounts();
     
-    @Query("SELECT vc FROM VisitCountry vc JOIN vc.video v JOIN v.user u " +
+    @Query("SELECT vc FROM VisitCountry vc JOIN FETCH vc.video v JOIN FETCH v.user u " +
            "WHERE (:userId IS NULL OR u.id = :userId) " +
            "AND (:countryCode IS NULL OR vc.countryCode = :countryCode) " +
            "AND (:continent IS NULL OR vc.continent = :continent) " +
@@ -54,6 +60,26 @@ public interface VisitCountryRepository extends JpaRepository<VisitCountry, Long
                                    @Param("startDate") LocalDateTime startDate,
                                    @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * 메모리 읽기 모델 적재용 사실 행 (id 순 키셋 청크):
+     * [visitId, countryCode, countryName, countryEmoji, continent, videoId, userId, uploadDate,
+     *  cityName, cityLatitude, cityLongitude]
+     */
+    @Query("SELECT vc.id, vc.countryCode, vc.countryName, vc.countryEmoji, vc.continent, v.id, u.id, v.uploadDate, " +
+           "vc.cityName, vc.cityLatitude, vc.cityLongitude " +
+           "FROM VisitCountry vc JOIN vc.video v JOIN v.user u " +
+           "WHERE vc.id > :afterId ORDER BY vc.id")
+    List<Object[]> findFactsAfter(@Param("afterId") Long afterId, Limit limit);
+    
+    /**
+     * 특정 영상들의 사실 행 (읽기 모델 증분 갱신용, 컬럼 순서는 findFactsAfter와 같음)
+     */
+    @Query("SELECT vc.id, vc.countryCode, vc.countryName, vc.countryEmoji, vc.continent, v.id, u.id, v.uploadDate, " +
+           "vc.cityName, vc.cityLatitude, vc.cityLongitude " +
+           "FROM VisitCountry vc JOIN vc.video v JOIN v.user u " +
+           "WHERE v.id IN :videoIds ORDER BY vc.id")
+    List<Object[]> findFactsByVideoIds(@Param("videoIds") Collection<Long> videoIds);
+    
     @Query("SELECT COUNT(vc) FROM VisitCountry vc WHERE vc.video = :video")
     Long countByVideo(@Param("video") Video video);
 } 
\ No newline at end of file
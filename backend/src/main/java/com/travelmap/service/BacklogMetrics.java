@@ -0,0 +1,107 @@
+package com.travelmap.service;
+
+import com.travelmap.entity.OutboxEvent;
+import com.travelmap.repository.OutboxEventRepository;
+import com.travelmap.repository.UserRepository;
+import com.travelmap.repository.VideoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DB에서 읽어야 하는 밀림(lag) 지표: 미처리 영상 백로그, 국가 감지(지오코딩 포함) 대기열, 채널별 마지막 수집 후 경과 시간.
+ * 스크레이프마다 DB를 치지 않도록 주기적으로 값을 읽어 두고, 경과 시간은 읽어 둔 시각으로 스크레이프 때 계산한다.
+ * 값이 DB 전체 기준이라 모든 인스턴스가 같은 값을 내보낸다 - 알림/오토스케일 쿼리에서는 max()로 묶어 쓴다.
+ */
+@Component
+public class BacklogMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacklogMetrics.class);
+
+    private final VideoRepository videoRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserRepository userRepository;
+
+    private final AtomicLong unprocessedVideos = new AtomicLong();
+    private volatile LocalDateTime oldestUnprocessedAt;
+    private final Map<OutboxEvent.Status, AtomicLong> detectionQueue = new EnumMap<>(OutboxEvent.Status.class);
+    private volatile LocalDateTime oldestPendingDetectionAt;
+    private final MultiGauge channelCollectionAge;
+
+    @Autowired
+    public BacklogMetrics(VideoRepository videoRepository,
+                          OutboxEventRepository outboxEventRepository,
+                          UserRepository userRepository,
+                          MeterRegistry meterRegistry) {
+        this.videoRepository = videoRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.userRepository = userRepository;
+
+        Gauge.builder("travelmap.videos.unprocessed", unprocessedVideos, AtomicLong::get)
+                .description("상세 정보 처리가 안 된 영상 수 (processed = false)")
+                .register(meterRegistry);
+        Gauge.builder("travelmap.videos.unprocessed.oldest.age", this, metrics -> ageSeconds(metrics.oldestUnprocessedAt))
+                .description("가장 오래된 미처리 영상이 저장된 뒤 지난 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        for (OutboxEvent.Status status : OutboxEvent.Status.values()) {
+            AtomicLong count = new AtomicLong();
+            detectionQueue.put(status, count);
+            Gauge.builder("travelmap.detection.queue", count, AtomicLong::get)
+                    .description("국가 감지(지오코딩 포함) 대기열의 아웃박스 이벤트 수")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("travelmap.detection.queue.oldest.age", this, metrics -> ageSeconds(metrics.oldestPendingDetectionAt))
+                .description("가장 오래 기다린 국가 감지 대기 이벤트가 쌓인 뒤 지난 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        this.channelCollectionAge = MultiGauge.builder("travelmap.channel.collection.age")
+                .description("채널 영상 수집이 마지막으로 성공한 뒤 지난 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${travelmap.metrics.refresh-ms:30000}", initialDelayString = "${travelmap.metrics.refresh-ms:30000}")
+    public void refresh() {
+        try {
+            unprocessedVideos.set(videoRepository.countByProcessedFalse());
+            oldestUnprocessedAt = videoRepository.findOldestUnprocessedCreatedAt();
+
+            for (Map.Entry<OutboxEvent.Status, AtomicLong> entry : detectionQueue.entrySet()) {
+                entry.getValue().set(outboxEventRepository.countByEventTypeAndStatus(OutboxEvent.VIDEO_INGESTED, entry.getKey()));
+            }
+            oldestPendingDetectionAt = outboxEventRepository.findOldestCreatedAt(
+                    OutboxEvent.VIDEO_INGESTED, OutboxEvent.Status.PENDING);
+
+            List<MultiGauge.Row<?>> rows = new ArrayList<>();
+            for (Object[] row : userRepository.findLastCollectedTimes()) {
+                LocalDateTime collectedAt = (LocalDateTime) row[1];
+                rows.add(MultiGauge.Row.of(Tags.of("channel", String.valueOf(row[0])), collectedAt, BacklogMetrics::ageSeconds));
+            }
+            channelCollectionAge.register(rows, true);
+        } catch (Exception e) {
+            logger.warn("밀림 지표 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    private static double ageSeconds(LocalDateTime since) {
+        return since != null ? Math.max(0, Duration.between(since, LocalDateTime.now()).toMillis() / 1000.0) : 0.0;
+    }
+}
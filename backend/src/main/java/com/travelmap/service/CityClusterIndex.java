@@ -0,0 +1,260 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.CityClusterDto;
+import com.travelmap.event.VisitFactsRefreshedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 도시 마커용 줌별 격자 클러스터 인덱스 (메모리).
+ * 줌 z에서 세계 지도는 256·2^z 픽셀(Web Mercator)이고, 이를 64픽셀 칸(축마다 2^(z+2)칸)으로 나눠 칸마다 도시들을 미리 합쳐 둔다.
+ * 칸은 (y, x) 순으로 정렬된 키 배열에 들어 있어서 화면 범위 조회는 보이는 칸 행마다 이진 탐색 + 연속 구간 읽기로 끝난다
+ * (전체 도시 수가 아니라 화면에 걸친 칸 수에 비례).
+ * 방문 국가 읽기 모델({@link VisitFactIndex})이 커밋된 변경을 반영해 새 스냅샷을 낼 때마다 그 스냅샷에서 다시 만들어 갈아 끼운다.
+ */
+@Service
+public class CityClusterIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityClusterIndex.class);
+
+    // 이 줌보다 크게 확대하면 이 줌의 격자를 그대로 쓴다 (지도 maxZoom과 맞춤)
+    public static final int MAX_ZOOM = 10;
+
+    // Web Mercator에서 표현 가능한 위도 한계
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private volatile Grids grids;
+
+    /**
+     * 읽기 모델이 갈아 끼워질 때마다 (갱신 스레드에서) 격자를 다시 만든다
+     */
+    @EventListener
+    public void onVisitFactsRefreshed(VisitFactsRefreshedEvent event) {
+        VisitFacts facts = event.getFacts();
+        if (facts == null) {
+            grids = null;
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        Grids previous = grids;
+        grids = build(facts, previous != null ? previous.generation + 1 : 1);
+        logger.debug("도시 클러스터 인덱스 갱신: 도시 {}개, {}ms",
+                grids.cityCount, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 아직 만들어지지 않았거나 읽기 모델이 꺼져 있으면 false
+     */
+    public boolean isReady() {
+        return grids != null;
+    }
+
+    /**
+     * 격자가 바뀔 때마다 오르는 번호 (응답 ETag용, 준비 전이면 0)
+     */
+    public long getGeneration() {
+        Grids current = grids;
+        return current != null ? current.generation : 0L;
+    }
+
+    /**
+     * 줌과 화면 범위에 걸친 클러스터들. west > east면 날짜 변경선을 넘는 범위로 보고 둘로 나눠 찾는다.
+     * 준비 전이면 IllegalStateException.
+     */
+    public List<CityClusterDto> findClusters(int zoom, double north, double south, double east, double west) {
+        Grids current = grids;
+        if (current == null) {
+            throw new IllegalStateException("도시 클러스터 인덱스가 아직 준비되지 않음");
+        }
+        ZoomGrid grid = current.zooms[Math.max(0, Math.min(zoom, MAX_ZOOM))];
+
+        List<CityClusterDto> clusters = new ArrayList<>();
+        if (west > east) {
+            grid.collect(north, south, west, 180.0, clusters);
+            grid.collect(north, south, -180.0, east, clusters);
+        } else {
+            grid.collect(north, south, west, east, clusters);
+        }
+        return clusters;
+    }
+
+    public Map<String, Object> getReport() {
+        Grids current = grids;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("ready", current != null);
+        if (current != null) {
+            report.put("generation", current.generation);
+            report.put("cities", current.cityCount);
+            List<Integer> cellsPerZoom = new ArrayList<>();
+            for (ZoomGrid grid : current.zooms) {
+                cellsPerZoom.add(grid.keys.length);
+            }
+            report.put("cellsPerZoom", cellsPerZoom);
+        }
+        return report;
+    }
+
+    private static Grids build(VisitFacts facts, long generation) {
+        // 도시별 방문 횟수 (삭제로 방문이 0이 된 도시는 사전에만 남아 있으므로 건너뜀)
+        long[] visits = new long[facts.cityCount()];
+        for (int row = 0; row < facts.size(); row++) {
+            int city = facts.cityAt(row);
+            if (city != VisitFacts.NONE) {
+                visits[city]++;
+            }
+        }
+
+        int cityCount = 0;
+        for (long count : visits) {
+            if (count > 0) {
+                cityCount++;
+            }
+        }
+
+        ZoomGrid[] zooms = new ZoomGrid[MAX_ZOOM + 1];
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            zooms[zoom] = buildZoom(facts, visits, zoom);
+        }
+        return new Grids(generation, cityCount, zooms);
+    }
+
+    private static ZoomGrid buildZoom(VisitFacts facts, long[] visits, int zoom) {
+        int cells = 1 << (zoom + 2);
+        Map<Long, Cell> byKey = new HashMap<>();
+        for (int city = 0; city < visits.length; city++) {
+            if (visits[city] == 0) {
+                continue;
+            }
+            double latitude = facts.cityLatitude(city);
+            double longitude = facts.cityLongitude(city);
+            long key = key(cellY(latitude, cells), cellX(longitude, cells));
+            Cell cell = byKey.computeIfAbsent(key, k -> new Cell());
+            cell.add(city, latitude, longitude, visits[city]);
+        }
+
+        long[] keys = new long[byKey.size()];
+        int i = 0;
+        for (Long key : byKey.keySet()) {
+            keys[i++] = key;
+        }
+        Arrays.sort(keys);
+
+        CityClusterDto[] clusters = new CityClusterDto[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            clusters[k] = byKey.get(keys[k]).toDto(facts);
+        }
+        return new ZoomGrid(cells, keys, clusters);
+    }
+
+    private static long key(int y, int x) {
+        return ((long) y << 32) | x;
+    }
+
+    static int cellX(double longitude, int cells) {
+        double normalized = (longitude + 180.0) / 360.0;
+        return clamp((int) Math.floor(normalized * cells), cells);
+    }
+
+    static int cellY(double latitude, int cells) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double radians = Math.toRadians(clamped);
+        double normalized = (1.0 - Math.log(Math.tan(radians) + 1.0 / Math.cos(radians)) / Math.PI) / 2.0;
+        return clamp((int) Math.floor(normalized * cells), cells);
+    }
+
+    private static int clamp(int index, int cells) {
+        return Math.max(0, Math.min(index, cells - 1));
+    }
+
+    private static final class Grids {
+        final long generation;
+        final int cityCount;
+        final ZoomGrid[] zooms;
+
+        Grids(long generation, int cityCount, ZoomGrid[] zooms) {
+            this.generation = generation;
+            this.cityCount = cityCount;
+            this.zooms = zooms;
+        }
+    }
+
+    /**
+     * 한 줌의 격자: (y, x) 키 오름차순 배열과 같은 순서의 클러스터
+     */
+    private static final class ZoomGrid {
+        final int cells;
+        final long[] keys;
+        final CityClusterDto[] clusters;
+
+        ZoomGrid(int cells, long[] keys, CityClusterDto[] clusters) {
+            this.cells = cells;
+            this.keys = keys;
+            this.clusters = clusters;
+        }
+
+        void collect(double north, double south, double west, double east, List<CityClusterDto> out) {
+            int top = cellY(north, cells);
+            int bottom = cellY(south, cells);
+            int left = cellX(west, cells);
+            int right = cellX(east, cells);
+            for (int y = Math.min(top, bottom); y <= Math.max(top, bottom); y++) {
+                long last = key(y, right);
+                int index = lowerBound(key(y, left));
+                while (index < keys.length && keys[index] <= last) {
+                    out.add(clusters[index]);
+                    index++;
+                }
+            }
+        }
+
+        private int lowerBound(long target) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * 격자를 만드는 동안 칸 하나의 누적값 (좌표는 방문 횟수 가중 합)
+     */
+    private static final class Cell {
+        double weightedLatitude;
+        double weightedLongitude;
+        long visitCount;
+        int cityCount;
+        int firstCity;
+
+        void add(int city, double latitude, double longitude, long visits) {
+            if (cityCount == 0) {
+                firstCity = city;
+            }
+            weightedLatitude += latitude * visits;
+            weightedLongitude += longitude * visits;
+            visitCount += visits;
+            cityCount++;
+        }
+
+        CityClusterDto toDto(VisitFacts facts) {
+            boolean single = cityCount == 1;
+            return new CityClusterDto(
+                    weightedLatitude / visitCount,
+                    weightedLongitude / visitCount,
+                    cityCount,
+                    visitCount,
+                    single ? facts.cityName(firstCity) : null,
+                    single ? facts.cityCountryCode(firstCity) : null);
+        }
+    }
+}
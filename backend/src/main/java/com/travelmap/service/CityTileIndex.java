@@ -0,0 +1,355 @@
+package com.travelmap.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelmap.dto.UserDto;
+import com.travelmap.event.VisitFactsRefreshedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 도시 방문 타일 인덱스 (/api/tiles/{z}/{x}/{y}, 표준 256픽셀 Web Mercator 타일 주소).
+ * 타일 하나 = 그 안에 든 도시들의 [이름, 위도, 경도, 국가 코드, 방문 횟수, 상위 유튜버들] 배열.
+ * 타일마다 내용 해시를 들고 있어서, 데이터가 바뀌어도 도시가 바뀌지 않은 타일은 해시(=ETag, 버전 붙은 URL)가 그대로다.
+ * 그래서 클라이언트/엣지는 바뀐 타일만 새로 받는다. 직렬화한 타일 바이트는 (타일, 해시) 단위로 LRU 캐시에 둔다.
+ * 방문 국가 읽기 모델({@link VisitFactIndex})이 새 스냅샷을 낼 때마다 그 스냅샷에서 다시 만든다.
+ */
+@Service
+public class CityTileIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityTileIndex.class);
+
+    public static final int MAX_ZOOM = 12;
+
+    // 도시마다 보여주는 상위 유튜버 수
+    private static final int TOP_YOUTUBERS = 3;
+
+    private static final String EMPTY_HASH = "0";
+    private static final byte[] EMPTY_TILE = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, byte[]> tileCache;
+
+    private volatile Tiles tiles;
+
+    @Autowired
+    public CityTileIndex(ObjectMapper objectMapper,
+                         @Value("${travelmap.tiles.cache.max-entries:5000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.tileCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @EventListener
+    public void onVisitFactsRefreshed(VisitFactsRefreshedEvent event) {
+        VisitFacts facts = event.getFacts();
+        if (facts == null) {
+            tiles = null;
+            tileCache.clear();
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        tiles = build(facts);
+        logger.debug("도시 타일 인덱스 갱신: 도시 {}개, {}ms", tiles.cities.length, System.currentTimeMillis() - startedAt);
+    }
+
+    public boolean isReady() {
+        return tiles != null;
+    }
+
+    /**
+     * 타일 내용 해시 (도시가 없는 타일이면 "0"). 준비 전이면 IllegalStateException.
+     */
+    public String tileHash(int zoom, int x, int y) {
+        Tiles current = requireTiles();
+        validate(zoom, x, y);
+        ZoomTiles level = current.zooms[zoom];
+        int index = level.find(key(y, x));
+        return index >= 0 ? level.hashes[index] : EMPTY_HASH;
+    }
+
+    /**
+     * 화면 범위에 걸친, 도시가 있는 타일들의 "x/y" -> 내용 해시 (west > east면 날짜 변경선을 넘는 범위)
+     */
+    public Map<String, String> manifest(int zoom, double north, double south, double east, double west) {
+        Tiles current = requireTiles();
+        validate(zoom, 0, 0);
+        ZoomTiles level = current.zooms[zoom];
+
+        Map<String, String> manifest = new LinkedHashMap<>();
+        if (west > east) {
+            level.collect(north, south, west, 180.0, manifest);
+            level.collect(north, south, -180.0, east, manifest);
+        } else {
+            level.collect(north, south, west, east, manifest);
+        }
+        return manifest;
+    }
+
+    /**
+     * 타일 본문(JSON 배열 바이트). 같은 (타일, 해시)는 한 번만 직렬화한다.
+     */
+    public byte[] tileBody(int zoom, int x, int y) {
+        Tiles current = requireTiles();
+        validate(zoom, x, y);
+        ZoomTiles level = current.zooms[zoom];
+        int index = level.find(key(y, x));
+        if (index < 0) {
+            return EMPTY_TILE;
+        }
+
+        String cacheKey = zoom + "/" + x + "/" + y + "@" + level.hashes[index];
+        byte[] cached = tileCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = level.starts[index]; i < level.starts[index + 1]; i++) {
+            rows.add(current.cities[level.order[i]].toRow());
+        }
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(rows);
+            tileCache.put(cacheKey, body);
+            return body;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Map<String, Object> getReport() {
+        Tiles current = tiles;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("ready", current != null);
+        report.put("cachedTiles", tileCache.size());
+        if (current != null) {
+            report.put("cities", current.cities.length);
+            List<Integer> tilesPerZoom = new ArrayList<>();
+            for (ZoomTiles level : current.zooms) {
+                tilesPerZoom.add(level.keys.length);
+            }
+            report.put("tilesPerZoom", tilesPerZoom);
+        }
+        return report;
+    }
+
+    private Tiles requireTiles() {
+        Tiles current = tiles;
+        if (current == null) {
+            throw new IllegalStateException("도시 타일 인덱스가 아직 준비되지 않음");
+        }
+        return current;
+    }
+
+    private static void validate(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("지원하지 않는 줌: " + zoom);
+        }
+        int size = 1 << zoom;
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            throw new IllegalArgumentException(String.format("타일 좌표 범위 밖: %d/%d/%d", zoom, x, y));
+        }
+    }
+
+    private static Tiles build(VisitFacts facts) {
+        // 도시별 방문 횟수와 (도시, 유튜버)별 방문 횟수
+        long[] visits = new long[facts.cityCount()];
+        Map<Long, long[]> visitsByCityUser = new HashMap<>();
+        for (int row = 0; row < facts.size(); row++) {
+            int city = facts.cityAt(row);
+            if (city == VisitFacts.NONE) {
+                continue;
+            }
+            visits[city]++;
+            visitsByCityUser.computeIfAbsent(((long) city << 32) | facts.userAt(row), k -> new long[1])[0]++;
+        }
+
+        Map<Integer, List<long[]>> youtubersByCity = new HashMap<>();
+        visitsByCityUser.forEach((key, count) -> youtubersByCity
+                .computeIfAbsent((int) (key >>> 32), k -> new ArrayList<>())
+                .add(new long[]{key & 0xffffffffL, count[0]}));
+
+        List<CityTile> cities = new ArrayList<>();
+        for (int city = 0; city < visits.length; city++) {
+            if (visits[city] == 0) {
+                continue;
+            }
+            List<long[]> youtubers = youtubersByCity.getOrDefault(city, new ArrayList<>());
+            youtubers.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+            List<Object[]> top = new ArrayList<>();
+            for (long[] youtuber : youtubers) {
+                UserDto user = facts.user((int) youtuber[0]);
+                if (user == null) {
+                    continue;
+                }
+                top.add(new Object[]{user.getId(), user.getName(), youtuber[1]});
+                if (top.size() == TOP_YOUTUBERS) {
+                    break;
+                }
+            }
+            cities.add(new CityTile(facts.cityName(city), facts.cityLatitude(city), facts.cityLongitude(city),
+                    facts.cityCountryCode(city), visits[city], top));
+        }
+        CityTile[] cityArray = cities.toArray(new CityTile[0]);
+
+        ZoomTiles[] zooms = new ZoomTiles[MAX_ZOOM + 1];
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            zooms[zoom] = buildZoom(cityArray, zoom);
+        }
+        return new Tiles(cityArray, zooms);
+    }
+
+    private static ZoomTiles buildZoom(CityTile[] cities, int zoom) {
+        int size = 1 << zoom;
+        long[] cityKeys = new long[cities.length];
+        Integer[] boxed = new Integer[cities.length];
+        for (int i = 0; i < cities.length; i++) {
+            cityKeys[i] = key(CityClusterIndex.cellY(cities[i].latitude, size),
+                    CityClusterIndex.cellX(cities[i].longitude, size));
+            boxed[i] = i;
+        }
+        // 타일 키 순, 같은 타일 안에서는 방문 많은 도시 먼저
+        Arrays.sort(boxed, (a, b) -> cityKeys[a] != cityKeys[b]
+                ? Long.compare(cityKeys[a], cityKeys[b])
+                : Long.compare(cities[b].visitCount, cities[a].visitCount));
+
+        int[] order = new int[cities.length];
+        List<Long> keys = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < boxed.length; i++) {
+            order[i] = boxed[i];
+            long tileKey = cityKeys[order[i]];
+            if (keys.isEmpty() || keys.get(keys.size() - 1) != tileKey) {
+                keys.add(tileKey);
+                starts.add(i);
+            }
+        }
+        starts.add(order.length);
+
+        long[] keyArray = keys.stream().mapToLong(Long::longValue).toArray();
+        int[] startArray = starts.stream().mapToInt(Integer::intValue).toArray();
+        String[] hashes = new String[keyArray.length];
+        for (int t = 0; t < keyArray.length; t++) {
+            long hash = 1125899906842597L;
+            for (int i = startArray[t]; i < startArray[t + 1]; i++) {
+                hash = hash * 0x9E3779B97F4A7C15L + cities[order[i]].signature;
+            }
+            hashes[t] = Long.toHexString(hash);
+        }
+        return new ZoomTiles(size, keyArray, startArray, order, hashes);
+    }
+
+    private static long key(int y, int x) {
+        return ((long) y << 32) | x;
+    }
+
+    private static final class Tiles {
+        final CityTile[] cities;
+        final ZoomTiles[] zooms;
+
+        Tiles(CityTile[] cities, ZoomTiles[] zooms) {
+            this.cities = cities;
+            this.zooms = zooms;
+        }
+    }
+
+    /**
+     * 한 줌의 타일들: 타일 키 오름차순, starts[t]..starts[t+1]이 order 안에서 타일 t의 도시 구간
+     */
+    private static final class ZoomTiles {
+        final int size;
+        final long[] keys;
+        final int[] starts;
+        final int[] order;
+        final String[] hashes;
+
+        ZoomTiles(int size, long[] keys, int[] starts, int[] order, String[] hashes) {
+            this.size = size;
+            this.keys = keys;
+            this.starts = starts;
+            this.order = order;
+            this.hashes = hashes;
+        }
+
+        int find(long key) {
+            int index = lowerBound(key);
+            return index < keys.length && keys[index] == key ? index : -1;
+        }
+
+        void collect(double north, double south, double west, double east, Map<String, String> out) {
+            int top = CityClusterIndex.cellY(north, size);
+            int bottom = CityClusterIndex.cellY(south, size);
+            int left = CityClusterIndex.cellX(west, size);
+            int right = CityClusterIndex.cellX(east, size);
+            for (int y = Math.min(top, bottom); y <= Math.max(top, bottom); y++) {
+                long last = key(y, right);
+                for (int index = lowerBound(key(y, left)); index < keys.length && keys[index] <= last; index++) {
+                    out.put((keys[index] & 0xffffffffL) + "/" + y, hashes[index]);
+                }
+            }
+        }
+
+        private int lowerBound(long target) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * 타일에 들어가는 도시 한 곳. signature는 내용이 같으면 같은 값 (타일 해시 재료).
+     */
+    private static final class CityTile {
+        final String name;
+        final double latitude;
+        final double longitude;
+        final String countryCode;
+        final long visitCount;
+        final List<Object[]> topYoutubers;
+        final long signature;
+
+        CityTile(String name, double latitude, double longitude, String countryCode,
+                 long visitCount, List<Object[]> topYoutubers) {
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.countryCode = countryCode;
+            this.visitCount = visitCount;
+            this.topYoutubers = topYoutubers;
+            StringBuilder content = new StringBuilder()
+                    .append(name).append('|').append(latitude).append('|').append(longitude)
+                    .append('|').append(countryCode).append('|').append(visitCount);
+            for (Object[] youtuber : topYoutubers) {
+                content.append('|').append(youtuber[0]).append(':').append(youtuber[1]).append(':').append(youtuber[2]);
+            }
+            this.signature = ByteBuffer.wrap(
+                    DigestUtils.md5Digest(content.toString().getBytes(StandardCharsets.UTF_8))).getLong();
+        }
+
+        Object[] toRow() {
+            return new Object[]{name, latitude, longitude, countryCode, visitCount, topYoutubers};
+        }
+    }
+}
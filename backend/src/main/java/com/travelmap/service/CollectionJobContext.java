@@ -0,0 +1,59 @@
+package com.travelmap.service;
+
+import java.util.Set;
+
+/**
+ * 돌고 있는 수집 작업 하나의 손잡이. 수집 루프가 진행 상황과 채널별 체크포인트를 남기고 취소 요청을 확인하는 데 쓴다.
+ * 구현은 {@link CollectionJobService}에 있고, 작업 없이 바로 부를 때는 {@link #NONE}을 넘긴다.
+ */
+public interface CollectionJobContext {
+
+    CollectionJobContext NONE = new CollectionJobContext() {
+        @Override
+        public boolean isCancelRequested() {
+            return false;
+        }
+
+        @Override
+        public void reportProgress(String currentStatus, int processed, int total, int errors) {
+        }
+
+        @Override
+        public Set<Long> completedChannels() {
+            return Set.of();
+        }
+
+        @Override
+        public void channelCompleted(Long userId, int videoCount) {
+        }
+
+        @Override
+        public void channelFailed(Long userId, String errorMessage) {
+        }
+    };
+
+    /**
+     * 취소가 요청됐으면 true. 호출하는 쪽은 처리 단위(채널/영상) 사이에서 확인하고 멈춘다.
+     */
+    boolean isCancelRequested();
+
+    /**
+     * 진행 상황 (자주 불러도 되고, 저장은 구현이 알아서 솎아 낸다)
+     */
+    void reportProgress(String currentStatus, int processed, int total, int errors);
+
+    /**
+     * 이 작업에서 (이전 실행까지 포함해) 이미 끝낸 채널(User id)들. 이어서 돌 때 건너뛴다.
+     */
+    Set<Long> completedChannels();
+
+    /**
+     * 채널 하나를 끝냈다는 체크포인트 (바로 저장)
+     */
+    void channelCompleted(Long userId, int videoCount);
+
+    /**
+     * 채널 하나가 실패했다는 체크포인트 (이어서 돌 때 다시 시도)
+     */
+    void channelFailed(Long userId, String errorMessage);
+}
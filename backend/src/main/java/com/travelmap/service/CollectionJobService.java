@@ -0,0 +1,556 @@
+package com.travelmap.service;
+
+import com.travelmap.entity.CollectionJob;
+import com.travelmap.event.CollectionJobEvent;
+import com.travelmap.event.CollectionProgressEvent;
+import com.travelmap.entity.CollectionJobChannel;
+import com.travelmap.repository.CollectionJobChannelRepository;
+import com.travelmap.repository.CollectionJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 데이터 수집을 작업(collection_jobs)으로 받아서 백그라운드에서 돌린다.
+ * 요청 스레드는 작업 행만 만들고 작업 id를 바로 돌려주며, 실제 수집은 이 인스턴스의 작업 스레드 하나에서 들어온 순서대로 실행된다
+ * (유튜브 쿼터와 수집 상태를 나눠 쓰므로 한 번에 하나씩).
+ * 진행 상황은 주기적으로 작업 행에 남기면서 이벤트로도 알리고(실시간 스트림), 취소 요청은 어느 인스턴스에서 받든 작업 행에 표시되어 돌고 있는 작업이 확인하고 멈춘다.
+ * 작업을 가진 인스턴스는 전용 스레드로 살아 있음(heartbeat_at)을 표시하고, 표시가 끊긴 작업은 다른 인스턴스가 가져가서
+ * 채널별 체크포인트(collection_job_channels) 다음부터 이어서 돈다. 인스턴스가 중간에 죽어도 이미 끝낸 채널은 다시 수집하지 않는다.
+ * 다른 인스턴스가 돌리는 작업은 인스턴스마다 주기적으로 작업 행을 한 번 읽어 같은 이벤트로 다시 내보내므로,
+ * 어느 레플리카의 실시간 스트림에 붙어 있어도 작업 상태와 수집 진행을 받는다 (클라이언트마다 따로 조회하지 않음).
+ */
+@Service
+public class CollectionJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionJobService.class);
+
+    // 전체 채널을 도는 작업들 - 수집 상태(isCollecting)를 같이 쓰므로 동시에 하나만 받는다
+    private static final Set<CollectionJob.Type> FULL_RUN_TYPES =
+            EnumSet.of(CollectionJob.Type.COLLECT_ALL, CollectionJob.Type.UPDATE_ALL);
+
+    private static final int MAX_LIST_SIZE = 100;
+
+    private final CollectionJobRepository collectionJobRepository;
+    private final CollectionJobChannelRepository collectionJobChannelRepository;
+    private final DataCollectionService dataCollectionService;
+    private final LeaseService leaseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long progressIntervalMs;
+    private final long cancelCheckIntervalMs;
+    private final long staleAfterMs;
+    private final String instanceId;
+
+    // 다른 인스턴스 작업의 마지막으로 중계한 상태 (바뀐 것만 다시 내보낸다)
+    private final Map<Long, Map<String, Object>> relayedJobs = new ConcurrentHashMap<>();
+    // 다른 인스턴스가 돌리고 있는 전체 수집/업데이트의 진행 상태 (없으면 null)
+    private volatile Map<String, Object> remoteCollectionStatus;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "collection-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 스케줄러 스레드가 다른 작업으로 밀려도 살아 있음 표시는 늦지 않도록 따로 돌린다
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "collection-job-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public CollectionJobService(CollectionJobRepository collectionJobRepository,
+                                CollectionJobChannelRepository collectionJobChannelRepository,
+                                DataCollectionService dataCollectionService,
+                                LeaseService leaseService,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                InstanceIdentity instanceIdentity,
+                                @Value("${travelmap.jobs.progress-interval-ms:1000}") long progressIntervalMs,
+                                @Value("${travelmap.jobs.cancel-check-interval-ms:2000}") long cancelCheckIntervalMs,
+                                @Value("${travelmap.jobs.heartbeat-ms:30000}") long heartbeatMs,
+                                @Value("${travelmap.jobs.stale-after-ms:180000}") long staleAfterMs) {
+        this.collectionJobRepository = collectionJobRepository;
+        this.collectionJobChannelRepository = collectionJobChannelRepository;
+        this.dataCollectionService = dataCollectionService;
+        this.leaseService = leaseService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.progressIntervalMs = progressIntervalMs;
+        this.cancelCheckIntervalMs = cancelCheckIntervalMs;
+        this.staleAfterMs = staleAfterMs;
+        this.instanceId = instanceIdentity.getId();
+        this.heartbeat.scheduleWithFixedDelay(this::touchOwnedJobs, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 작업을 만들고 실행을 예약한다. 같은 종류(전체 수집/업데이트는 서로 같은 종류로 봄)가 이미 대기/실행 중이면 그 작업 id와 함께 거절.
+     * 거절 판단과 등록은 active_scope 고유 제약에 거는 한 문장이라, 여러 인스턴스에서 동시에 눌러도 작업은 하나만 생긴다.
+     */
+    public Map<String, Object> submit(CollectionJob.Type type, String searchQuery, String channelName) {
+        String scope = scopeKey(type);
+        Long jobId;
+        if (scope == null) {
+            jobId = collectionJobRepository.save(new CollectionJob(type, searchQuery, channelName, instanceId)).getId();
+        } else {
+            Optional<Long> inserted = insertIfScopeFree(type, searchQuery, channelName, scope);
+            if (inserted.isEmpty()) {
+                Optional<CollectionJob> running = collectionJobRepository.findByActiveScope(scope);
+                if (running.isEmpty()) {
+                    return Map.of("status", "error", "message", "수집 작업 등록이 겹쳤습니다. 잠시 후 다시 시도해 주세요.");
+                }
+                return Map.of(
+                    "status", "error",
+                    "message", "이미 수집 작업이 진행 중입니다.",
+                    "jobId", running.get().getId()
+                );
+            }
+            jobId = inserted.get();
+        }
+
+        worker.submit(() -> run(jobId));
+        logger.info("수집 작업 등록: #{} {}", jobId, type);
+
+        return Map.of(
+            "status", "accepted",
+            "message", String.format("수집 작업 #%d이 등록되었습니다.", jobId),
+            "jobId", jobId
+        );
+    }
+
+    public Optional<CollectionJob> findJob(Long id) {
+        return collectionJobRepository.findById(id);
+    }
+
+    public List<CollectionJob> findRecentJobs(int limit) {
+        return collectionJobRepository.findRecent(PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIST_SIZE))));
+    }
+
+    /**
+     * 취소 요청. 시작 전이면 바로 취소로 끝나고, 실행 중이면 작업이 다음 채널/영상으로 넘어가기 전에 멈춘다.
+     * 작업이 없거나 이미 끝났으면 false.
+     */
+    public boolean cancel(Long id) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int requested = collectionJobRepository.requestCancel(id);
+            if (requested > 0) {
+                collectionJobRepository.cancelQueued(id, LocalDateTime.now());
+            }
+            return requested;
+        });
+        boolean accepted = updated != null && updated > 0;
+        if (accepted) {
+            logger.info("수집 작업 취소 요청: #{}", id);
+        }
+        return accepted;
+    }
+
+    /**
+     * 가진 인스턴스가 죽어 멈춘 작업(대기 중이던 것 포함)을 가져와 이어서 돌린다.
+     * 취소 요청을 받은 채 멈춘 작업은 취소로 끝낸다.
+     */
+    @Scheduled(fixedDelayString = "${travelmap.jobs.recovery-ms:60000}", initialDelayString = "${travelmap.jobs.recovery-ms:60000}")
+    public void resumeStaleJobs() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime cutoff = now.minus(Duration.ofMillis(staleAfterMs));
+            for (Long jobId : collectionJobRepository.findStaleIds(cutoff)) {
+                Integer cancelled = transactionTemplate.execute(status ->
+                        collectionJobRepository.cancelStale(jobId, cutoff, now));
+                if (cancelled != null && cancelled > 0) {
+                    logger.info("멈춘 수집 작업 #{}은 취소 요청이 있어 취소로 종료", jobId);
+                    continue;
+                }
+                Integer claimed = transactionTemplate.execute(status ->
+                        collectionJobRepository.claimStale(jobId, instanceId, cutoff, now));
+                if (claimed != null && claimed > 0) {
+                    logger.info("멈춘 수집 작업 #{} 이어받음 ({})", jobId, instanceId);
+                    worker.submit(() -> run(jobId));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("멈춘 수집 작업 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 인스턴스가 가진 작업들의 상태를 작업 행에서 읽어 이 인스턴스의 실시간 스트림으로 중계한다.
+     * 진행 이벤트는 작업을 돌리는 인스턴스에서만 나오므로, 여기서 인스턴스당 한 번 읽어 연결된 구독자 모두에게 퍼뜨린다.
+     */
+    @Scheduled(fixedDelayString = "${travelmap.jobs.relay-ms:2000}")
+    public void relayRemoteJobs() {
+        try {
+            Set<Long> active = new HashSet<>();
+            Map<String, Object> remoteStatus = null;
+            for (CollectionJob job : collectionJobRepository.findActiveOwnedByOthers(instanceId)) {
+                active.add(job.getId());
+                relay(job);
+                if (remoteStatus == null && job.getStatus() == CollectionJob.Status.RUNNING
+                        && FULL_RUN_TYPES.contains(job.getType())) {
+                    remoteStatus = collectionStatus(job);
+                }
+            }
+
+            // 끝났거나 이 인스턴스로 넘어온 작업: 끝난 상태를 한 번 더 알리고 잊는다 (넘어온 것은 이제 이 인스턴스가 직접 알린다)
+            List<Long> gone = relayedJobs.keySet().stream()
+                    .filter(id -> !active.contains(id))
+                    .collect(Collectors.toList());
+            if (!gone.isEmpty()) {
+                for (CollectionJob job : collectionJobRepository.findAllById(gone)) {
+                    if (!instanceId.equals(job.getOwnerInstance())) {
+                        relay(job);
+                    }
+                }
+                gone.forEach(relayedJobs::remove);
+            }
+            relayCollectionStatus(remoteStatus);
+        } catch (Exception e) {
+            logger.warn("다른 인스턴스 수집 작업 중계 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 클러스터 기준 수집 상태: 이 인스턴스가 수집 중이면 그 상태, 아니면 다른 인스턴스가 돌리는 전체 수집/업데이트의 진행 (없으면 대기)
+     */
+    public Map<String, Object> getCollectionStatus() {
+        Map<String, Object> local = dataCollectionService.getCollectionStatus();
+        Map<String, Object> remote = remoteCollectionStatus;
+        return remote == null || Boolean.TRUE.equals(local.get("isCollecting")) ? local : remote;
+    }
+
+    private void relay(CollectionJob job) {
+        Map<String, Object> view = jobView(job.getId(), job.getType(), job.getStatus(), job.getCurrentStatus(),
+                valueOf(job.getProcessedCount()), valueOf(job.getTotalCount()), valueOf(job.getErrorCount()),
+                job.getResultMessage(), job.getErrorMessage());
+        if (!view.equals(relayedJobs.put(job.getId(), view))) {
+            eventPublisher.publishEvent(new CollectionJobEvent(view));
+        }
+    }
+
+    private void relayCollectionStatus(Map<String, Object> remoteStatus) {
+        Map<String, Object> previous = remoteCollectionStatus;
+        remoteCollectionStatus = remoteStatus;
+        if (Objects.equals(previous, remoteStatus)
+                || Boolean.TRUE.equals(dataCollectionService.getCollectionStatus().get("isCollecting"))) {
+            return;
+        }
+        // 다른 인스턴스 수집이 끝났으면 이 인스턴스의 (대기) 상태로 돌려 놓는다
+        eventPublisher.publishEvent(new CollectionProgressEvent(getCollectionStatus()));
+    }
+
+    // 필드 이름과 모양은 DataCollectionService.getCollectionStatus()와 같게
+    private static Map<String, Object> collectionStatus(CollectionJob job) {
+        int processed = valueOf(job.getProcessedCount());
+        int total = valueOf(job.getTotalCount());
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("isCollecting", true);
+        status.put("currentStatus", job.getCurrentStatus() != null ? job.getCurrentStatus() : "수집 중");
+        status.put("processedCount", processed);
+        status.put("totalCount", total);
+        status.put("progressPercentage", total > 0 ? (processed * 100.0 / total) : 0.0);
+        return status;
+    }
+
+    // 작업 이벤트 내용 (작업을 돌리는 인스턴스가 내보내는 것과 중계하는 것이 같은 모양)
+    private static Map<String, Object> jobView(Long id, CollectionJob.Type type, CollectionJob.Status status,
+                                               String currentStatus, int processed, int total, int errors,
+                                               String resultMessage, String errorMessage) {
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("id", id);
+        job.put("type", type);
+        job.put("status", status);
+        job.put("currentStatus", currentStatus);
+        job.put("processedCount", processed);
+        job.put("totalCount", total);
+        job.put("errorCount", errors);
+        job.put("resultMessage", resultMessage);
+        job.put("errorMessage", errorMessage);
+        return job;
+    }
+
+    private static int valueOf(Integer count) {
+        return count != null ? count : 0;
+    }
+
+    private void touchOwnedJobs() {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    collectionJobRepository.heartbeat(instanceId, LocalDateTime.now()));
+        } catch (Exception e) {
+            logger.warn("수집 작업 heartbeat 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 범위가 비어 있으면 작업을 만들어 id를 돌려주고, 이미 잡혀 있으면 빈 값.
+     * 잡고 있던 작업이 그 사이 끝나서 범위가 비었으면(조회 결과 없음) 한 번 더 만들어 본다.
+     */
+    private Optional<Long> insertIfScopeFree(CollectionJob.Type type, String searchQuery, String channelName, String scope) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            List<Long> inserted = transactionTemplate.execute(status -> collectionJobRepository.insertIfScopeFree(
+                    type.name(), searchQuery, channelName, instanceId, scope, LocalDateTime.now()));
+            if (inserted != null && !inserted.isEmpty()) {
+                return Optional.of(inserted.get(0));
+            }
+            if (collectionJobRepository.findByActiveScope(scope).isPresent()) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void run(Long jobId) {
+        CollectionJob job = collectionJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        // 작업 행 하나는 한 곳에서만 실행하고, 이 임대의 토큰으로 작업 행 쓰기를 펜싱한다
+        Optional<LeaseService.Lease> acquired = leaseService.tryAcquire(LeaseService.jobKey(jobId));
+        if (acquired.isEmpty()) {
+            logger.info("수집 작업 #{}은 다른 인스턴스가 실행 중", jobId);
+            return;
+        }
+        try (LeaseService.Lease jobLease = acquired.get()) {
+            Integer started = transactionTemplate.execute(status ->
+                    collectionJobRepository.markRunning(jobId, instanceId, jobLease.getToken(), LocalDateTime.now()));
+            if (started == null || started == 0) {
+                logger.info("수집 작업 #{}은 시작 전에 취소되었거나 다른 인스턴스로 넘어감", jobId);
+                return;
+            }
+
+            logger.info("수집 작업 시작: #{} {} (토큰 {})", jobId, job.getType(), jobLease.getToken());
+            JobHandle handle = new JobHandle(jobId, job.getType(), jobLease);
+            handle.publish(CollectionJob.Status.RUNNING, null, null);
+            CollectionJob.Status outcome;
+            String resultMessage = null;
+            String errorMessage = null;
+
+            String scopeKey = scopeKey(job.getType());
+            try (LeaseService.Lease scopeLease = scopeKey != null ? leaseService.tryAcquire(scopeKey).orElse(null) : null) {
+                if (scopeKey != null && scopeLease == null) {
+                    outcome = CollectionJob.Status.FAILED;
+                    errorMessage = "이미 같은 종류의 수집이 다른 곳에서 진행 중입니다.";
+                } else {
+                    handle.scopeLease = scopeLease;
+                    Map<String, Object> result = execute(job, handle);
+                    Object status = result.get("status");
+                    Object message = result.get("message");
+                    if ("success".equals(status)) {
+                        outcome = CollectionJob.Status.SUCCEEDED;
+                        resultMessage = message != null ? message.toString() : null;
+                    } else if ("cancelled".equals(status)) {
+                        outcome = CollectionJob.Status.CANCELLED;
+                        resultMessage = message != null ? message.toString() : null;
+                    } else {
+                        outcome = CollectionJob.Status.FAILED;
+                        errorMessage = message != null ? message.toString() : "알 수 없는 오류";
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("수집 작업 실패: #{}", jobId, e);
+                outcome = CollectionJob.Status.FAILED;
+                errorMessage = e.getMessage();
+            }
+
+            handle.flush();
+            CollectionJob.Status finalStatus = outcome;
+            String finalResult = resultMessage;
+            String finalError = errorMessage;
+            Integer finished = transactionTemplate.execute(status -> collectionJobRepository.finish(
+                    jobId, jobLease.getToken(), finalStatus, LocalDateTime.now(), finalResult, finalError));
+            if (finished == null || finished == 0) {
+                // 임대를 잃은 사이 다른 인스턴스가 이어받았다 - 결과는 그쪽이 남긴다
+                logger.warn("수집 작업 #{}을 다른 인스턴스가 가져가서 이 실행의 결과는 버림", jobId);
+                return;
+            }
+            handle.publish(finalStatus, finalResult, finalError);
+            logger.info("수집 작업 종료: #{} {}", jobId, finalStatus);
+        }
+    }
+
+    /**
+     * 실행 종류별 임대 키: 전체 수집/업데이트는 함께 하나, 미처리 영상 처리도 하나. 채널 단위 작업은 채널 임대만 쓴다.
+     */
+    private static String scopeKey(CollectionJob.Type type) {
+        if (FULL_RUN_TYPES.contains(type)) {
+            return LeaseService.runKey("full-collection");
+        }
+        if (type == CollectionJob.Type.PROCESS_UNPROCESSED) {
+            return LeaseService.runKey("process-unprocessed");
+        }
+        return null;
+    }
+
+    private Map<String, Object> execute(CollectionJob job, JobHandle handle) {
+        switch (job.getType()) {
+            case COLLECT_ALL:
+                return dataCollectionService.collectAllData(handle);
+            case UPDATE_ALL:
+                return dataCollectionService.updateAllChannelsData(handle);
+            case PROCESS_UNPROCESSED:
+                return dataCollectionService.processUnprocessedVideos(handle);
+            case COLLECT_CHANNEL:
+                return runSingleChannel(handle, "채널 처리 중: " + job.getSearchQuery(),
+                        () -> dataCollectionService.collectChannelData(job.getSearchQuery()));
+            case ADD_CHANNEL:
+                return runSingleChannel(handle, "채널 추가 중: " + job.getSearchQuery(),
+                        () -> dataCollectionService.addNewChannel(job.getSearchQuery(), job.getChannelName()));
+            default:
+                throw new IllegalArgumentException("알 수 없는 작업 종류: " + job.getType());
+        }
+    }
+
+    /**
+     * 채널 하나짜리 작업은 중간에 멈출 곳이 없으므로 시작/끝만 남긴다
+     */
+    private static Map<String, Object> runSingleChannel(JobHandle handle, String currentStatus,
+                                                        Supplier<Map<String, Object>> action) {
+        handle.reportProgress(currentStatus, 0, 1, 0);
+        Map<String, Object> result = action.get();
+        boolean success = "success".equals(result.get("status"));
+        handle.reportProgress(success ? "완료" : "오류 발생", success ? 1 : 0, 1, success ? 0 : 1);
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        worker.shutdownNow();
+    }
+
+    /**
+     * 작업 스레드에서만 쓰는 손잡이. 진행 상황 저장과 취소 확인(DB 조회)은 각각 정해진 간격보다 자주 하지 않고,
+     * 채널 체크포인트는 채널마다 바로 저장한다. 모든 쓰기에 작업 임대 토큰을 넘기고, 쓰기가 거절되거나 임대를 잃으면
+     * 취소된 것처럼 멈춘다 (다른 인스턴스가 이어받은 뒤라 계속하면 중복 실행이 된다).
+     */
+    private final class JobHandle implements CollectionJobContext {
+        private final Long jobId;
+        private final CollectionJob.Type type;
+        private final LeaseService.Lease jobLease;
+        private LeaseService.Lease scopeLease;
+        private boolean fenced;
+        private boolean cancelled;
+        private long lastCancelCheck;
+        private long lastProgressWrite;
+        private String currentStatus;
+        private int processed;
+        private int total;
+        private int errors;
+        private boolean dirty;
+        private Set<Long> completed;
+
+        JobHandle(Long jobId, CollectionJob.Type type, LeaseService.Lease jobLease) {
+            this.jobId = jobId;
+            this.type = type;
+            this.jobLease = jobLease;
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            if (fenced || jobLease.isLost() || (scopeLease != null && scopeLease.isLost())) {
+                if (!fenced) {
+                    logger.warn("수집 작업 #{}의 임대를 잃어 멈춤", jobId);
+                    fenced = true;
+                }
+                return true;
+            }
+            long now = System.currentTimeMillis();
+            if (!cancelled && now - lastCancelCheck >= cancelCheckIntervalMs) {
+                lastCancelCheck = now;
+                try {
+                    cancelled = collectionJobRepository.findCancelRequested(jobId).orElse(false);
+                } catch (Exception e) {
+                    logger.warn("수집 작업 #{} 취소 여부 확인 실패: {}", jobId, e.getMessage());
+                }
+            }
+            return cancelled;
+        }
+
+        @Override
+        public void reportProgress(String currentStatus, int processed, int total, int errors) {
+            this.currentStatus = currentStatus;
+            this.processed = processed;
+            this.total = total;
+            this.errors = errors;
+            this.dirty = true;
+            if (System.currentTimeMillis() - lastProgressWrite >= progressIntervalMs) {
+                flush();
+            }
+        }
+
+        @Override
+        public Set<Long> completedChannels() {
+            if (completed == null) {
+                completed = new HashSet<>(collectionJobChannelRepository.findDoneUserIds(jobId));
+            }
+            return completed;
+        }
+
+        @Override
+        public void channelCompleted(Long userId, int videoCount) {
+            checkpoint(userId, CollectionJobChannel.Status.DONE, videoCount, null);
+            completedChannels().add(userId);
+        }
+
+        @Override
+        public void channelFailed(Long userId, String errorMessage) {
+            checkpoint(userId, CollectionJobChannel.Status.FAILED, null, errorMessage);
+        }
+
+        private void checkpoint(Long userId, CollectionJobChannel.Status status, Integer videoCount, String errorMessage) {
+            try {
+                Integer written = transactionTemplate.execute(tx -> collectionJobChannelRepository.upsert(
+                        jobId, jobLease.getToken(), userId, status.name(), videoCount, errorMessage));
+                if (written == null || written == 0) {
+                    fenced = true;
+                }
+            } catch (Exception e) {
+                // 체크포인트를 못 남기면 이어서 돌 때 이 채널을 한 번 더 할 뿐이다
+                logger.warn("수집 작업 #{} 채널 {} 체크포인트 저장 실패: {}", jobId, userId, e.getMessage());
+            }
+        }
+
+        void flush() {
+            if (!dirty) {
+                return;
+            }
+            lastProgressWrite = System.currentTimeMillis();
+            dirty = false;
+            try {
+                Integer written = transactionTemplate.execute(status -> collectionJobRepository.updateProgress(
+                        jobId, jobLease.getToken(), currentStatus, processed, total, errors));
+                if (written == null || written == 0) {
+                    fenced = true;
+                }
+            } catch (Exception e) {
+                logger.warn("수집 작업 #{} 진행 상황 저장 실패: {}", jobId, e.getMessage());
+            }
+            publish(CollectionJob.Status.RUNNING, null, null);
+        }
+
+        void publish(CollectionJob.Status status, String resultMessage, String errorMessage) {
+            eventPublisher.publishEvent(new CollectionJobEvent(jobView(jobId, type, status, currentStatus,
+                    processed, total, errors, resultMessage, errorMessage)));
+        }
+    }
+}
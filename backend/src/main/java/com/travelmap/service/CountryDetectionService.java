@@ -4,18 +4,23 @@ import com.travelmap.entity.CityKeyword;
 import com.travelmap.entity.CountryKeyword;
 import com.travelmap.entity.Video;
 import com.travelmap.entity.VisitCountry;
+import com.travelmap.event.DataChangedEvent;
 import com.travelmap.repository.CityKeywordRepository;
 import com.travelmap.repository.CountryKeywordRepository;
 import com.travelmap.repository.VisitCountryRepository;
 import com.travelmap.repository.VideoRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -28,6 +33,11 @@ public class CountryDetectionService {
     private final CountryKeywordRepository countryKeywordRepository;
     private final CityKeywordRepository cityKeywordRepository;
     private final GeocodingService geocodingService;
+    private final CountryStatsService countryStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 감지 단계별 구간 (travelmap.detection.stage, stage 태그로 구분 - 소요 시간 지표와 추적 구간이 같이 남는다)
+    private final ObservationRegistry observationRegistry;
 
     // 대한민국 기본 정보
     private static final CountryInfo DEFAULT_COUNTRY = new CountryInfo("KR", "대한민국", "Asia", "🇰🇷");
@@ -44,18 +54,36 @@ public class CountryDetectionService {
                                     VideoRepository videoRepository,
                                     CountryKeywordRepository countryKeywordRepository,
                                     CityKeywordRepository cityKeywordRepository,
-                                    GeocodingService geocodingService) {
+                                    GeocodingService geocodingService,
+                                    CountryStatsService countryStatsService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ObservationRegistry observationRegistry) {
         this.visitCountryRepository = visitCountryRepository;
         this.videoRepository = videoRepository;
         this.countryKeywordRepository = countryKeywordRepository;
         this.cityKeywordRepository = cityKeywordRepository;
         this.geocodingService = geocodingService;
+        this.countryStatsService = countryStatsService;
+        this.eventPublisher = eventPublisher;
+        this.observationRegistry = observationRegistry;
+    }
+
+    private <T> T observeStage(String stage, Supplier<T> work) {
+        return Observation.createNotStarted("travelmap.detection.stage", observationRegistry)
+                .lowCardinalityKeyValue("stage", stage)
+                .observe(work);
     }
 
     /**
-     * 영상 제목에서 국가(및 가능하면 도시) 정보를 추출하고 저장
+     * 영상 제목에서 국가(및 가능하면 도시) 정보를 추출하고 저장 (영상 하나가 travelmap.detection 구간 하나)
      */
     public List<VisitCountry> extractCountriesFromTitle(Video video) {
+        return Observation.createNotStarted("travelmap.detection", observationRegistry)
+                .highCardinalityKeyValue("video.id", video != null ? String.valueOf(video.getVideoId()) : "unknown")
+                .observe(() -> extractCountries(video));
+    }
+
+    private List<VisitCountry> extractCountries(Video video) {
         logger.info("영상 제목에서 국가 추출 시작: {}", video.getTitle());
 
         // 기본 반환값
@@ -88,66 +116,24 @@ public class CountryDetectionService {
                 persistentVideo = video;
             }
 
-            List<DetectedLocation> detectedLocations = new ArrayList<>();
-
-            // 1. 국기 이모지로 국가 탐지 (예외 처리)
-            try {
-                detectedLocations.addAll(detectCountriesByFlagEmoji(persistentVideo.getTitle()));
-            } catch (Exception e) {
-                logger.warn("국기 이모지 탐지 실패: {} - {}", persistentVideo.getVideoId(), e.getMessage());
-            }
-
-            // 2. 도시명 키워드로 국가+도시 탐지 (예외 처리)
-            try {
-                detectedLocations.addAll(detectCitiesByKeywords(persistentVideo.getTitle()));
-            } catch (Exception e) {
-                logger.warn("도시 키워드 탐지 실패: {} - {}", persistentVideo.getVideoId(), e.getMessage());
-            }
-
-            // 3. 국가명 키워드로 국가 탐지 (예외 처리)
-            try {
-                detectedLocations.addAll(detectCountriesByKeywords(persistentVideo.getTitle()));
-            } catch (Exception e) {
-                logger.warn("키워드 탐지 실패: {} - {}", persistentVideo.getVideoId(), e.getMessage());
-            }
-
-            // 중복 제거 (예외 처리) - 같은 국가가 여러 번 감지되면 도시 정보가 있는 쪽을 우선한다
-            try {
-                detectedLocations = removeDuplicateDetectedLocations(detectedLocations);
-            } catch (Exception e) {
-                logger.warn("중복 제거 실패: {} - {}", persistentVideo.getVideoId(), e.getMessage());
-                // 중복 제거 실패해도 계속 진행
-            }
+            // 1~3. 국기 이모지/도시 키워드/국가 키워드로 탐지
+            List<DetectedLocation> detectedLocations = detectLocations(persistentVideo.getTitle());
 
             // 4. 키워드 사전으로 못 찾은 경우 외부 지오코딩(Nominatim)으로 지명 탐지 시도
             //    (성공하면 키워드 테이블에 자동 등록되어 다음부터는 1~3단계에서 바로 잡힌다)
             if (detectedLocations.isEmpty()) {
                 try {
-                    detectedLocations.addAll(geocodingService.detectLocationsFromTitle(persistentVideo.getTitle()));
+                    String title = persistentVideo.getTitle();
+                    detectedLocations.addAll(observeStage("geocoding", () -> geocodingService.detectLocationsFromTitle(title)));
                 } catch (Exception e) {
                     logger.warn("지오코딩 탐지 실패: {} - {}", persistentVideo.getVideoId(), e.getMessage());
                 }
             }
 
-            // 5. 그래도 못 찾은 경우 기본값(대한민국) 사용
-            if (detectedLocations.isEmpty()) {
-                logger.info("제목에서 국가를 찾지 못해 기본값 사용: {}", persistentVideo.getVideoId());
-                detectedLocations.add(new DetectedLocation(DEFAULT_COUNTRY));
-            }
-
-            // 6. 데이터베이스에 저장 또는 업데이트 (예외 처리)
-            try {
-                savedCountries = saveOrUpdateCountries(persistentVideo, detectedLocations);
-            } catch (Exception e) {
-                logger.warn("국가 정보 저장 실패, 기본값으로 재시도: {} - {}", persistentVideo.getVideoId(), e.getMessage());
-                // 저장 실패 시 기본값으로라도 저장 시도
-                try {
-                    savedCountries = saveDefaultCountry(persistentVideo);
-                } catch (Exception fallbackError) {
-                    logger.error("기본값 저장도 실패: {} - {}", persistentVideo.getVideoId(), fallbackError.getMessage());
-                    // 완전히 실패해도 빈 리스트 반환하고 계속 진행
-                }
-            }
+            // 5~6. 기본값 처리 후 저장
+            Video target = persistentVideo;
+            List<DetectedLocation> locations = detectedLocations;
+            savedCountries = observeStage("persist", () -> saveDetectedLocations(target, locations));
 
             logger.info("영상에서 {}개 국가 처리 완료: {}", savedCountries.size(), video.getVideoId());
 
@@ -160,6 +146,75 @@ public class CountryDetectionService {
         return savedCountries;
     }
 
+    /**
+     * 제목에서 국기 이모지/도시 키워드/국가 키워드로 지명을 탐지 (외부 지오코딩과 저장은 하지 않음).
+     * 같은 국가가 여러 번 감지되면 도시 정보가 있는 쪽을 남긴다.
+     */
+    private List<DetectedLocation> detectLocations(String title) {
+        List<DetectedLocation> detectedLocations = new ArrayList<>();
+
+        // 1. 국기 이모지로 국가 탐지 (예외 처리)
+        try {
+            detectedLocations.addAll(observeStage("emoji", () -> detectCountriesByFlagEmoji(title)));
+        } catch (Exception e) {
+            logger.warn("국기 이모지 탐지 실패: {} - {}", title, e.getMessage());
+        }
+
+        // 2. 도시명 키워드로 국가+도시 탐지 (예외 처리)
+        try {
+            detectedLocations.addAll(observeStage("city_keywords", () -> detectCitiesByKeywords(title)));
+        } catch (Exception e) {
+            logger.warn("도시 키워드 탐지 실패: {} - {}", title, e.getMessage());
+        }
+
+        // 3. 국가명 키워드로 국가 탐지 (예외 처리)
+        try {
+            detectedLocations.addAll(observeStage("country_keywords", () -> detectCountriesByKeywords(title)));
+        } catch (Exception e) {
+            logger.warn("키워드 탐지 실패: {} - {}", title, e.getMessage());
+        }
+
+        // 중복 제거 (예외 처리)
+        try {
+            detectedLocations = removeDuplicateDetectedLocations(detectedLocations);
+        } catch (Exception e) {
+            logger.warn("중복 제거 실패: {} - {}", title, e.getMessage());
+            // 중복 제거 실패해도 계속 진행
+        }
+
+        return detectedLocations;
+    }
+
+    /**
+     * 탐지된 지명을 영상의 방문 국가로 저장. 아무것도 못 찾았으면 기본값(대한민국)을 쓰고,
+     * 저장이 실패하면 기본값으로 한 번 더 시도한다.
+     */
+    private List<VisitCountry> saveDetectedLocations(Video video, List<DetectedLocation> detectedLocations) {
+        List<VisitCountry> savedCountries = new ArrayList<>();
+
+        // 5. 그래도 못 찾은 경우 기본값(대한민국) 사용
+        if (detectedLocations.isEmpty()) {
+            logger.info("제목에서 국가를 찾지 못해 기본값 사용: {}", video.getVideoId());
+            detectedLocations = Collections.singletonList(new DetectedLocation(DEFAULT_COUNTRY));
+        }
+
+        // 6. 데이터베이스에 저장 또는 업데이트 (예외 처리)
+        try {
+            savedCountries = saveOrUpdateCountries(video, detectedLocations);
+        } catch (Exception e) {
+            logger.warn("국가 정보 저장 실패, 기본값으로 재시도: {} - {}", video.getVideoId(), e.getMessage());
+            // 저장 실패 시 기본값으로라도 저장 시도
+            try {
+                savedCountries = saveDefaultCountry(video);
+            } catch (Exception fallbackError) {
+                logger.error("기본값 저장도 실패: {} - {}", video.getVideoId(), fallbackError.getMessage());
+                // 완전히 실패해도 빈 리스트 반환하고 계속 진행
+            }
+        }
+
+        return savedCountries;
+    }
+
     /**
      * 국기 이모지로 국가 탐지 (이모지만으로는 도시까지 알 수 없음)
      */
@@ -304,10 +359,12 @@ public class CountryDetectionService {
     }
 
     /**
-     * 국가(및 도시) 정보를 데이터베이스에 저장하거나 업데이트
+     * 국가(및 도시) 정보를 데이터베이스에 저장하거나 업데이트.
+     * 행을 넣고/고치고/지울 때마다 country_stats 집계도 같은 트랜잭션 안에서 같이 맞춘다.
      */
     private List<VisitCountry> saveOrUpdateCountries(Video video, List<DetectedLocation> detectedLocations) {
         List<VisitCountry> savedCountries = new ArrayList<>();
+        DataChangedEvent changes = new DataChangedEvent();
 
         try {
             // Video 객체 검증
@@ -381,6 +438,8 @@ public class CountryDetectionService {
                                 visitCountry.setDetectionMethod("TITLE_UPDATE");
                                 visitCountry.setConfidenceScore(0.8);
                                 visitCountry = visitCountryRepository.save(visitCountry);
+                                countryStatsService.recordVisitUpdated(visitCountry);
+                                changes.visitSaved(visitCountry);
                                 logger.debug("국가 정보 업데이트: {} ({})", countryInfo.getName(), countryInfo.getCode());
                             }
 
@@ -417,6 +476,8 @@ public class CountryDetectionService {
                             }
 
                             visitCountry = visitCountryRepository.save(visitCountry);
+                            countryStatsService.recordVisitAdded(visitCountry);
+                            changes.visitSaved(visitCountry);
                             savedCountries.add(visitCountry);
 
                             logger.debug("새 국가 정보 저장: {} ({}){}", countryInfo.getName(), countryInfo.getCode(),
@@ -450,6 +511,8 @@ public class CountryDetectionService {
                     if (!detectedCodes.contains(entry.getKey())) {
                         try {
                             visitCountryRepository.delete(entry.getValue());
+                            countryStatsService.recordVisitRemoved(entry.getValue());
+                            changes.visitRemoved(entry.getValue());
                             logger.debug("더 이상 감지되지 않는 국가 정보 삭제: {} ({})",
                                     entry.getValue().getCountryName(), entry.getKey());
                         } catch (Exception e) {
@@ -465,6 +528,11 @@ public class CountryDetectionService {
                     video != null ? video.getVideoId() : "unknown", e.getMessage());
         }
 
+        // 실제로 바뀐 게 있으면 커밋 후 캐시들이 정리되도록 알린다
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(changes);
+        }
+
         return savedCountries;
     }
 
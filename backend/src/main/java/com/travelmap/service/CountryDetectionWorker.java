@@ -0,0 +1,231 @@
+package com.travelmap.service;
+
+import com.travelmap.entity.OutboxEvent;
+import com.travelmap.entity.Video;
+import com.travelmap.entity.VisitCountry;
+import com.travelmap.event.OutboxEventRecordedEvent;
+import com.travelmap.repository.OutboxEventRepository;
+import com.travelmap.repository.VideoRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 국가 감지 소비자. 영상 저장 때 아웃박스에 쌓인 VIDEO_INGESTED 이벤트를 가져가서
+ * 제목으로 방문 국가를 감지/저장한다 (키워드 → 지오코딩 → 기본값, {@link CountryDetectionService}).
+ *
+ * 수집 쪽은 영상만 저장하고 바로 다음 채널로 넘어가므로 감지/지오코딩을 기다리지 않는다.
+ * 가져가기는 FOR UPDATE SKIP LOCKED라 모든 인스턴스에서 워커를 돌려도 한 이벤트는 한 곳에서만 처리되고,
+ * 처리 중 인스턴스가 죽으면 claim-timeout 뒤에 다른 워커가 다시 가져간다 (감지는 다시 해도 같은 결과라 안전).
+ * 실패하면 점점 길게 쉬었다가 다시 시도하고, max-attempts를 넘기면 FAILED로 남긴다.
+ * 이벤트 하나의 처리는 이벤트를 기록한 수집 추적(traceparent)에 이어지는 구간으로 남는다.
+ */
+@Service
+public class CountryDetectionWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CountryDetectionWorker.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final VideoRepository videoRepository;
+    private final CountryDetectionService countryDetectionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObservationRegistry observationRegistry;
+    private final String instanceId;
+    private final int workerCount;
+    private final int claimBatch;
+    private final long pollMs;
+    private final long claimTimeoutMs;
+    private final long retryDelayMs;
+    private final int maxAttempts;
+
+    private final ExecutorService workers;
+    // 같은 인스턴스에서 새 이벤트가 커밋되면 쉬고 있는 워커를 바로 깨운다
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @Autowired
+    public CountryDetectionWorker(OutboxEventRepository outboxEventRepository,
+                                  VideoRepository videoRepository,
+                                  CountryDetectionService countryDetectionService,
+                                  PlatformTransactionManager transactionManager,
+                                  InstanceIdentity instanceIdentity,
+                                  ObservationRegistry observationRegistry,
+                                  @Value("${travelmap.outbox.detection-workers:2}") int workerCount,
+                                  @Value("${travelmap.outbox.claim-batch:10}") int claimBatch,
+                                  @Value("${travelmap.outbox.poll-ms:5000}") long pollMs,
+                                  @Value("${travelmap.outbox.claim-timeout-ms:300000}") long claimTimeoutMs,
+                                  @Value("${travelmap.outbox.retry-delay-ms:30000}") long retryDelayMs,
+                                  @Value("${travelmap.outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.videoRepository = videoRepository;
+        this.countryDetectionService = countryDetectionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.observationRegistry = observationRegistry;
+        this.instanceId = instanceIdentity.getId();
+        this.workerCount = Math.max(0, workerCount);
+        this.claimBatch = Math.max(1, claimBatch);
+        this.pollMs = pollMs;
+        this.claimTimeoutMs = claimTimeoutMs;
+        this.retryDelayMs = retryDelayMs;
+        this.maxAttempts = maxAttempts;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, this.workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "country-detection-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 스키마가 준비된 뒤에 워커를 띄운다 (detection-workers=0이면 이 인스턴스는 감지를 하지 않음)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (int i = 1; i <= workerCount; i++) {
+            String owner = instanceId + "#" + i;
+            workers.execute(() -> workLoop(owner));
+        }
+        logger.info("국가 감지 워커 시작: {}개", workerCount);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOutboxEventRecorded(OutboxEventRecordedEvent event) {
+        if (OutboxEvent.VIDEO_INGESTED.equals(event.getEventType()) && wakeUps.availablePermits() < workerCount) {
+            wakeUps.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void workLoop(String owner) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Long> claimed = transactionTemplate.execute(status -> outboxEventRepository.claim(
+                        OutboxEvent.VIDEO_INGESTED, owner, claimBatch, claimTimeoutMs));
+                if (claimed == null || claimed.isEmpty()) {
+                    wakeUps.tryAcquire(pollMs, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                busyWorkers.incrementAndGet();
+                try {
+                    for (Long eventId : claimed) {
+                        handle(eventId, owner);
+                    }
+                } finally {
+                    busyWorkers.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // DB 연결 문제 등 - 잠깐 쉬었다가 다시 (가져간 이벤트는 claim-timeout 뒤 다시 나온다)
+                logger.error("국가 감지 워커 오류: {}", e.getMessage(), e);
+                try {
+                    Thread.sleep(pollMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(Long eventId, String owner) {
+        Optional<OutboxEvent> found = outboxEventRepository.findById(eventId);
+        if (found.isEmpty()) {
+            return;
+        }
+        OutboxEvent event = found.get();
+
+        ReceiverContext<OutboxEvent> context = new ReceiverContext<>((carrier, key) ->
+                OutboxService.TRACE_PARENT.equals(key) ? carrier.getTraceParent() : null);
+        context.setCarrier(event);
+        Observation observation = Observation.createNotStarted("travelmap.outbox.consume", () -> context, observationRegistry)
+                .lowCardinalityKeyValue("event.type", event.getEventType())
+                .highCardinalityKeyValue("video.id", String.valueOf(event.getAggregateId()))
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            Optional<Video> video = videoRepository.findById(event.getAggregateId());
+            if (video.isPresent()) {
+                List<VisitCountry> saved = countryDetectionService.extractCountriesFromTitle(video.get());
+                if (saved.isEmpty()) {
+                    // 감지 서비스는 오류를 삼키고 빈 목록을 돌려준다 (기본값 저장까지 실패한 경우)
+                    throw new IllegalStateException("방문 국가 저장 실패");
+                }
+            } else {
+                logger.debug("삭제된 영상의 감지 이벤트 건너뜀: {}", event.getAggregateId());
+            }
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.complete(eventId, owner));
+            processed.increment();
+        } catch (Exception e) {
+            observation.error(e);
+            boolean giveUp = event.getAttempts() >= maxAttempts;
+            String error = e.getMessage() != null && e.getMessage().length() > 1000
+                    ? e.getMessage().substring(0, 1000) : e.getMessage();
+            // 시도할수록 더 오래 쉬었다가 다시
+            LocalDateTime retryAt = LocalDateTime.now().plusNanos(retryDelayMs * event.getAttempts() * 1_000_000L);
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.release(eventId, owner,
+                    giveUp ? OutboxEvent.Status.FAILED : OutboxEvent.Status.PENDING, retryAt, error));
+            if (giveUp) {
+                failed.increment();
+                logger.error("국가 감지 포기 ({}회 실패): 영상 {} - {}", event.getAttempts(), event.getAggregateId(), error);
+            } else {
+                retried.increment();
+                logger.warn("국가 감지 실패, 나중에 다시 시도: 영상 {} - {}", event.getAggregateId(), error);
+            }
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * 소비자 상태: 이 인스턴스 워커 수/일하는 워커 수와 처리 누적, 전체(모든 인스턴스) 대기/처리 중/실패 이벤트 수
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stage", "country-detection");
+        metrics.put("workers", workerCount);
+        metrics.put("busyWorkers", busyWorkers.get());
+        metrics.put("pendingEvents", outboxEventRepository.countByEventTypeAndStatus(
+                OutboxEvent.VIDEO_INGESTED, OutboxEvent.Status.PENDING));
+        metrics.put("claimedEvents", outboxEventRepository.countByEventTypeAndStatus(
+                OutboxEvent.VIDEO_INGESTED, OutboxEvent.Status.CLAIMED));
+        metrics.put("failedEvents", outboxEventRepository.countByEventTypeAndStatus(
+                OutboxEvent.VIDEO_INGESTED, OutboxEvent.Status.FAILED));
+        metrics.put("processed", processed.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("givenUp", failed.sum());
+        return metrics;
+    }
+}
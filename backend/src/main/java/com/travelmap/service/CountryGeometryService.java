@@ -0,0 +1,448 @@
+package com.travelmap.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * 지도 국가 경계 GeoJSON을 줌 구간별로 미리 단순화해서 들고 있는다.
+ * 원본은 저장소의 resources/geo에 넣어 둔 Natural Earth 50m (v5.1.2, 속성은 ISO_A2/ISO_A2_EH만 남긴 것)이고, 앱이 뜰 때 한 번 읽어서:
+ * - 국가 코드는 ISO_A2로 정하고 (ISO_A2가 -99인 프랑스/노르웨이 등은 ISO_A2_EH로 채움)
+ * - 이웃 나라와 공유하는 경계는 같은 구간(arc)으로 묶어 한 번만 단순화해서 (Douglas-Peucker) 국경 사이에 틈/겹침이 생기지 않게 하고
+ * - 구간별 정밀도로 좌표를 반올림한 뒤
+ * - JSON + gzip 바이트로 만들어 내용 해시를 버전으로 붙인다 (버전 붙은 URL은 내용이 안 바뀌므로 오래 캐시해도 된다).
+ */
+@Service
+public class CountryGeometryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CountryGeometryService.class);
+
+    // 줌 구간: 허용 오차(도)는 그 구간 최소 줌의 1픽셀 정도, 소수 자릿수는 그보다 한 단계 촘촘하게
+    private static final List<BandSpec> BAND_SPECS = List.of(
+            new BandSpec("low", 0, 3, 0.2, 2),
+            new BandSpec("mid", 4, 5, 0.05, 2),
+            new BandSpec("high", 6, 22, 0.01, 3)
+    );
+
+    private final ObjectMapper objectMapper;
+    private final Resource source;
+
+    private volatile Map<String, Band> bands = Collections.emptyMap();
+
+    @Autowired
+    public CountryGeometryService(ObjectMapper objectMapper,
+                                  @Value("${travelmap.geometry.source:classpath:geo/ne_50m_admin_0_countries.geojson}") Resource source) {
+        this.objectMapper = objectMapper;
+        this.source = source;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!source.exists()) {
+            logger.error("국가 경계 GeoJSON이 없음: {} (resources/geo에 있어야 함 - 경계 엔드포인트는 503으로 답함)", source.getDescription());
+            return;
+        }
+        try {
+            load();
+        } catch (Exception e) {
+            logger.error("국가 경계 GeoJSON 단순화 실패", e);
+        }
+    }
+
+    public boolean isReady() {
+        return !bands.isEmpty();
+    }
+
+    /**
+     * 줌 구간 목록 (이름, 줌 범위, 내용 버전)
+     */
+    public List<Band> getBands() {
+        return new ArrayList<>(bands.values());
+    }
+
+    /**
+     * 이름과 버전이 모두 맞는 구간 (버전이 다르면 빈 값 - 예전 URL로 새 내용을 오래 캐시하게 두지 않는다)
+     */
+    public Optional<Band> findBand(String name, String version) {
+        Band band = bands.get(name);
+        return band != null && band.version.equals(version) ? Optional.of(band) : Optional.empty();
+    }
+
+    private void load() throws IOException {
+        long startedAt = System.currentTimeMillis();
+        JsonNode root;
+        try (InputStream in = source.getInputStream()) {
+            root = objectMapper.readTree(in);
+        }
+
+        Topology topology = Topology.of(root);
+
+        Map<String, Band> built = new LinkedHashMap<>();
+        for (BandSpec spec : BAND_SPECS) {
+            byte[] identity = objectMapper.writeValueAsBytes(topology.render(spec));
+            String version = DigestUtils.md5DigestAsHex(identity).substring(0, 12);
+            built.put(spec.name, new Band(spec, version, ResponseSnapshotService.Snapshot.of(0L, identity)));
+        }
+        bands = built;
+
+        StringBuilder sizes = new StringBuilder();
+        for (Band band : built.values()) {
+            sizes.append(String.format(" %s=%d/%d바이트", band.spec.name,
+                    band.snapshot.body(false).length, band.snapshot.body(true).length));
+        }
+        logger.info("국가 경계 GeoJSON 준비: 국가 {}개, 원본 링 {}개,{} (원본/gzip), {}ms",
+                topology.features.size(), topology.rings.size(), sizes, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 단순화해서 직렬화해 둔 줌 구간 하나
+     */
+    public static final class Band {
+        private final BandSpec spec;
+        private final String version;
+        private final ResponseSnapshotService.Snapshot snapshot;
+
+        private Band(BandSpec spec, String version, ResponseSnapshotService.Snapshot snapshot) {
+            this.spec = spec;
+            this.version = version;
+            this.snapshot = snapshot;
+        }
+
+        public String getName() { return spec.name; }
+        public int getMinZoom() { return spec.minZoom; }
+        public int getMaxZoom() { return spec.maxZoom; }
+        public String getVersion() { return version; }
+        public ResponseSnapshotService.Snapshot getSnapshot() { return snapshot; }
+    }
+
+    private static final class BandSpec {
+        final String name;
+        final int minZoom;
+        final int maxZoom;
+        final double tolerance;
+        final double scale;
+
+        BandSpec(String name, int minZoom, int maxZoom, double tolerance, int decimals) {
+            this.name = name;
+            this.minZoom = minZoom;
+            this.maxZoom = maxZoom;
+            this.tolerance = tolerance;
+            this.scale = Math.pow(10, decimals);
+        }
+    }
+
+    /**
+     * 원본 경계를 링 단위로 풀어 두고, 각 링을 "어느 링들이 같이 지나가는가"가 바뀌는 점(접점)에서 구간으로 자른다.
+     * 이웃한 두 나라의 공유 경계는 같은 점열(방향만 반대)이므로 같은 구간 키가 나오고, 단순화 결과를 함께 쓴다.
+     */
+    private static final class Topology {
+        final List<Feature> features = new ArrayList<>();
+        final List<double[][]> rings = new ArrayList<>();
+        final List<int[]> junctions = new ArrayList<>();
+
+        static Topology of(JsonNode root) {
+            Topology topology = new Topology();
+            for (JsonNode feature : root.path("features")) {
+                JsonNode geometry = feature.path("geometry");
+                String type = geometry.path("type").asText();
+                List<JsonNode> polygons = new ArrayList<>();
+                if ("Polygon".equals(type)) {
+                    polygons.add(geometry.path("coordinates"));
+                } else if ("MultiPolygon".equals(type)) {
+                    geometry.path("coordinates").forEach(polygons::add);
+                } else {
+                    continue;
+                }
+
+                Feature parsed = new Feature(isoCode(feature.path("properties")));
+                for (JsonNode polygon : polygons) {
+                    List<Integer> ringIds = new ArrayList<>();
+                    for (JsonNode ring : polygon) {
+                        double[][] points = openRing(ring);
+                        if (points.length >= 3) {
+                            ringIds.add(topology.rings.size());
+                            topology.rings.add(points);
+                        }
+                    }
+                    if (!ringIds.isEmpty()) {
+                        parsed.polygons.add(ringIds);
+                    }
+                }
+                if (!parsed.polygons.isEmpty()) {
+                    topology.features.add(parsed);
+                }
+            }
+            topology.findJunctions();
+            return topology;
+        }
+
+        private static String isoCode(JsonNode properties) {
+            String iso = properties.path("ISO_A2").asText("-99");
+            if ("-99".equals(iso)) {
+                iso = properties.path("ISO_A2_EH").asText("-99");
+            }
+            return iso;
+        }
+
+        // 닫는 점(처음 점 반복)은 빼고 담는다
+        private static double[][] openRing(JsonNode ring) {
+            int count = ring.size();
+            if (count > 1 && ring.get(0).equals(ring.get(count - 1))) {
+                count--;
+            }
+            double[][] points = new double[count][];
+            for (int i = 0; i < count; i++) {
+                points[i] = new double[]{ring.get(i).get(0).asDouble(), ring.get(i).get(1).asDouble()};
+            }
+            return points;
+        }
+
+        private void findJunctions() {
+            Map<String, Set<Integer>> ringsByPoint = new HashMap<>();
+            for (int r = 0; r < rings.size(); r++) {
+                for (double[] point : rings.get(r)) {
+                    ringsByPoint.computeIfAbsent(pointKey(point), k -> new HashSet<>()).add(r);
+                }
+            }
+
+            for (double[][] ring : rings) {
+                int n = ring.length;
+                List<Set<Integer>> owners = new ArrayList<>(n);
+                for (double[] point : ring) {
+                    owners.add(ringsByPoint.get(pointKey(point)));
+                }
+                List<Integer> found = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    Set<Integer> current = owners.get(i);
+                    if (!current.equals(owners.get((i + n - 1) % n)) || !current.equals(owners.get((i + 1) % n))) {
+                        found.add(i);
+                    }
+                }
+                // 공유 구간이 없는(또는 통째로 공유하는) 링은 처음 점과 거기서 가장 먼 점에서 자른다
+                if (found.size() < 2) {
+                    int anchor = found.isEmpty() ? 0 : found.get(0);
+                    int farthest = anchor;
+                    double best = -1;
+                    for (int i = 0; i < n; i++) {
+                        double dx = ring[i][0] - ring[anchor][0];
+                        double dy = ring[i][1] - ring[anchor][1];
+                        if (dx * dx + dy * dy > best) {
+                            best = dx * dx + dy * dy;
+                            farthest = i;
+                        }
+                    }
+                    found = new ArrayList<>(List.of(Math.min(anchor, farthest), Math.max(anchor, farthest)));
+                    if (found.get(0).equals(found.get(1))) {
+                        found.remove(1);
+                    }
+                }
+                junctions.add(found.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+
+        Map<String, Object> render(BandSpec spec) {
+            Map<String, double[][]> simplifiedArcs = new HashMap<>();
+            List<Object> featureJson = new ArrayList<>();
+            for (Feature feature : features) {
+                List<List<List<double[]>>> polygons = new ArrayList<>();
+                for (List<Integer> ringIds : feature.polygons) {
+                    List<double[]> exterior = simplifyRing(ringIds.get(0), spec, simplifiedArcs);
+                    if (exterior == null) {
+                        continue;
+                    }
+                    List<List<double[]>> polygon = new ArrayList<>();
+                    polygon.add(exterior);
+                    for (int hole : ringIds.subList(1, ringIds.size())) {
+                        List<double[]> simplifiedHole = simplifyRing(hole, spec, simplifiedArcs);
+                        if (simplifiedHole != null) {
+                            polygon.add(simplifiedHole);
+                        }
+                    }
+                    polygons.add(polygon);
+                }
+
+                // 나라가 통째로 사라지지 않게 (작은 섬나라) 가장 큰 링을 단순화 없이 반올림만 해서 남긴다
+                if (polygons.isEmpty()) {
+                    List<double[]> fallback = null;
+                    int bestSize = 0;
+                    for (List<Integer> ringIds : feature.polygons) {
+                        double[][] ring = rings.get(ringIds.get(0));
+                        if (ring.length > bestSize) {
+                            List<double[]> quantized = closeAndQuantize(Arrays.asList(ring), spec);
+                            if (quantized != null) {
+                                fallback = quantized;
+                                bestSize = ring.length;
+                            }
+                        }
+                    }
+                    if (fallback == null) {
+                        continue;
+                    }
+                    polygons.add(List.of(fallback));
+                }
+
+                Map<String, Object> geometry = new LinkedHashMap<>();
+                if (polygons.size() == 1) {
+                    geometry.put("type", "Polygon");
+                    geometry.put("coordinates", polygons.get(0));
+                } else {
+                    geometry.put("type", "MultiPolygon");
+                    geometry.put("coordinates", polygons);
+                }
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("type", "Feature");
+                json.put("properties", Map.of("ISO_A2", feature.isoCode));
+                json.put("geometry", geometry);
+                featureJson.add(json);
+            }
+
+            Map<String, Object> collection = new LinkedHashMap<>();
+            collection.put("type", "FeatureCollection");
+            collection.put("features", featureJson);
+            return collection;
+        }
+
+        /**
+         * 링을 접점 사이 구간별로 단순화해서 다시 잇는다. 점이 3개 미만으로 줄면 null (그 줌에선 안 보일 만큼 작은 링).
+         */
+        private List<double[]> simplifyRing(int ringId, BandSpec spec, Map<String, double[][]> simplifiedArcs) {
+            double[][] ring = rings.get(ringId);
+            int[] cuts = junctions.get(ringId);
+            int n = ring.length;
+
+            List<double[]> points = new ArrayList<>();
+            for (int c = 0; c < cuts.length; c++) {
+                int from = cuts[c];
+                int to = c + 1 < cuts.length ? cuts[c + 1] : cuts[0] + n;
+                if (cuts.length == 1) {
+                    to = from + n;
+                }
+                double[][] arc = new double[to - from + 1][];
+                for (int i = from; i <= to; i++) {
+                    arc[i - from] = ring[i % n];
+                }
+                double[][] simplified = simplifyArc(arc, spec, simplifiedArcs);
+                // 다음 구간의 첫 점과 겹치므로 마지막 점은 뺀다
+                points.addAll(Arrays.asList(simplified).subList(0, simplified.length - 1));
+            }
+            return closeAndQuantize(points, spec);
+        }
+
+        /**
+         * 구간을 정해진 방향(첫 두 점과 마지막 두 점 중 작은 쪽이 앞)으로 놓고 단순화해서, 반대 방향으로 같은 구간을 가진 이웃 링과 결과를 나눠 쓴다
+         */
+        private static double[][] simplifyArc(double[][] arc, BandSpec spec, Map<String, double[][]> simplifiedArcs) {
+            int last = arc.length - 1;
+            String forward = pointKey(arc[0]) + ";" + pointKey(arc[1]);
+            String backward = pointKey(arc[last]) + ";" + pointKey(arc[last - 1]);
+            boolean reversed = forward.compareTo(backward) > 0;
+            double[][] canonical = reversed ? reverse(arc) : arc;
+            String key = (reversed ? backward : forward) + ";" + pointKey(canonical[last]) + ";" + arc.length;
+
+            double[][] simplified = simplifiedArcs.computeIfAbsent(key, k -> douglasPeucker(canonical, spec.tolerance));
+            return reversed ? reverse(simplified) : simplified;
+        }
+
+        private static double[][] douglasPeucker(double[][] points, double tolerance) {
+            int n = points.length;
+            if (n <= 2) {
+                return points;
+            }
+            boolean[] keep = new boolean[n];
+            keep[0] = true;
+            keep[n - 1] = true;
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[]{0, n - 1});
+            while (!stack.isEmpty()) {
+                int[] span = stack.pop();
+                int first = span[0];
+                int last = span[1];
+                double maxDistance = 0;
+                int index = -1;
+                for (int i = first + 1; i < last; i++) {
+                    double distance = segmentDistance(points[i], points[first], points[last]);
+                    if (distance > maxDistance) {
+                        maxDistance = distance;
+                        index = i;
+                    }
+                }
+                if (index >= 0 && maxDistance > tolerance) {
+                    keep[index] = true;
+                    stack.push(new int[]{first, index});
+                    stack.push(new int[]{index, last});
+                }
+            }
+            List<double[]> kept = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (keep[i]) {
+                    kept.add(points[i]);
+                }
+            }
+            return kept.toArray(new double[0][]);
+        }
+
+        private static double segmentDistance(double[] p, double[] a, double[] b) {
+            double dx = b[0] - a[0];
+            double dy = b[1] - a[1];
+            double lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0 : ((p[0] - a[0]) * dx + (p[1] - a[1]) * dy) / lengthSquared;
+            t = Math.max(0, Math.min(1, t));
+            double x = a[0] + t * dx - p[0];
+            double y = a[1] + t * dy - p[1];
+            return Math.sqrt(x * x + y * y);
+        }
+
+        // 좌표를 반올림하고 연속 중복 점을 지운 뒤 닫는다 (서로 다른 점이 3개 미만이면 null)
+        private static List<double[]> closeAndQuantize(List<double[]> points, BandSpec spec) {
+            List<double[]> quantized = new ArrayList<>(points.size() + 1);
+            for (double[] point : points) {
+                double[] rounded = {Math.round(point[0] * spec.scale) / spec.scale,
+                        Math.round(point[1] * spec.scale) / spec.scale};
+                if (quantized.isEmpty() || !Arrays.equals(quantized.get(quantized.size() - 1), rounded)) {
+                    quantized.add(rounded);
+                }
+            }
+            while (quantized.size() > 1 && Arrays.equals(quantized.get(0), quantized.get(quantized.size() - 1))) {
+                quantized.remove(quantized.size() - 1);
+            }
+            if (quantized.size() < 3) {
+                return null;
+            }
+            quantized.add(quantized.get(0));
+            return quantized;
+        }
+
+        private static double[][] reverse(double[][] points) {
+            double[][] reversed = new double[points.length][];
+            for (int i = 0; i < points.length; i++) {
+                reversed[i] = points[points.length - 1 - i];
+            }
+            return reversed;
+        }
+
+        private static String pointKey(double[] point) {
+            return point[0] + "," + point[1];
+        }
+    }
+
+    private static final class Feature {
+        final String isoCode;
+        final List<List<Integer>> polygons = new ArrayList<>();
+
+        Feature(String isoCode) {
+            this.isoCode = isoCode;
+        }
+    }
+}
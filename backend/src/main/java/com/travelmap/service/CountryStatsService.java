@@ -0,0 +1,190 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.MapDataDto;
+import com.travelmap.dto.UserDto;
+import com.travelmap.entity.CountryStat;
+import com.travelmap.entity.Video;
+import com.travelmap.entity.VisitCountry;
+import com.travelmap.repository.CountryStatRepository;
+import com.travelmap.repository.UserRepository;
+import com.travelmap.repository.VisitCountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * country_stats 집계 테이블 관리.
+ * CountryDetectionService가 visit_countries 행을 넣고/고치고/지울 때 같은 트랜잭션 안에서 칸을 증감시키고,
+ * 지도 조회(/api/map-data)는 날짜 범위 필터가 없으면 visit_countries 대신 이 테이블(수백 행)에서 바로 답한다.
+ */
+@Service
+public class CountryStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CountryStatsService.class);
+
+    private final CountryStatRepository countryStatRepository;
+    private final VisitCountryRepository visitCountryRepository;
+    private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public CountryStatsService(CountryStatRepository countryStatRepository,
+                               VisitCountryRepository visitCountryRepository,
+                               UserRepository userRepository,
+                               DataVersionService dataVersionService) {
+        this.countryStatRepository = countryStatRepository;
+        this.visitCountryRepository = visitCountryRepository;
+        this.userRepository = userRepository;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * 새 방문 국가 행이 저장됨
+     */
+    @Transactional
+    public void recordVisitAdded(VisitCountry visitCountry) {
+        applyDelta(visitCountry, 1);
+    }
+
+    /**
+     * 방문 국가 행이 삭제됨
+     */
+    @Transactional
+    public void recordVisitRemoved(VisitCountry visitCountry) {
+        applyDelta(visitCountry, -1);
+    }
+
+    /**
+     * 방문 국가 행의 국가명/이모지/대륙만 바뀜 (횟수는 그대로, 칸의 표시 정보만 갱신 - 칸이 없으면 새로 만들지 않음)
+     */
+    @Transactional
+    public void recordVisitUpdated(VisitCountry visitCountry) {
+        Video video = visitCountry.getVideo();
+        if (video == null || video.getUser() == null) {
+            logger.warn("영상/유튜버 정보가 없어 국가 집계를 건너뜀: {}", visitCountry.getCountryCode());
+            return;
+        }
+
+        countryStatRepository.updateCellInfo(visitCountry.getCountryCode(), visitCountry.getCountryName(),
+                visitCountry.getCountryEmoji(), visitCountry.getContinent(), video.getUser().getId(), uploadYearOf(video));
+    }
+
+    private void applyDelta(VisitCountry visitCountry, long delta) {
+        Video video = visitCountry.getVideo();
+        if (video == null || video.getUser() == null) {
+            logger.warn("영상/유튜버 정보가 없어 국가 집계를 건너뜀: {}", visitCountry.getCountryCode());
+            return;
+        }
+
+        Long userId = video.getUser().getId();
+        int year = uploadYearOf(video);
+
+        countryStatRepository.applyDelta(visitCountry.getCountryCode(), visitCountry.getCountryName(),
+                visitCountry.getCountryEmoji(), visitCountry.getContinent(), userId, year, delta);
+
+        if (delta < 0) {
+            countryStatRepository.deleteIfEmpty(visitCountry.getCountryCode(), userId, year);
+        }
+    }
+
+    /**
+     * 집계 테이블에서 지도 데이터를 만든다 (날짜 범위 필터는 여기서 처리 못 함 - 호출하는 쪽에서 분기)
+     */
+    @Transactional(readOnly = true)
+    public MapDataDto buildMapData(Long userId, String countryCode, String continent, Integer year) {
+        List<Object[]> rows = countryStatRepository.aggregateByCountry(userId, countryCode, continent, year);
+        List<Object[]> pairs = countryStatRepository.findCountryUserPairs(userId, countryCode, continent, year);
+
+        Set<Long> userIds = new HashSet<>();
+        for (Object[] pair : pairs) {
+            userIds.add((Long) pair[1]);
+        }
+
+        Map<Long, UserDto> usersById = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> usersById.put(user.getId(), new UserDto(user)));
+
+        Map<String, List<UserDto>> youtubersByCountry = new HashMap<>();
+        for (Object[] pair : pairs) {
+            UserDto user = usersById.get((Long) pair[1]);
+            if (user != null) {
+                youtubersByCountry.computeIfAbsent((String) pair[0], k -> new ArrayList<>()).add(user);
+            }
+        }
+
+        List<MapDataDto.CountryDataDto> countryDataList = new ArrayList<>();
+        for (Object[] row : rows) {
+            String code = (String) row[0];
+            MapDataDto.CountryDataDto countryData = new MapDataDto.CountryDataDto(
+                    code,
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    ((Number) row[4]).longValue(),
+                    ((Number) row[5]).longValue()
+            );
+            countryData.setYoutubers(youtubersByCountry.getOrDefault(code, new ArrayList<>()));
+            countryDataList.add(countryData);
+        }
+
+        // 방문 횟수 기준 정렬
+        countryDataList.sort((a, b) -> b.getVisitCount().compareTo(a.getVisitCount()));
+
+        return new MapDataDto(countryDataList);
+    }
+
+    /**
+     * visit_countries에서 다시 묶은 값과 집계 테이블을 맞추고, 기존 값과 얼마나 어긋나 있었는지 보고한다.
+     * 어긋난 칸만 고치고 원본에 없는 칸만 지우는 SQL 문 하나라 테이블을 통째로 다시 쓰지 않는다.
+     * 그 문 앞에 country_stats를 잠가서, 증감을 이미 한 감지 트랜잭션은 커밋될 때까지 기다려 그 방문 행까지 세고
+     * 아직 증감 전인 트랜잭션은 재계산이 커밋된 뒤 고친 값 위에 증감하게 한다 (그 사이 증감이 지워지거나 두 번 세지지 않음).
+     */
+    @Transactional
+    public Map<String, Object> reconcile() {
+        long startedAt = System.currentTimeMillis();
+        countryStatRepository.lockForRebuild();
+
+        Object[] result = countryStatRepository.reconcileWithVisits().get(0);
+        long cellCount = ((Number) result[0]).longValue();
+        long driftedCells = ((Number) result[1]).longValue();
+        long visitCountDrift = ((Number) result[2]).longValue();
+        long writtenCells = ((Number) result[3]).longValue();
+
+        if (writtenCells > 0) {
+            // 재계산 결과로 지도 응답 캐시가 다시 만들어지도록 커밋 후 데이터 버전을 올린다 (변경 로그로는 이어 줄 수 없으므로 reset)
+            dataVersionService.resetAfterCommit();
+        }
+
+        long elapsed = System.currentTimeMillis() - startedAt;
+        if (driftedCells > 0) {
+            logger.warn("국가 집계 재계산: {}개 칸이 어긋나 있었음 (방문 횟수 차이 합 {}), {}개 칸 고침, {}ms",
+                    driftedCells, visitCountDrift, writtenCells, elapsed);
+        } else {
+            logger.info("국가 집계 재계산: 어긋난 칸 없음 ({}개 칸, 표시 정보 {}개 칸 고침), {}ms", cellCount, writtenCells, elapsed);
+        }
+
+        return Map.of(
+            "status", "success",
+            "cellCount", cellCount,
+            "driftedCells", driftedCells,
+            "visitCountDrift", visitCountDrift,
+            "writtenCells", writtenCells,
+            "elapsedMillis", elapsed
+        );
+    }
+
+    /**
+     * 집계 테이블이 비어 있는데 원본(visit_countries)은 있는지 (기존 배포에 처음 올라간 경우)
+     */
+    @Transactional(readOnly = true)
+    public boolean needsInitialBuild() {
+        return countryStatRepository.count() == 0 && visitCountryRepository.count() > 0;
+    }
+
+    private int uploadYearOf(Video video) {
+        return video.getUploadDate() != null ? video.getUploadDate().getYear() : CountryStat.UNKNOWN_YEAR;
+    }
+}
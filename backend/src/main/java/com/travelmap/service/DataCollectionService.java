@@ -2,22 +2,35 @@ package com.travelmap.service;
 
 import com.travelmap.entity.User;
 import com.travelmap.entity.Video;
+import com.travelmap.event.CollectionProgressEvent;
 import com.travelmap.repository.UserRepository;
 import com.travelmap.repository.VideoRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 // 클래스 레벨 @Transactional을 의도적으로 두지 않음: 배치 루프(collectAllData/updateAllChannelsData/
 // processUnprocessedVideos) 안에서 개별 항목이 실패해도 해당 항목만 롤백되고 나머지는 계속 처리되어야 하는데,
 // 전체를 하나의 트랜잭션으로 묶으면 내부에서 던져진 런타임 예외가 트랜잭션을 rollback-only로 표시해서
 // try/catch로 잡아도 최종 커밋 시 UnexpectedRollbackException이 발생한다.
+//
+// 실행 하나는 travelmap.collection.run 추적 구간이고, 채널마다의 파이프라인 구간(IngestionPipeline)과
+// YouTube/DB 호출 구간이 그 아래로 붙어서 느린 실행의 시간이 어디에 쓰였는지 타임라인으로 볼 수 있다.
 @Service
 public class DataCollectionService {
     
@@ -26,48 +39,57 @@ public class DataCollectionService {
     @Autowired
     private YouTubeService youTubeService;
     
-    @Autowired
-    private CountryDetectionService countryDetectionService;
-    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private VideoRepository videoRepository;
     
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private LeaseService leaseService;
+    
+    @Autowired
+    private IngestionPipeline ingestionPipeline;
+    
+    @Autowired
+    private ObservationRegistry observationRegistry;
+    
+    // 상태 표시용 (중복 실행은 수집 작업이 잡는 클러스터 임대 - LeaseService - 가 막는다)
     private volatile boolean isCollecting = false;
     private volatile String currentStatus = "대기 중";
     private final AtomicInteger processedCount = new AtomicInteger(0);
     private final AtomicInteger totalCount = new AtomicInteger(0);
     
     /**
-     * 모든 채널의 데이터 수집
+     * 모든 채널의 데이터 수집 (채널 사이마다 작업 취소 요청을 확인한다)
      */
-    public Map<String, Object> collectAllData() {
-        if (isCollecting) {
-            return Map.of(
-                "status", "error",
-                "message", "이미 수집 작업이 진행 중입니다."
-            );
-        }
-        
+    public Map<String, Object> collectAllData(CollectionJobContext job) {
         logger.info("전체 데이터 수집 시작");
         isCollecting = true;
         currentStatus = "전체 데이터 수집 중...";
         processedCount.set(0);
+        publishStatus();
         
+        Observation observation = startRun("collect-all");
+        Observation.Scope scope = observation.openScope();
         try {
-            List<User> users = userRepository.findAll();
+            List<User> users = userRepository.findAllOrderById();
+            Set<Long> completed = job.completedChannels();
             totalCount.set(users.size());
+            processedCount.set(countCompleted(users, completed));
+            publishStatus();
             
-            for (User user : users) {
-                try {
-                    currentStatus = String.format("채널 처리 중: %s", user.getName());
-                    collectChannelData(user.getSearchQuery() != null ? user.getSearchQuery() : user.getName());
-                    processedCount.incrementAndGet();
-                } catch (Exception e) {
-                    logger.error("채널 데이터 수집 실패: {}", user.getName(), e);
-                }
+            // 채널 정보 재수집은 이 스레드에서 차례로 하고, 영상 수집은 파이프라인에서 채널끼리 겹쳐 돈다
+            ChannelRun run = new ChannelRun(job, 50);
+            if (!run.run(users, completed,
+                    user -> youTubeService.saveChannelInfo(user.getSearchQuery() != null ? user.getSearchQuery() : user.getName()))) {
+                return cancelled("전체 데이터 수집");
             }
             
             currentStatus = "완료";
@@ -82,6 +104,7 @@ public class DataCollectionService {
             
         } catch (Exception e) {
             logger.error("전체 데이터 수집 실패", e);
+            observation.error(e);
             currentStatus = "오류 발생";
             
             return Map.of(
@@ -90,6 +113,11 @@ public class DataCollectionService {
             );
         } finally {
             isCollecting = false;
+            publishStatus();
+            // 개별 커밋 이벤트를 놓친 변경(조회수 갱신 등)까지 응답 캐시에서 빠지도록 실행이 끝나면 한 번 더 올린다
+            dataVersionService.bumpAfterCommit();
+            scope.close();
+            observation.stop();
         }
     }
     
@@ -99,82 +127,69 @@ public class DataCollectionService {
     public Map<String, Object> collectChannelData(String searchQuery) {
         logger.info("채널 데이터 수집 시작: {}", searchQuery);
         
+        Observation observation = startRun("collect-channel");
+        Observation.Scope scope = observation.openScope();
         try {
             // 1. 채널 정보 저장
             User user = youTubeService.saveChannelInfo(searchQuery);
             
-            // 2. 최신 영상 50개 수집
-            List<Video> videos = youTubeService.saveChannelVideos(user.getYoutubeChannelId(), 50);
-            
-            // 3. 동기로 국가 감지 처리 (외래키 제약조건 문제 해결)
-            int countryProcessedCount = 0;
-            for (Video video : videos) {
-                try {
-                    // Video 객체가 완전히 영속화된 상태인지 확인
-                    if (video.getId() != null) {
-                        countryDetectionService.extractCountriesFromTitle(video);
-                        countryProcessedCount++;
-                    } else {
-                        logger.warn("Video ID가 null입니다. 국가 감지를 건너뜁니다: {}", video.getVideoId());
-                    }
-                } catch (Exception e) {
-                    logger.error("국가 감지 실패: {} - {}", video.getVideoId(), e.getMessage());
-                    // 개별 비디오 국가 감지 실패해도 계속 진행
-                }
+            // 같은 채널을 다른 작업(다른 인스턴스 포함)이 처리 중이면 건너뛴다
+            LeaseService.Lease channelLease = leaseService.tryAcquire(
+                    LeaseService.channelKey(user.getYoutubeChannelId())).orElse(null);
+            if (channelLease == null) {
+                return channelBusy(user);
             }
+            try (channelLease) {
+                // 2. 최신 영상 50개 수집 (수집 파이프라인, 국가 감지는 국가 감지 워커가 뒤이어 처리)
+                IngestionPipeline.ChannelWork work = ingestionPipeline.ingest(user, 50, channelLease);
+                if (work.getError() != null) {
+                    throw new IllegalStateException(work.getError());
+                }
             
-            return Map.of(
-                "status", "success",
-                "message", String.format("채널 데이터 수집 완료: %d개 영상, %d개 영상 국가 정보 처리", videos.size(), countryProcessedCount),
-                "channelName", user.getName(),
-                "videoCount", videos.size(),
-                "countryProcessedCount", countryProcessedCount
-            );
+                return Map.of(
+                    "status", "success",
+                    "message", String.format("채널 데이터 수집 완료: %d개 영상 (국가 정보는 백그라운드에서 처리됩니다)", work.getSavedCount()),
+                    "channelName", user.getName(),
+                    "videoCount", work.getSavedCount()
+                );
+            }
             
         } catch (Exception e) {
             logger.error("채널 데이터 수집 실패: {}", searchQuery, e);
+            observation.error(e);
             return Map.of(
                 "status", "error",
                 "message", "채널 데이터 수집 실패: " + e.getMessage()
             );
+        } finally {
+            scope.close();
+            observation.stop();
         }
     }
     
     /**
-     * 모든 채널의 데이터 업데이트 (기존 데이터 갱신)
+     * 모든 채널의 데이터 업데이트 (기존 데이터 갱신, 채널 사이마다 작업 취소 요청을 확인한다)
      */
-    public Map<String, Object> updateAllChannelsData() {
+    public Map<String, Object> updateAllChannelsData(CollectionJobContext job) {
         logger.info("전체 채널 데이터 업데이트 시작");
         
-        if (isCollecting) {
-            return Map.of(
-                "status", "error",
-                "message", "이미 수집 작업이 진행 중입니다."
-            );
-        }
-        
         isCollecting = true;
         currentStatus = "데이터 업데이트 중...";
         processedCount.set(0);
+        publishStatus();
         
+        Observation observation = startRun("update-all");
+        Observation.Scope scope = observation.openScope();
         try {
-            List<User> users = userRepository.findAll();
+            List<User> users = userRepository.findAllOrderById();
+            Set<Long> completed = job.completedChannels();
             totalCount.set(users.size());
+            processedCount.set(countCompleted(users, completed));
+            publishStatus();
             
-            for (User user : users) {
-                try {
-                    currentStatus = String.format("채널 업데이트 중: %s", user.getName());
-                    
-                    // 채널 정보 재수집
-                    youTubeService.refreshChannelInfo(user.getYoutubeChannelId());
-                    
-                    // 최신 영상 추가 수집
-                    youTubeService.saveChannelVideos(user.getYoutubeChannelId(), 20);
-                    
-                    processedCount.incrementAndGet();
-                } catch (Exception e) {
-                    logger.error("채널 데이터 업데이트 실패: {}", user.getName(), e);
-                }
+            ChannelRun run = new ChannelRun(job, 20);
+            if (!run.run(users, completed, user -> youTubeService.refreshChannelInfo(user.getYoutubeChannelId()))) {
+                return cancelled("전체 채널 데이터 업데이트");
             }
             
             currentStatus = "완료";
@@ -187,6 +202,7 @@ public class DataCollectionService {
             
         } catch (Exception e) {
             logger.error("전체 채널 데이터 업데이트 실패", e);
+            observation.error(e);
             currentStatus = "오류 발생";
             
             return Map.of(
@@ -195,71 +211,85 @@ public class DataCollectionService {
             );
         } finally {
             isCollecting = false;
+            publishStatus();
+            // 개별 커밋 이벤트를 놓친 변경(조회수 갱신 등)까지 응답 캐시에서 빠지도록 실행이 끝나면 한 번 더 올린다
+            dataVersionService.bumpAfterCommit();
+            scope.close();
+            observation.stop();
         }
     }
     
     /**
-     * 처리되지 않은 영상들 처리
+     * 처리되지 않은 영상들 처리 (id 순 키셋 청크 단위, 청크 사이마다 작업 취소 요청을 확인한다).
+     * 백로그 전체를 한 번에 올리지 않으므로 메모리는 청크 크기(travelmap.backlog.chunk-size)만큼만 쓴다.
+     * 상세 정보는 청크마다 반영하고 국가 감지는 국가 감지 워커에 맡긴다.
      */
-    public Map<String, Object> processUnprocessedVideos() {
+    public Map<String, Object> processUnprocessedVideos(CollectionJobContext job) {
         logger.info("처리되지 않은 영상들 처리 시작");
         
+        Observation observation = startRun("process-unprocessed");
+        Observation.Scope scope = observation.openScope();
         try {
-            List<Video> unprocessedVideos = videoRepository.findByProcessedFalse();
+            long total = videoRepository.countByProcessedFalse();
             
-            if (unprocessedVideos.isEmpty()) {
+            if (total == 0) {
                 return Map.of(
                     "status", "success",
                     "message", "처리할 영상이 없습니다."
                 );
             }
             
-            AtomicInteger processed = new AtomicInteger(0);
+            int totalVideos = (int) Math.min(total, Integer.MAX_VALUE);
+            int processed = 0;
+            int failed = 0;
+            long afterId = 0L;
+            List<Video> chunk;
             
-            for (Video video : unprocessedVideos) {
-                try {
-                    // Video 객체가 완전히 영속화된 상태인지 확인
-                    if (video.getId() != null) {
-                        // 영상 상세 정보 업데이트
-                        Video updatedVideo = youTubeService.updateVideoDetails(video.getVideoId());
-                        
-                        // 업데이트 성공한 경우에만 국가 감지 진행
-                        if (updatedVideo != null) {
-                            // 국가 감지
-                            countryDetectionService.extractCountriesFromTitle(updatedVideo);
-                            
-                            updatedVideo.setProcessed(true);
-                            videoRepository.save(updatedVideo);
-                        } else {
-                            // 상세 정보 업데이트 실패해도 국가 감지는 시도
-                            countryDetectionService.extractCountriesFromTitle(video);
-                            
-                            video.setProcessed(true);
-                            videoRepository.save(video);
-                        }
-                        
-                        processed.incrementAndGet();
-                    } else {
-                        logger.warn("Video ID가 null입니다. 처리를 건너뜁니다: {}", video.getVideoId());
-                    }
+            while (!(chunk = youTubeService.findUnprocessedChunk(afterId)).isEmpty()) {
+                if (job.isCancelRequested()) {
+                    logger.info("처리되지 않은 영상들 처리 취소: {}/{}개 처리됨", processed, totalVideos);
+                    return Map.of(
+                        "status", "cancelled",
+                        "message", String.format("영상 처리가 취소되었습니다 (%d개 처리됨)", processed),
+                        "processedCount", processed,
+                        "totalCount", totalVideos
+                    );
+                }
+                // 실패한 청크도 건너뛰고 다음 청크로 (다음 실행 때 다시 잡힌다)
+                afterId = chunk.get(chunk.size() - 1).getId();
+                Observation chunkObservation = Observation.createNotStarted("travelmap.backlog.chunk", observationRegistry)
+                        .highCardinalityKeyValue("videos", String.valueOf(chunk.size()))
+                        .start();
+                try (Observation.Scope chunkScope = chunkObservation.openScope()) {
+                    processed += youTubeService.processUnprocessedChunk(chunk);
                 } catch (Exception e) {
-                    logger.error("영상 처리 실패: {}", video.getVideoId(), e);
+                    chunkObservation.error(e);
+                    logger.error("영상 청크 처리 실패: id {} 이하 {}개", afterId, chunk.size(), e);
+                    failed += chunk.size();
+                } finally {
+                    chunkObservation.stop();
                 }
+                job.reportProgress("영상 처리 중", processed, totalVideos, failed);
             }
             
             return Map.of(
                 "status", "success",
-                "message", String.format("%d개 영상 처리 완료", processed.get()),
-                "processedCount", processed.get(),
-                "totalCount", unprocessedVideos.size()
+                "message", String.format("%d개 영상 처리 완료", processed),
+                "processedCount", processed,
+                "totalCount", totalVideos
             );
             
         } catch (Exception e) {
             logger.error("처리되지 않은 영상들 처리 실패", e);
+            observation.error(e);
             return Map.of(
                 "status", "error",
                 "message", "영상 처리 중 오류가 발생했습니다: " + e.getMessage()
             );
+        } finally {
+            dataVersionService.bumpAfterCommit();
+            scope.close();
+            observation.stop();
         }
     }
     
@@ -277,12 +307,214 @@ public class DataCollectionService {
         );
     }
     
+    /**
+     * 수집 실행 하나의 추적 구간 (호출한 스레드에 열려 있는 구간이 있으면 그 아래에 붙는다)
+     */
+    private Observation startRun(String job) {
+        return Observation.createNotStarted("travelmap.collection.run", observationRegistry)
+                .lowCardinalityKeyValue("job", job)
+                .start();
+    }
+    
+    private static int countCompleted(List<User> users, Set<Long> completed) {
+        if (completed.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        for (User user : users) {
+            if (completed.contains(user.getId())) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            logger.info("이전 실행에서 이어서 진행: {}개 채널은 이미 완료", count);
+        }
+        return count;
+    }
+    
+    /**
+     * 전체 수집/업데이트 한 번. 채널마다 정보 재수집과 채널 임대는 작업 스레드에서 차례로 하고,
+     * 영상 수집은 파이프라인에 넘겨 여러 채널이 겹쳐 돌게 한다 (파이프라인 앞 큐가 차면 넘기는 쪽이 기다린다).
+     * 파이프라인의 완료 통지는 큐로 받아서, 체크포인트/진행 상황 기록은 작업 스레드에서만 한다.
+     */
+    private final class ChannelRun {
+        private final CollectionJobContext job;
+        private final int maxVideos;
+        private final BlockingQueue<IngestionPipeline.ChannelWork> finished = new LinkedBlockingQueue<>();
+        private final Map<IngestionPipeline.ChannelWork, InFlight> inFlight = new HashMap<>();
+        private int failed = 0;
+        
+        ChannelRun(CollectionJobContext job, int maxVideos) {
+            this.job = job;
+            this.maxVideos = maxVideos;
+        }
+        
+        /**
+         * 채널들을 모두 흘려보내고 끝날 때까지 기다린다. 취소 요청을 받으면 남은 채널을 버리고 false.
+         */
+        boolean run(List<User> users, Set<Long> completed, ChannelRefresher refresher) throws InterruptedException {
+            boolean cancelled = false;
+            try {
+                for (User user : users) {
+                    // 이어서 도는 작업이면 체크포인트가 남은 채널은 건너뛴다
+                    if (completed.contains(user.getId())) {
+                        continue;
+                    }
+                    drain();
+                    if (job.isCancelRequested()) {
+                        cancelled = true;
+                        break;
+                    }
+                    submit(user, refresher);
+                }
+                
+                while (!inFlight.isEmpty()) {
+                    if (!cancelled && job.isCancelRequested()) {
+                        cancelled = true;
+                    }
+                    if (cancelled) {
+                        inFlight.keySet().forEach(IngestionPipeline.ChannelWork::cancel);
+                    }
+                    IngestionPipeline.ChannelWork work = finished.poll(1, TimeUnit.SECONDS);
+                    if (work != null) {
+                        complete(work);
+                    }
+                }
+            } finally {
+                // 중간에 예외로 나가면 남은 채널을 버리고 임대를 돌려준다
+                for (Map.Entry<IngestionPipeline.ChannelWork, InFlight> entry : inFlight.entrySet()) {
+                    entry.getKey().cancel();
+                    entry.getValue().lease.close();
+                }
+                inFlight.clear();
+            }
+            return !cancelled;
+        }
+        
+        private void submit(User user, ChannelRefresher refresher) throws InterruptedException {
+            LeaseService.Lease channelLease = null;
+            try {
+                currentStatus = String.format("채널 처리 중: %s", user.getName());
+                publishStatus();
+                
+                User refreshed = refresher.refresh(user);
+                
+                // 같은 채널을 다른 작업(다른 인스턴스 포함)이 처리 중이면 건너뛴다
+                channelLease = leaseService.tryAcquire(
+                        LeaseService.channelKey(refreshed.getYoutubeChannelId())).orElse(null);
+                if (channelLease == null) {
+                    logger.info("다른 작업이 처리 중인 채널 건너뜀: {}", user.getName());
+                    channelFailed(user.getId(), "다른 작업이 이 채널을 처리 중");
+                    return;
+                }
+                
+                IngestionPipeline.ChannelWork work = ingestionPipeline.submit(refreshed, maxVideos, channelLease, finished::add);
+                inFlight.put(work, new InFlight(user.getId(), channelLease));
+            } catch (InterruptedException e) {
+                if (channelLease != null) {
+                    channelLease.close();
+                }
+                throw e;
+            } catch (Exception e) {
+                logger.error("채널 데이터 수집 실패: {}", user.getName(), e);
+                if (channelLease != null) {
+                    channelLease.close();
+                }
+                channelFailed(user.getId(), e.getMessage());
+            }
+        }
+        
+        private void drain() {
+            IngestionPipeline.ChannelWork work;
+            while ((work = finished.poll()) != null) {
+                complete(work);
+            }
+        }
+        
+        private void complete(IngestionPipeline.ChannelWork work) {
+            InFlight entry = inFlight.remove(work);
+            if (entry == null) {
+                return;
+            }
+            entry.lease.close();
+            
+            if (work.isCancelled()) {
+                return;
+            }
+            processedCount.incrementAndGet();
+            publishStatus();
+            if (work.isSuccess()) {
+                logger.info("채널 수집 완료: {} ({}개 영상 저장)", work.getUser().getName(), work.getSavedCount());
+                job.channelCompleted(entry.userId, work.getSavedCount());
+                job.reportProgress(currentStatus, processedCount.get(), totalCount.get(), failed);
+            } else {
+                logger.error("채널 데이터 수집 실패: {} - {}", work.getUser().getName(), work.getError());
+                channelFailed(entry.userId, work.getError());
+            }
+        }
+        
+        private void channelFailed(Long userId, String message) {
+            failed++;
+            job.channelFailed(userId, message);
+            job.reportProgress(currentStatus, processedCount.get(), totalCount.get(), failed);
+        }
+    }
+    
+    private static final class InFlight {
+        private final Long userId;
+        private final LeaseService.Lease lease;
+        
+        private InFlight(Long userId, LeaseService.Lease lease) {
+            this.userId = userId;
+            this.lease = lease;
+        }
+    }
+    
+    /**
+     * 전체 수집/업데이트에서 채널을 파이프라인에 넣기 전에 채널 정보를 다시 받아 오는 방법
+     */
+    private interface ChannelRefresher {
+        User refresh(User user) throws IOException;
+    }
+    
+    private static Map<String, Object> channelBusy(User user) {
+        logger.info("다른 작업이 처리 중인 채널: {}", user.getName());
+        return Map.of(
+            "status", "error",
+            "message", String.format("다른 작업이 이 채널을 처리 중입니다: %s", user.getName()),
+            "channelName", user.getName()
+        );
+    }
+    
+    /**
+     * 취소 요청을 받고 멈춘 전체 수집/업데이트의 결과 (finally에서 isCollecting을 내린다)
+     */
+    private Map<String, Object> cancelled(String jobName) {
+        currentStatus = "취소됨";
+        logger.info("{} 취소: {}/{}개 채널 처리됨", jobName, processedCount.get(), totalCount.get());
+        return Map.of(
+            "status", "cancelled",
+            "message", String.format("%s 작업이 취소되었습니다 (%d/%d개 채널 처리됨)", jobName, processedCount.get(), totalCount.get()),
+            "processedCount", processedCount.get(),
+            "totalCount", totalCount.get()
+        );
+    }
+    
+    /**
+     * 바뀐 수집 상태를 알린다 (실시간 이벤트 스트림이 받아서 연결된 클라이언트들에 밀어 줌)
+     */
+    private void publishStatus() {
+        eventPublisher.publishEvent(new CollectionProgressEvent(getCollectionStatus()));
+    }
+    
     /**
      * 새 채널 추가
      */
     public Map<String, Object> addNewChannel(String searchQuery, String channelName) {
         logger.info("새 채널 추가: {} ({})", channelName, searchQuery);
         
+        Observation observation = startRun("add-channel");
+        Observation.Scope scope = observation.openScope();
         try {
             // 채널 정보 수집 및 저장
             User user = youTubeService.saveChannelInfo(searchQuery);
@@ -296,40 +528,37 @@ public class DataCollectionService {
                 );
             }
             
-            // 최신 영상 수집
-            List<Video> videos = youTubeService.saveChannelVideos(user.getYoutubeChannelId(), 50);
-            
-            // 동기로 국가 감지 처리
-            int countryProcessedCount = 0;
-            for (Video video : videos) {
-                try {
-                    // Video 객체가 완전히 영속화된 상태인지 확인
-                    if (video.getId() != null) {
-                        countryDetectionService.extractCountriesFromTitle(video);
-                        countryProcessedCount++;
-                    } else {
-                        logger.warn("Video ID가 null입니다. 국가 감지를 건너뜁니다: {}", video.getVideoId());
-                    }
-                } catch (Exception e) {
-                    logger.error("국가 감지 실패: {} - {}", video.getVideoId(), e.getMessage());
-                    // 개별 비디오 국가 감지 실패해도 계속 진행
-                }
+            // 같은 채널을 다른 작업(다른 인스턴스 포함)이 처리 중이면 건너뛴다
+            LeaseService.Lease channelLease = leaseService.tryAcquire(
+                    LeaseService.channelKey(user.getYoutubeChannelId())).orElse(null);
+            if (channelLease == null) {
+                return channelBusy(user);
             }
+            try (channelLease) {
+                // 최신 영상 수집 (수집 파이프라인, 국가 감지는 국가 감지 워커가 뒤이어 처리)
+                IngestionPipeline.ChannelWork work = ingestionPipeline.ingest(user, 50, channelLease);
+                if (work.getError() != null) {
+                    throw new IllegalStateException(work.getError());
+                }
             
-            return Map.of(
-                "status", "success",
-                "message", String.format("새 채널이 추가되었습니다: %s", user.getName()),
-                "channelName", user.getName(),
-                "videoCount", videos.size(),
-                "countryProcessedCount", countryProcessedCount
-            );
+                return Map.of(
+                    "status", "success",
+                    "message", String.format("새 채널이 추가되었습니다: %s", user.getName()),
+                    "channelName", user.getName(),
+                    "videoCount", work.getSavedCount()
+                );
+            }
             
         } catch (Exception e) {
             logger.error("새 채널 추가 실패: {}", searchQuery, e);
+            observation.error(e);
             return Map.of(
                 "status", "error",
                 "message", "채널 추가 실패: " + e.getMessage()
             );
+        } finally {
+            scope.close();
+            observation.stop();
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,333 @@
+package com.travelmap.service;
+
+import com.travelmap.entity.DataVersion;
+import com.travelmap.entity.DataVersionChange;
+import com.travelmap.event.DataChangedEvent;
+import com.travelmap.event.DataVersionAdvancedEvent;
+import com.travelmap.event.DataVersionChangedEvent;
+import com.travelmap.repository.DataVersionChangeRepository;
+import com.travelmap.repository.DataVersionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 조회용 데이터 전체의 버전 번호. 수집/감지가 뭔가를 커밋할 때마다 올라가고,
+ * 응답 캐시와 ETag는 이 번호가 그대로인 동안만 저장해 둔 결과/검증값을 재사용한다.
+ * 번호는 data_versions 테이블에 두어 재시작해도 이어지고 모든 인스턴스가 같은 값을 보며,
+ * 조회 경로는 DB를 건드리지 않도록 메모리에 들고 있는 값을 쓰고 다른 인스턴스의 변경은 주기적으로 읽어 온다.
+ * 버전을 올리는 트랜잭션에서 지도 변경 로그({@link MapChangeLogService})와 바뀐 영상 목록({@link DataVersionChange})도
+ * 같이 남겨서, 번호와 로그가 어긋나지 않고 다른 인스턴스가 바뀐 영상만 골라 반영할 수 있게 한다.
+ * 메모리 번호는 DB에 올라간 번호로만 움직인다. DB에 못 올렸으면 몇 번 다시 시도하고, 그래도 안 되면 밀린 올림으로 두었다가
+ * 주기 갱신 때 DB에 올린다 (이 인스턴스만 번호를 올려 다른 인스턴스와 같은 번호가 다른 데이터를 가리키는 일이 없게).
+ * 감지는 영상 하나마다 커밋하므로 커밋된 변경은 coalesce-ms 동안 모아서 버전을 한 번만 올린다
+ * (수집 한 번에 버전이 영상 수만큼 올라 ETag/스냅샷/SSE 알림이 그만큼 버려지고 변경 로그가 불어나지 않게).
+ */
+@Service
+public class DataVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataVersionService.class);
+
+    // 커밋 후(DataChangedEvent) 캐시를 버리는 리스너들의 순서 - 버전 올림(맨 마지막)보다 앞
+    public static final int CACHE_INVALIDATION_ORDER = 0;
+
+    private final DataVersionRepository dataVersionRepository;
+    private final DataVersionChangeRepository dataVersionChangeRepository;
+    private final MapChangeLogService mapChangeLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    // 커밋 후 콜백에서도 쓸 수 있도록 항상 새 트랜잭션으로 실행
+    private final TransactionTemplate transactionTemplate;
+    private final long changeRetentionHours;
+    private final int bumpAttempts;
+    private final long coalesceMillis;
+
+    private final AtomicLong version = new AtomicLong(1);
+    // DB에 못 올린 올림들 (순서대로 다시 시도)
+    private final Queue<PendingBump> pendingBumps = new ConcurrentLinkedQueue<>();
+    // 아직 버전에 반영하지 않은 커밋된 변경들 (coalesceLock으로 보호)
+    private final Object coalesceLock = new Object();
+    private DataChangedEvent coalesced;
+    private boolean flushScheduled;
+    private final ScheduledExecutorService bumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "data-version-bump");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public DataVersionService(DataVersionRepository dataVersionRepository,
+                              DataVersionChangeRepository dataVersionChangeRepository,
+                              MapChangeLogService mapChangeLogService,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${travelmap.data-version.change-retention-hours:24}") long changeRetentionHours,
+                              @Value("${travelmap.data-version.bump-attempts:3}") int bumpAttempts,
+                              @Value("${travelmap.data-version.coalesce-ms:1000}") long coalesceMillis) {
+        this.dataVersionRepository = dataVersionRepository;
+        this.dataVersionChangeRepository = dataVersionChangeRepository;
+        this.mapChangeLogService = mapChangeLogService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.changeRetentionHours = changeRetentionHours;
+        this.bumpAttempts = Math.max(1, bumpAttempts);
+        this.coalesceMillis = coalesceMillis;
+    }
+
+    @PostConstruct
+    void init() {
+        Long stored = transactionTemplate.execute(status -> {
+            dataVersionRepository.insertIfAbsent(DataVersion.GLOBAL_ID);
+            return dataVersionRepository.findVersionById(DataVersion.GLOBAL_ID).orElse(1L);
+        });
+        version.set(stored != null ? stored : 1L);
+        mapChangeLogService.ensureStarted(version.get());
+        logger.info("데이터 버전 로드: {}", version.get());
+    }
+
+    /**
+     * 모아 둔 변경이 있으면 내려가기 전에 올린다
+     */
+    @PreDestroy
+    void shutdown() {
+        bumper.shutdownNow();
+        flushCoalesced();
+    }
+
+    /**
+     * 현재 데이터 버전 (메모리 값, DB 조회 없음)
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 현재 트랜잭션이 있으면 커밋된 뒤에, 없으면 바로 버전을 올린다
+     */
+    public void bumpAfterCommit() {
+        afterCommit(() -> bump(null, false));
+    }
+
+    /**
+     * 버전을 올리면서 지도 변경 로그를 여기서 끊는다 (국가 집계를 통째로 다시 만든 경우 - 클라이언트는 전체를 다시 받음)
+     */
+    public void resetAfterCommit() {
+        afterCommit(() -> bump(null, true));
+    }
+
+    /**
+     * 커밋된 변경을 모아 두었다가 coalesce-ms 뒤에 한 번에 버전을 올린다 (0이면 바로 올림).
+     * 캐시를 버리는 커밋 후 리스너들이 다 돈 뒤에 올려야 새 번호로 만든 응답(스냅샷, ETag)이 아직 안 버려진 캐시 값을 담지 않는다.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        if (coalesceMillis <= 0) {
+            bump(event, false);
+            return;
+        }
+        synchronized (coalesceLock) {
+            if (coalesced == null) {
+                coalesced = new DataChangedEvent();
+            }
+            coalesced.merge(event);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        try {
+            bumper.schedule(this::flushCoalesced, coalesceMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // 종료 중이면 shutdown()이 모아 둔 변경을 올린다
+            logger.debug("데이터 버전 올림 예약 실패: {}", e.getMessage());
+        }
+    }
+
+    private void flushCoalesced() {
+        DataChangedEvent changed;
+        synchronized (coalesceLock) {
+            changed = coalesced;
+            coalesced = null;
+            flushScheduled = false;
+        }
+        if (changed != null) {
+            bump(changed, false);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 밀린 올림을 DB에 올려 보고, 다른 인스턴스가 올린 버전을 읽어 온다
+     */
+    @Scheduled(fixedDelayString = "${travelmap.data-version.refresh-ms:5000}")
+    public void refreshFromDatabase() {
+        retryPendingBumps();
+        try {
+            Long stored = dataVersionRepository.findVersionById(DataVersion.GLOBAL_ID).orElse(null);
+            if (stored == null) {
+                return;
+            }
+            long previous = version.get();
+            if (previous < stored) {
+                logger.info("다른 인스턴스의 데이터 버전 변경 감지: {} -> {}", previous, stored);
+                // 버전 기준 캐시가 새 번호로 다시 계산하기 전에 이벤트 기반 캐시/읽기 모델부터 옛 값임을 알게 한다
+                eventPublisher.publishEvent(new DataVersionChangedEvent(previous, stored));
+                advanceTo(stored);
+            }
+        } catch (Exception e) {
+            logger.warn("데이터 버전 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 바뀐 영상 목록을 지운다 (그보다 오래 뒤처진 인스턴스는 목록이 비어 있으니 통째로 다시 읽는다)
+     */
+    @Scheduled(fixedDelayString = "${travelmap.data-version.compact-ms:3600000}")
+    public void compactChanges() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    dataVersionChangeRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(changeRetentionHours)));
+            if (deleted != null && deleted > 0) {
+                logger.info("데이터 버전 변경 목록 정리: {}개 행 삭제", deleted);
+            }
+        } catch (Exception e) {
+            logger.warn("데이터 버전 변경 목록 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 버전을 올린다. DB에 못 올리면 bumpAttempts번까지 다시 시도하고, 그래도 안 되면 밀린 올림으로 남긴다.
+     * changed가 null이면 무엇이 바뀌었는지 모르는 올림이다.
+     */
+    private void bump(DataChangedEvent changed, boolean resetChanges) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                persistBump(changed, resetChanges);
+                return;
+            } catch (Exception e) {
+                if (attempt >= bumpAttempts) {
+                    logger.error("데이터 버전 저장 실패 ({}회 시도), 다음 갱신 주기에 다시 올림", attempt, e);
+                    pendingBumps.add(new PendingBump(changed, resetChanges));
+                    return;
+                }
+                logger.warn("데이터 버전 저장 실패 ({}회째), 다시 시도: {}", attempt, e.getMessage());
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    pendingBumps.add(new PendingBump(changed, resetChanges));
+                    return;
+                }
+            }
+        }
+    }
+
+    private void retryPendingBumps() {
+        PendingBump pending;
+        while ((pending = pendingBumps.peek()) != null) {
+            try {
+                persistBump(pending.changed, pending.resetChanges);
+                pendingBumps.poll();
+                logger.info("밀린 데이터 버전 올림 반영 (남은 {}개)", pendingBumps.size());
+            } catch (Exception e) {
+                logger.warn("밀린 데이터 버전 올림 재시도 실패 ({}개 대기): {}", pendingBumps.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * DB 번호를 올리고, 같은 트랜잭션에서 바뀐 국가들의 새 합계(또는 reset 표시)와 바뀐 영상 목록을 남긴 뒤 메모리 번호를 맞춘다
+     */
+    private void persistBump(DataChangedEvent changed, boolean resetChanges) {
+        Long stored = transactionTemplate.execute(status -> {
+            dataVersionRepository.increment(DataVersion.GLOBAL_ID);
+            Long next = dataVersionRepository.findVersionById(DataVersion.GLOBAL_ID)
+                    .orElseThrow(() -> new IllegalStateException("data_versions 행이 없음"));
+            if (resetChanges) {
+                mapChangeLogService.recordReset(next);
+            } else if (changed != null) {
+                mapChangeLogService.recordCountries(next, changed.getCountryCodes());
+            }
+            dataVersionChangeRepository.save(versionChange(next, changed, resetChanges));
+            return next;
+        });
+
+        long previous = version.get();
+        if (stored > previous + 1) {
+            // 그 사이 번호는 다른 인스턴스가 올린 것 - 주기 갱신에서 건너뛰지 않도록 여기서 알린다
+            eventPublisher.publishEvent(new DataVersionChangedEvent(previous, stored - 1));
+        }
+        advanceTo(stored);
+        logger.debug("데이터 버전 증가: {}", stored);
+    }
+
+    private static DataVersionChange versionChange(long version, DataChangedEvent changed, boolean reset) {
+        DataVersionChange change = new DataVersionChange();
+        change.setVersion(version);
+        change.setComplete(changed != null && !reset);
+        if (changed != null) {
+            change.setVideoIds(changed.getVideoIds().stream().map(String::valueOf).collect(Collectors.joining(",")));
+            change.setUsersChanged(!changed.getUserIds().isEmpty());
+        }
+        return change;
+    }
+
+    /**
+     * 메모리 버전을 target까지 올린다 (내려가지는 않음). 실제로 올랐으면 알리고, 바뀌기 전 값을 돌려준다.
+     */
+    private long advanceTo(long target) {
+        long previous = version.getAndAccumulate(target, Math::max);
+        if (previous < target) {
+            eventPublisher.publishEvent(new DataVersionAdvancedEvent(target));
+        }
+        return previous;
+    }
+
+    private static final class PendingBump {
+        private final DataChangedEvent changed;
+        private final boolean resetChanges;
+
+        private PendingBump(DataChangedEvent changed, boolean resetChanges) {
+            this.changed = changed;
+            this.resetChanges = resetChanges;
+        }
+    }
+}
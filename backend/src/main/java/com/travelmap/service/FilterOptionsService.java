@@ -0,0 +1,132 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.FilterOptionsDto;
+import com.travelmap.dto.UserDto;
+import com.travelmap.event.DataChangedEvent;
+import com.travelmap.event.DataVersionChangedEvent;
+import com.travelmap.repository.UserRepository;
+import com.travelmap.repository.VideoRepository;
+import com.travelmap.repository.VisitCountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 필터 옵션(유튜버/국가/대륙/연도 목록) 메모리 캐시.
+ * 앱이 뜰 때마다 요청되지만 내용은 수집/감지가 새 유튜버·국가·연도를 커밋할 때만 바뀌므로,
+ * 한 번 만들어 두고 그런 변경이 커밋됐을 때만 버린다.
+ */
+@Service
+public class FilterOptionsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilterOptionsService.class);
+
+    private final UserRepository userRepository;
+    private final VideoRepository videoRepository;
+    private final VisitCountryRepository visitCountryRepository;
+
+    private volatile FilterOptionsDto cached;
+
+    // 무효화될 때마다 증가. 조회 도중 무효화되면 그 결과는 캐시에 넣지 않는다.
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public FilterOptionsService(UserRepository userRepository,
+                                VideoRepository videoRepository,
+                                VisitCountryRepository visitCountryRepository) {
+        this.userRepository = userRepository;
+        this.videoRepository = videoRepository;
+        this.visitCountryRepository = visitCountryRepository;
+    }
+
+    public FilterOptionsDto getFilterOptions() {
+        FilterOptionsDto current = cached;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (cached != null) {
+                return cached;
+            }
+            long loadedGeneration = generation.get();
+            FilterOptionsDto loaded = load();
+            if (generation.get() == loadedGeneration) {
+                cached = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    /**
+     * 새 유튜버, 목록에 없던 국가/대륙/연도, 방문 국가 삭제가 커밋됐을 때만 캐시를 버린다.
+     * 데이터 버전을 올리는 리스너({@link DataVersionService#onDataChanged})보다 먼저 돈다 - 새 버전 스냅샷이 옛 캐시로 만들어지지 않게.
+     */
+    @Order(DataVersionService.CACHE_INVALIDATION_ORDER)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        FilterOptionsDto current = cached;
+        if (current == null || affects(current, event)) {
+            invalidate();
+            logger.debug("필터 옵션 캐시 무효화");
+        }
+    }
+
+    /**
+     * 다른 인스턴스에서 커밋된 변경은 내용을 모르므로 통째로 버린다
+     */
+    @EventListener
+    public void onRemoteVersionChanged(DataVersionChangedEvent event) {
+        invalidate();
+        logger.debug("필터 옵션 캐시 무효화 (다른 인스턴스 변경, 버전 {})", event.getVersion());
+    }
+
+    private boolean affects(FilterOptionsDto current, DataChangedEvent event) {
+        if (!event.getUserIds().isEmpty() || event.isVisitsRemoved()) {
+            return true;
+        }
+        for (Integer year : event.getYears()) {
+            if (!current.getYears().contains(String.valueOf(year))) {
+                return true;
+            }
+        }
+        return !current.getCountries().containsAll(event.getCountryNames())
+                || !current.getContinents().containsAll(event.getContinents());
+    }
+
+    private FilterOptionsDto load() {
+        // 유튜버 목록
+        List<UserDto> users = userRepository.findAll().stream()
+                .map(UserDto::new)
+                .collect(Collectors.toList());
+
+        // 국가 목록
+        List<String> countries = visitCountryRepository.findDistinctCountryNames();
+
+        // 대륙 목록
+        List<String> continents = visitCountryRepository.findDistinctContinents();
+
+        // 연도 목록 (영상 업로드 연도 기준, 최신순)
+        List<String> years = videoRepository.findDistinctUploadYears().stream()
+                .sorted(Comparator.reverseOrder())
+                .map(String::valueOf)
+                .collect(Collectors.toList());
+
+        return new FilterOptionsDto(users, countries, years, continents);
+    }
+}
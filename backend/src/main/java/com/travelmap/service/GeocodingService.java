@@ -8,6 +8,8 @@ import com.travelmap.repository.CityKeywordRepository;
 import com.travelmap.repository.CountryKeywordRepository;
 import com.travelmap.service.CountryDetectionService.CountryInfo;
 import com.travelmap.service.CountryDetectionService.DetectedLocation;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -81,6 +83,7 @@ public class GeocodingService {
     private final ObjectMapper objectMapper;
     private final CountryKeywordRepository countryKeywordRepository;
     private final CityKeywordRepository cityKeywordRepository;
+    private final ObservationRegistry observationRegistry;
     private final boolean enabled;
 
     // 지명이 아닌 걸로 판명된 단어 캐시 (재기동 시 초기화되지만 배치 중 반복 조회를 크게 줄여준다)
@@ -93,10 +96,12 @@ public class GeocodingService {
     public GeocodingService(CountryKeywordRepository countryKeywordRepository,
                              CityKeywordRepository cityKeywordRepository,
                              ObjectMapper objectMapper,
+                             ObservationRegistry observationRegistry,
                              @Value("${geocoding.enabled:true}") boolean enabled) {
         this.countryKeywordRepository = countryKeywordRepository;
         this.cityKeywordRepository = cityKeywordRepository;
         this.objectMapper = objectMapper;
+        this.observationRegistry = observationRegistry;
         this.enabled = enabled;
 
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
@@ -195,34 +200,54 @@ public class GeocodingService {
 
     /**
      * Nominatim 호출 (초당 1회 제한 준수). 결과가 없으면 null.
+     * 호출 한 번이 travelmap.geocoding.nominatim 구간이고, 그 안에서 차례/초당 1회 제한을 기다린 시간은
+     * travelmap.geocoding.throttle 구간으로 따로 남긴다 (느린 실행에서 API 응답과 대기를 구분하려고).
      */
-    private synchronized JsonNode queryNominatim(String term) throws Exception {
-        long sinceLast = System.currentTimeMillis() - lastRequestAt;
-        if (sinceLast < 1100) {
-            Thread.sleep(1100 - sinceLast);
-        }
-        lastRequestAt = System.currentTimeMillis();
+    private JsonNode queryNominatim(String term) throws Exception {
+        Observation observation = Observation.createNotStarted("travelmap.geocoding.nominatim", observationRegistry)
+                .highCardinalityKeyValue("term", term)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            // 다른 워커가 호출 중이면 차례를 기다리는 시간도 대기에 넣는다
+            Observation throttle = Observation.start("travelmap.geocoding.throttle", observationRegistry);
+            synchronized (this) {
+                try {
+                    long sinceLast = System.currentTimeMillis() - lastRequestAt;
+                    if (sinceLast < 1100) {
+                        Thread.sleep(1100 - sinceLast);
+                    }
+                    lastRequestAt = System.currentTimeMillis();
+                } finally {
+                    throttle.stop();
+                }
 
-        String url = UriComponentsBuilder.fromHttpUrl(NOMINATIM_URL)
-                .queryParam("q", term)
-                .queryParam("format", "jsonv2")
-                .queryParam("limit", "1")
-                .queryParam("accept-language", "ko")
-                .queryParam("addressdetails", "1")
-                .build()
-                .toUriString();
+                String url = UriComponentsBuilder.fromHttpUrl(NOMINATIM_URL)
+                        .queryParam("q", term)
+                        .queryParam("format", "jsonv2")
+                        .queryParam("limit", "1")
+                        .queryParam("accept-language", "ko")
+                        .queryParam("addressdetails", "1")
+                        .build()
+                        .toUriString();
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
 
-        ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+                ResponseEntity<String> response = restTemplate.exchange(
+                        url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
 
-        JsonNode root = objectMapper.readTree(response.getBody());
-        if (!root.isArray() || root.isEmpty()) {
-            return null;
+                JsonNode root = objectMapper.readTree(response.getBody());
+                if (!root.isArray() || root.isEmpty()) {
+                    return null;
+                }
+                return root.get(0);
+            }
+        } catch (Exception e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
         }
-        return root.get(0);
     }
 
     /**
@@ -0,0 +1,367 @@
+package com.travelmap.service;
+
+import com.travelmap.config.TraceEvents;
+import com.travelmap.entity.User;
+import com.travelmap.entity.Video;
+import com.travelmap.repository.VideoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 채널 영상 수집 파이프라인. 한 루프에서 순서대로 돌던 일을 단계로 나누고, 단계 사이에 크기 제한 큐를 둔다.
+ *
+ *   목록 페이지 조회(fetch-pages) → 상세 정보 조회(fetch-details) → 저장(persist)
+ *
+ * 단계마다 워커 수를 따로 정할 수 있어서 YouTube 호출(I/O)과 DB 저장이 서로 겹쳐 돈다.
+ * 한 채널을 저장하는 동안 다음 채널의 목록/상세 조회가 진행되는 식이다.
+ * 국가 감지/지오코딩은 여기서 하지 않는다: 저장 단계가 영상과 함께 아웃박스 이벤트를 남기면
+ * {@link CountryDetectionWorker}가 (어느 인스턴스에서든) 따로 가져가서 처리한다.
+ * 뒤 단계 큐가 차면 앞 단계 워커가 막히고, 맨 앞 큐가 차면 채널을 넣는 쪽({@link #submit})이 막힌다.
+ *
+ * 일의 단위는 목록 한 페이지 분량의 영상 묶음(최대 50개)이고, 채널 하나는 {@link ChannelWork}로 추적한다.
+ * 채널에서 나온 묶음이 모두 저장(또는 실패/취소)되면 완료 콜백이 한 번 불린다 (파이프라인 워커 스레드에서).
+ *
+ * 추적: 채널 하나는 넣을 때 시작해서 완료 콜백 직전에 끝나는 travelmap.ingest.channel 구간이고(넣는 쪽의 현재 구간 아래),
+ * 각 단계에서 묶음을 처리하는 일은 워커 스레드에서 그 채널 구간을 부모로 삼는 travelmap.ingest.stage 구간이 된다.
+ * 스레드가 바뀌어도 채널 구간을 {@link ChannelWork}가 들고 다니므로 YouTube 호출/저장 구간까지 한 추적으로 이어진다.
+ */
+@Service
+public class IngestionPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    private final YouTubeService youTubeService;
+    private final VideoRepository videoRepository;
+    private final ObservationRegistry observationRegistry;
+
+    private final PipelineStage<ChannelWork> fetchPages;
+    private final PipelineStage<Batch> fetchDetails;
+    private final PipelineStage<Batch> persist;
+    private final List<PipelineStage<?>> stages;
+
+    @Autowired
+    public IngestionPipeline(YouTubeService youTubeService,
+                             VideoRepository videoRepository,
+                             MeterRegistry meterRegistry,
+                             ObservationRegistry observationRegistry,
+                             @Value("${travelmap.pipeline.queue-capacity:8}") int queueCapacity,
+                             @Value("${travelmap.pipeline.fetch-workers:2}") int fetchWorkers,
+                             @Value("${travelmap.pipeline.detail-workers:2}") int detailWorkers,
+                             @Value("${travelmap.pipeline.persist-workers:1}") int persistWorkers) {
+        this.youTubeService = youTubeService;
+        this.videoRepository = videoRepository;
+        this.observationRegistry = observationRegistry;
+
+        this.fetchPages = new PipelineStage<>("fetch-pages", fetchWorkers, queueCapacity,
+                work -> observeStage("fetch-pages", work, () -> fetchPages(work)), (work, e) -> {
+                    work.fail(e.getMessage());
+                    work.release();
+                });
+        this.fetchDetails = new PipelineStage<>("fetch-details", detailWorkers, queueCapacity,
+                batch -> observeStage("fetch-details", batch.work, () -> fetchDetails(batch)), this::batchFailed);
+        this.persist = new PipelineStage<>("persist", persistWorkers, queueCapacity,
+                batch -> observeStage("persist", batch.work, () -> persist(batch)), this::batchFailed);
+        this.stages = List.of(fetchPages, fetchDetails, persist);
+        stages.forEach(stage -> stage.registerMetrics(meterRegistry));
+        stages.forEach(PipelineStage::start);
+
+        logger.info("수집 파이프라인 시작: 큐 {}개, 워커 fetch-pages {} / fetch-details {} / persist {}",
+                queueCapacity, fetchWorkers, detailWorkers, persistWorkers);
+    }
+
+    /**
+     * 채널 하나를 파이프라인에 넣는다. 맨 앞 큐가 차 있으면 자리가 날 때까지 막힌다.
+     * onDone은 채널의 모든 묶음이 끝나면 파이프라인 워커 스레드에서 한 번 불린다.
+     * 묶음마다 저장 트랜잭션 안에서 채널 임대를 확인하고, 잃었으면 채널의 남은 묶음을 버린다
+     * (다른 인스턴스가 이 채널을 가져간 뒤라 계속 저장하면 같은 채널을 두 곳에서 쓰게 된다).
+     */
+    public ChannelWork submit(User user, int maxVideos, LeaseService.Lease channelLease,
+                              Consumer<ChannelWork> onDone) throws InterruptedException {
+        // 넣는 쪽 스레드의 현재 구간(수집 실행)이 부모가 되고, 다른 스레드에서 끝나므로 타임라인 트랙은 채널마다 따로 잡는다
+        Observation observation = Observation.createNotStarted("travelmap.ingest.channel", observationRegistry)
+                .highCardinalityKeyValue("channel", String.valueOf(user.getName()))
+                .highCardinalityKeyValue(TraceEvents.TRACK, "channel " + user.getName())
+                .start();
+        ChannelWork work = new ChannelWork(user, maxVideos, channelLease, observation, finished -> {
+            recordCollected(finished);
+            finished.finishObservation();
+            onDone.accept(finished);
+        });
+        try {
+            fetchPages.put(work);
+        } catch (InterruptedException | RuntimeException e) {
+            observation.error(e);
+            observation.stop();
+            throw e;
+        }
+        return work;
+    }
+
+    /**
+     * 채널 하나를 넣고 끝날 때까지 기다린다 (채널 하나짜리 수집/추가용)
+     */
+    public ChannelWork ingest(User user, int maxVideos, LeaseService.Lease channelLease) throws InterruptedException {
+        CompletableFuture<ChannelWork> done = new CompletableFuture<>();
+        submit(user, maxVideos, channelLease, done::complete);
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 단계별 상태 (큐 깊이, 워커 사용률, 처리량, backpressure로 막혀 있던 시간)
+     */
+    public List<Map<String, Object>> getMetrics() {
+        List<Map<String, Object>> metrics = new ArrayList<>();
+        for (PipelineStage<?> stage : stages) {
+            metrics.add(stage.snapshot());
+        }
+        return metrics;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stages.forEach(PipelineStage::shutdown);
+    }
+
+    /**
+     * 1단계: 업로드 목록을 페이지 단위로 받아, 아직 없는 영상만 묶음으로 다음 단계에 넘긴다
+     */
+    private int fetchPages(ChannelWork work) throws Exception {
+        int fetched = 0;
+        if (!work.isCancelled()) {
+            User user = work.getUser();
+            String uploadsPlaylistId = youTubeService.findUploadsPlaylistId(user.getYoutubeChannelId());
+            String pageToken = null;
+            int remaining = work.maxVideos;
+            do {
+                YouTubeService.UploadPage page = youTubeService.fetchUploadPage(
+                        user, uploadsPlaylistId, pageToken, Math.min(remaining, YouTubeService.MAX_PAGE_SIZE));
+                remaining -= YouTubeService.MAX_PAGE_SIZE;
+                pageToken = page.getNextPageToken();
+                fetched += page.getVideos().size();
+
+                List<Video> newVideos = withoutExisting(page.getVideos());
+                if (newVideos.isEmpty()) {
+                    // 업로드 목록은 최신순이라 한 페이지가 통째로 이미 있는 영상이면 그 뒤도 이미 수집된 구간이다
+                    break;
+                }
+                work.fork();
+                fetchDetails.put(new Batch(work, newVideos));
+            } while (pageToken != null && remaining > 0 && !work.isCancelled());
+        }
+        work.release();
+        return fetched;
+    }
+
+    /**
+     * 2단계: 묶음 전체의 통계/길이를 한 번에 조회 (실패해도 영상은 저장하고, 상세 정보는 나중에 미처리 영상 처리에서 채운다)
+     */
+    private int fetchDetails(Batch batch) throws Exception {
+        if (batch.work.isCancelled()) {
+            batch.work.release();
+            return 0;
+        }
+        try {
+            youTubeService.fillVideoDetails(batch.videos);
+        } catch (Exception e) {
+            logger.warn("영상 상세 정보 조회 실패, 상세 없이 계속 진행: {} - {}", batch.work.getUser().getName(), e.getMessage());
+        }
+        persist.put(batch);
+        return batch.videos.size();
+    }
+
+    /**
+     * 3단계: 아직 없는 영상만 저장 (영상마다 국가 감지용 아웃박스 이벤트가 같은 트랜잭션에 남는다)
+     */
+    private int persist(Batch batch) {
+        if (!batch.work.isCancelled() && batch.work.isLeaseLost()) {
+            batch.work.leaseLost();
+        }
+        if (batch.work.isCancelled()) {
+            batch.work.release();
+            return 0;
+        }
+        List<Video> saved = youTubeService.saveNewVideos(batch.videos, batch.work.channelLease);
+        if (batch.work.isLeaseLost()) {
+            // 저장 트랜잭션에서 임대가 다른 쪽으로 넘어간 것을 확인함 (아무것도 저장되지 않음)
+            batch.work.leaseLost();
+        }
+        batch.work.savedCount.addAndGet(saved.size());
+        batch.work.release();
+        return saved.size();
+    }
+
+    /**
+     * 끝까지 성공한 채널(실패한 묶음 없음)만 마지막 수집 시각을 남긴다 - 빠진 영상이 있으면 다음 실행에서 다시 수집한다.
+     * 실패해도 완료 통지는 그대로 보낸다.
+     */
+    private void recordCollected(ChannelWork work) {
+        if (!work.isSuccess()) {
+            return;
+        }
+        try {
+            youTubeService.markChannelCollected(work.getUser().getId());
+        } catch (Exception e) {
+            logger.warn("마지막 수집 시각 기록 실패: {} - {}", work.getUser().getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * 단계 처리 한 번을 채널 구간 아래 구간으로 남긴다 (워커 스레드에서 열리므로 안쪽 호출 구간이 여기에 붙는다)
+     */
+    private int observeStage(String stage, ChannelWork work, StageCall call) throws Exception {
+        Observation observation = Observation.createNotStarted("travelmap.ingest.stage", observationRegistry)
+                .parentObservation(work.observation)
+                .lowCardinalityKeyValue("stage", stage)
+                .highCardinalityKeyValue("channel", String.valueOf(work.getUser().getName()))
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return call.run();
+        } catch (Exception e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private interface StageCall {
+        int run() throws Exception;
+    }
+
+    private void batchFailed(Batch batch, Exception e) {
+        batch.work.failedBatches.incrementAndGet();
+        batch.work.batchError = e.getMessage();
+        batch.work.release();
+    }
+
+    private List<Video> withoutExisting(List<Video> videos) {
+        if (videos.isEmpty()) {
+            return videos;
+        }
+        Set<String> videoIds = new HashSet<>();
+        videos.forEach(video -> videoIds.add(video.getVideoId()));
+        Set<String> existing = new HashSet<>(videoRepository.findExistingVideoIds(videoIds));
+
+        List<Video> newVideos = new ArrayList<>();
+        for (Video video : videos) {
+            if (!existing.contains(video.getVideoId())) {
+                newVideos.add(video);
+            }
+        }
+        return newVideos;
+    }
+
+    /**
+     * 파이프라인을 지나는 채널 하나. 남은 일(pending)은 목록 조회 자신 1 + 아직 안 끝난 묶음 수이고,
+     * 0이 되는 순간 완료 콜백을 부른다.
+     */
+    public static final class ChannelWork {
+        private final User user;
+        private final int maxVideos;
+        // 이 채널을 처리하는 동안 가진 채널 임대 (없으면 확인하지 않음)
+        private final LeaseService.Lease channelLease;
+        private final Observation observation;
+        private final Consumer<ChannelWork> onDone;
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicInteger savedCount = new AtomicInteger();
+        private final AtomicInteger failedBatches = new AtomicInteger();
+        private volatile String error;
+        private volatile String batchError;
+        private volatile boolean cancelled;
+
+        private ChannelWork(User user, int maxVideos, LeaseService.Lease channelLease, Observation observation,
+                            Consumer<ChannelWork> onDone) {
+            this.user = user;
+            this.maxVideos = maxVideos;
+            this.channelLease = channelLease;
+            this.observation = observation;
+            this.onDone = onDone;
+        }
+
+        public User getUser() { return user; }
+        public int getSavedCount() { return savedCount.get(); }
+        public int getFailedBatches() { return failedBatches.get(); }
+        public boolean isCancelled() { return cancelled; }
+
+        /**
+         * 목록 조회가 실패했거나 묶음이 하나라도 실패했으면 실패 (일부만 저장된 채널을 완료로 치지 않는다)
+         */
+        public boolean isSuccess() { return error == null && failedBatches.get() == 0 && !cancelled; }
+
+        public String getError() {
+            if (error != null) {
+                return error;
+            }
+            int failed = failedBatches.get();
+            return failed > 0 ? String.format("묶음 %d개 처리 실패 (%d개 영상은 저장됨): %s", failed, savedCount.get(), batchError) : null;
+        }
+
+        /**
+         * 남은 묶음을 버리게 한다 (각 단계가 다음에 이 채널 묶음을 꺼낼 때 처리하지 않고 넘긴다)
+         */
+        public void cancel() { cancelled = true; }
+
+        private boolean isLeaseLost() { return channelLease != null && channelLease.isLost(); }
+
+        private void leaseLost() {
+            if (!cancelled) {
+                logger.warn("채널 임대를 잃어 남은 묶음을 버림: {}", user.getName());
+                error = "채널 임대를 잃음 (다른 작업이 이 채널을 가져감)";
+                cancelled = true;
+            }
+        }
+
+        private void fail(String message) { error = message != null ? message : "목록 조회 실패"; }
+
+        private void fork() { pending.incrementAndGet(); }
+
+        private void finishObservation() {
+            observation.lowCardinalityKeyValue("outcome", cancelled ? "cancelled" : isSuccess() ? "success" : "error");
+            observation.highCardinalityKeyValue("saved", String.valueOf(savedCount.get()));
+            if (!cancelled && !isSuccess()) {
+                observation.error(new IllegalStateException(getError()));
+            }
+            observation.stop();
+        }
+
+        private void release() {
+            if (pending.decrementAndGet() == 0) {
+                onDone.accept(this);
+            }
+        }
+    }
+
+    /**
+     * 단계 사이를 오가는 영상 묶음 (같은 채널의 저장 전 Video 초안)
+     */
+    private static final class Batch {
+        private final ChannelWork work;
+        private final List<Video> videos;
+
+        private Batch(ChannelWork work, List<Video> videos) {
+            this.work = work;
+            this.videos = videos;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.travelmap.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 이 인스턴스(파드)의 이름. 여러 인스턴스가 DB로 일을 나눠 가질 때 누가 가졌는지 남기는 데 쓴다.
+ * 쿠버네티스에서는 HOSTNAME이 파드 이름이고, 없으면 실행마다 새로 만든다.
+ */
+@Component
+public class InstanceIdentity {
+
+    private final String id;
+
+    public InstanceIdentity() {
+        String hostname = System.getenv("HOSTNAME");
+        this.id = hostname != null && !hostname.isBlank() ? hostname : UUID.randomUUID().toString();
+    }
+
+    public String getId() { return id; }
+}
@@ -0,0 +1,178 @@
+package com.travelmap.service;
+
+import com.travelmap.repository.RunLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 클러스터 전체에서 키 하나당 한 곳만 가질 수 있는 실행 임대(run_leases).
+ * 가져가기는 INSERT ... ON CONFLICT 한 문장이라 여러 인스턴스가 동시에 시도해도 원자적이고,
+ * 가져갈 때마다 오르는 토큰을 펜싱 값으로 돌려준다 (작업 행 쓰기 등에 같이 넘겨서 임대를 잃은 쪽의 쓰기를 막는다).
+ * 가진 임대는 이 서비스가 주기적으로 연장하고, 연장에 실패하면(다른 쪽이 가져감) 잃은 것으로 표시한다.
+ * 인스턴스가 죽으면 연장이 멈추고 만료 시간이 지나면 다른 인스턴스가 가져갈 수 있다.
+ *
+ * 키는 범위별로 나눈다: 실행 종류({@link #runKey}) - 전체 수집처럼 동시에 하나만 돌아야 하는 것,
+ * 채널({@link #channelKey}) - 한 채널을 두 작업이 동시에 건드리지 않게 (다른 채널끼리는 같이 돌 수 있음),
+ * 작업({@link #jobKey}) - 작업 행 하나를 한 곳만 실행하게.
+ */
+@Service
+public class LeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaseService.class);
+
+    private final RunLeaseRepository runLeaseRepository;
+    private final InstanceIdentity instanceIdentity;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMs;
+
+    private final Map<Lease, Boolean> held = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LeaseService(RunLeaseRepository runLeaseRepository,
+                        InstanceIdentity instanceIdentity,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${travelmap.leases.ttl-ms:90000}") long ttlMs,
+                        @Value("${travelmap.leases.renew-ms:30000}") long renewMs) {
+        this.runLeaseRepository = runLeaseRepository;
+        this.instanceIdentity = instanceIdentity;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlMs = ttlMs;
+        this.renewer.scheduleWithFixedDelay(this::renewHeld, renewMs, renewMs, TimeUnit.MILLISECONDS);
+    }
+
+    public static String runKey(String runType) {
+        return "run:" + runType;
+    }
+
+    public static String channelKey(String youtubeChannelId) {
+        return "channel:" + youtubeChannelId;
+    }
+
+    public static String jobKey(Long jobId) {
+        return "job:" + jobId;
+    }
+
+    /**
+     * 임대를 가져간다. 다른 쪽이 가지고 있거나 DB 오류면 빈 값.
+     */
+    public Optional<Lease> tryAcquire(String key) {
+        try {
+            List<Long> tokens = transactionTemplate.execute(status ->
+                    runLeaseRepository.tryAcquire(key, instanceIdentity.getId(), ttlMs));
+            if (tokens == null || tokens.isEmpty()) {
+                return Optional.empty();
+            }
+            Lease lease = new Lease(key, tokens.get(0));
+            held.put(lease, Boolean.TRUE);
+            logger.debug("임대 획득: {} (토큰 {})", key, lease.token);
+            return Optional.of(lease);
+        } catch (Exception e) {
+            logger.warn("임대 획득 실패: {} - {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 쓰는 쪽 트랜잭션 안에서 임대를 아직 가지고 있는지 확인하고, 커밋할 때까지 다른 쪽이 가져가지 못하게 잡아 둔다.
+     * 연장 스레드가 멈춰 있던 사이(GC/일시 정지로 TTL을 넘김) 다른 쪽이 가져갔으면 잃은 것으로 표시하고 false.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean holdForWrite(Lease lease) {
+        if (lease.lost) {
+            return false;
+        }
+        boolean stillHeld = !runLeaseRepository.lockIfHeld(lease.key, lease.token).isEmpty();
+        if (!stillHeld) {
+            lease.lost = true;
+            held.remove(lease);
+            logger.warn("쓰기 전에 임대를 잃은 것을 확인: {} (토큰 {})", lease.key, lease.token);
+        }
+        return stillHeld;
+    }
+
+    private void release(Lease lease) {
+        held.remove(lease);
+        if (lease.lost) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> runLeaseRepository.release(lease.key, lease.token));
+            logger.debug("임대 반납: {} (토큰 {})", lease.key, lease.token);
+        } catch (Exception e) {
+            // 못 놓아도 연장을 멈췄으므로 만료 시간이 지나면 풀린다
+            logger.warn("임대 반납 실패: {} - {}", lease.key, e.getMessage());
+        }
+    }
+
+    private void renewHeld() {
+        for (Lease lease : held.keySet()) {
+            try {
+                Integer renewed = transactionTemplate.execute(status ->
+                        runLeaseRepository.renew(lease.key, lease.token, ttlMs));
+                if (renewed == null || renewed == 0) {
+                    lease.lost = true;
+                    held.remove(lease);
+                    logger.warn("임대를 잃음: {} (토큰 {})", lease.key, lease.token);
+                }
+            } catch (Exception e) {
+                // 이번 연장만 실패 - 만료 전에 다음 연장이 성공하면 그대로 유지
+                logger.warn("임대 연장 실패: {} - {}", lease.key, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    /**
+     * 가진 임대 하나. try-with-resources로 쓰면 끝날 때 놓는다.
+     */
+    public final class Lease implements AutoCloseable {
+        private final String key;
+        private final long token;
+        private volatile boolean lost;
+
+        private Lease(String key, long token) {
+            this.key = key;
+            this.token = token;
+        }
+
+        public String getKey() { return key; }
+        public long getToken() { return token; }
+
+        /**
+         * 연장에 실패해서(다른 쪽이 가져감) 더 이상 가지고 있지 않으면 true. 가진 쪽은 확인하는 대로 멈춰야 한다.
+         */
+        public boolean isLost() { return lost; }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.travelmap.service;
+
+import com.travelmap.event.CollectionJobEvent;
+import com.travelmap.event.CollectionProgressEvent;
+import com.travelmap.event.DataVersionAdvancedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 실시간 이벤트(Server-Sent Events) 팬아웃 허브.
+ * 수집 진행 상태, 수집 작업 상태와 데이터 버전 변경을 한 곳(멀티캐스트 싱크)에 내보내면 연결된 모든 구독자에게 그대로 퍼진다.
+ * 연결은 서블릿 비동기 요청({@link SseEmitter})으로 들고 있어서 쉬고 있는 연결이 스레드를 잡지 않고, 느린 구독자는 다른 구독자를 막지 않고 이벤트를 놓친다
+ * (놓쳐도 다음 이벤트가 최신 상태 전체를 담고 있으므로 문제없음).
+ * 수집 진행과 작업 상태는 수집을 돌리는 인스턴스가 바로 내보내고, 다른 인스턴스는 작업 행을 주기적으로 읽어 중계하며({@link CollectionJobService}),
+ * 데이터 버전은 모든 인스턴스가 DB에서 읽어 오므로 어느 인스턴스에 붙어도 모두 받는다.
+ */
+@Service
+public class LiveEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveEventHub.class);
+
+    public static final String COLLECTION_STATUS_EVENT = "collection-status";
+    public static final String DATA_VERSION_EVENT = "data-version";
+    public static final String COLLECTION_JOB_EVENT = "collection-job";
+
+    private final CollectionJobService collectionJobService;
+    private final DataVersionService dataVersionService;
+    private final long connectionTimeoutMs;
+
+    private final Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().multicast().directBestEffort();
+    // 프록시/로드밸런서가 쉬는 연결을 끊지 않도록 모든 구독자가 같은 타이머 하나를 나눠 쓴다
+    private final Flux<ServerSentEvent<Object>> heartbeat;
+
+    @Autowired
+    public LiveEventHub(CollectionJobService collectionJobService,
+                        DataVersionService dataVersionService,
+                        @Value("${travelmap.events.heartbeat-seconds:20}") long heartbeatSeconds,
+                        @Value("${travelmap.events.async-timeout-ms:1800000}") long connectionTimeoutMs) {
+        this.collectionJobService = collectionJobService;
+        this.dataVersionService = dataVersionService;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.heartbeat = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .map(tick -> ServerSentEvent.<Object>builder().comment("keepalive").build())
+                .share();
+    }
+
+    /**
+     * 구독자 하나를 SSE 응답으로 연다. 컨테이너 기본 비동기 타임아웃(톰캣 30초)이면 30초마다 끊기고 다시 붙으므로 이 연결에만 길게 건다
+     * (다른 비동기 요청의 타임아웃은 그대로). 타임아웃이 지나면 응답을 끝내고, 브라우저가 다시 붙어 현재 상태부터 받으므로 놓치는 것은 없다.
+     */
+    public SseEmitter connect() {
+        SseEmitter emitter = new SseEmitter(connectionTimeoutMs);
+        Disposable subscription = subscribe().subscribe(event -> send(emitter, event));
+        emitter.onCompletion(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        emitter.onTimeout(() -> {
+            subscription.dispose();
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    /**
+     * 구독자 하나의 이벤트 스트림. 처음에 현재 상태(버전, 수집 진행)를 먼저 보내서 재연결 사이에 놓친 것이 없게 한다.
+     */
+    public Flux<ServerSentEvent<Object>> subscribe() {
+        List<ServerSentEvent<Object>> initial = List.of(
+                event(DATA_VERSION_EVENT, versionPayload(dataVersionService.getVersion())),
+                event(COLLECTION_STATUS_EVENT, collectionJobService.getCollectionStatus()));
+        return Flux.concat(Flux.fromIterable(initial), Flux.merge(sink.asFlux(), heartbeat));
+    }
+
+    @EventListener
+    public void onCollectionProgress(CollectionProgressEvent event) {
+        emit(event(COLLECTION_STATUS_EVENT, event.getStatus()));
+    }
+
+    @EventListener
+    public void onCollectionJob(CollectionJobEvent event) {
+        emit(event(COLLECTION_JOB_EVENT, event.getJob()));
+    }
+
+    @EventListener
+    public void onDataVersionAdvanced(DataVersionAdvancedEvent event) {
+        emit(event(DATA_VERSION_EVENT, versionPayload(event.getVersion())));
+    }
+
+    // 싱크는 동시에 여러 스레드에서 내보내면 실패하므로 직렬화한다 (이벤트 빈도가 낮아 경합은 무시할 만함)
+    private synchronized void emit(ServerSentEvent<Object> event) {
+        Sinks.EmitResult result = sink.tryEmitNext(event);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            logger.debug("실시간 이벤트 전송 실패: {} ({})", event.event(), result);
+        }
+    }
+
+    private static void send(SseEmitter emitter, ServerSentEvent<Object> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.event() != null) {
+            builder.name(event.event());
+        }
+        if (event.data() != null) {
+            builder.data(event.data());
+        }
+        try {
+            emitter.send(builder);
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 끊은 연결 - 끝내면 onCompletion/onError에서 구독을 푼다
+            logger.debug("실시간 이벤트 연결 끊김: {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.<Object>builder().event(name).data(data).build();
+    }
+
+    private static Map<String, Object> versionPayload(long version) {
+        return Map.of("version", version);
+    }
+}
@@ -0,0 +1,185 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.MapChangesDto;
+import com.travelmap.dto.MapDataDto;
+import com.travelmap.dto.UserDto;
+import com.travelmap.entity.DataVersion;
+import com.travelmap.entity.MapChange;
+import com.travelmap.repository.CountryStatRepository;
+import com.travelmap.repository.DataVersionRepository;
+import com.travelmap.repository.MapChangeRepository;
+import com.travelmap.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 지도 변경 로그(map_changes). 데이터 버전을 올리는 트랜잭션 안에서 그 커밋으로 바뀐 국가들의 새 합계를 country_stats에서 읽어 남기고,
+ * 클라이언트가 가진 버전 이후의 변경만 모아서 돌려준다 (지도 전체 대신 바뀐 국가 몇 개만 전송).
+ * 로그를 이어 줄 수 없는 경우(집계 재계산, 오래돼서 정리된 구간, 변경이 너무 많음)에는 reset으로 답한다.
+ */
+@Service
+public class MapChangeLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MapChangeLogService.class);
+
+    private final MapChangeRepository mapChangeRepository;
+    private final CountryStatRepository countryStatRepository;
+    private final DataVersionRepository dataVersionRepository;
+    private final UserRepository userRepository;
+    private final int maxChanges;
+    private final long retentionHours;
+
+    @Autowired
+    public MapChangeLogService(MapChangeRepository mapChangeRepository,
+                               CountryStatRepository countryStatRepository,
+                               DataVersionRepository dataVersionRepository,
+                               UserRepository userRepository,
+                               @Value("${travelmap.map-changes.max-changes:500}") int maxChanges,
+                               @Value("${travelmap.map-changes.retention-hours:72}") long retentionHours) {
+        this.mapChangeRepository = mapChangeRepository;
+        this.countryStatRepository = countryStatRepository;
+        this.dataVersionRepository = dataVersionRepository;
+        this.userRepository = userRepository;
+        this.maxChanges = maxChanges;
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * version으로 올라간 커밋에서 바뀐 국가들의 새 합계를 남긴다 (버전을 올리는 트랜잭션 안에서 호출)
+     */
+    @Transactional
+    public void recordCountries(long version, Collection<String> countryCodes) {
+        if (countryCodes.isEmpty()) {
+            return;
+        }
+        Map<String, Object[]> totals = new HashMap<>();
+        for (Object[] row : countryStatRepository.aggregateByCountryCodes(countryCodes)) {
+            totals.put((String) row[0], row);
+        }
+        Map<String, List<String>> youtuberIds = new HashMap<>();
+        for (Object[] pair : countryStatRepository.findCountryUserPairsByCountryCodes(countryCodes)) {
+            youtuberIds.computeIfAbsent((String) pair[0], k -> new ArrayList<>()).add(String.valueOf(pair[1]));
+        }
+
+        List<MapChange> changes = new ArrayList<>();
+        for (String countryCode : countryCodes) {
+            MapChange change = new MapChange();
+            change.setVersion(version);
+            change.setCountryCode(countryCode);
+            Object[] total = totals.get(countryCode);
+            if (total != null) {
+                change.setCountryName((String) total[1]);
+                change.setCountryEmoji((String) total[2]);
+                change.setContinent((String) total[3]);
+                change.setVisitCount(((Number) total[4]).longValue());
+                change.setYoutuberCount(((Number) total[5]).longValue());
+                change.setYoutuberIds(String.join(",", youtuberIds.getOrDefault(countryCode, List.of())));
+            } else {
+                // 마지막 방문이 지워져서 지도에서 빠진 국가
+                change.setVisitCount(0L);
+                change.setYoutuberCount(0L);
+                change.setYoutuberIds("");
+            }
+            changes.add(change);
+        }
+        mapChangeRepository.saveAll(changes);
+    }
+
+    /**
+     * version까지의 변경은 로그로 이어 줄 수 없다고 표시 (집계 재계산 등)
+     */
+    @Transactional
+    public void recordReset(long version) {
+        mapChangeRepository.save(MapChange.resetAt(version));
+    }
+
+    /**
+     * since 버전 이후의 변경. 같은 국가가 여러 번 바뀌었으면 마지막 값만 준다.
+     */
+    @Transactional(readOnly = true)
+    public MapChangesDto findChangesSince(long since) {
+        long current = dataVersionRepository.findVersionById(DataVersion.GLOBAL_ID).orElse(1L);
+        // 로그가 아직 시작되지 않았으면 (첫 배포 직후) 이어 줄 수 없다
+        long resetVersion = mapChangeRepository.findLatestResetVersion().orElse(Long.MAX_VALUE);
+        if (since < resetVersion || since > current) {
+            return MapChangesDto.reset(current);
+        }
+        if (since == current) {
+            return new MapChangesDto(current, false, List.of());
+        }
+        if (mapChangeRepository.countChangesBetween(since, current) > maxChanges) {
+            return MapChangesDto.reset(current);
+        }
+
+        Map<String, MapChange> latest = new LinkedHashMap<>();
+        for (MapChange change : mapChangeRepository.findChangesBetween(since, current)) {
+            latest.remove(change.getCountryCode());
+            latest.put(change.getCountryCode(), change);
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        for (MapChange change : latest.values()) {
+            userIds.addAll(parseIds(change.getYoutuberIds()));
+        }
+        Map<Long, UserDto> usersById = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> usersById.put(user.getId(), new UserDto(user)));
+
+        List<MapDataDto.CountryDataDto> countries = new ArrayList<>();
+        for (MapChange change : latest.values()) {
+            MapDataDto.CountryDataDto country = new MapDataDto.CountryDataDto(
+                    change.getCountryCode(),
+                    change.getCountryName(),
+                    change.getCountryEmoji(),
+                    change.getContinent(),
+                    change.getVisitCount(),
+                    change.getYoutuberCount());
+            country.setYoutubers(parseIds(change.getYoutuberIds()).stream()
+                    .map(usersById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+            countries.add(country);
+        }
+        return new MapChangesDto(current, false, countries);
+    }
+
+    /**
+     * 로그가 비어 있으면 지금 버전에서 시작한다고 표시 (그 전 버전에서 이어 받으려는 클라이언트는 reset)
+     */
+    @Transactional
+    public void ensureStarted(long version) {
+        if (mapChangeRepository.findLatestResetVersion().isEmpty()) {
+            mapChangeRepository.save(MapChange.resetAt(version));
+            logger.info("지도 변경 로그 시작: 버전 {}", version);
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 로그를 지우고, 지운 구간 끝에 reset 표시를 남긴다
+     */
+    @Scheduled(fixedDelayString = "${travelmap.map-changes.compact-ms:3600000}")
+    @Transactional
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        mapChangeRepository.findMaxVersionCreatedBefore(cutoff).ifPresent(version -> {
+            int deleted = mapChangeRepository.deleteUpToVersion(version);
+            mapChangeRepository.save(MapChange.resetAt(version));
+            logger.info("지도 변경 로그 정리: 버전 {}까지 {}개 행 삭제", version, deleted);
+        });
+    }
+
+    private static List<Long> parseIds(String ids) {
+        if (ids == null || ids.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(ids.split(",")).map(Long::valueOf).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,198 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.MapDataDto;
+import com.travelmap.dto.MapDataFilter;
+import com.travelmap.dto.UserDto;
+import com.travelmap.entity.VisitCountry;
+import com.travelmap.repository.VisitCountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 지도 데이터(/api/map-data) 계산과 필터 조합별 응답 캐시.
+ * 데이터는 수집/감지 실행 중에만 바뀌므로, 같은 필터 조합은 답하는 데이터 버전({@link VisitFactIndex#servedVersion()})이 그대로인 동안
+ * 메모리에 들고 있는 결과로 답한다. 항목 수는 최근 사용 순(LRU)으로 잘라서 필터 조합이 많아져도 메모리가 묶여 있다.
+ * 캐시에 없는 조합은 메모리 읽기 모델({@link VisitFactIndex})이 준비돼 있으면 배열 집계로, 아니면 DB로 계산한다.
+ */
+@Service
+public class MapDataService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MapDataService.class);
+
+    private final CountryStatsService countryStatsService;
+    private final VisitCountryRepository visitCountryRepository;
+    private final VisitFactIndex visitFactIndex;
+
+    private final Map<MapDataFilter, CachedMapData> cache;
+
+    @Autowired
+    public MapDataService(CountryStatsService countryStatsService,
+                          VisitCountryRepository visitCountryRepository,
+                          VisitFactIndex visitFactIndex,
+                          @Value("${travelmap.cache.map-data.max-entries:500}") int maxEntries) {
+        this.countryStatsService = countryStatsService;
+        this.visitCountryRepository = visitCountryRepository;
+        this.visitFactIndex = visitFactIndex;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MapDataFilter, CachedMapData> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 필터 조합에 맞는 지도 데이터 (캐시에 현재 버전 결과가 있으면 DB를 건드리지 않는다)
+     */
+    public MapDataDto getMapData(MapDataFilter filter) {
+        // 읽기 모델이 반영 대기 중이면 그 스냅샷이 담은 버전으로 저장해서, 따라잡은 뒤 요청이 다시 계산하게 한다
+        long version = visitFactIndex.servedVersion();
+
+        CachedMapData cached = cache.get(filter);
+        if (cached != null && cached.version == version) {
+            return cached.mapData;
+        }
+
+        // 계산 전에 읽은 버전으로 저장한다: 계산 도중 데이터가 바뀌면 다음 요청에서 버전이 달라 다시 계산된다
+        MapDataDto mapData = compute(filter);
+        cache.put(filter, new CachedMapData(version, mapData));
+        return mapData;
+    }
+
+    private MapDataDto compute(MapDataFilter filter) {
+        VisitFacts facts = visitFactIndex.current();
+        if (facts != null) {
+            return facts.aggregate(filter);
+        }
+        return filter.hasDateRange() ? buildFromVisits(filter) : countryStatsService.buildMapData(
+                filter.getUserId(), filter.getCountryCode(), filter.getContinent(), filter.getYear());
+    }
+
+    /**
+     * 같은 필터 조합들을 메모리 읽기 모델과 기존 JPA 경로(findByFilters)로 각각 계산해서 평균 시간을 비교한다.
+     * 지금 적재된 실제 데이터 기준이며, 캐시는 거치지 않는다.
+     */
+    public List<Map<String, Object>> benchmark(int iterations) {
+        VisitFacts facts = visitFactIndex.current();
+        if (facts == null) {
+            throw new IllegalStateException("메모리 읽기 모델이 아직 준비되지 않았습니다.");
+        }
+        return benchmark(facts, iterations);
+    }
+
+    /**
+     * 주어진 스냅샷으로 비교한다 (합성 데이터 벤치마크 테스트는 직접 조립한 스냅샷을 넘긴다)
+     */
+    List<Map<String, Object>> benchmark(VisitFacts facts, int iterations) {
+        LocalDateTime now = LocalDateTime.now();
+        MapDataDto all = facts.aggregate(new MapDataFilter(null, null, null, null, null, null));
+        String topCountry = all.getCountries().isEmpty() ? null : all.getCountries().get(0).getCountryCode();
+        String topContinent = all.getCountries().isEmpty() ? null : all.getCountries().get(0).getContinent();
+        Long topUser = all.getCountries().isEmpty() || all.getCountries().get(0).getYoutubers().isEmpty()
+                ? null : all.getCountries().get(0).getYoutubers().get(0).getId();
+
+        Map<String, MapDataFilter> filters = new LinkedHashMap<>();
+        filters.put("전체", new MapDataFilter(null, null, null, null, null, null));
+        filters.put("연도", new MapDataFilter(null, null, null, now.getYear(), null, null));
+        filters.put("대륙", new MapDataFilter(null, null, topContinent, null, null, null));
+        filters.put("국가", new MapDataFilter(null, topCountry, null, null, null, null));
+        filters.put("유튜버", new MapDataFilter(topUser, null, null, null, null, null));
+        filters.put("최근 1년", new MapDataFilter(null, null, null, null, now.minusYears(1), now));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map.Entry<String, MapDataFilter> entry : filters.entrySet()) {
+            MapDataFilter filter = entry.getValue();
+
+            long indexNanos = 0;
+            long jpaNanos = 0;
+            for (int i = 0; i < iterations; i++) {
+                long startedAt = System.nanoTime();
+                facts.aggregate(filter);
+                indexNanos += System.nanoTime() - startedAt;
+
+                startedAt = System.nanoTime();
+                buildFromVisits(filter);
+                jpaNanos += System.nanoTime() - startedAt;
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("filter", entry.getKey());
+            result.put("facts", facts.size());
+            result.put("indexMicros", indexNanos / iterations / 1000);
+            result.put("jpaMicros", jpaNanos / iterations / 1000);
+            results.add(result);
+        }
+        return results;
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * 날짜 범위 필터는 연도 단위 집계 테이블로 답할 수 없어서 visit_countries에서 직접 묶는다
+     * (findByFilters가 영상/유튜버를 fetch join으로 같이 읽어 오므로 트랜잭션 밖에서도 지연 로딩이 없다)
+     */
+    MapDataDto buildFromVisits(MapDataFilter filter) {
+        List<VisitCountry> visitCountries = visitCountryRepository.findByFilters(
+                filter.getUserId(), filter.getCountryCode(), filter.getContinent(), filter.getYear(),
+                filter.getStartDate(), filter.getEndDate());
+
+        // 국가별 집계
+        Map<String, List<VisitCountry>> countryGroups = visitCountries.stream()
+                .collect(Collectors.groupingBy(VisitCountry::getCountryCode));
+
+        List<MapDataDto.CountryDataDto> countryDataList = new ArrayList<>();
+
+        for (Map.Entry<String, List<VisitCountry>> entry : countryGroups.entrySet()) {
+            List<VisitCountry> countryVisits = entry.getValue();
+            VisitCountry representative = countryVisits.get(0);
+
+            // 해당 국가를 방문한 유튜버들
+            List<UserDto> youtubers = countryVisits.stream()
+                    .map(vc -> vc.getVideo().getUser())
+                    .distinct()
+                    .map(UserDto::new)
+                    .collect(Collectors.toList());
+
+            MapDataDto.CountryDataDto countryData = new MapDataDto.CountryDataDto(
+                    representative.getCountryCode(),
+                    representative.getCountryName(),
+                    representative.getCountryEmoji(),
+                    representative.getContinent(),
+                    (long) countryVisits.size(),
+                    (long) youtubers.size()
+            );
+            countryData.setYoutubers(youtubers);
+
+            countryDataList.add(countryData);
+        }
+
+        // 방문 횟수 기준 정렬
+        countryDataList.sort((a, b) -> b.getVisitCount().compareTo(a.getVisitCount()));
+
+        logger.debug("지도 데이터 계산(방문 국가 직접 집계): {}개 국가", countryDataList.size());
+        return new MapDataDto(countryDataList);
+    }
+
+    private static final class CachedMapData {
+        private final long version;
+        private final MapDataDto mapData;
+
+        private CachedMapData(long version, MapDataDto mapData) {
+            this.version = version;
+            this.mapData = mapData;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.travelmap.service;
+
+import com.travelmap.entity.OutboxEvent;
+import com.travelmap.entity.Video;
+import com.travelmap.event.OutboxEventRecordedEvent;
+import com.travelmap.repository.OutboxEventRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.SenderContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 아웃박스 쓰기. 반드시 데이터를 쓰는 쪽 트랜잭션 안에서 불러야 한다 (MANDATORY) -
+ * 데이터와 이벤트가 같이 커밋되거나 같이 롤백되어야 소비자가 없는 영상을 보거나 영상의 이벤트를 놓치지 않는다.
+ * 이벤트에는 기록할 때의 추적 문맥(traceparent)을 같이 넣어서, 소비자 처리가 같은 추적에 이어지게 한다.
+ */
+@Service
+public class OutboxService {
+
+    static final String TRACE_PARENT = "traceparent";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObservationRegistry observationRegistry;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         ObservationRegistry observationRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * 새 영상 저장을 기록 (국가 감지 소비자 {@link CountryDetectionWorker}가 가져간다)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordVideoIngested(Video video) {
+        OutboxEvent event = new OutboxEvent(OutboxEvent.VIDEO_INGESTED, video.getId());
+        // 보내는 쪽 구간이 시작될 때 추적 문맥이 이벤트에 찍히므로 저장은 그 안에서 한다
+        SenderContext<OutboxEvent> context = new SenderContext<>((carrier, key, value) -> {
+            if (TRACE_PARENT.equals(key)) {
+                carrier.setTraceParent(value);
+            }
+        });
+        context.setCarrier(event);
+        Observation.createNotStarted("travelmap.outbox.record", () -> context, observationRegistry)
+                .lowCardinalityKeyValue("event.type", OutboxEvent.VIDEO_INGESTED)
+                .observe(() -> outboxEventRepository.save(event));
+        eventPublisher.publishEvent(new OutboxEventRecordedEvent(OutboxEvent.VIDEO_INGESTED));
+    }
+}
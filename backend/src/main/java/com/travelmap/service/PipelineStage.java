@@ -0,0 +1,196 @@
+package com.travelmap.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 수집 파이프라인({@link IngestionPipeline})의 한 단계: 크기가 정해진 입력 큐 하나와 전용 워커 스레드 N개.
+ * 큐가 가득 차면 넣는 쪽({@link #put})이 자리가 날 때까지 막히므로, 느린 단계가 있으면 그 앞 단계들이 알아서
+ * 속도를 늦춘다 (backpressure). 큐 깊이/처리량/막혀 있던 시간은 {@link #snapshot()}으로 본다.
+ */
+class PipelineStage<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineStage.class);
+
+    // 처리량(초당 영상 수)을 다시 계산하는 구간
+    private static final long RATE_WINDOW_NANOS = 10_000_000_000L;
+
+    /**
+     * 항목 하나를 처리하고 처리한 단위 수(영상 수)를 돌려준다
+     */
+    interface Worker<T> {
+        int process(T item) throws Exception;
+    }
+
+    /**
+     * 처리 중 예외가 난 항목의 뒷정리 (같은 워커 스레드에서 불린다)
+     */
+    interface FailureHandler<T> {
+        void failed(T item, Exception e);
+    }
+
+    private final String name;
+    private final int workerCount;
+    private final BlockingQueue<T> queue;
+    private final Worker<T> worker;
+    private final FailureHandler<T> failureHandler;
+    private final ExecutorService workers;
+
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final LongAdder processedItems = new LongAdder();
+    private final LongAdder processedUnits = new LongAdder();
+    private final LongAdder failedItems = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+
+    // 최근 구간 처리량 (record에서만 갱신)
+    private long windowStartNanos = System.nanoTime();
+    private long windowUnits = 0;
+    private double unitsPerSecond = 0.0;
+
+    PipelineStage(String name, int workerCount, int queueCapacity,
+                  Worker<T> worker, FailureHandler<T> failureHandler) {
+        this.name = name;
+        this.workerCount = Math.max(1, workerCount);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.worker = worker;
+        this.failureHandler = failureHandler;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "ingest-" + name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::workLoop);
+        }
+    }
+
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * 큐에 넣는다. 가득 차 있으면 자리가 날 때까지 기다리고, 기다린 시간은 이 단계의 backpressure 지표로 남긴다.
+     */
+    void put(T item) throws InterruptedException {
+        if (queue.offer(item)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            queue.put(item);
+        } finally {
+            blockedNanos.add(System.nanoTime() - started);
+        }
+    }
+
+    private void workLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            T item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            busyWorkers.incrementAndGet();
+            try {
+                record(worker.process(item));
+            } catch (Exception e) {
+                failedItems.increment();
+                logger.error("수집 파이프라인 {} 단계 처리 실패: {}", name, e.getMessage(), e);
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                try {
+                    failureHandler.failed(item, e);
+                } catch (Exception cleanupError) {
+                    logger.error("수집 파이프라인 {} 단계 실패 처리 중 오류", name, cleanupError);
+                }
+            } finally {
+                busyWorkers.decrementAndGet();
+            }
+        }
+    }
+
+    private synchronized void record(int units) {
+        processedItems.increment();
+        processedUnits.add(units);
+        windowUnits += units;
+        long now = System.nanoTime();
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            unitsPerSecond = windowUnits * 1_000_000_000.0 / elapsed;
+            windowStartNanos = now;
+            windowUnits = 0;
+        }
+    }
+
+    /**
+     * 최근 초당 처리량. 구간이 끝났는데 아직 다음 처리가 없으면(한가하면) 지금까지의 구간으로 다시 계산해서 0 쪽으로 내려간다.
+     */
+    private synchronized double currentRate() {
+        long elapsed = System.nanoTime() - windowStartNanos;
+        return elapsed >= RATE_WINDOW_NANOS ? windowUnits * 1_000_000_000.0 / elapsed : unitsPerSecond;
+    }
+
+    /**
+     * 단계 지표를 등록한다 (stage 태그로 구분): 큐 깊이, 일하는 워커 수, 처리한 영상 수, 실패 수, 앞 단계가 막혀 있던 시간
+     */
+    void registerMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("travelmap.pipeline.queue.depth", queue, BlockingQueue::size)
+                .description("수집 파이프라인 단계 입력 큐에 쌓인 묶음 수")
+                .tag("stage", name)
+                .register(meterRegistry);
+        Gauge.builder("travelmap.pipeline.workers.busy", busyWorkers, AtomicInteger::get)
+                .description("수집 파이프라인 단계에서 일하고 있는 워커 수")
+                .tag("stage", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("travelmap.pipeline.videos", processedUnits, LongAdder::sum)
+                .description("수집 파이프라인 단계가 처리한 영상 수")
+                .tag("stage", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("travelmap.pipeline.failures", failedItems, LongAdder::sum)
+                .description("수집 파이프라인 단계 처리 실패 수")
+                .tag("stage", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("travelmap.pipeline.blocked.seconds", blockedNanos, adder -> adder.sum() / 1_000_000_000.0)
+                .description("이 단계 큐가 가득 차서 앞 단계가 기다린 시간")
+                .tag("stage", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 단계 상태: 큐 깊이/용량, 워커 수/일하는 워커 수, 누적 처리량, 최근 초당 처리량, 앞 단계가 막혀 있던 시간
+     */
+    Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("stage", name);
+        snapshot.put("workers", workerCount);
+        snapshot.put("busyWorkers", busyWorkers.get());
+        snapshot.put("queueDepth", queue.size());
+        snapshot.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        snapshot.put("processedItems", processedItems.sum());
+        snapshot.put("processedVideos", processedUnits.sum());
+        snapshot.put("failedItems", failedItems.sum());
+        snapshot.put("videosPerSecond", Math.round(currentRate() * 100) / 100.0);
+        snapshot.put("blockedMillis", blockedNanos.sum() / 1_000_000);
+        return snapshot;
+    }
+}
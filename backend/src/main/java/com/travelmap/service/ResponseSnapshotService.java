@@ -0,0 +1,135 @@
+package com.travelmap.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelmap.dto.MapDataFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 필터 없는 /api/map-data, /api/filters 응답의 바이트 스냅샷.
+ * 두 응답은 수집 실행 사이에는 모든 방문자에게 똑같으므로, 데이터 버전마다 한 번만 JSON으로 직렬화하고
+ * gzip까지 미리 압축해 둔다. 요청은 들고 있는 바이트 배열을 그대로 내보내기만 한다.
+ */
+@Service
+public class ResponseSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseSnapshotService.class);
+
+    private static final MapDataFilter UNFILTERED = new MapDataFilter(null, null, null, null, null, null);
+
+    private final MapDataService mapDataService;
+    private final FilterOptionsService filterOptionsService;
+    private final VisitFactIndex visitFactIndex;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<Snapshot> mapDataSnapshot = new AtomicReference<>();
+    private final AtomicReference<Snapshot> filtersSnapshot = new AtomicReference<>();
+
+    @Autowired
+    public ResponseSnapshotService(MapDataService mapDataService,
+                                   FilterOptionsService filterOptionsService,
+                                   VisitFactIndex visitFactIndex,
+                                   ObjectMapper objectMapper) {
+        this.mapDataService = mapDataService;
+        this.filterOptionsService = filterOptionsService;
+        this.visitFactIndex = visitFactIndex;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 필터 없는 지도 데이터 스냅샷 (현재 버전 것이 없으면 만든다)
+     */
+    public Snapshot getMapDataSnapshot() {
+        return current(mapDataSnapshot, "map-data", () -> mapDataService.getMapData(UNFILTERED));
+    }
+
+    /**
+     * 필터 옵션 스냅샷 (현재 버전 것이 없으면 만든다)
+     */
+    public Snapshot getFiltersSnapshot() {
+        return current(filtersSnapshot, "filters", filterOptionsService::getFilterOptions);
+    }
+
+    private Snapshot current(AtomicReference<Snapshot> holder, String name, Supplier<Object> body) {
+        long version = visitFactIndex.servedVersion();
+        // 같은 버전으로 만든 것만 재사용한다 (늦게 끝난 옛 버전 스냅샷이 덮어써도 다음 요청이 다시 만든다)
+        Snapshot snapshot = holder.get();
+        if (snapshot != null && snapshot.version == version) {
+            return snapshot;
+        }
+
+        // 버전이 바뀐 직후 몰려든 요청들이 각자 직렬화하지 않도록 한 스레드만 만든다
+        synchronized (holder) {
+            snapshot = holder.get();
+            if (snapshot != null && snapshot.version == version) {
+                return snapshot;
+            }
+            Snapshot newer = snapshot != null && snapshot.version > version ? snapshot : null;
+            snapshot = render(version, body.get());
+            if (newer != null) {
+                // 이 요청이 버전을 읽은 뒤 다른 요청이 새 버전 것을 이미 만들었다 - 이 응답에만 쓰고 새 것은 그대로 둔다
+                return snapshot;
+            }
+            holder.set(snapshot);
+            logger.info("응답 스냅샷 생성: {} (버전 {}, {}바이트, gzip {}바이트)",
+                    name, version, snapshot.identity.length, snapshot.gzip.length);
+            return snapshot;
+        }
+    }
+
+    private Snapshot render(long version, Object body) {
+        try {
+            return Snapshot.of(version, objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException("응답 스냅샷 직렬화 실패", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 한 데이터 버전의 직렬화된 응답 (원본 JSON과 gzip 압축본). 만든 뒤에는 바뀌지 않는다.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        private Snapshot(long version, byte[] identity, byte[] gzip) {
+            this.version = version;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        /**
+         * 이미 직렬화된 본문으로 스냅샷을 만든다 (gzip 압축본도 여기서 만든다)
+         */
+        static Snapshot of(long version, byte[] identity) throws IOException {
+            return new Snapshot(version, identity, gzip(identity));
+        }
+
+        public long getVersion() { return version; }
+
+        /**
+         * 요청한 쪽이 gzip을 받으면 압축본, 아니면 원본 JSON (배열은 복사하지 않으므로 수정 금지)
+         */
+        public byte[] body(boolean gzipped) {
+            return gzipped ? gzip : identity;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.travelmap.service;
+
+import com.travelmap.repository.ScheduledFiringRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 여러 인스턴스에서 같은 스케줄이 동시에 깨어날 때 한 곳만 실행하게 하는 실행 권리 테이블(scheduled_firings).
+ * 예정 시각은 분 단위로 잘라서 쓰므로 인스턴스 사이 시계/깨어나는 시점이 조금 달라도 같은 행을 두고 다툰다
+ * (그래서 이걸 쓰는 스케줄은 정각에 도는 cron이어야 한다).
+ * 권리를 가져간 인스턴스가 실행 도중 죽으면, 수집 작업은 작업 테이블에서 다른 인스턴스가 이어받는다({@link CollectionJobService}).
+ */
+@Service
+public class ScheduledFiringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledFiringService.class);
+
+    private final ScheduledFiringRepository scheduledFiringRepository;
+    private final InstanceIdentity instanceIdentity;
+    private final int retentionDays;
+
+    @Autowired
+    public ScheduledFiringService(ScheduledFiringRepository scheduledFiringRepository,
+                                  InstanceIdentity instanceIdentity,
+                                  @Value("${travelmap.scheduler.firing-retention-days:30}") int retentionDays) {
+        this.scheduledFiringRepository = scheduledFiringRepository;
+        this.instanceIdentity = instanceIdentity;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * 지금 깨어난 jobName 스케줄을 이 인스턴스가 실행할 차례면 true (다른 인스턴스가 이미 가져갔거나 DB 오류면 false)
+     */
+    @Transactional
+    public boolean claim(String jobName) {
+        LocalDateTime fireTime = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        try {
+            boolean claimed = scheduledFiringRepository.claim(jobName, fireTime, instanceIdentity.getId()) > 0;
+            if (!claimed) {
+                logger.info("스케줄 {} ({})은 다른 인스턴스가 실행", jobName, fireTime);
+            }
+            return claimed;
+        } catch (Exception e) {
+            // 못 가져갔을 때 실행하면 중복 실행이 되므로 건너뛴다 (다음 예정 시각에 다시 시도)
+            logger.warn("스케줄 {} 실행 권리 확인 실패, 이번 실행은 건너뜀: {}", jobName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 오래된 실행 권리 기록 정리 (여러 인스턴스가 같이 돌아도 결과는 같다)
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    @Transactional
+    public void cleanup() {
+        int deleted = scheduledFiringRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            logger.info("스케줄 실행 기록 정리: {}건", deleted);
+        }
+    }
+}
@@ -1,29 +1,44 @@
 package com.travelmap.service;
 
+import com.travelmap.entity.CollectionJob;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
+/**
+ * 정기 수집/정리 스케줄. 모든 인스턴스에서 깨어나지만 예정 시각마다 실행 권리({@link ScheduledFiringService})를 가져간 한 곳만 실행한다.
+ */
 @Service
 public class SchedulerService {
     
     private static final Logger logger = LoggerFactory.getLogger(SchedulerService.class);
     
     @Autowired
-    private DataCollectionService dataCollectionService;
+    private CollectionJobService collectionJobService;
+    
+    @Autowired
+    private CountryStatsService countryStatsService;
+    
+    @Autowired
+    private ScheduledFiringService scheduledFiringService;
     
     /**
      * 매일 새벽 2시에 데이터 수집 실행
      */
     @Scheduled(cron = "0 0 2 * * *")
     public void scheduledDataCollection() {
+        if (!scheduledFiringService.claim("scheduledDataCollection")) {
+            return;
+        }
         logger.info("스케줄링된 데이터 수집 시작");
         
         try {
-            dataCollectionService.collectAllData();
-            logger.info("스케줄링된 데이터 수집 완료");
+            Map<String, Object> result = collectionJobService.submit(CollectionJob.Type.COLLECT_ALL, null, null);
+            logger.info("스케줄링된 데이터 수집 등록: {}", result.get("message"));
         } catch (Exception e) {
             logger.error("스케줄링된 데이터 수집 실패", e);
         }
@@ -34,11 +49,14 @@ public class SchedulerService {
      */
     @Scheduled(cron = "0 0 13 * * SUN")
     public void weeklyDataUpdate() {
+        if (!scheduledFiringService.claim("weeklyDataUpdate")) {
+            return;
+        }
         logger.info("주간 데이터 업데이트 시작");
         
         try {
-            dataCollectionService.updateAllChannelsData();
-            logger.info("주간 데이터 업데이트 완료");
+            Map<String, Object> result = collectionJobService.submit(CollectionJob.Type.UPDATE_ALL, null, null);
+            logger.info("주간 데이터 업데이트 등록: {}", result.get("message"));
         } catch (Exception e) {
             logger.error("주간 데이터 업데이트 실패", e);
         }
@@ -46,16 +64,38 @@ public class SchedulerService {
     
     /**
      * 매시간 처리되지 않은 영상들의 상세 정보 업데이트
+     * (인스턴스마다 시작 시각이 다른 fixedRate 대신 정각 cron - 모든 인스턴스가 같은 예정 시각을 두고 실행 권리를 다툰다)
      */
-    @Scheduled(fixedRate = 3600000) // 1시간마다
+    @Scheduled(cron = "0 0 * * * *") // 1시간마다
     public void hourlyVideoProcessing() {
+        if (!scheduledFiringService.claim("hourlyVideoProcessing")) {
+            return;
+        }
         logger.info("시간별 영상 처리 시작");
         
         try {
-            dataCollectionService.processUnprocessedVideos();
-            logger.info("시간별 영상 처리 완료");
+            Map<String, Object> result = collectionJobService.submit(CollectionJob.Type.PROCESS_UNPROCESSED, null, null);
+            logger.info("시간별 영상 처리 등록: {}", result.get("message"));
         } catch (Exception e) {
             logger.error("시간별 영상 처리 실패", e);
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 매일 새벽 4시에 국가 집계(country_stats)를 원본에서 다시 계산해서 어긋난 부분을 바로잡는다
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    public void dailyCountryStatsReconcile() {
+        if (!scheduledFiringService.claim("dailyCountryStatsReconcile")) {
+            return;
+        }
+        logger.info("국가 집계 재계산 시작");
+        
+        try {
+            countryStatsService.reconcile();
+            logger.info("국가 집계 재계산 완료");
+        } catch (Exception e) {
+            logger.error("국가 집계 재계산 실패", e);
+        }
+    }
+}
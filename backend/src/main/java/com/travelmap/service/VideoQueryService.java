@@ -0,0 +1,135 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.MapDataFilter;
+import com.travelmap.dto.UserDto;
+import com.travelmap.dto.VideoCursor;
+import com.travelmap.dto.VideoDto;
+import com.travelmap.dto.VideoRow;
+import com.travelmap.dto.VisitCountryDto;
+import com.travelmap.entity.VisitCountry;
+import com.travelmap.repository.UserRepository;
+import com.travelmap.repository.VideoRepository;
+import com.travelmap.repository.VisitCountryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 영상 조회 응답(VideoDto) 조립.
+ * VideoDto(Video) 생성자는 지연 로딩 연관(user, visitCountries)을 영상마다 건드려서 1 + N + N 쿼리가 나가므로,
+ * 목록/상세 조회는 프로젝션(VideoRow)으로 필요한 컬럼만 읽고 유튜버/방문 국가는 IN 쿼리 한 번씩으로 모아 붙인다.
+ * (영상 N개 기준 항상 3쿼리: 영상 프로젝션 1 + 유튜버 1 + 방문 국가 1)
+ * 어떤 영상이 한 페이지에 들어가는지는 메모리 비트맵 인덱스({@link VisitFactIndex})가 준비돼 있으면 거기서 고르고
+ * (영상 행은 기본 키로만 읽음), 아니면 VideoRepository의 필터/정렬 쿼리로 고른다.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VideoQueryService {
+
+    private final UserRepository userRepository;
+    private final VideoRepository videoRepository;
+    private final VisitCountryRepository visitCountryRepository;
+    private final VisitFactIndex visitFactIndex;
+
+    @Autowired
+    public VideoQueryService(UserRepository userRepository,
+                             VideoRepository videoRepository,
+                             VisitCountryRepository visitCountryRepository,
+                             VisitFactIndex visitFactIndex) {
+        this.userRepository = userRepository;
+        this.videoRepository = videoRepository;
+        this.visitCountryRepository = visitCountryRepository;
+        this.visitFactIndex = visitFactIndex;
+    }
+
+    /**
+     * 필터 조건의 영상 한 페이지 (업로드 날짜 내림차순). cursor가 있으면 그 다음부터, 없으면 page번째 페이지.
+     */
+    public List<VideoRow> findPage(Long userId, String countryCode, String continent, Integer year,
+                                   LocalDateTime startDate, LocalDateTime endDate,
+                                   VideoCursor cursor, int page, int pageSize) {
+        VisitFacts facts = visitFactIndex.current();
+        if (facts != null) {
+            MapDataFilter filter = new MapDataFilter(userId, countryCode, continent, year, startDate, endDate);
+            List<Long> videoIds = cursor != null
+                    ? facts.findVideoPage(filter, cursor.getUploadDate(), cursor.getId(), 0, pageSize)
+                    : facts.findVideoPage(filter, null, null, page * pageSize, pageSize);
+            return findRowsInOrder(videoIds);
+        }
+
+        if (cursor != null) {
+            return videoRepository.findPageByFiltersAfter(userId, countryCode, continent, year, startDate, endDate,
+                    cursor.getUploadDate(), cursor.getId(), Limit.of(pageSize));
+        }
+        return videoRepository.findPageByFilters(userId, countryCode, continent, year, startDate, endDate,
+                PageRequest.of(page, pageSize));
+    }
+
+    /**
+     * 필터 조건의 전체 영상 수
+     */
+    public long countByFilters(Long userId, String countryCode, String continent, Integer year,
+                               LocalDateTime startDate, LocalDateTime endDate) {
+        VisitFacts facts = visitFactIndex.current();
+        if (facts != null) {
+            return facts.countVideos(new MapDataFilter(userId, countryCode, continent, year, startDate, endDate));
+        }
+        return videoRepository.countByFilters(userId, countryCode, continent, year, startDate, endDate);
+    }
+
+    private List<VideoRow> findRowsInOrder(List<Long> videoIds) {
+        if (videoIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, VideoRow> rowsById = new HashMap<>();
+        for (VideoRow row : videoRepository.findRowsByIds(videoIds)) {
+            rowsById.put(row.getId(), row);
+        }
+        List<VideoRow> rows = new ArrayList<>(videoIds.size());
+        for (Long videoId : videoIds) {
+            VideoRow row = rowsById.get(videoId);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 프로젝션 행들에 유튜버/방문 국가를 붙여 VideoDto로 만든다 (행 순서 유지)
+     */
+    public List<VideoDto> toDtos(List<VideoRow> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> userIds = rows.stream().map(VideoRow::getUserId).collect(Collectors.toSet());
+        Map<Long, UserDto> usersById = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> usersById.put(user.getId(), new UserDto(user)));
+
+        List<Long> videoIds = rows.stream().map(VideoRow::getId).collect(Collectors.toList());
+        Map<Long, List<VisitCountryDto>> countriesByVideoId = new HashMap<>();
+        for (VisitCountry visitCountry : visitCountryRepository.findByVideoIdIn(videoIds)) {
+            countriesByVideoId.computeIfAbsent(visitCountry.getVideo().getId(), k -> new ArrayList<>())
+                    .add(new VisitCountryDto(visitCountry));
+        }
+
+        List<VideoDto> dtos = new ArrayList<>(rows.size());
+        for (VideoRow row : rows) {
+            dtos.add(new VideoDto(row,
+                    usersById.get(row.getUserId()),
+                    countriesByVideoId.getOrDefault(row.getId(), new ArrayList<>())));
+        }
+        return dtos;
+    }
+
+    public VideoDto toDto(VideoRow row) {
+        return toDtos(Collections.singletonList(row)).get(0);
+    }
+}
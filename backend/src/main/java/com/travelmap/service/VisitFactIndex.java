@@ -0,0 +1,421 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.UserDto;
+import com.travelmap.entity.DataVersionChange;
+import com.travelmap.event.DataChangedEvent;
+import com.travelmap.event.DataVersionAdvancedEvent;
+import com.travelmap.event.DataVersionChangedEvent;
+import com.travelmap.event.VisitFactsRefreshedEvent;
+import com.travelmap.repository.DataVersionChangeRepository;
+import com.travelmap.repository.UserRepository;
+import com.travelmap.repository.VisitCountryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 방문 국가 사실(visit_countries + videos)의 메모리 열 지향 읽기 모델({@link VisitFacts}) 관리.
+ * 앱이 뜨면 id 순 청크로 전부 적재하고, 이후에는 커밋된 변경(DataChangedEvent)의 영상들만 다시 읽어 새 스냅샷으로 갈아 끼운다.
+ * 다른 인스턴스의 변경은 data_version_changes에 남은 영상 id로 같은 증분 경로를 타고, 그 목록이 없을 때만 통째로 다시 읽는다.
+ * 통째로 다시 읽기는 최소 간격(travelmap.visit-index.min-reload-interval-ms)을 두고 몰아서 한 번만 한다.
+ * 증분 반영도 커밋마다 하지 않고 refresh-debounce-ms 동안 모아서 한 번에 한다 (스냅샷 복사와 파생 인덱스 재생성이 수집 중 커밋 수만큼 돌지 않게).
+ * 새 스냅샷을 갈아 끼울 때마다 {@link VisitFactsRefreshedEvent}를 발행해서 여기서 파생되는 인덱스(도시 클러스터 등)도 따라 갱신되게 한다.
+ * 반영 대기 중에도 {@link #current()}는 마지막 스냅샷을 그대로 돌려주고, 그 스냅샷이 빠짐없이 담은 버전은 {@link #servedVersion()}으로 알린다.
+ * 응답 캐시/ETag/X-Data-Version은 이 번호를 쓰므로 옛 스냅샷으로 만든 응답이 새 버전 이름으로 남지 않고,
+ * 옛 번호로 답한 적이 있으면 따라잡은 뒤 {@link DataVersionAdvancedEvent}를 다시 내서 클라이언트가 새로 받게 한다.
+ */
+@Service
+public class VisitFactIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisitFactIndex.class);
+
+    // IN 절 하나에 넣는 영상 id 수
+    private static final int VIDEO_ID_BATCH = 1000;
+
+    private final VisitCountryRepository visitCountryRepository;
+    private final UserRepository userRepository;
+    private final DataVersionChangeRepository dataVersionChangeRepository;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int maxFacts;
+    private final int loadChunkSize;
+    private final long minReloadIntervalMillis;
+    private final long refreshDebounceMillis;
+
+    private volatile VisitFacts facts;
+    private volatile Map<Long, UserDto> usersById;
+
+    // 반영 대기 중인 영상 id -> 등록 순번 (반영 도중 같은 영상이 또 바뀌면 순번이 달라져 다음 회차에 다시 읽는다)
+    private final ConcurrentHashMap<Long, Long> pendingVideoIds = new ConcurrentHashMap<>();
+    private final AtomicLong pendingSequence = new AtomicLong();
+    private final AtomicLong reloadRequested = new AtomicLong();
+    private volatile long reloadCompleted;
+    private final AtomicLong usersRequested = new AtomicLong();
+    private volatile long usersLoaded;
+    // 스냅샷이 빠짐없이 담은 데이터 버전 (이 번호까지 올라간 변경은 모두 반영됨)
+    private final AtomicLong coveredVersion = new AtomicLong();
+    // 반영 대기 중에 현재보다 낮은 버전으로 답한 적이 있음 (따라잡으면 다시 알린다)
+    private final AtomicBoolean servedBehind = new AtomicBoolean();
+
+    // 갱신은 한 스레드에서 순서대로
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "visit-fact-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private volatile String disabledReason;
+    private volatile LocalDateTime loadedAt;
+    private volatile long lastFullLoadMillis;
+    private volatile long lastFullLoadEndedAt;
+    private volatile long lastRefreshMillis;
+
+    @Autowired
+    public VisitFactIndex(VisitCountryRepository visitCountryRepository,
+                          UserRepository userRepository,
+                          DataVersionChangeRepository dataVersionChangeRepository,
+                          DataVersionService dataVersionService,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${travelmap.visit-index.enabled:true}") boolean enabled,
+                          @Value("${travelmap.visit-index.max-facts:5000000}") int maxFacts,
+                          @Value("${travelmap.visit-index.load-chunk-size:10000}") int loadChunkSize,
+                          @Value("${travelmap.visit-index.min-reload-interval-ms:60000}") long minReloadIntervalMillis,
+                          @Value("${travelmap.visit-index.refresh-debounce-ms:500}") long refreshDebounceMillis) {
+        this.visitCountryRepository = visitCountryRepository;
+        this.userRepository = userRepository;
+        this.dataVersionChangeRepository = dataVersionChangeRepository;
+        this.dataVersionService = dataVersionService;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.maxFacts = maxFacts;
+        this.loadChunkSize = loadChunkSize;
+        this.minReloadIntervalMillis = minReloadIntervalMillis;
+        this.refreshDebounceMillis = Math.max(0, refreshDebounceMillis);
+        this.disabledReason = enabled ? null : "설정으로 비활성화됨";
+    }
+
+    /**
+     * 조회에 쓸 마지막 스냅샷 (반영 대기 중이어도 돌려줌). 아직 적재 전이거나 꺼져 있으면 null.
+     * 응답에 붙일 버전은 이걸 부르기 전에 {@link #servedVersion()}으로 먼저 읽는다 (버전보다 데이터가 새 것이면 다음 요청이 다시 만들 뿐이다).
+     */
+    public VisitFacts current() {
+        return disabledReason != null ? null : facts;
+    }
+
+    /**
+     * 지금 조회에 답할 데이터 버전. 스냅샷이 반영 대기 중이면 그 스냅샷이 빠짐없이 담은 버전, 아니면 현재 데이터 버전
+     * (읽기 모델을 안 쓰는 중이면 DB 경로로 답하므로 현재 데이터 버전).
+     */
+    public long servedVersion() {
+        // 버전을 먼저 읽는다: 이 번호까지의 변경은 버전이 오르기 전에 대기 목록에 올라 있다
+        long version = dataVersionService.getVersion();
+        if (facts == null || disabledReason != null) {
+            return version;
+        }
+        if (isCaughtUp()) {
+            coveredVersion.accumulateAndGet(version, Math::max);
+            return version;
+        }
+        long covered = Math.min(version, coveredVersion.get());
+        if (covered < version) {
+            servedBehind.set(true);
+        }
+        return covered;
+    }
+
+    private boolean isCaughtUp() {
+        return pendingVideoIds.isEmpty() && reloadRequested.get() <= reloadCompleted && usersRequested.get() <= usersLoaded;
+    }
+
+    // 대기 목록에 새로 올리기 전에, 지금까지 다 반영돼 있으면 현재 버전까지 담은 것으로 적어 둔다
+    private void markCoveredIfCaughtUp() {
+        long version = dataVersionService.getVersion();
+        if (facts != null && isCaughtUp()) {
+            coveredVersion.accumulateAndGet(version, Math::max);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestFullReload();
+    }
+
+    /**
+     * 커밋 전에 대기 목록에 올려 두고(버전이 오르기 전에 이 인덱스가 옛 값임을 알 수 있게), 트랜잭션이 끝나면 반영한다
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        markCoveredIfCaughtUp();
+        long sequence = pendingSequence.incrementAndGet();
+        for (Long videoId : event.getVideoIds()) {
+            pendingVideoIds.put(videoId, sequence);
+        }
+        if (!event.getUserIds().isEmpty()) {
+            usersRequested.incrementAndGet();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    scheduleDrain();
+                }
+            });
+        } else {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * 다른 인스턴스가 올린 버전들의 바뀐 영상 목록을 읽어 대기 목록에 올린다.
+     * 목록이 빠졌거나(보관 기간 지남) 무엇이 바뀌었는지 모르는 올림이 끼어 있으면 통째로 다시 읽는다.
+     */
+    @EventListener
+    public void onRemoteVersionChanged(DataVersionChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<DataVersionChange> changes;
+        try {
+            changes = dataVersionChangeRepository.findChangesBetween(event.getPreviousVersion(), event.getVersion());
+        } catch (Exception e) {
+            logger.warn("데이터 버전 변경 목록 조회 실패, 통째로 다시 읽음: {}", e.getMessage());
+            requestFullReload();
+            return;
+        }
+        if (changes.size() != event.getVersion() - event.getPreviousVersion()
+                || changes.stream().anyMatch(change -> !change.isComplete())) {
+            requestFullReload();
+            return;
+        }
+
+        markCoveredIfCaughtUp();
+        long sequence = pendingSequence.incrementAndGet();
+        boolean usersChanged = false;
+        for (DataVersionChange change : changes) {
+            usersChanged |= change.isUsersChanged();
+            String videoIds = change.getVideoIds();
+            if (videoIds == null || videoIds.isEmpty()) {
+                continue;
+            }
+            for (String videoId : videoIds.split(",")) {
+                pendingVideoIds.put(Long.valueOf(videoId), sequence);
+            }
+        }
+        if (usersChanged) {
+            usersRequested.incrementAndGet();
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * 반영에 실패해서 대기 중인 것이 남아 있으면 다시 시도 (예산 초과로 꺼진 경우는 다음 전체 재적재 요청까지 그대로)
+     */
+    @Scheduled(fixedDelayString = "${travelmap.visit-index.retry-ms:60000}")
+    public void retryPending() {
+        if (enabled && disabledReason == null && (facts == null || !isCaughtUp())) {
+            scheduleDrain();
+        }
+    }
+
+    public void requestFullReload() {
+        if (!enabled) {
+            return;
+        }
+        markCoveredIfCaughtUp();
+        reloadRequested.incrementAndGet();
+        scheduleDrain();
+    }
+
+    // 이미 예약돼 있으면 그 회차에 같이 반영된다
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            refresher.schedule(this::drain, refreshDebounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            long reloadTarget = reloadRequested.get();
+            if (facts == null || reloadTarget > reloadCompleted) {
+                // 직전 전체 적재 직후면 남은 간격만큼 미뤄서, 그 사이 요청들을 한 번에 처리한다 (그동안은 마지막 스냅샷으로 답함)
+                long wait = lastFullLoadEndedAt + minReloadIntervalMillis - System.currentTimeMillis();
+                if (facts != null && wait > 0) {
+                    if (drainScheduled.compareAndSet(false, true)) {
+                        refresher.schedule(this::drain, wait, TimeUnit.MILLISECONDS);
+                    }
+                    return;
+                }
+                fullReload(reloadTarget);
+            } else {
+                refreshPending();
+            }
+            notifyIfCaughtUp();
+        } catch (Exception e) {
+            logger.error("방문 국가 읽기 모델 갱신 실패 (마지막 스냅샷으로 답하는 중)", e);
+        }
+    }
+
+    /**
+     * 반영 대기 중에 낮은 버전으로 답했던 것을 다 따라잡았으면 클라이언트에 현재 버전을 다시 알린다
+     * (그 사이 받은 옛 응답의 버전이 현재보다 낮으므로 클라이언트가 새로 받는다)
+     */
+    private void notifyIfCaughtUp() {
+        if (facts != null && isCaughtUp() && servedBehind.compareAndSet(true, false)) {
+            eventPublisher.publishEvent(new DataVersionAdvancedEvent(dataVersionService.getVersion()));
+        }
+    }
+
+    private void fullReload(long reloadTarget) {
+        long startedAt = System.currentTimeMillis();
+        // 대기 목록을 잡기 전에 읽은 버전: 그때까지 올라간 변경은 모두 이번 회차에 들어간다
+        long startVersion = dataVersionService.getVersion();
+        Map<Long, Long> captured = new HashMap<>(pendingVideoIds);
+        long usersTarget = usersRequested.get();
+
+        VisitFacts.Builder builder = new VisitFacts.Builder(loadChunkSize);
+        long afterId = 0L;
+        while (true) {
+            List<Object[]> rows = visitCountryRepository.findFactsAfter(afterId, Limit.of(loadChunkSize));
+            for (Object[] row : rows) {
+                builder.addRow(row);
+            }
+            if (builder.size() > maxFacts) {
+                disable(String.format("사실 행이 예산(%d)을 넘음", maxFacts));
+                return;
+            }
+            if (rows.size() < loadChunkSize) {
+                break;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+
+        facts = builder.build(loadUsers());
+        coveredVersion.accumulateAndGet(startVersion, Math::max);
+        captured.forEach(pendingVideoIds::remove);
+        reloadCompleted = reloadTarget;
+        usersLoaded = usersTarget;
+        disabledReason = null;
+        loadedAt = LocalDateTime.now();
+        lastFullLoadEndedAt = System.currentTimeMillis();
+        lastFullLoadMillis = lastFullLoadEndedAt - startedAt;
+        logger.info("방문 국가 읽기 모델 적재: {}개 행, {}ms", facts.size(), lastFullLoadMillis);
+        eventPublisher.publishEvent(new VisitFactsRefreshedEvent(facts));
+    }
+
+    private void refreshPending() {
+        long startedAt = System.currentTimeMillis();
+        long startVersion = dataVersionService.getVersion();
+        Map<Long, Long> captured = new HashMap<>(pendingVideoIds);
+        long usersTarget = usersRequested.get();
+        VisitFacts base = facts;
+
+        Map<Long, UserDto> users = usersTarget > usersLoaded || usersById == null ? loadUsers() : usersById;
+
+        VisitFacts refreshed = base.withUsers(users);
+        if (!captured.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>();
+            List<Long> videoIds = new ArrayList<>(captured.keySet());
+            for (int from = 0; from < videoIds.size(); from += VIDEO_ID_BATCH) {
+                List<Long> batch = videoIds.subList(from, Math.min(from + VIDEO_ID_BATCH, videoIds.size()));
+                rows.addAll(visitCountryRepository.findFactsByVideoIds(batch));
+            }
+
+            VisitFacts.Builder builder = new VisitFacts.Builder(base, base.size() + rows.size());
+            for (int i = 0; i < base.size(); i++) {
+                if (!captured.containsKey(base.videoIdAt(i))) {
+                    builder.copyRow(base, i);
+                }
+            }
+            for (Object[] row : rows) {
+                builder.addRow(row);
+            }
+            if (builder.size() > maxFacts) {
+                disable(String.format("사실 행이 예산(%d)을 넘음", maxFacts));
+                return;
+            }
+            refreshed = builder.build(users);
+        }
+
+        // 처음 보는 유튜버가 생겼으면 유튜버 정보를 다시 읽는다
+        if (!refreshed.hasAllUsers()) {
+            refreshed = refreshed.withUsers(loadUsers());
+        }
+
+        facts = refreshed;
+        coveredVersion.accumulateAndGet(startVersion, Math::max);
+        captured.forEach(pendingVideoIds::remove);
+        usersLoaded = usersTarget;
+        lastRefreshMillis = System.currentTimeMillis() - startedAt;
+        logger.debug("방문 국가 읽기 모델 증분 반영: 영상 {}개, {}개 행, {}ms",
+                captured.size(), refreshed.size(), lastRefreshMillis);
+        eventPublisher.publishEvent(new VisitFactsRefreshedEvent(refreshed));
+    }
+
+    private Map<Long, UserDto> loadUsers() {
+        Map<Long, UserDto> loaded = new HashMap<>();
+        userRepository.findAll().forEach(user -> loaded.put(user.getId(), new UserDto(user)));
+        usersById = loaded;
+        return loaded;
+    }
+
+    private void disable(String reason) {
+        facts = null;
+        disabledReason = reason;
+        logger.warn("방문 국가 읽기 모델 비활성화: {} (DB 경로로 답함)", reason);
+        eventPublisher.publishEvent(new VisitFactsRefreshedEvent(null));
+    }
+
+    /**
+     * 적재 상태와 메모리 사용량 보고
+     */
+    public Map<String, Object> getReport() {
+        VisitFacts current = facts;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", enabled);
+        report.put("ready", current() != null);
+        report.put("disabledReason", disabledReason != null ? disabledReason : "");
+        report.put("pendingVideos", pendingVideoIds.size());
+        report.put("coveredVersion", coveredVersion.get());
+        report.put("maxFacts", maxFacts);
+        report.put("loadedAt", loadedAt != null ? loadedAt.toString() : "");
+        report.put("lastFullLoadMillis", lastFullLoadMillis);
+        report.put("lastRefreshMillis", lastRefreshMillis);
+        if (current != null) {
+            report.put("memory", current.memoryReport());
+        }
+        return report;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+}
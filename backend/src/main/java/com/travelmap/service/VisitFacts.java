@@ -0,0 +1,794 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.MapDataDto;
+import com.travelmap.dto.MapDataFilter;
+import com.travelmap.dto.UserDto;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * visit_countries + videos를 열(column) 단위 기본형 배열로 펼쳐 둔 읽기 전용 스냅샷.
+ * 한 행 = 방문 국가 한 건이고, 유튜버/국가/대륙은 사전(dictionary) 번호로, 업로드 시각은 epoch 초로 들고 있다.
+ * 행은 영상 목록 정렬 순서(업로드 시각 내림차순, 영상 id 내림차순, 시각 미상은 맨 뒤)로 놓여 있어서
+ * 연도/날짜 범위 필터는 항상 연속 구간이 되고, 유튜버/국가/대륙은 압축 비트맵(행 단위, 영상 순번 단위)의 교집합으로 거른다.
+ * 도시 좌표가 있는 행은 도시 사전 번호도 들고 있어서 도시 마커 인덱스({@link CityClusterIndex})의 원본이 된다.
+ * 만든 뒤에는 바뀌지 않으며, 갱신은 {@link Builder}로 새 스냅샷을 만들어 통째로 갈아 끼운다 (읽는 쪽은 잠금 없이 참조만 잡으면 된다).
+ */
+public final class VisitFacts {
+
+    // 업로드 날짜를 모르는 영상 (날짜 범위 필터에는 걸리지 않음)
+    static final long UNKNOWN_TIME = Long.MIN_VALUE;
+    // 사전 번호가 없음 (대륙 미상, 또는 필터 미지정)
+    static final int NONE = -1;
+    // 필터 값이 사전에 아예 없음 (결과가 비어 있음)
+    private static final int MISSING = -2;
+
+    private final int size;
+    // 업로드 시각을 아는 행 수 (0..knownRows-1이 시각 내림차순, 나머지는 시각 미상)
+    private final int knownRows;
+
+    // 행 단위 열 (정렬된 순서)
+    private final long[] visitIds;
+    private final long[] videoIds;
+    private final int[] users;
+    private final int[] countries;
+    private final int[] continents;
+    private final long[] uploadSeconds;
+    private final int[] cities;
+
+    // 사전: 번호 -> 값
+    private final long[] userIds;
+    private final String[] countryCodes;
+    private final String[] countryNames;
+    private final String[] countryEmojis;
+    private final String[] countryContinents;
+    private final String[] continentNames;
+    private final String[] cityNames;
+    private final double[] cityLatitudes;
+    private final double[] cityLongitudes;
+    private final int[] cityCountries;
+
+    // 사전: 값 -> 번호
+    private final Map<Long, Integer> userIndex;
+    private final Map<String, Integer> countryIndex;
+    private final Map<String, Integer> continentIndex;
+
+    // 영상 순번(목록 정렬 순서, 업로드 시각을 아는 영상만) -> 영상 id / 업로드 시각
+    private final long[] orderedVideoIds;
+    private final long[] orderedVideoSeconds;
+
+    // 사전 번호별 비트맵: 행 번호 집합 / 영상 순번 집합
+    private final RoaringBitmap[] rowsByUser;
+    private final RoaringBitmap[] rowsByCountry;
+    private final RoaringBitmap[] rowsByContinent;
+    private final RoaringBitmap[] videosByUser;
+    private final RoaringBitmap[] videosByCountry;
+    private final RoaringBitmap[] videosByContinent;
+    // 국가와 대륙을 함께 거를 때는 같은 방문 국가 행이 둘 다 맞아야 하므로 (국가, 대륙) 쌍 단위로 따로 둔다
+    private final Map<Long, RoaringBitmap> videosByCountryContinent;
+
+    // 응답에 붙일 유튜버 정보 (userIds와 같은 번호)
+    private final UserDto[] userDtos;
+
+    private VisitFacts(Builder builder, Map<Long, UserDto> usersById) {
+        this.size = builder.size;
+
+        int[] order = builder.sortedOrder();
+        this.visitIds = new long[size];
+        this.videoIds = new long[size];
+        this.users = new int[size];
+        this.countries = new int[size];
+        this.continents = new int[size];
+        this.uploadSeconds = new long[size];
+        this.cities = new int[size];
+        int known = 0;
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            visitIds[i] = builder.visitIds[from];
+            videoIds[i] = builder.videoIds[from];
+            users[i] = builder.users[from];
+            countries[i] = builder.countries[from];
+            continents[i] = builder.continents[from];
+            uploadSeconds[i] = builder.uploadSeconds[from];
+            cities[i] = builder.cities[from];
+            if (uploadSeconds[i] != UNKNOWN_TIME) {
+                known++;
+            }
+        }
+        this.knownRows = known;
+
+        this.userIds = builder.userIds.stream().mapToLong(Long::longValue).toArray();
+        this.countryCodes = builder.countryCodes.toArray(new String[0]);
+        this.countryNames = builder.countryNames.toArray(new String[0]);
+        this.countryEmojis = builder.countryEmojis.toArray(new String[0]);
+        this.countryContinents = builder.countryContinents.toArray(new String[0]);
+        this.continentNames = builder.continentNames.toArray(new String[0]);
+        this.cityNames = builder.cityNames.toArray(new String[0]);
+        this.cityLatitudes = builder.cityLatitudes.stream().mapToDouble(Double::doubleValue).toArray();
+        this.cityLongitudes = builder.cityLongitudes.stream().mapToDouble(Double::doubleValue).toArray();
+        this.cityCountries = builder.cityCountries.stream().mapToInt(Integer::intValue).toArray();
+
+        this.userIndex = new HashMap<>(builder.userIndex);
+        this.countryIndex = new HashMap<>(builder.countryIndex);
+        this.continentIndex = new HashMap<>(builder.continentIndex);
+
+        this.rowsByUser = newBitmaps(userIds.length);
+        this.rowsByCountry = newBitmaps(countryCodes.length);
+        this.rowsByContinent = newBitmaps(continentNames.length);
+        this.videosByUser = newBitmaps(userIds.length);
+        this.videosByCountry = newBitmaps(countryCodes.length);
+        this.videosByContinent = newBitmaps(continentNames.length);
+        this.videosByCountryContinent = new HashMap<>();
+
+        // 같은 영상의 행은 정렬 덕분에 붙어 있으므로 영상 id가 바뀔 때마다 순번을 하나씩 올린다
+        long[] videoOrder = new long[knownRows];
+        long[] videoSeconds = new long[knownRows];
+        int videoCount = 0;
+        for (int i = 0; i < size; i++) {
+            rowsByUser[users[i]].add(i);
+            rowsByCountry[countries[i]].add(i);
+            if (continents[i] != NONE) {
+                rowsByContinent[continents[i]].add(i);
+            }
+
+            if (i >= knownRows) {
+                continue;
+            }
+            if (videoCount == 0 || videoOrder[videoCount - 1] != videoIds[i]) {
+                videoOrder[videoCount] = videoIds[i];
+                videoSeconds[videoCount] = uploadSeconds[i];
+                videoCount++;
+            }
+            int ordinal = videoCount - 1;
+            videosByUser[users[i]].add(ordinal);
+            videosByCountry[countries[i]].add(ordinal);
+            if (continents[i] != NONE) {
+                videosByContinent[continents[i]].add(ordinal);
+                videosByCountryContinent.computeIfAbsent(pairKey(countries[i], continents[i]),
+                        key -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+        this.orderedVideoIds = Arrays.copyOf(videoOrder, videoCount);
+        this.orderedVideoSeconds = Arrays.copyOf(videoSeconds, videoCount);
+
+        runOptimize(rowsByUser, rowsByCountry, rowsByContinent, videosByUser, videosByCountry, videosByContinent);
+        videosByCountryContinent.values().forEach(RoaringBitmap::runOptimize);
+
+        this.userDtos = resolveUsers(userIds, usersById);
+    }
+
+    // 유튜버 정보만 바꾼 사본 (열 배열과 비트맵은 공유)
+    private VisitFacts(VisitFacts base, Map<Long, UserDto> usersById) {
+        this.size = base.size;
+        this.knownRows = base.knownRows;
+        this.visitIds = base.visitIds;
+        this.videoIds = base.videoIds;
+        this.users = base.users;
+        this.countries = base.countries;
+        this.continents = base.continents;
+        this.uploadSeconds = base.uploadSeconds;
+        this.cities = base.cities;
+        this.userIds = base.userIds;
+        this.countryCodes = base.countryCodes;
+        this.countryNames = base.countryNames;
+        this.countryEmojis = base.countryEmojis;
+        this.countryContinents = base.countryContinents;
+        this.continentNames = base.continentNames;
+        this.cityNames = base.cityNames;
+        this.cityLatitudes = base.cityLatitudes;
+        this.cityLongitudes = base.cityLongitudes;
+        this.cityCountries = base.cityCountries;
+        this.userIndex = base.userIndex;
+        this.countryIndex = base.countryIndex;
+        this.continentIndex = base.continentIndex;
+        this.orderedVideoIds = base.orderedVideoIds;
+        this.orderedVideoSeconds = base.orderedVideoSeconds;
+        this.rowsByUser = base.rowsByUser;
+        this.rowsByCountry = base.rowsByCountry;
+        this.rowsByContinent = base.rowsByContinent;
+        this.videosByUser = base.videosByUser;
+        this.videosByCountry = base.videosByCountry;
+        this.videosByContinent = base.videosByContinent;
+        this.videosByCountryContinent = base.videosByCountryContinent;
+        this.userDtos = resolveUsers(userIds, usersById);
+    }
+
+    private static RoaringBitmap[] newBitmaps(int count) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+        return bitmaps;
+    }
+
+    private static void runOptimize(RoaringBitmap[]... groups) {
+        for (RoaringBitmap[] group : groups) {
+            for (RoaringBitmap bitmap : group) {
+                bitmap.runOptimize();
+            }
+        }
+    }
+
+    private static long pairKey(int country, int continent) {
+        return ((long) country << 32) | (continent & 0xffffffffL);
+    }
+
+    private static UserDto[] resolveUsers(long[] userIds, Map<Long, UserDto> usersById) {
+        UserDto[] resolved = new UserDto[userIds.length];
+        for (int i = 0; i < userIds.length; i++) {
+            resolved[i] = usersById.get(userIds[i]);
+        }
+        return resolved;
+    }
+
+    public VisitFacts withUsers(Map<Long, UserDto> usersById) {
+        return new VisitFacts(this, usersById);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    long videoIdAt(int row) {
+        return videoIds[row];
+    }
+
+    // 도시 마커/타일 인덱스용 접근자 (도시 번호는 좌표가 있는 도시만, 없으면 NONE)
+    int cityAt(int row) { return cities[row]; }
+    int userAt(int row) { return users[row]; }
+    UserDto user(int user) { return userDtos[user]; }
+    int cityCount() { return cityNames.length; }
+    String cityName(int city) { return cityNames[city]; }
+    double cityLatitude(int city) { return cityLatitudes[city]; }
+    double cityLongitude(int city) { return cityLongitudes[city]; }
+    String cityCountryCode(int city) { return countryCodes[cityCountries[city]]; }
+
+    /**
+     * 모든 사실 행의 유튜버 id가 유튜버 정보에 들어 있는지 (새 유튜버가 생기면 정보를 다시 읽어야 함)
+     */
+    boolean hasAllUsers() {
+        for (UserDto user : userDtos) {
+            if (user == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 필터 조합으로 국가별 방문 횟수/유튜버를 집계한다 (MapDataService의 DB 경로와 같은 결과).
+     * 날짜 범위나 연도가 없으면 업로드 시각 미상 행도 센다 (country_stats 경로와 같음).
+     */
+    public MapDataDto aggregate(MapDataFilter filter) {
+        Selection rows = select(filter, rowsByUser, rowsByCountry, rowsByContinent, null,
+                uploadSeconds, knownRows, size);
+
+        long[] visitCounts = new long[countryCodes.length];
+        BitSet[] youtubers = new BitSet[countryCodes.length];
+        for (PrimitiveCursor cursor = rows.cursor(rows.lo); cursor.hasNext(); ) {
+            int i = cursor.next();
+            int c = countries[i];
+            visitCounts[c]++;
+            if (youtubers[c] == null) {
+                youtubers[c] = new BitSet(userIds.length);
+            }
+            youtubers[c].set(users[i]);
+        }
+
+        List<MapDataDto.CountryDataDto> countryDataList = new ArrayList<>();
+        for (int c = 0; c < countryCodes.length; c++) {
+            if (visitCounts[c] == 0) {
+                continue;
+            }
+            List<UserDto> countryYoutubers = new ArrayList<>();
+            for (int u = youtubers[c].nextSetBit(0); u >= 0; u = youtubers[c].nextSetBit(u + 1)) {
+                if (userDtos[u] != null) {
+                    countryYoutubers.add(userDtos[u]);
+                }
+            }
+            MapDataDto.CountryDataDto countryData = new MapDataDto.CountryDataDto(
+                    countryCodes[c],
+                    countryNames[c],
+                    countryEmojis[c],
+                    countryContinents[c],
+                    visitCounts[c],
+                    (long) youtubers[c].cardinality()
+            );
+            countryData.setYoutubers(countryYoutubers);
+            countryDataList.add(countryData);
+        }
+
+        // 방문 횟수 기준 정렬
+        countryDataList.sort((a, b) -> b.getVisitCount().compareTo(a.getVisitCount()));
+
+        return new MapDataDto(countryDataList);
+    }
+
+    /**
+     * 영상 목록 한 페이지의 영상 id들 (VideoRepository.findPageByFilters/findPageByFiltersAfter와 같은 조건·순서).
+     * cursorDate/cursorId가 있으면 그 영상 다음부터, 없으면 offset개를 건너뛰고 limit개.
+     */
+    public List<Long> findVideoPage(MapDataFilter filter, LocalDateTime cursorDate, Long cursorId, int offset, int limit) {
+        Selection videos = selectVideos(filter);
+
+        int start;
+        if (cursorDate != null && cursorId != null) {
+            start = Math.max(videos.lo, firstAfterCursor(toSeconds(cursorDate), cursorId));
+        } else {
+            start = videos.nth(offset);
+        }
+
+        List<Long> page = new ArrayList<>(limit);
+        for (PrimitiveCursor cursor = videos.cursor(start); cursor.hasNext() && page.size() < limit; ) {
+            page.add(orderedVideoIds[cursor.next()]);
+        }
+        return page;
+    }
+
+    /**
+     * 영상 목록 필터에 맞는 영상 수 (VideoRepository.countByFilters와 같은 조건)
+     */
+    public long countVideos(MapDataFilter filter) {
+        return selectVideos(filter).cardinality();
+    }
+
+    // 영상 순번에는 업로드 시각을 아는 영상만 있다 (SQL의 COALESCE 날짜 조건이 시각 미상 영상을 빼는 것과 같음)
+    private Selection selectVideos(MapDataFilter filter) {
+        return select(filter, videosByUser, videosByCountry, videosByContinent, videosByCountryContinent,
+                orderedVideoSeconds, orderedVideoIds.length, orderedVideoIds.length);
+    }
+
+    /**
+     * 필터 → (비트맵 교집합, 연속 구간). 시각 배열은 앞 known개가 내림차순이다.
+     */
+    private Selection select(MapDataFilter filter, RoaringBitmap[] byUser, RoaringBitmap[] byCountry,
+                             RoaringBitmap[] byContinent, Map<Long, RoaringBitmap> byCountryContinent,
+                             long[] seconds, int known, int total) {
+        int user = lookup(userIndex, filter.getUserId());
+        int country = lookup(countryIndex, filter.getCountryCode());
+        int continent = lookup(continentIndex, filter.getContinent());
+        if (user == MISSING || country == MISSING || continent == MISSING) {
+            return Selection.EMPTY;
+        }
+
+        // 연도/날짜 범위 -> 시각 구간 -> 정렬된 배열의 연속 구간
+        int lo = 0;
+        int hi = total;
+        if (filter.getYear() != null || filter.hasDateRange()) {
+            long from = filter.getStartDate() != null ? toSeconds(filter.getStartDate()) : Long.MIN_VALUE + 1;
+            long to = filter.getEndDate() != null ? toSeconds(filter.getEndDate()) : Long.MAX_VALUE;
+            if (filter.getYear() != null) {
+                from = Math.max(from, toSeconds(LocalDateTime.of(filter.getYear(), 1, 1, 0, 0)));
+                to = Math.min(to, toSeconds(LocalDateTime.of(filter.getYear() + 1, 1, 1, 0, 0)) - 1);
+            }
+            lo = firstAtOrBelow(seconds, known, to);
+            hi = firstAtOrBelow(seconds, known, from - 1);
+            if (lo >= hi) {
+                return Selection.EMPTY;
+            }
+        }
+
+        List<RoaringBitmap> bitmaps = new ArrayList<>(3);
+        if (user != NONE) {
+            bitmaps.add(byUser[user]);
+        }
+        if (country != NONE && continent != NONE && byCountryContinent != null) {
+            RoaringBitmap pair = byCountryContinent.get(pairKey(country, continent));
+            if (pair == null) {
+                return Selection.EMPTY;
+            }
+            bitmaps.add(pair);
+        } else {
+            if (country != NONE) {
+                bitmaps.add(byCountry[country]);
+            }
+            if (continent != NONE) {
+                bitmaps.add(byContinent[continent]);
+            }
+        }
+
+        if (bitmaps.isEmpty()) {
+            return new Selection(null, lo, hi);
+        }
+        // 작은 것부터 교집합
+        bitmaps.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap result = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size(); i++) {
+            result = RoaringBitmap.and(result, bitmaps.get(i));
+        }
+        return new Selection(result, lo, hi);
+    }
+
+    /**
+     * 내림차순 seconds[0..known)에서 값이 limit 이하인 첫 위치 (없으면 known)
+     */
+    private static int firstAtOrBelow(long[] seconds, int known, long limit) {
+        int low = 0;
+        int high = known;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (seconds[mid] <= limit) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 키셋 커서 (업로드 시각, 영상 id) 바로 다음 영상 순번
+     */
+    private int firstAfterCursor(long cursorSeconds, long cursorId) {
+        int low = 0;
+        int high = orderedVideoIds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long seconds = orderedVideoSeconds[mid];
+            boolean after = seconds < cursorSeconds || (seconds == cursorSeconds && orderedVideoIds[mid] < cursorId);
+            if (after) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 메모리 사용량 추정 (열 배열과 비트맵은 정확, 사전/유튜버 정보는 대략)
+     */
+    public Map<String, Object> memoryReport() {
+        long columnBytes = (long) size * (Long.BYTES * 3 + Integer.BYTES * 4)
+                + (long) cityNames.length * (Double.BYTES * 2 + Integer.BYTES)
+                + (long) orderedVideoIds.length * Long.BYTES * 2;
+        long bitmapBytes = bitmapBytes(rowsByUser) + bitmapBytes(rowsByCountry) + bitmapBytes(rowsByContinent)
+                + bitmapBytes(videosByUser) + bitmapBytes(videosByCountry) + bitmapBytes(videosByContinent)
+                + bitmapBytes(videosByCountryContinent.values().toArray(new RoaringBitmap[0]));
+        long dictionaryBytes = (long) userIds.length * (Long.BYTES + 64)
+                + estimateStrings(countryCodes) + estimateStrings(countryNames) + estimateStrings(countryEmojis)
+                + estimateStrings(countryContinents) + estimateStrings(continentNames) + estimateStrings(cityNames)
+                + (long) (countryCodes.length + continentNames.length + cityNames.length) * 48;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("facts", size);
+        report.put("videos", orderedVideoIds.length);
+        report.put("users", userIds.length);
+        report.put("countries", countryCodes.length);
+        report.put("continents", continentNames.length);
+        report.put("cities", cityNames.length);
+        report.put("columnBytes", columnBytes);
+        report.put("bitmapBytes", bitmapBytes);
+        report.put("dictionaryBytes", dictionaryBytes);
+        long total = columnBytes + bitmapBytes + dictionaryBytes;
+        report.put("totalBytes", total);
+        report.put("bytesPerFact", size > 0 ? total / size : 0);
+        return report;
+    }
+
+    private static long bitmapBytes(RoaringBitmap[] bitmaps) {
+        long bytes = 0;
+        for (RoaringBitmap bitmap : bitmaps) {
+            bytes += bitmap.getSizeInBytes();
+        }
+        return bytes;
+    }
+
+    private static long estimateStrings(String[] values) {
+        long bytes = 0;
+        for (String value : values) {
+            bytes += 16 + (value != null ? 24 + value.length() * 2L : 0);
+        }
+        return bytes;
+    }
+
+    private static <K> int lookup(Map<K, Integer> index, K value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer found = index.get(value);
+        return found != null ? found : MISSING;
+    }
+
+    static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * 필터 결과: [lo, hi) 구간 안에서 bitmap에 든 위치들 (bitmap이 null이면 구간 전체)
+     */
+    private static final class Selection {
+        static final Selection EMPTY = new Selection(null, 0, 0);
+
+        private final RoaringBitmap bitmap;
+        private final int lo;
+        private final int hi;
+
+        private Selection(RoaringBitmap bitmap, int lo, int hi) {
+            this.bitmap = bitmap;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        long cardinality() {
+            if (lo >= hi) {
+                return 0;
+            }
+            return bitmap == null ? hi - lo : bitmap.rangeCardinality(lo, hi);
+        }
+
+        /**
+         * 결과 중 n번째(0부터) 위치 (없으면 hi)
+         */
+        int nth(int n) {
+            if (n < 0 || n >= cardinality()) {
+                return hi;
+            }
+            if (bitmap == null) {
+                return lo + n;
+            }
+            long before = lo > 0 ? bitmap.rank(lo - 1) : 0;
+            return bitmap.select((int) (before + n));
+        }
+
+        PrimitiveCursor cursor(int start) {
+            int from = Math.max(start, lo);
+            if (bitmap == null) {
+                return new PrimitiveCursor(null, from, hi);
+            }
+            PeekableIntIterator iterator = bitmap.getIntIterator();
+            iterator.advanceIfNeeded(from);
+            return new PrimitiveCursor(iterator, from, hi);
+        }
+    }
+
+    /**
+     * Selection 순회 (구간만 있으면 숫자를 세고, 비트맵이 있으면 비트맵 반복자를 hi 전까지)
+     */
+    private static final class PrimitiveCursor {
+        private final PeekableIntIterator iterator;
+        private final int hi;
+        private int next;
+
+        private PrimitiveCursor(PeekableIntIterator iterator, int from, int hi) {
+            this.iterator = iterator;
+            this.hi = hi;
+            this.next = from;
+        }
+
+        boolean hasNext() {
+            if (iterator == null) {
+                return next < hi;
+            }
+            return iterator.hasNext() && iterator.peekNext() < hi;
+        }
+
+        int next() {
+            return iterator == null ? next++ : iterator.next();
+        }
+    }
+
+    /**
+     * 새 스냅샷 조립기. 기존 스냅샷에서 시작하면 사전 번호가 그대로 이어지므로 행을 번호째 복사할 수 있고,
+     * 복사한 행들은 이미 정렬돼 있으므로 build할 때 새로 추가한 행만 정렬해서 병합한다.
+     */
+    public static final class Builder {
+        private int size;
+        // 앞에서부터 이만큼은 이미 정렬 순서 (copyRow로만 채운 구간)
+        private int sortedPrefix;
+        private long[] visitIds;
+        private long[] videoIds;
+        private int[] users;
+        private int[] countries;
+        private int[] continents;
+        private long[] uploadSeconds;
+        private int[] cities;
+
+        private final List<Long> userIds = new ArrayList<>();
+        private final List<String> countryCodes = new ArrayList<>();
+        private final List<String> countryNames = new ArrayList<>();
+        private final List<String> countryEmojis = new ArrayList<>();
+        private final List<String> countryContinents = new ArrayList<>();
+        private final List<String> continentNames = new ArrayList<>();
+        private final List<String> cityNames = new ArrayList<>();
+        private final List<Double> cityLatitudes = new ArrayList<>();
+        private final List<Double> cityLongitudes = new ArrayList<>();
+        private final List<Integer> cityCountries = new ArrayList<>();
+        private final Map<Long, Integer> userIndex = new HashMap<>();
+        private final Map<String, Integer> countryIndex = new HashMap<>();
+        private final Map<String, Integer> continentIndex = new HashMap<>();
+        // 도시는 (국가, 이름, 위도, 경도)가 같으면 같은 도시
+        private final Map<String, Integer> cityIndex = new HashMap<>();
+
+        public Builder(int capacity) {
+            int initial = Math.max(16, capacity);
+            visitIds = new long[initial];
+            videoIds = new long[initial];
+            users = new int[initial];
+            countries = new int[initial];
+            continents = new int[initial];
+            uploadSeconds = new long[initial];
+            cities = new int[initial];
+        }
+
+        /**
+         * base의 사전을 이어받아 시작한다 (행은 비어 있음 - copyRow로 골라 담는다)
+         */
+        public Builder(VisitFacts base, int capacity) {
+            this(capacity);
+            for (long userId : base.userIds) {
+                userIndex.put(userId, userIds.size());
+                userIds.add(userId);
+            }
+            for (int c = 0; c < base.countryCodes.length; c++) {
+                countryIndex.put(base.countryCodes[c], c);
+                countryCodes.add(base.countryCodes[c]);
+                countryNames.add(base.countryNames[c]);
+                countryEmojis.add(base.countryEmojis[c]);
+                countryContinents.add(base.countryContinents[c]);
+            }
+            for (int k = 0; k < base.continentNames.length; k++) {
+                continentIndex.put(base.continentNames[k], k);
+                continentNames.add(base.continentNames[k]);
+            }
+            for (int city = 0; city < base.cityNames.length; city++) {
+                cityIndex.put(cityKey(base.cityCountries[city], base.cityNames[city],
+                        base.cityLatitudes[city], base.cityLongitudes[city]), city);
+                cityNames.add(base.cityNames[city]);
+                cityLatitudes.add(base.cityLatitudes[city]);
+                cityLongitudes.add(base.cityLongitudes[city]);
+                cityCountries.add(base.cityCountries[city]);
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * base의 row번째 행을 그대로 옮긴다 (base에서 시작한 Builder에서만, base 순서대로 호출)
+         */
+        public void copyRow(VisitFacts base, int row) {
+            ensureCapacity();
+            visitIds[size] = base.visitIds[row];
+            videoIds[size] = base.videoIds[row];
+            users[size] = base.users[row];
+            countries[size] = base.countries[row];
+            continents[size] = base.continents[row];
+            uploadSeconds[size] = base.uploadSeconds[row];
+            cities[size] = base.cities[row];
+            if (sortedPrefix == size) {
+                sortedPrefix++;
+            }
+            size++;
+        }
+
+        /**
+         * VisitCountryRepository.findFactsAfter/findFactsByVideoIds 한 행을 추가한다
+         */
+        public void addRow(Object[] row) {
+            add((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                    (Long) row[5], (Long) row[6], (LocalDateTime) row[7],
+                    (String) row[8], (Double) row[9], (Double) row[10]);
+        }
+
+        public void add(long visitId, String countryCode, String countryName, String countryEmoji,
+                        String continent, long videoId, long userId, LocalDateTime uploadDate,
+                        String cityName, Double cityLatitude, Double cityLongitude) {
+            ensureCapacity();
+            visitIds[size] = visitId;
+            videoIds[size] = videoId;
+            users[size] = userIndex.computeIfAbsent(userId, id -> {
+                userIds.add(id);
+                return userIds.size() - 1;
+            });
+            countries[size] = countryOf(countryCode, countryName, countryEmoji, continent);
+            continents[size] = continent != null ? continentIndex.computeIfAbsent(continent, name -> {
+                continentNames.add(name);
+                return continentNames.size() - 1;
+            }) : NONE;
+            uploadSeconds[size] = uploadDate != null ? toSeconds(uploadDate) : UNKNOWN_TIME;
+            cities[size] = cityLatitude != null && cityLongitude != null
+                    ? cityOf(countries[size], cityName, cityLatitude, cityLongitude) : NONE;
+            size++;
+        }
+
+        private int cityOf(int country, String cityName, double latitude, double longitude) {
+            return cityIndex.computeIfAbsent(cityKey(country, cityName, latitude, longitude), key -> {
+                cityNames.add(cityName);
+                cityLatitudes.add(latitude);
+                cityLongitudes.add(longitude);
+                cityCountries.add(country);
+                return cityNames.size() - 1;
+            });
+        }
+
+        private static String cityKey(int country, String cityName, double latitude, double longitude) {
+            return country + "|" + cityName + "|" + latitude + "|" + longitude;
+        }
+
+        // 국가 표시 정보는 마지막으로 본 행 기준으로 갱신
+        private int countryOf(String countryCode, String countryName, String countryEmoji, String continent) {
+            Integer existing = countryIndex.get(countryCode);
+            if (existing != null) {
+                countryNames.set(existing, countryName);
+                countryEmojis.set(existing, countryEmoji);
+                countryContinents.set(existing, continent);
+                return existing;
+            }
+            int created = countryCodes.size();
+            countryIndex.put(countryCode, created);
+            countryCodes.add(countryCode);
+            countryNames.add(countryName);
+            countryEmojis.add(countryEmoji);
+            countryContinents.add(continent);
+            return created;
+        }
+
+        private void ensureCapacity() {
+            if (size < visitIds.length) {
+                return;
+            }
+            int grown = visitIds.length * 2;
+            visitIds = Arrays.copyOf(visitIds, grown);
+            videoIds = Arrays.copyOf(videoIds, grown);
+            users = Arrays.copyOf(users, grown);
+            countries = Arrays.copyOf(countries, grown);
+            continents = Arrays.copyOf(continents, grown);
+            uploadSeconds = Arrays.copyOf(uploadSeconds, grown);
+            cities = Arrays.copyOf(cities, grown);
+        }
+
+        // 목록 정렬 순서: 업로드 시각 내림차순(미상은 맨 뒤), 영상 id 내림차순, 방문 id 오름차순
+        private int compareRows(int a, int b) {
+            boolean unknownA = uploadSeconds[a] == UNKNOWN_TIME;
+            boolean unknownB = uploadSeconds[b] == UNKNOWN_TIME;
+            if (unknownA != unknownB) {
+                return unknownA ? 1 : -1;
+            }
+            int byTime = Long.compare(uploadSeconds[b], uploadSeconds[a]);
+            if (byTime != 0) {
+                return byTime;
+            }
+            int byVideo = Long.compare(videoIds[b], videoIds[a]);
+            if (byVideo != 0) {
+                return byVideo;
+            }
+            return Long.compare(visitIds[a], visitIds[b]);
+        }
+
+        /**
+         * 정렬된 행 순서 (정렬돼 있는 앞 구간 + 새로 추가한 뒤 구간을 정렬해서 병합)
+         */
+        int[] sortedOrder() {
+            Integer[] tail = new Integer[size - sortedPrefix];
+            for (int i = 0; i < tail.length; i++) {
+                tail[i] = sortedPrefix + i;
+            }
+            Arrays.sort(tail, this::compareRows);
+
+            int[] order = new int[size];
+            int p = 0;
+            int t = 0;
+            int out = 0;
+            while (p < sortedPrefix && t < tail.length) {
+                order[out++] = compareRows(p, tail[t]) <= 0 ? p++ : tail[t++];
+            }
+            while (p < sortedPrefix) {
+                order[out++] = p++;
+            }
+            while (t < tail.length) {
+                order[out++] = tail[t++];
+            }
+            return order;
+        }
+
+        public VisitFacts build(Map<Long, UserDto> usersById) {
+            return new VisitFacts(this, usersById);
+        }
+    }
+}
@@ -4,17 +4,28 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.YouTubeRequest;
 import com.google.api.services.youtube.model.Channel;
 import com.google.api.services.youtube.model.ChannelListResponse;
 import com.google.api.services.youtube.model.ChannelSnippet;
@@ -30,29 +41,57 @@ import com.google.api.services.youtube.model.VideoSnippet;
 import com.google.api.services.youtube.model.VideoStatistics;
 import com.travelmap.entity.User;
 import com.travelmap.entity.Video;
+import com.travelmap.event.DataChangedEvent;
 import com.travelmap.repository.UserRepository;
 import com.travelmap.repository.VideoRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 @Transactional
 public class YouTubeService {
     
     private static final Logger logger = LoggerFactory.getLogger(YouTubeService.class);
     
+    // playlistItems.list / videos.list 한 번에 받을 수 있는 최대 개수
+    public static final int MAX_PAGE_SIZE = 50;
+    
     private final YouTube youtube;
     private final String apiKey;
     private final UserRepository userRepository;
     private final VideoRepository videoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final int backlogChunkSize;
+    private final ObservationRegistry observationRegistry;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     @Autowired
     public YouTubeService(YouTube youtube, 
                          @Value("${youtube.api.key}") String apiKey,
                          UserRepository userRepository,
-                         VideoRepository videoRepository) {
+                         VideoRepository videoRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         OutboxService outboxService,
+                         LeaseService leaseService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${travelmap.backlog.chunk-size:200}") int backlogChunkSize,
+                         ObservationRegistry observationRegistry) {
         this.youtube = youtube;
         this.apiKey = apiKey;
         this.userRepository = userRepository;
         this.videoRepository = videoRepository;
+        this.eventPublisher = eventPublisher;
+        this.outboxService = outboxService;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backlogChunkSize = Math.max(1, backlogChunkSize);
+        this.observationRegistry = observationRegistry;
     }
     
     /**
@@ -68,7 +107,7 @@ public class YouTubeService {
         searchRequest.setMaxResults(1L);
         searchRequest.setKey(apiKey);
 
-        SearchListResponse searchResponse = searchRequest.execute();
+        SearchListResponse searchResponse = call("search.list", searchRequest);
         List<SearchResult> searchResults = searchResponse.getItems();
         
         if (searchResults.isEmpty()) {
@@ -90,7 +129,7 @@ public class YouTubeService {
         channelRequest.setId(Collections.singletonList(actualChannelId));
         channelRequest.setKey(apiKey);
         
-        ChannelListResponse response = channelRequest.execute();
+        ChannelListResponse response = call("channels.list", channelRequest);
         List<Channel> channels = response.getItems();
         
         if (channels.isEmpty()) {
@@ -122,6 +161,7 @@ public class YouTubeService {
         }
     
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new DataChangedEvent().userChanged(savedUser.getId()));
         logger.info("채널 정보 저장 완료: {} ({})", savedUser.getName(), savedUser.getId());
         
         return savedUser;
@@ -140,7 +180,7 @@ public class YouTubeService {
         channelRequest.setId(Collections.singletonList(channelId));
         channelRequest.setKey(apiKey);
 
-        ChannelListResponse response = channelRequest.execute();
+        ChannelListResponse response = call("channels.list", channelRequest);
         List<Channel> channels = response.getItems();
 
         if (channels.isEmpty()) {
@@ -168,6 +208,7 @@ public class YouTubeService {
         }
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new DataChangedEvent().userChanged(savedUser.getId()));
         logger.info("채널 정보 갱신 완료: {} ({})", savedUser.getName(), savedUser.getId());
 
         return savedUser;
@@ -182,92 +223,184 @@ public class YouTubeService {
         User user = userRepository.findByYoutubeChannelId(channelId)
                 .orElseThrow(() -> new RuntimeException("채널 정보를 먼저 저장해야 합니다: " + channelId));
         
-        // 채널의 업로드 플레이리스트 ID 가져오기
+        String uploadsPlaylistId = findUploadsPlaylistId(channelId);
+        UploadPage page = fetchUploadPage(user, uploadsPlaylistId, null, maxResults);
+        
+        List<Video> savedVideos = saveNewVideos(page.getVideos());
+        logger.info("채널 영상 수집 완료: {}개 저장", savedVideos.size());
+        return savedVideos;
+    }
+    
+    /**
+     * 채널의 업로드 플레이리스트 ID 조회 (외부 API 호출만 하므로 DB 트랜잭션을 잡지 않는다)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String findUploadsPlaylistId(String channelId) throws IOException {
         YouTube.Channels.List channelRequest = youtube.channels().list(Collections.singletonList("snippet,statistics,contentDetails"));
         channelRequest.setId(Collections.singletonList(channelId));
         channelRequest.setKey(apiKey);
         
-        ChannelListResponse channelResponse = channelRequest.execute();
+        ChannelListResponse channelResponse = call("channels.list", channelRequest);
         if (channelResponse.getItems().isEmpty()) {
             throw new RuntimeException("채널을 찾을 수 없습니다: " + channelId);
         }
         
-        String uploadsPlaylistId = channelResponse.getItems().get(0)
+        return channelResponse.getItems().get(0)
                 .getContentDetails().getRelatedPlaylists().getUploads();
-        
-        // 플레이리스트에서 영상 목록 가져오기
+    }
+    
+    /**
+     * 업로드 플레이리스트 한 페이지를 가져와 저장 전 Video 초안으로 만든다 (최대 50개, 아직 저장하지 않음).
+     * 제목이 빈 영상은 여기서 걸러낸다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UploadPage fetchUploadPage(User user, String uploadsPlaylistId, String pageToken, int pageSize) throws IOException {
         YouTube.PlaylistItems.List playlistRequest = youtube.playlistItems().list(Collections.singletonList("snippet"));
         playlistRequest.setPlaylistId(uploadsPlaylistId);
-        playlistRequest.setMaxResults((long) maxResults);
+        playlistRequest.setMaxResults((long) Math.min(pageSize, MAX_PAGE_SIZE));
         playlistRequest.setKey(apiKey);
+        if (pageToken != null) {
+            playlistRequest.setPageToken(pageToken);
+        }
         
-        PlaylistItemListResponse playlistResponse = playlistRequest.execute();
-        List<PlaylistItem> playlistItems = playlistResponse.getItems();
+        PlaylistItemListResponse playlistResponse = call("playlistItems.list", playlistRequest);
         
+        List<Video> drafts = new ArrayList<>();
+        for (PlaylistItem item : playlistResponse.getItems()) {
+            try {
+                Video draft = toVideoDraft(user, item.getSnippet());
+                if (draft != null) {
+                    drafts.add(draft);
+                }
+            } catch (Exception e) {
+                logger.error("영상 정보 변환 실패, 건너뜀: {}", e.getMessage());
+                // 개별 영상 변환 실패해도 다음 영상 계속 처리
+            }
+        }
+        return new UploadPage(drafts, playlistResponse.getNextPageToken());
+    }
+    
+    /**
+     * 저장 전 영상들의 통계/길이를 videos.list 한 번으로 채운다 (최대 50개).
+     * 상세 정보를 받은 영상은 processed=true로 표시해서 미처리 영상 일괄 처리 대상에서 빠지게 한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void fillVideoDetails(List<Video> videos) throws IOException {
+        if (videos.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Video> byVideoId = new HashMap<>();
+        for (Video video : videos) {
+            byVideoId.put(video.getVideoId(), video);
+        }
+        
+        YouTube.Videos.List videoRequest = youtube.videos().list(Collections.singletonList("statistics,contentDetails"));
+        videoRequest.setId(new ArrayList<>(byVideoId.keySet()));
+        videoRequest.setKey(apiKey);
+        
+        for (com.google.api.services.youtube.model.Video youtubeVideo : call("videos.list", videoRequest).getItems()) {
+            Video video = byVideoId.get(youtubeVideo.getId());
+            if (video != null) {
+                applyDetails(video, youtubeVideo);
+                video.setProcessed(true);
+            }
+        }
+    }
+    
+    /**
+     * 초안 영상들 중 아직 없는 것만 저장하고(영상마다 국가 감지용 아웃박스 이벤트도 같이), 저장된 영상들을 한 번에 변경 이벤트로 알린다.
+     * 개별 영상 저장이 실패해도 나머지는 계속 저장한다.
+     */
+    public List<Video> saveNewVideos(List<Video> drafts) {
+        return saveNewVideos(drafts, null);
+    }
+    
+    /**
+     * 채널 임대를 가진 채로 저장한다. 저장 전에 같은 트랜잭션에서 임대를 확인하고 잡아 두며,
+     * 그 사이 다른 쪽이 채널을 가져갔으면(임대가 잃은 것으로 표시됨) 아무것도 저장하지 않고 빈 목록을 돌려준다.
+     */
+    public List<Video> saveNewVideos(List<Video> drafts, LeaseService.Lease channelLease) {
+        if (channelLease != null && !leaseService.holdForWrite(channelLease)) {
+            return new ArrayList<>();
+        }
         List<Video> savedVideos = new ArrayList<>();
         
-        for (PlaylistItem item : playlistItems) {
-            PlaylistItemSnippet snippet = item.getSnippet();
-            String videoId = snippet.getResourceId().getVideoId();
-            
+        for (Video video : drafts) {
             try {
                 // 이미 존재하는 영상인지 확인
-                if (videoRepository.existsByVideoId(videoId)) {
-                    logger.debug("이미 존재하는 영상 건너뛰기: {}", videoId);
-                    continue;
-                }
-                
-                // 필수 데이터 검증
-                if (snippet.getTitle() == null || snippet.getTitle().trim().isEmpty()) {
-                    logger.warn("영상 제목이 비어있어 건너뜀: {}", videoId);
+                if (videoRepository.existsByVideoId(video.getVideoId())) {
+                    logger.debug("이미 존재하는 영상 건너뛰기: {}", video.getVideoId());
                     continue;
                 }
                 
-                Video video = new Video();
-                video.setVideoId(videoId);
-                video.setTitle(snippet.getTitle());
-                video.setDescription(snippet.getDescription());
-                
-                // 썸네일 URL 안전하게 설정
-                try {
-                    if (snippet.getThumbnails() != null && snippet.getThumbnails().getDefault() != null) {
-                        video.setThumbnailUrl(snippet.getThumbnails().getDefault().getUrl());
-                    }
-                } catch (Exception e) {
-                    logger.warn("썸네일 URL 설정 실패, 건너뜀: {} - {}", videoId, e.getMessage());
-                }
-                
-                video.setVideoUrl("https://www.youtube.com/watch?v=" + videoId);
-                video.setUser(user);
-                video.setProcessed(false); // 명시적으로 false 설정
-                
-                // 업로드 날짜 파싱
-                try {
-                    if (snippet.getPublishedAt() != null) {
-                        String publishedAt = snippet.getPublishedAt().toString();
-                        video.setUploadDate(LocalDateTime.parse(publishedAt.substring(0, 19)));
-                    }
-                } catch (Exception e) {
-                    logger.warn("업로드 날짜 파싱 실패, 건너뜀: {} - {}", videoId, e.getMessage());
-                    // 날짜 파싱 실패해도 영상은 저장
-                }
-                
                 Video savedVideo = videoRepository.saveAndFlush(video);
+                // 국가 감지는 같은 트랜잭션에 남긴 아웃박스 이벤트를 소비자(CountryDetectionWorker)가 가져가서 한다
+                outboxService.recordVideoIngested(savedVideo);
                 savedVideos.add(savedVideo);
                 
                 logger.debug("영상 저장 완료: {} (ID: {})", savedVideo.getTitle(), savedVideo.getId());
                 
             } catch (Exception e) {
-                logger.error("영상 저장 실패, 건너뜀: {} - {}", videoId, e.getMessage());
+                logger.error("영상 저장 실패, 건너뜀: {} - {}", video.getVideoId(), e.getMessage());
                 // 개별 영상 저장 실패해도 다음 영상 계속 처리
                 continue;
             }
         }
         
-        logger.info("채널 영상 수집 완료: {}개 저장", savedVideos.size());
+        if (!savedVideos.isEmpty()) {
+            DataChangedEvent changes = new DataChangedEvent();
+            savedVideos.forEach(changes::videoAdded);
+            eventPublisher.publishEvent(changes);
+        }
+        
         return savedVideos;
     }
     
+    /**
+     * 플레이리스트 항목 하나를 저장 전 Video로 변환 (필수 데이터가 없으면 null)
+     */
+    private Video toVideoDraft(User user, PlaylistItemSnippet snippet) {
+        String videoId = snippet.getResourceId().getVideoId();
+        
+        // 필수 데이터 검증
+        if (snippet.getTitle() == null || snippet.getTitle().trim().isEmpty()) {
+            logger.warn("영상 제목이 비어있어 건너뜀: {}", videoId);
+            return null;
+        }
+        
+        Video video = new Video();
+        video.setVideoId(videoId);
+        video.setTitle(snippet.getTitle());
+        video.setDescription(snippet.getDescription());
+        
+        // 썸네일 URL 안전하게 설정
+        try {
+            if (snippet.getThumbnails() != null && snippet.getThumbnails().getDefault() != null) {
+                video.setThumbnailUrl(snippet.getThumbnails().getDefault().getUrl());
+            }
+        } catch (Exception e) {
+            logger.warn("썸네일 URL 설정 실패, 건너뜀: {} - {}", videoId, e.getMessage());
+        }
+        
+        video.setVideoUrl("https://www.youtube.com/watch?v=" + videoId);
+        video.setUser(user);
+        video.setProcessed(false); // 명시적으로 false 설정
+        
+        // 업로드 날짜 파싱
+        try {
+            if (snippet.getPublishedAt() != null) {
+                String publishedAt = snippet.getPublishedAt().toString();
+                video.setUploadDate(LocalDateTime.parse(publishedAt.substring(0, 19)));
+            }
+        } catch (Exception e) {
+            logger.warn("업로드 날짜 파싱 실패, 건너뜀: {} - {}", videoId, e.getMessage());
+            // 날짜 파싱 실패해도 영상은 저장
+        }
+        
+        return video;
+    }
+    
     /**
      * 특정 영상의 상세 정보를 가져와서 업데이트
      */
@@ -282,7 +415,7 @@ public class YouTubeService {
             videoRequest.setId(Collections.singletonList(videoId));
             videoRequest.setKey(apiKey);
             
-            VideoListResponse response = videoRequest.execute();
+            VideoListResponse response = call("videos.list", videoRequest);
             List<com.google.api.services.youtube.model.Video> videos = response.getItems();
             
             if (videos.isEmpty()) {
@@ -291,36 +424,8 @@ public class YouTubeService {
             }
             
             com.google.api.services.youtube.model.Video youtubeVideo = videos.get(0);
-            VideoSnippet snippet = youtubeVideo.getSnippet();
-            VideoStatistics statistics = youtubeVideo.getStatistics();
-            VideoContentDetails contentDetails = youtubeVideo.getContentDetails();
-            
-            // 상세 정보 업데이트
-            try {
-                if (statistics != null) {
-                    if (statistics.getViewCount() != null) {
-                        video.setViewCount(statistics.getViewCount().longValue());
-                    }
-                    if (statistics.getLikeCount() != null) {
-                        video.setLikeCount(statistics.getLikeCount().longValue());
-                    }
-                    if (statistics.getCommentCount() != null) {
-                        video.setCommentCount(statistics.getCommentCount().longValue());
-                    }
-                }
-            } catch (Exception e) {
-                logger.warn("통계 정보 업데이트 실패: {} - {}", videoId, e.getMessage());
-                // 통계 정보 업데이트 실패해도 계속 진행
-            }
             
-            try {
-                if (contentDetails != null && contentDetails.getDuration() != null) {
-                    video.setDuration(contentDetails.getDuration());
-                }
-            } catch (Exception e) {
-                logger.warn("영상 길이 업데이트 실패: {} - {}", videoId, e.getMessage());
-                // 영상 길이 업데이트 실패해도 계속 진행
-            }
+            applyDetails(video, youtubeVideo);
             
             Video savedVideo = videoRepository.save(video);
             logger.info("영상 상세 정보 업데이트 완료: {}", savedVideo.getId());
@@ -335,24 +440,162 @@ public class YouTubeService {
     }
     
     /**
-     * 처리되지 않은 영상들의 상세 정보를 일괄 업데이트
+     * 처리되지 않은 영상들의 상세 정보를 일괄 업데이트 (청크 단위라 백로그가 아무리 커도 메모리는 청크 하나 분량)
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updateUnprocessedVideosDetails() {
         logger.info("처리되지 않은 영상들의 상세 정보 업데이트 시작");
+        logger.info("처리할 영상 수: {}", videoRepository.countByProcessedFalse());
         
-        List<Video> unprocessedVideos = videoRepository.findByProcessedFalse();
-        logger.info("처리할 영상 수: {}", unprocessedVideos.size());
+        long afterId = 0L;
+        int processed = 0;
+        List<Video> chunk;
+        while (!(chunk = findUnprocessedChunk(afterId)).isEmpty()) {
+            afterId = chunk.get(chunk.size() - 1).getId();
+            try {
+                processed += processUnprocessedChunk(chunk);
+            } catch (Exception e) {
+                logger.error("영상 상세 정보 청크 업데이트 실패: id {} 이하 {}개 - {}", afterId, chunk.size(), e.getMessage());
+            }
+        }
         
-        for (Video video : unprocessedVideos) {
+        logger.info("처리되지 않은 영상들의 상세 정보 업데이트 완료: {}개", processed);
+    }
+    
+    /**
+     * 미처리 영상 한 청크 (id가 afterId보다 큰 것 중 앞에서부터 chunk-size개, 키셋 페이지네이션).
+     * 조회만 하고 트랜잭션을 잡지 않으므로 돌려받는 영상은 준영속 상태다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Video> findUnprocessedChunk(Long afterId) {
+        return videoRepository.findUnprocessedAfter(afterId, Limit.of(backlogChunkSize));
+    }
+    
+    /**
+     * 미처리 영상 한 청크 처리: 상세 정보는 50개씩 videos.list 한 번으로 받고(트랜잭션 밖),
+     * 반영은 청크 전체를 트랜잭션 하나에서 한 번 조회 → 값 복사 + processed 표시 → JDBC 배치 UPDATE로 쓴다.
+     * 국가 감지는 영상마다 아웃박스 이벤트를 남겨 국가 감지 워커에 맡긴다. 끝나면 영속성 컨텍스트를 비운다.
+     * 상세 조회가 실패한 영상도 (예전과 같이) 처리된 것으로 표시하고 감지는 진행한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processUnprocessedChunk(List<Video> chunk) {
+        for (int from = 0; from < chunk.size(); from += MAX_PAGE_SIZE) {
+            List<Video> page = chunk.subList(from, Math.min(from + MAX_PAGE_SIZE, chunk.size()));
             try {
-                updateVideoDetails(video.getVideoId());
-                video.setProcessed(true);
-                videoRepository.save(video);
+                fillVideoDetails(page);
             } catch (Exception e) {
-                logger.error("영상 상세 정보 업데이트 실패: {} - {}", video.getVideoId(), e.getMessage());
+                logger.warn("영상 상세 정보 조회 실패, 상세 없이 계속 진행: {}개 - {}", page.size(), e.getMessage());
             }
         }
         
-        logger.info("처리되지 않은 영상들의 상세 정보 업데이트 완료");
+        Integer updated = transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(backlogChunkSize);
+            
+            Map<Long, Video> fetched = new HashMap<>();
+            chunk.forEach(video -> fetched.put(video.getId(), video));
+            
+            List<Video> managed = videoRepository.findAllById(fetched.keySet());
+            for (Video video : managed) {
+                Video source = fetched.get(video.getId());
+                if (source.getViewCount() != null) {
+                    video.setViewCount(source.getViewCount());
+                }
+                if (source.getLikeCount() != null) {
+                    video.setLikeCount(source.getLikeCount());
+                }
+                if (source.getCommentCount() != null) {
+                    video.setCommentCount(source.getCommentCount());
+                }
+                if (source.getDuration() != null) {
+                    video.setDuration(source.getDuration());
+                }
+                video.setProcessed(true);
+                outboxService.recordVideoIngested(video);
+            }
+            
+            entityManager.flush();
+            entityManager.clear();
+            return managed.size();
+        });
+        return updated != null ? updated : 0;
+    }
+    
+    /**
+     * 채널을 수집 완료로 표시 (마지막 수집 시각은 채널별 수집 지연 지표에 쓰인다)
+     */
+    public void markChannelCollected(Long userId) {
+        userRepository.markCollected(userId, LocalDateTime.now());
+    }
+    
+    /**
+     * YouTube API 호출 한 번. 종류(operation)와 결과(outcome)별 소요 시간이 travelmap.youtube.call로 남고,
+     * 호출한 쪽(파이프라인 단계, 채널 정보 재수집 등) 구간 아래에 추적 구간으로 붙는다.
+     */
+    private <T> T call(String operation, YouTubeRequest<T> request) throws IOException {
+        Observation observation = Observation.createNotStarted("travelmap.youtube.call", observationRegistry)
+                .lowCardinalityKeyValue("operation", operation)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            T response = request.execute();
+            observation.lowCardinalityKeyValue("outcome", "success");
+            return response;
+        } catch (IOException | RuntimeException e) {
+            observation.lowCardinalityKeyValue("outcome", "error");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+    
+    /**
+     * YouTube 응답의 통계/길이 정보를 영상에 반영 (항목별 실패는 건너뛴다)
+     */
+    private void applyDetails(Video video, com.google.api.services.youtube.model.Video youtubeVideo) {
+        VideoStatistics statistics = youtubeVideo.getStatistics();
+        VideoContentDetails contentDetails = youtubeVideo.getContentDetails();
+        
+        try {
+            if (statistics != null) {
+                if (statistics.getViewCount() != null) {
+                    video.setViewCount(statistics.getViewCount().longValue());
+                }
+                if (statistics.getLikeCount() != null) {
+                    video.setLikeCount(statistics.getLikeCount().longValue());
+                }
+                if (statistics.getCommentCount() != null) {
+                    video.setCommentCount(statistics.getCommentCount().longValue());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("통계 정보 업데이트 실패: {} - {}", video.getVideoId(), e.getMessage());
+            // 통계 정보 업데이트 실패해도 계속 진행
+        }
+        
+        try {
+            if (contentDetails != null && contentDetails.getDuration() != null) {
+                video.setDuration(contentDetails.getDuration());
+            }
+        } catch (Exception e) {
+            logger.warn("영상 길이 업데이트 실패: {} - {}", video.getVideoId(), e.getMessage());
+            // 영상 길이 업데이트 실패해도 계속 진행
+        }
+    }
+    
+    /**
+     * 업로드 플레이리스트 한 페이지 (저장 전 영상 초안 + 다음 페이지 토큰, 마지막 페이지면 null)
+     */
+    public static class UploadPage {
+        private final List<Video> videos;
+        private final String nextPageToken;
+        
+        public UploadPage(List<Video> videos, String nextPageToken) {
+            this.videos = videos;
+            this.nextPageToken = nextPageToken;
+        }
+        
+        public List<Video> getVideos() { return videos; }
+        public String getNextPageToken() { return nextPageToken; }
     }
-} 
\ No newline at end of file
+}
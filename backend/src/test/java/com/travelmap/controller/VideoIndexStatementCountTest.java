@@ -0,0 +1,92 @@
+package com.travelmap.controller;
+
+import com.travelmap.service.VisitFactIndex;
+import com.travelmap.service.VisitFacts;
+import com.travelmap.support.SqlBudgetTest;
+import com.travelmap.support.SqlStatementBudget;
+import com.travelmap.support.VideoFixtures;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 메모리 읽기 모델을 켠 운영 경로의 /api/videos SQL 문 예산. 영상 id는 읽기 모델에서 고르고, DB는 행 일괄 1 + 유튜버 일괄 1 + 방문 국가 일괄 1.
+ * 넣은 행이 읽기 모델에 다 실린 뒤에 잰다 (적재 전이면 DB 경로로 답해서 이 경로를 재지 못함).
+ */
+@SqlBudgetTest
+@TestPropertySource(properties = {
+        "travelmap.visit-index.enabled=true",
+        "travelmap.visit-index.min-reload-interval-ms=0",
+        "travelmap.visit-index.refresh-debounce-ms=0"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VideoIndexStatementCountTest {
+
+    private static final int PAGE_STATEMENTS = 3;
+    private static final int VIDEOS = 200;
+    private static final int COUNTRIES_PER_VIDEO = 2;
+    private static final long LOAD_TIMEOUT_MILLIS = 30_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VisitFactIndex visitFactIndex;
+
+    @BeforeAll
+    void seed() throws InterruptedException {
+        VideoFixtures.insert(jdbcTemplate, 10, VIDEOS, COUNTRIES_PER_VIDEO);
+        visitFactIndex.requestFullReload();
+
+        long deadline = System.currentTimeMillis() + LOAD_TIMEOUT_MILLIS;
+        while (!loaded()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("읽기 모델 적재가 " + LOAD_TIMEOUT_MILLIS + "ms 안에 끝나지 않음: " + visitFactIndex.getReport());
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private boolean loaded() {
+        VisitFacts facts = visitFactIndex.current();
+        return facts != null && facts.size() == VIDEOS * COUNTRIES_PER_VIDEO;
+    }
+
+    @Test
+    void videoPage() throws Exception {
+        // 빈 페이지로 예산을 통과하지 않게 꽉 찬 페이지부터 확인
+        mockMvc.perform(get("/api/videos").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20));
+
+        SqlStatementBudget.assertAtMost(mockMvc, get("/api/videos").param("size", "20"), PAGE_STATEMENTS);
+    }
+
+    @Test
+    void videoPageWithCursor() throws Exception {
+        String cursor = mockMvc.perform(get("/api/videos").param("size", "20"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+        assertNotNull(cursor);
+
+        SqlStatementBudget.assertAtMost(mockMvc,
+                get("/api/videos").param("size", "20").param("cursor", cursor), PAGE_STATEMENTS);
+    }
+
+    @Test
+    void filteredVideoPage() throws Exception {
+        SqlStatementBudget.assertAtMost(mockMvc,
+                get("/api/videos").param("size", "20").param("countryCode", "JP"), PAGE_STATEMENTS);
+    }
+}
@@ -0,0 +1,123 @@
+package com.travelmap.controller;
+
+import com.travelmap.config.SqlStatementCounter;
+import com.travelmap.service.CountryStatsService;
+import com.travelmap.service.MapDataService;
+import com.travelmap.support.SqlBudgetTest;
+import com.travelmap.support.SqlStatementBudget;
+import com.travelmap.support.VideoFixtures;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 영상 조회 엔드포인트의 SQL 문 수가 페이지 크기와 무관한지 확인한다 (영상마다 유튜버/국가를 따로 읽는 N+1이 돌아오면 실패).
+ * 페이지 하나 = 영상 행 1 + 유튜버 일괄 1 + 방문 국가 일괄 1.
+ * 지도 데이터는 국가 집계 테이블 집계 1 + 국가-유튜버 쌍 1 + 유튜버 일괄 1, 필터 옵션은 유튜버/국가/대륙/연도 목록 하나씩.
+ */
+@SqlBudgetTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VideoQueryStatementCountTest {
+
+    private static final int PAGE_STATEMENTS = 3;
+    private static final int MAP_DATA_STATEMENTS = 3;
+    private static final int FILTERS_STATEMENTS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CountryStatsService countryStatsService;
+
+    @Autowired
+    private MapDataService mapDataService;
+
+    @BeforeAll
+    void seed() {
+        VideoFixtures.insert(jdbcTemplate, 10, 200, 2);
+        // JDBC로 넣은 방문은 집계 테이블에 안 잡히므로 한 번 다시 만든다 (빈 지도로 예산을 통과하지 않게)
+        countryStatsService.reconcile();
+    }
+
+    @Test
+    void videoListDoesNotGrowWithPageSize() throws Exception {
+        SqlStatementCounter.Scope small = SqlStatementBudget.assertAtMost(mockMvc,
+                get("/api/videos").param("size", "5"), PAGE_STATEMENTS);
+        SqlStatementCounter.Scope large = SqlStatementBudget.assertAtMost(mockMvc,
+                get("/api/videos").param("size", "100"), PAGE_STATEMENTS);
+        assertEquals(small.getStatements(), large.getStatements());
+    }
+
+    @Test
+    void videoPageWithCursor() throws Exception {
+        String cursor = mockMvc.perform(get("/api/videos").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+        assertNotNull(cursor);
+
+        SqlStatementBudget.assertAtMost(mockMvc,
+                get("/api/videos").param("size", "20").param("cursor", cursor), PAGE_STATEMENTS);
+    }
+
+    @Test
+    void videoDetail() throws Exception {
+        SqlStatementBudget.assertAtMost(mockMvc, get("/api/videos/{id}", 1), PAGE_STATEMENTS);
+    }
+
+    @Test
+    void countryVideosDoNotGrowWithLimit() throws Exception {
+        SqlStatementCounter.Scope small = SqlStatementBudget.assertAtMost(mockMvc,
+                get("/api/countries/{code}/videos", "KR").param("limit", "5"), PAGE_STATEMENTS);
+        SqlStatementCounter.Scope large = SqlStatementBudget.assertAtMost(mockMvc,
+                get("/api/countries/{code}/videos", "KR").param("limit", "100"), PAGE_STATEMENTS);
+        assertEquals(small.getStatements(), large.getStatements());
+    }
+
+    @Test
+    void countryVideosWithCursor() throws Exception {
+        String cursor = mockMvc.perform(get("/api/countries/{code}/videos", "JP").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+        assertNotNull(cursor);
+
+        SqlStatementBudget.assertAtMost(mockMvc,
+                get("/api/countries/{code}/videos", "JP").param("limit", "20").param("cursor", cursor), PAGE_STATEMENTS);
+    }
+
+    @Test
+    void mapData() throws Exception {
+        SqlStatementBudget.assertAtMost(mockMvc, get("/api/map-data"), MAP_DATA_STATEMENTS);
+        mockMvc.perform(get("/api/map-data"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countries.length()").value(2));
+    }
+
+    @Test
+    void filteredMapDataWhenCacheIsCold() throws Exception {
+        mapDataService.clearCache();
+        SqlStatementBudget.assertAtMost(mockMvc, get("/api/map-data").param("continent", "아시아")
+                        .param("year", String.valueOf(LocalDate.now().getYear())),
+                MAP_DATA_STATEMENTS);
+    }
+
+    @Test
+    void filters() throws Exception {
+        SqlStatementBudget.assertAtMost(mockMvc, get("/api/filters"), FILTERS_STATEMENTS);
+    }
+}
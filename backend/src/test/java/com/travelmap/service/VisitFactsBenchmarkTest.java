@@ -0,0 +1,146 @@
+package com.travelmap.service;
+
+import com.travelmap.dto.MapDataDto;
+import com.travelmap.dto.MapDataFilter;
+import com.travelmap.dto.UserDto;
+import com.travelmap.repository.UserRepository;
+import com.travelmap.repository.VisitCountryRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 메모리 읽기 모델({@link VisitFacts}) vs JPA 집계(findByFilters) 재현용 벤치마크.
+ * 임베디드 PostgreSQL에 고정 규칙으로 만든 합성 데이터(유튜버 200명, 영상 25만 개, 방문 사실 100만 행)를 넣고,
+ * 운영 적재 경로와 같은 청크 읽기로 {@link VisitFacts.Builder}에 담은 뒤 {@link MapDataService#benchmark}로 필터 조합별 평균 시간을 잰다.
+ * 기본 test 태스크에서는 빠지고 {@code ./gradlew benchmark}로만 돈다 (힙 4GB).
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "youtube.api.key=test",
+        "travelmap.outbox.detection-workers=0",
+        "travelmap.visit-index.enabled=false"
+})
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class VisitFactsBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisitFactsBenchmarkTest.class);
+
+    private static final int USERS = 200;
+    private static final int VIDEOS = 250_000;
+    private static final int FACTS = 1_000_000;
+    private static final int LOAD_CHUNK = 10_000;
+    private static final int ITERATIONS = 5;
+
+    // 국가 코드, 이름, 대륙 (방문 id를 이 수로 나눈 나머지로 고른다)
+    private static final String[][] COUNTRIES = {
+            {"KR", "대한민국", "아시아"}, {"JP", "일본", "아시아"}, {"CN", "중국", "아시아"}, {"TH", "태국", "아시아"},
+            {"VN", "베트남", "아시아"}, {"IN", "인도", "아시아"}, {"ID", "인도네시아", "아시아"}, {"PH", "필리핀", "아시아"},
+            {"FR", "프랑스", "유럽"}, {"DE", "독일", "유럽"}, {"IT", "이탈리아", "유럽"}, {"ES", "스페인", "유럽"},
+            {"GB", "영국", "유럽"}, {"PT", "포르투갈", "유럽"}, {"GR", "그리스", "유럽"}, {"CH", "스위스", "유럽"},
+            {"US", "미국", "북아메리카"}, {"CA", "캐나다", "북아메리카"}, {"MX", "멕시코", "북아메리카"},
+            {"BR", "브라질", "남아메리카"}, {"AR", "아르헨티나", "남아메리카"}, {"PE", "페루", "남아메리카"},
+            {"EG", "이집트", "아프리카"}, {"MA", "모로코", "아프리카"}, {"ZA", "남아프리카 공화국", "아프리카"},
+            {"AU", "호주", "오세아니아"}, {"NZ", "뉴질랜드", "오세아니아"}
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VisitCountryRepository visitCountryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MapDataService mapDataService;
+
+    @BeforeAll
+    void seed() {
+        long startedAt = System.currentTimeMillis();
+        jdbcTemplate.update("INSERT INTO users (id, name, youtube_channel_id, created_at, updated_at) " +
+                "SELECT g, 'channel-' || g, 'UC' || g, now(), now() FROM generate_series(1, ?) g", USERS);
+        // 업로드 시각은 최근 5년에 고르게 퍼뜨린다
+        jdbcTemplate.update("INSERT INTO videos (id, title, video_id, upload_date, processed, ocr_processed, user_id, created_at, updated_at) " +
+                "SELECT g, 'video ' || g, 'v' || g, now() - (g % 1825) * interval '1 day' - (g % 86400) * interval '1 second', " +
+                "true, false, (g % ?) + 1, now(), now() FROM generate_series(1, ?) g", USERS, VIDEOS);
+
+        String countries = IntStream.range(0, COUNTRIES.length)
+                .mapToObj(i -> String.format("(%d, '%s', '%s', '%s')", i, COUNTRIES[i][0], COUNTRIES[i][1], COUNTRIES[i][2]))
+                .collect(Collectors.joining(", "));
+        // 세 행 중 하나는 도시(국가마다 50곳)까지 있다
+        jdbcTemplate.update("INSERT INTO visit_countries (id, country_code, country_name, country_emoji, continent, " +
+                "city_name, city_latitude, city_longitude, detection_method, video_id, created_at, updated_at) " +
+                "SELECT g, c.code, c.name, '', c.continent, " +
+                "CASE WHEN g % 3 = 0 THEN 'city-' || (g % 50) END, " +
+                "CASE WHEN g % 3 = 0 THEN (g % 50)::float8 END, " +
+                "CASE WHEN g % 3 = 0 THEN (g % 50)::float8 + c.idx END, " +
+                "'TITLE_EMOJI', ((g::bigint * 7919) % ?) + 1, now(), now() " +
+                "FROM generate_series(1, ?) g JOIN (VALUES " + countries + ") AS c(idx, code, name, continent) " +
+                "ON c.idx = g % " + COUNTRIES.length, VIDEOS, FACTS);
+        jdbcTemplate.execute("ANALYZE");
+        logger.info("합성 데이터 적재: 방문 사실 {}개 행, {}ms", FACTS, System.currentTimeMillis() - startedAt);
+    }
+
+    @Test
+    void compareAgainstJpaAggregation() {
+        long startedAt = System.currentTimeMillis();
+        VisitFacts.Builder builder = new VisitFacts.Builder(FACTS);
+        long afterId = 0L;
+        while (true) {
+            List<Object[]> rows = visitCountryRepository.findFactsAfter(afterId, Limit.of(LOAD_CHUNK));
+            for (Object[] row : rows) {
+                builder.addRow(row);
+            }
+            if (rows.size() < LOAD_CHUNK) {
+                break;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        Map<Long, UserDto> users = new HashMap<>();
+        userRepository.findAll().forEach(user -> users.put(user.getId(), new UserDto(user)));
+        VisitFacts facts = builder.build(users);
+        logger.info("VisitFacts 조립: {}개 행, {}ms, 메모리 {}", facts.size(), System.currentTimeMillis() - startedAt,
+                facts.memoryReport());
+        assertEquals(FACTS, facts.size());
+
+        // 같은 데이터에서 두 경로의 국가별 방문 수가 같아야 시간 비교가 의미 있다
+        MapDataFilter all = new MapDataFilter(null, null, null, null, null, null);
+        assertEquals(visitCounts(facts.aggregate(all)), visitCounts(mapDataService.buildFromVisits(all)));
+
+        List<Map<String, Object>> results = mapDataService.benchmark(facts, ITERATIONS);
+        for (Map<String, Object> result : results) {
+            logger.info("벤치마크 {}: 사실 {}개, 읽기 모델 {}us, JPA {}us",
+                    result.get("filter"), result.get("facts"), result.get("indexMicros"), result.get("jpaMicros"));
+        }
+    }
+
+    private static Map<String, Long> visitCounts(MapDataDto mapData) {
+        Map<String, Long> counts = new HashMap<>();
+        for (MapDataDto.CountryDataDto country : mapData.getCountries()) {
+            counts.put(country.getCountryCode(), country.getVisitCount());
+        }
+        return counts;
+    }
+}
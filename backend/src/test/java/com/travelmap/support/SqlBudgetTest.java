@@ -0,0 +1,44 @@
+package com.travelmap.support;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SQL 문 예산 검사용 테스트 설정: 로컬 임베디드 PostgreSQL(zonky, 도커/네트워크 불필요) 위에 전체 앱을 띄우고 MockMvc를 붙인다.
+ * 네이티브 쿼리가 PostgreSQL 문법(ON CONFLICT, SKIP LOCKED 등)이라 H2 대신 실제 PostgreSQL 바이너리를 쓴다.
+ * 백그라운드 감지 워커는 끄고(요청 SQL만 세도록), YouTube 키는 가짜 값을 넣는다.
+ * 메모리 읽기 모델도 끈다 - 테스트가 JDBC로 넣은 행은 변경 이벤트가 없어 읽기 모델에 안 보이고, DB 경로가 SQL을 가장 많이 쓴다.
+ * 읽기 모델 경로를 잴 때는 &#64;TestPropertySource로 다시 켜고 넣은 뒤 통째로 다시 읽힌다 (VideoIndexStatementCountTest 참고).
+ *
+ * <pre>
+ * &#64;SqlBudgetTest
+ * class VideoQueryStatementCountTest {
+ *     &#64;Autowired MockMvc mockMvc;
+ *
+ *     &#64;Test
+ *     void videoPage() throws Exception {
+ *         SqlStatementBudget.assertAtMost(mockMvc, get("/api/videos").param("size", "20"), 3);
+ *     }
+ * }
+ * </pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "youtube.api.key=test",
+        "travelmap.outbox.detection-workers=0",
+        "travelmap.visit-index.enabled=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+public @interface SqlBudgetTest {
+}
@@ -0,0 +1,36 @@
+package com.travelmap.support;
+
+import com.travelmap.config.SqlStatementCounter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * 엔드포인트 SQL 문 예산 검사. 요청을 MockMvc로 보내고, {@link SqlStatementCounter}가 센 문 수가 예산을 넘으면 테스트를 실패시킨다.
+ * 오류 응답은 쿼리를 덜 돌고도 예산 안에 들어올 수 있으므로 4xx/5xx도 실패로 본다.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    public static SqlStatementCounter.Scope assertAtMost(MockMvc mockMvc, RequestBuilder request, int maxStatements) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        String target = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                + (result.getRequest().getQueryString() != null ? "?" + result.getRequest().getQueryString() : "");
+
+        int status = result.getResponse().getStatus();
+        if (status >= 400) {
+            throw new AssertionError(target + " 응답 상태 " + status + " - SQL 예산을 잴 수 없음");
+        }
+        Object attribute = result.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE);
+        if (!(attribute instanceof SqlStatementCounter.Scope scope)) {
+            throw new AssertionError(target + " SQL 집계 없음 (/api/** 요청인지, SqlStatementInterceptor가 등록됐는지 확인)");
+        }
+        if (scope.getStatements() > maxStatements) {
+            throw new AssertionError(target + " SQL 문 " + scope.getStatements() + "개 (예산 " + maxStatements + "개, "
+                    + scope.getMillis() + "ms)\n  " + String.join("\n  ", scope.getSql()));
+        }
+        return scope;
+    }
+}
@@ -0,0 +1,31 @@
+package com.travelmap.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 테스트용 유튜버/영상/방문 국가 행을 고정 규칙으로 넣는다 (id를 직접 정하고 이미 있으면 건너뛰므로 여러 번 불러도 같다).
+ * 영상 v는 유튜버 (v % users) + 1의 것이고, 하루씩 앞선 업로드 날짜에 KR/JP/FR 중 countriesPerVideo개 국가를 방문한다.
+ */
+public final class VideoFixtures {
+
+    private VideoFixtures() {
+    }
+
+    public static void insert(JdbcTemplate jdbcTemplate, int users, int videos, int countriesPerVideo) {
+        jdbcTemplate.update("INSERT INTO users (id, name, youtube_channel_id, created_at, updated_at) " +
+                "SELECT g, 'channel-' || g, 'UC' || g, now(), now() FROM generate_series(1, ?) g " +
+                "ON CONFLICT DO NOTHING", users);
+        jdbcTemplate.update("INSERT INTO videos (id, title, video_id, video_url, upload_date, processed, ocr_processed, " +
+                "user_id, created_at, updated_at) " +
+                "SELECT g, 'video ' || g, 'v' || g, 'https://www.youtube.com/watch?v=v' || g, " +
+                "now() - g * interval '1 day', true, false, (g % ?) + 1, now(), now() " +
+                "FROM generate_series(1, ?) g ON CONFLICT DO NOTHING", users, videos);
+        jdbcTemplate.update("INSERT INTO visit_countries (id, country_code, country_name, country_emoji, continent, " +
+                "detection_method, visit_order, video_id, created_at, updated_at) " +
+                "SELECT (v - 1) * 3 + c.idx + 1, c.code, c.name, '', c.continent, 'TITLE_EMOJI', c.idx + 1, v, now(), now() " +
+                "FROM generate_series(1, ?) v " +
+                "JOIN (VALUES (0, 'KR', '대한민국', '아시아'), (1, 'JP', '일본', '아시아'), (2, 'FR', '프랑스', '유럽')) " +
+                "AS c(idx, code, name, continent) ON c.idx < ? " +
+                "ON CONFLICT DO NOTHING", videos, Math.min(countriesPerVideo, 3));
+    }
+}
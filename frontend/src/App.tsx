@@ -1,4 +1,4 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import {
   Container,
   Typography,
@@ -18,12 +18,15 @@ import { useAppDispatch, useAppSelector } from './store';
 import {
   fetchFilterOptions,
   fetchMapData,
+  syncMapData,
   fetchVideos,
+  fetchVideosByCountry,
   updateFilters,
   resetFilters,
   clearError,
   setSelectedVideo,
 } from './store/appSlice';
+import { liveEvents } from './services/liveEvents';
 import FilterPanel from './components/FilterPanel';
 import WorldMap from './components/WorldMap';
 import VideoList from './components/VideoList';
@@ -59,8 +62,9 @@ const MainApp: React.FC = () => {
     filterOptions,
     mapData,
     videos,
-    videosPage,
+    videosCursor,
     hasMoreVideos,
+    videosCountryCode,
     loading,
     error,
   } = useAppSelector((state) => state.app);
@@ -78,6 +82,33 @@ const MainApp: React.FC = () => {
     dispatch(fetchVideos({ filters }));
   }, [dispatch, filters]);
 
+  // 서버에 새 데이터 버전이 생기면 (여러 커밋을 잠깐 모아서) 지금 보고 있는 데이터를 갱신한다
+  const latestRef = useRef({ filters, version: mapData?.version });
+  latestRef.current = { filters, version: mapData?.version };
+
+  useEffect(() => {
+    let timer: ReturnType<typeof setTimeout> | null = null;
+    const unsubscribe = liveEvents.subscribe('data-version', ({ version }: { version: number }) => {
+      const current = latestRef.current.version;
+      if (current === undefined || version <= current || timer) {
+        return;
+      }
+      timer = setTimeout(() => {
+        timer = null;
+        const latestFilters = latestRef.current.filters;
+        dispatch(fetchFilterOptions());
+        dispatch(syncMapData(latestFilters));
+        dispatch(fetchVideos({ filters: latestFilters }));
+      }, 2000);
+    });
+    return () => {
+      unsubscribe();
+      if (timer) {
+        clearTimeout(timer);
+      }
+    };
+  }, [dispatch]);
+
   // 에러 표시
   useEffect(() => {
     if (error) {
@@ -109,7 +140,11 @@ const MainApp: React.FC = () => {
 
   // 영상 더 보기 핸들러
   const handleLoadMoreVideos = () => {
-    dispatch(fetchVideos({ filters, page: videosPage + 1, append: true }));
+    if (videosCountryCode) {
+      dispatch(fetchVideosByCountry({ countryCode: videosCountryCode, cursor: videosCursor, append: true }));
+      return;
+    }
+    dispatch(fetchVideos({ filters, cursor: videosCursor, append: true }));
   };
 
   // 영상 클릭 핸들러
@@ -130,8 +165,8 @@ const MainApp: React.FC = () => {
     console.log('데이터 수집 완료 - 자동 새로고침 시작');
     // 필터 옵션 다시 로드
     dispatch(fetchFilterOptions());
-    // 현재 필터로 지도 데이터 다시 로드
-    dispatch(fetchMapData(filters));
+    // 현재 필터로 지도 데이터 갱신 (필터가 없으면 바뀐 국가만 받는다)
+    dispatch(syncMapData(filters));
     // 현재 필터로 영상 목록 다시 로드
     dispatch(fetchVideos({ filters }));
   };
@@ -27,6 +27,7 @@ import {
   AdminPanelSettings
 } from '@mui/icons-material';
 import { dataCollectionApi } from '../services/api';
+import { liveEvents } from '../services/liveEvents';
 
 interface CollectionStatus {
   isCollecting: boolean;
@@ -37,8 +38,9 @@ interface CollectionStatus {
 }
 
 interface CollectionResult {
-  status: 'success' | 'error';
+  status: 'success' | 'error' | 'accepted' | 'cancelled';
   message: string;
+  jobId?: number;
   processedCount?: number;
   totalCount?: number;
   channelName?: string;
@@ -46,6 +48,21 @@ interface CollectionResult {
   countryProcessedCount?: number;
 }
 
+type JobStatus = 'QUEUED' | 'RUNNING' | 'SUCCEEDED' | 'FAILED' | 'CANCELLED';
+
+interface CollectionJob {
+  id: number;
+  status: JobStatus;
+  currentStatus?: string | null;
+  processedCount?: number;
+  totalCount?: number;
+  errorCount?: number;
+  resultMessage?: string | null;
+  errorMessage?: string | null;
+}
+
+const isJobActive = (job: CollectionJob) => job.status === 'QUEUED' || job.status === 'RUNNING';
+
 interface DataCollectionPanelProps {
   onDataUpdated?: () => void; // 데이터 업데이트 콜백
 }
@@ -64,9 +81,12 @@ const DataCollectionPanel: React.FC<DataCollectionPanelProps> = ({ onDataUpdated
   const [channelName, setChannelName] = useState('');
   const [isExpanded, setIsExpanded] = useState(false);
   const [addChannelOpen, setAddChannelOpen] = useState(false);
+  const [activeJob, setActiveJob] = useState<CollectionJob | null>(null);
   
-  // 상태 폴링
+  // 상태 구독: 서버가 바뀔 때마다 밀어 주고, 실시간 연결이 없는 동안에만 폴링으로 대신한다
   useEffect(() => {
+    let interval: ReturnType<typeof setInterval> | null = null;
+    
     const fetchStatus = async () => {
       try {
         const response = await dataCollectionApi.getCollectionStatus();
@@ -76,72 +96,109 @@ const DataCollectionPanel: React.FC<DataCollectionPanelProps> = ({ onDataUpdated
       }
     };
     
-    fetchStatus();
-    const interval = setInterval(fetchStatus, 2000); // 2초마다 상태 체크
+    const stopPolling = () => {
+      if (interval) {
+        clearInterval(interval);
+        interval = null;
+      }
+    };
     
-    return () => clearInterval(interval);
+    const unsubscribeStatus = liveEvents.subscribe('collection-status', setStatus);
+    const unsubscribeConnection = liveEvents.onConnectionChange(connected => {
+      if (connected) {
+        stopPolling();
+      } else if (!interval) {
+        fetchStatus();
+        interval = setInterval(fetchStatus, 2000); // 2초마다 상태 체크
+      }
+    });
+    
+    return () => {
+      unsubscribeStatus();
+      unsubscribeConnection();
+      stopPolling();
+    };
   }, []);
   
-  const handleCollectAll = async () => {
-    try {
-      setResult(null);
-      const response = await dataCollectionApi.collectAllData();
-      setResult(response.data);
-      
-      // 데이터 수집 완료 시 자동 렌더링
-      if (response.data.status === 'success' && onDataUpdated) {
-        setTimeout(() => {
-          onDataUpdated();
-        }, 1000); // 1초 후 데이터 새로고침
+  const [liveConnected, setLiveConnected] = useState(false);
+  
+  // 등록한 작업 따라가기: 작업 상태는 어느 파드에 붙어 있든 실시간 이벤트로 온다 (다른 파드 작업은 서버가 중계)
+  useEffect(() => {
+    const unsubscribeJob = liveEvents.subscribe('collection-job', (job: CollectionJob) => {
+      setActiveJob(current => (current && current.id === job.id ? job : current));
+    });
+    const unsubscribeConnection = liveEvents.onConnectionChange(setLiveConnected);
+    return () => {
+      unsubscribeJob();
+      unsubscribeConnection();
+    };
+  }, []);
+  
+  const activeJobId = activeJob && isJobActive(activeJob) ? activeJob.id : null;
+  
+  // 연결돼 있으면 (다시) 붙은 시점에 한 번만 조회해서 끊긴 사이 놓친 상태를 맞추고, 끊겨 있는 동안에만 폴링한다
+  useEffect(() => {
+    if (activeJobId === null) {
+      return;
+    }
+    const fetchJob = async () => {
+      try {
+        const response = await dataCollectionApi.getJob(activeJobId);
+        setActiveJob(response.data);
+      } catch (error) {
+        console.error('작업 조회 실패:', error);
       }
-    } catch (error: any) {
-      setResult({
-        status: 'error',
-        message: error.response?.data?.message || '전체 데이터 수집 실패'
-      });
+    };
+    fetchJob();
+    if (liveConnected) {
+      return;
     }
-  };
+    const interval = setInterval(fetchJob, 2000);
+    return () => clearInterval(interval);
+  }, [activeJobId, liveConnected]);
   
-  const handleUpdateAll = async () => {
-    try {
-      setResult(null);
-      const response = await dataCollectionApi.updateAllChannelsData();
-      setResult(response.data);
-      
-      // 데이터 업데이트 완료 시 자동 렌더링
-      if (response.data.status === 'success' && onDataUpdated) {
-        setTimeout(() => {
-          onDataUpdated();
-        }, 1000);
-      }
-    } catch (error: any) {
-      setResult({
-        status: 'error',
-        message: error.response?.data?.message || '전체 데이터 업데이트 실패'
-      });
+  // 작업이 끝나면 결과를 보여 주고 데이터를 새로 고친다
+  useEffect(() => {
+    if (!activeJob || isJobActive(activeJob)) {
+      return;
     }
-  };
+    setResult({
+      status: activeJob.status === 'SUCCEEDED' ? 'success' : activeJob.status === 'CANCELLED' ? 'cancelled' : 'error',
+      message: activeJob.resultMessage || activeJob.errorMessage || `작업 #${activeJob.id} 종료`,
+      processedCount: activeJob.processedCount,
+      totalCount: activeJob.totalCount
+    });
+    if (activeJob.status === 'SUCCEEDED' && onDataUpdated) {
+      onDataUpdated();
+    }
+    setActiveJob(null);
+  }, [activeJob, onDataUpdated]);
   
-  const handleProcessUnprocessed = async () => {
+  // 작업 등록: 작업 id를 바로 받고, 결과는 작업이 끝날 때 받는다 (이미 같은 작업이 돌고 있으면 그 작업을 따라간다)
+  const submitJob = async (request: () => Promise<any>, failMessage: string) => {
     try {
       setResult(null);
-      const response = await dataCollectionApi.processUnprocessedVideos();
+      const response = await request();
       setResult(response.data);
-      
-      // 미처리 영상 처리 완료 시 자동 렌더링
-      if (response.data.status === 'success' && onDataUpdated) {
-        setTimeout(() => {
-          onDataUpdated();
-        }, 1000);
+      if (response.data.jobId) {
+        setActiveJob({ id: response.data.jobId, status: 'QUEUED' });
       }
+      return true;
     } catch (error: any) {
       setResult({
         status: 'error',
-        message: error.response?.data?.message || '미처리 영상 처리 실패'
+        message: error.response?.data?.message || failMessage
       });
+      return false;
     }
   };
   
+  const handleCollectAll = () => submitJob(() => dataCollectionApi.collectAllData(), '전체 데이터 수집 실패');
+  
+  const handleUpdateAll = () => submitJob(() => dataCollectionApi.updateAllChannelsData(), '전체 데이터 업데이트 실패');
+  
+  const handleProcessUnprocessed = () => submitJob(() => dataCollectionApi.processUnprocessedVideos(), '미처리 영상 처리 실패');
+  
   const handleCollectChannel = async () => {
     if (!searchQuery.trim()) {
       setResult({
@@ -151,23 +208,7 @@ const DataCollectionPanel: React.FC<DataCollectionPanelProps> = ({ onDataUpdated
       return;
     }
     
-    try {
-      setResult(null);
-      const response = await dataCollectionApi.collectChannelData(searchQuery);
-      setResult(response.data);
-      
-      // 개별 채널 수집 완료 시 자동 렌더링
-      if (response.data.status === 'success' && onDataUpdated) {
-        setTimeout(() => {
-          onDataUpdated();
-        }, 1000);
-      }
-    } catch (error: any) {
-      setResult({
-        status: 'error',
-        message: error.response?.data?.message || '채널 데이터 수집 실패'
-      });
-    }
+    await submitJob(() => dataCollectionApi.collectChannelData(searchQuery), '채널 데이터 수집 실패');
   };
   
   const handleAddChannel = async () => {
@@ -179,24 +220,24 @@ const DataCollectionPanel: React.FC<DataCollectionPanelProps> = ({ onDataUpdated
       return;
     }
     
-    try {
-      setResult(null);
-      const response = await dataCollectionApi.addNewChannel(searchQuery, channelName);
-      setResult(response.data);
+    const submitted = await submitJob(() => dataCollectionApi.addNewChannel(searchQuery, channelName), '새 채널 추가 실패');
+    if (submitted) {
       setAddChannelOpen(false);
       setSearchQuery('');
       setChannelName('');
-      
-      // 새 채널 추가 완료 시 자동 렌더링
-      if (response.data.status === 'success' && onDataUpdated) {
-        setTimeout(() => {
-          onDataUpdated();
-        }, 1000);
-      }
+    }
+  };
+  
+  const handleCancelJob = async () => {
+    if (!activeJob) {
+      return;
+    }
+    try {
+      await dataCollectionApi.cancelJob(activeJob.id);
     } catch (error: any) {
       setResult({
         status: 'error',
-        message: error.response?.data?.message || '새 채널 추가 실패'
+        message: error.message || '작업 취소 실패'
       });
     }
   };
@@ -231,6 +272,17 @@ const DataCollectionPanel: React.FC<DataCollectionPanelProps> = ({ onDataUpdated
             />
           </Box>
           
+          {activeJob && (
+            <Box display="flex" alignItems="center" mb={1}>
+              <Typography variant="body2" color="text.secondary">
+                작업 #{activeJob.id}: {activeJob.currentStatus || (activeJob.status === 'QUEUED' ? '대기 중' : '실행 중')}
+              </Typography>
+              <Button size="small" color="error" onClick={handleCancelJob} sx={{ ml: 'auto' }}>
+                작업 취소
+              </Button>
+            </Box>
+          )}
+          
           {status.isCollecting && (
             <Box>
               <Typography variant="body2" gutterBottom>
@@ -253,7 +305,12 @@ const DataCollectionPanel: React.FC<DataCollectionPanelProps> = ({ onDataUpdated
           {/* 결과 메시지 */}
           {result && (
             <Alert 
-              severity={result.status === 'success' ? 'success' : 'error'}
+              severity={
+                result.status === 'success' ? 'success'
+                  : result.status === 'accepted' ? 'info'
+                  : result.status === 'cancelled' ? 'warning'
+                  : 'error'
+              }
               sx={{ mb: 2 }}
               onClose={() => setResult(null)}
             >
@@ -1,10 +1,13 @@
 import React, { useEffect, useState, useRef } from 'react';
-import { MapContainer, TileLayer, GeoJSON, Polyline } from 'react-leaflet';
+import { MapContainer, TileLayer, GeoJSON, Polyline, useMapEvents } from 'react-leaflet';
 import { Box, Typography, CircularProgress, Backdrop } from '@mui/material';
-import { MapData, CountryData } from '../types';
+import { MapData, CountryData, GeometryBand } from '../types';
+import { apiService } from '../services/api';
 import 'leaflet/dist/leaflet.css';
 import MapBounds from './map/MapBounds';
 import ClusterMarkers from './map/ClusterMarkers';
+import CityClusterMarkers from './map/CityClusterMarkers';
+import CityTileMarkers from './map/CityTileMarkers';
 import MapLegend from './map/MapLegend';
 import MapStats from './map/MapStats';
 import { getCountryCoordinates } from './map/countryCoordinates';
@@ -14,13 +17,24 @@ interface WorldMapProps {
   onCountryClick: (countryCode: string) => void;
 }
 
-// 세계 지도 GeoJSON URL
-// 기존에 쓰던 D3-graph-gallery 데이터셋은 ISO_A2 속성이 없고 177개국만 포함해 싱가포르 같은
-// 도시국가가 아예 빠져 있었다. Natural Earth 50m 데이터셋은 ISO_A2를 직접 제공하고 싱가포르도 포함한다.
-const geoUrl = "https://raw.githubusercontent.com/nvkelso/natural-earth-vector/master/geojson/ne_50m_admin_0_countries.geojson";
+// 국가 경계는 백엔드가 빌드 때 jar에 넣은 Natural Earth 50m(태그 고정, ISO_A2만 남김)를 줌 구간별로 단순화/압축해 둔 것
+// (/geometry/countries)만 쓴다. 외부 원본으로 대체하지 않는다 - 고정되지 않은 데이터를 그대로 받으면 경계/코드가 예고 없이 바뀐다.
+const INITIAL_ZOOM = 2;
+
+// 지도 줌이 바뀔 때마다 알려준다 (줌 구간에 맞는 경계 데이터를 고르기 위함)
+const ZoomTracker: React.FC<{ onZoomChange: (zoom: number) => void }> = ({ onZoomChange }) => {
+  useMapEvents({
+    zoomend: (e) => onZoomChange(e.target.getZoom()),
+  });
+  return null;
+};
 
 const WorldMap: React.FC<WorldMapProps> = ({ mapData, onCountryClick }) => {
   const [geoData, setGeoData] = useState<any>(null);
+  const [geometryBands, setGeometryBands] = useState<GeometryBand[] | null>(null);
+  const [activeBand, setActiveBand] = useState<string>('');
+  const [zoom, setZoom] = useState(INITIAL_ZOOM);
+  const geometryCache = useRef<Map<string, any>>(new Map());
   const [isLoading, setIsLoading] = useState(true);
   const [mapReady, setMapReady] = useState(false);
   const [showLegend, setShowLegend] = useState(false);
@@ -60,27 +74,56 @@ const WorldMap: React.FC<WorldMapProps> = ({ mapData, onCountryClick }) => {
       }));
   }, [mapData]);
 
-  // GeoJSON 데이터 로드 및 반응형 초기화
+  const finishInitialLoad = () => {
+    setIsLoading(false);
+    setTimeout(() => {
+      setMapReady(true);
+      // 지도 크기 재조정
+      if (mapRef.current) {
+        mapRef.current.invalidateSize();
+      }
+    }, 500);
+  };
+
+  // 경계 줌 구간 목록 로드 (못 받으면 경계 없이 지도만 그린다)
   useEffect(() => {
     setIsLoading(true);
-    fetch(geoUrl)
-      .then(response => response.json())
+    apiService.getGeometryBands()
+      .then(bands => setGeometryBands(bands))
+      .catch(error => {
+        console.error('국가 경계 구간 목록 조회 실패:', error);
+        finishInitialLoad();
+      });
+  }, []);
+
+  // 현재 줌에 맞는 구간의 경계 로드 (한 번 받은 구간은 다시 받지 않음)
+  useEffect(() => {
+    if (!geometryBands || geometryBands.length === 0) {
+      return;
+    }
+    const band = geometryBands.find(b => zoom >= b.minZoom && zoom <= b.maxZoom)
+      ?? geometryBands[geometryBands.length - 1];
+    const cached = geometryCache.current.get(band.name);
+    if (cached) {
+      setGeoData(cached);
+      setActiveBand(band.name);
+      return;
+    }
+    apiService.getCountryGeometry(band)
       .then(data => {
+        geometryCache.current.set(band.name, data);
         setGeoData(data);
-        setIsLoading(false);
-        setTimeout(() => {
-          setMapReady(true);
-          // 지도 크기 재조정
-          if (mapRef.current) {
-            mapRef.current.invalidateSize();
-          }
-        }, 500);
+        setActiveBand(band.name);
+        if (isLoading) {
+          finishInitialLoad();
+        }
       })
       .catch(error => {
         console.error('Error loading geo data:', error);
         setIsLoading(false);
       });
-  }, []);
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [geometryBands, zoom]);
 
   // 컨테이너 크기 변화 감지 및 반응형 처리
   useEffect(() => {
@@ -239,7 +282,7 @@ const WorldMap: React.FC<WorldMapProps> = ({ mapData, onCountryClick }) => {
 
       <MapContainer
         center={[20, 0]}
-        zoom={2}
+        zoom={INITIAL_ZOOM}
         style={{
           height: '100%',
           width: '100%',
@@ -281,10 +324,11 @@ const WorldMap: React.FC<WorldMapProps> = ({ mapData, onCountryClick }) => {
         />
 
         <MapBounds countries={mapData.countries} />
+        <ZoomTracker onZoomChange={setZoom} />
 
         {geoData && (
           <GeoJSON
-            key={JSON.stringify(mapData)}
+            key={`${activeBand}-${JSON.stringify(mapData)}`}
             data={geoData}
             style={geoJsonStyle}
             onEachFeature={onEachFeature}
@@ -305,6 +349,9 @@ const WorldMap: React.FC<WorldMapProps> = ({ mapData, onCountryClick }) => {
         ))}
 
         <ClusterMarkers mapData={mapData} onCountryClick={onCountryClick} />
+
+        <CityClusterMarkers />
+        <CityTileMarkers />
       </MapContainer>
 
       <MapLegend
@@ -0,0 +1,104 @@
+import React, { useCallback, useEffect, useRef, useState } from 'react';
+import { Marker, Tooltip, useMap, useMapEvents } from 'react-leaflet';
+import { CityCluster, MapViewport } from '../../types';
+import { apiService } from '../../services/api';
+import { createClusterIcon } from './clusterIcon';
+
+// 이 줌부터 도시 마커를 보여준다 (그보다 멀리서는 국가 마커만)
+const MIN_CITY_ZOOM = 4;
+
+// 이 줌보다 확대하면 도시 타일 레이어(CityTileMarkers)가 개별 도시를 보여준다
+export const MAX_CLUSTER_ZOOM = 7;
+
+// 화면 이동이 끝난 뒤 이만큼 기다렸다가 요청 (연속 드래그/줌 중에는 요청하지 않음)
+const FETCH_DELAY_MS = 150;
+
+export const normalizeLongitude = (lng: number): number => ((((lng + 180) % 360) + 360) % 360) - 180;
+
+// 서버가 줌/화면 범위 기준으로 미리 묶어 둔 도시 클러스터만 받아서 그린다.
+// 도시 좌표 전체를 내려받지 않으므로 도시가 많아져도 이동/확대 속도가 그대로다.
+const CityClusterMarkers: React.FC = () => {
+  const map = useMap();
+  const [clusters, setClusters] = useState<CityCluster[]>([]);
+  const requestSeq = useRef(0);
+  const timer = useRef<ReturnType<typeof setTimeout> | null>(null);
+
+  const load = useCallback(() => {
+    const zoom = Math.round(map.getZoom());
+    const seq = ++requestSeq.current;
+    if (zoom < MIN_CITY_ZOOM || zoom > MAX_CLUSTER_ZOOM) {
+      setClusters([]);
+      return;
+    }
+
+    const bounds = map.getBounds();
+    const spansWorld = bounds.getEast() - bounds.getWest() >= 360;
+    const viewport: MapViewport = {
+      zoom,
+      north: Math.min(bounds.getNorth(), 90),
+      south: Math.max(bounds.getSouth(), -90),
+      east: spansWorld ? 180 : normalizeLongitude(bounds.getEast()),
+      west: spansWorld ? -180 : normalizeLongitude(bounds.getWest()),
+    };
+
+    apiService.getCityClusters(viewport)
+      .then(result => {
+        // 늦게 도착한 이전 화면의 응답은 버린다
+        if (seq === requestSeq.current) {
+          setClusters(result);
+        }
+      })
+      .catch(error => {
+        console.warn('도시 클러스터 조회 실패:', error);
+      });
+  }, [map]);
+
+  const scheduleLoad = useCallback(() => {
+    if (timer.current) {
+      clearTimeout(timer.current);
+    }
+    timer.current = setTimeout(load, FETCH_DELAY_MS);
+  }, [load]);
+
+  useMapEvents({
+    moveend: scheduleLoad,
+    zoomend: scheduleLoad,
+  });
+
+  useEffect(() => {
+    load();
+    return () => {
+      if (timer.current) {
+        clearTimeout(timer.current);
+      }
+    };
+  }, [load]);
+
+  return (
+    <>
+      {clusters.map(cluster => (
+        <Marker
+          key={`city-${cluster.latitude}-${cluster.longitude}`}
+          position={[cluster.latitude, cluster.longitude]}
+          icon={createClusterIcon(cluster.cityCount)}
+          eventHandlers={{
+            click: () => {
+              // 여러 도시가 묶인 클러스터는 두 단계 확대해서 풀어 본다
+              if (cluster.cityCount > 1) {
+                map.setView([cluster.latitude, cluster.longitude], Math.min(map.getZoom() + 2, map.getMaxZoom()));
+              }
+            }
+          }}
+        >
+          <Tooltip direction="top">
+            {cluster.cityName
+              ? `${cluster.cityName} (${cluster.countryCode}) · ${cluster.visitCount}회 방문`
+              : `도시 ${cluster.cityCount}곳 · ${cluster.visitCount}회 방문`}
+          </Tooltip>
+        </Marker>
+      ))}
+    </>
+  );
+};
+
+export default CityClusterMarkers;
@@ -0,0 +1,118 @@
+import React, { useCallback, useEffect, useRef, useState } from 'react';
+import { Marker, Tooltip, useMap, useMapEvents } from 'react-leaflet';
+import { CityTilePoint, MapViewport } from '../../types';
+import { apiService } from '../../services/api';
+import { createClusterIcon } from './clusterIcon';
+import { MAX_CLUSTER_ZOOM, normalizeLongitude } from './CityClusterMarkers';
+
+// 서버 타일 인덱스가 지원하는 최대 줌 (더 확대하면 이 줌의 타일을 그대로 쓴다)
+const MAX_TILE_ZOOM = 12;
+
+const FETCH_DELAY_MS = 150;
+
+// 받은 타일은 "z/x/y@해시" 단위로 들고 있다가, 목록의 해시가 같으면 다시 받지 않는다
+const tileCache = new Map<string, CityTilePoint[]>();
+const MAX_CACHED_TILES = 500;
+
+const rememberTile = (key: string, points: CityTilePoint[]) => {
+  if (tileCache.size >= MAX_CACHED_TILES) {
+    const oldest = tileCache.keys().next().value;
+    if (oldest !== undefined) {
+      tileCache.delete(oldest);
+    }
+  }
+  tileCache.set(key, points);
+};
+
+// 확대했을 때 개별 도시 방문 마커 (타일 단위로 받음).
+// 화면을 옮기면 그 범위의 타일 목록(해시)만 먼저 받고, 처음 보거나 내용이 바뀐 타일만 새로 받는다.
+const CityTileMarkers: React.FC = () => {
+  const map = useMap();
+  const [points, setPoints] = useState<CityTilePoint[]>([]);
+  const requestSeq = useRef(0);
+  const timer = useRef<ReturnType<typeof setTimeout> | null>(null);
+
+  const load = useCallback(async () => {
+    const mapZoom = Math.round(map.getZoom());
+    const seq = ++requestSeq.current;
+    if (mapZoom <= MAX_CLUSTER_ZOOM) {
+      setPoints([]);
+      return;
+    }
+
+    const zoom = Math.min(mapZoom, MAX_TILE_ZOOM);
+    const bounds = map.getBounds();
+    const viewport: MapViewport = {
+      zoom,
+      north: Math.min(bounds.getNorth(), 90),
+      south: Math.max(bounds.getSouth(), -90),
+      east: normalizeLongitude(bounds.getEast()),
+      west: normalizeLongitude(bounds.getWest()),
+    };
+
+    try {
+      const manifest = await apiService.getTileManifest(viewport);
+      const tiles = await Promise.all(Object.entries(manifest).map(async ([position, hash]) => {
+        const key = `${zoom}/${position}@${hash}`;
+        const cached = tileCache.get(key);
+        if (cached) {
+          return cached;
+        }
+        const [x, y] = position.split('/').map(Number);
+        const fetched = await apiService.getCityTile(zoom, x, y, hash);
+        rememberTile(key, fetched);
+        return fetched;
+      }));
+      // 늦게 도착한 이전 화면의 응답은 버린다
+      if (seq === requestSeq.current) {
+        setPoints(tiles.flat());
+      }
+    } catch (error) {
+      console.warn('도시 타일 조회 실패:', error);
+    }
+  }, [map]);
+
+  const scheduleLoad = useCallback(() => {
+    if (timer.current) {
+      clearTimeout(timer.current);
+    }
+    timer.current = setTimeout(load, FETCH_DELAY_MS);
+  }, [load]);
+
+  useMapEvents({
+    moveend: scheduleLoad,
+    zoomend: scheduleLoad,
+  });
+
+  useEffect(() => {
+    load();
+    return () => {
+      if (timer.current) {
+        clearTimeout(timer.current);
+      }
+    };
+  }, [load]);
+
+  return (
+    <>
+      {points.map(point => (
+        <Marker
+          key={`city-tile-${point.countryCode}-${point.cityName}-${point.latitude}-${point.longitude}`}
+          position={[point.latitude, point.longitude]}
+          icon={createClusterIcon(1)}
+        >
+          <Tooltip direction="top">
+            <div>
+              <strong>{point.cityName}</strong> ({point.countryCode}) · {point.visitCount}회 방문
+            </div>
+            {point.topYoutubers.map(youtuber => (
+              <div key={youtuber.userId}>{youtuber.name} · {youtuber.visitCount}회</div>
+            ))}
+          </Tooltip>
+        </Marker>
+      ))}
+    </>
+  );
+};
+
+export default CityTileMarkers;
@@ -1,8 +1,8 @@
 import axios from 'axios';
-import { FilterOptions, MapData, Video, FilterState, CountryKeyword, CityKeyword } from '../types';
+import { FilterOptions, MapData, Video, VideoPage, FilterState, CountryKeyword, CityKeyword, CityCluster, MapViewport, CityTilePoint, TileManifest, GeometryBand, MapDataChanges } from '../types';
 
 // API 기본 설정
-const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
+export const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
 
 const api = axios.create({
   baseURL: API_BASE_URL,
@@ -44,11 +44,24 @@ export const apiService = {
     }
 
     const response = await api.get<MapData>(`/map-data?${params.toString()}`);
+    const version = response.headers['x-data-version'];
+    return {
+      ...response.data,
+      version: version ? Number(version) : undefined,
+    };
+  },
+
+  // 필터 없는 지도에서 since 버전 이후 바뀐 국가만 조회
+  async getMapDataChanges(since: number): Promise<MapDataChanges> {
+    const response = await api.get<MapDataChanges>('/map-data/changes', {
+      params: { since },
+    });
     return response.data;
   },
 
   // 영상 목록 조회
-  async getVideos(filters: FilterState, page: number = 0, size: number = 20): Promise<Video[]> {
+  // 다음 페이지는 응답 헤더 X-Next-Cursor 값을 cursor로 넘겨서 이어 받는다 (없으면 마지막 페이지)
+  async getVideos(filters: FilterState, size: number = 20, cursor?: string): Promise<VideoPage> {
     const params = new URLSearchParams();
 
     if (filters.selectedUserId) {
@@ -70,11 +83,16 @@ export const apiService = {
       params.append('endDate', filters.endDate);
     }
 
-    params.append('page', page.toString());
     params.append('size', size.toString());
+    if (cursor) {
+      params.append('cursor', cursor);
+    }
 
     const response = await api.get<Video[]>(`/videos?${params.toString()}`);
-    return response.data;
+    return {
+      videos: response.data,
+      nextCursor: response.headers['x-next-cursor'] || undefined,
+    };
   },
 
   // 개별 영상 상세 조회
@@ -83,11 +101,64 @@ export const apiService = {
     return response.data;
   },
 
-  // 특정 국가의 영상 목록 조회
-  async getVideosByCountry(countryCode: string): Promise<Video[]> {
-    const response = await api.get<Video[]>(`/countries/${countryCode}/videos`);
+  // 특정 국가의 영상 목록 조회 (getVideos와 같이 X-Next-Cursor로 이어 받는다)
+  async getVideosByCountry(countryCode: string, limit: number = 50, cursor?: string): Promise<VideoPage> {
+    const response = await api.get<Video[]>(`/countries/${countryCode}/videos`, {
+      params: cursor ? { limit, cursor } : { limit },
+    });
+    return {
+      videos: response.data,
+      nextCursor: response.headers['x-next-cursor'] || undefined,
+    };
+  },
+
+  // 현재 줌/화면 범위의 도시 마커 클러스터 조회 (west > east면 날짜 변경선을 넘는 범위)
+  async getCityClusters(viewport: MapViewport): Promise<CityCluster[]> {
+    const response = await api.get<CityCluster[]>('/map/city-clusters', {
+      params: viewport,
+    });
+    return response.data;
+  },
+
+  // 화면 범위에 걸친 도시 타일들의 내용 해시 목록
+  async getTileManifest(viewport: MapViewport): Promise<TileManifest> {
+    const { zoom, ...bounds } = viewport;
+    const response = await api.get<TileManifest>(`/tiles/${zoom}/manifest`, {
+      params: bounds,
+    });
+    return response.data;
+  },
+
+  // 국가 경계 줌 구간 목록
+  async getGeometryBands(): Promise<GeometryBand[]> {
+    const response = await api.get<GeometryBand[]>('/geometry/countries');
     return response.data;
   },
+
+  // 국가 경계 GeoJSON 한 구간 (path에 내용 버전이 들어 있어 브라우저가 오래 캐시한다)
+  async getCountryGeometry(band: GeometryBand): Promise<any> {
+    const response = await api.get(band.path);
+    return response.data;
+  },
+
+  // 도시 타일 하나 (해시를 붙여서 요청하면 브라우저/엣지가 오래 캐시한다)
+  async getCityTile(z: number, x: number, y: number, hash: string): Promise<CityTilePoint[]> {
+    const response = await api.get<any[]>(`/tiles/${z}/${x}/${y}`, {
+      params: { v: hash },
+    });
+    return response.data.map(row => ({
+      cityName: row[0],
+      latitude: row[1],
+      longitude: row[2],
+      countryCode: row[3],
+      visitCount: row[4],
+      topYoutubers: (row[5] || []).map((youtuber: any[]) => ({
+        userId: youtuber[0],
+        name: youtuber[1],
+        visitCount: youtuber[2],
+      })),
+    }));
+  },
 };
 
 // 데이터 수집 API 서비스
@@ -137,6 +208,24 @@ export const dataCollectionApi = {
     });
     return response;
   },
+
+  // 수집 작업 조회
+  async getJob(jobId: number) {
+    const response = await api.get(`/admin/jobs/${jobId}`);
+    return response;
+  },
+
+  // 최근 수집 작업 목록
+  async getJobs(limit = 20) {
+    const response = await api.get('/admin/jobs', { params: { limit } });
+    return response;
+  },
+
+  // 수집 작업 취소 요청
+  async cancelJob(jobId: number) {
+    const response = await api.post(`/admin/jobs/${jobId}/cancel`);
+    return response;
+  },
 };
 
 // 국가/도시 감지 키워드 관리 API
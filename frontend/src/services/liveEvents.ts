@@ -0,0 +1,76 @@
+import { API_BASE_URL } from './api';
+
+// 서버가 /api/events로 밀어 주는 이벤트 종류
+export type LiveEventType = 'data-version' | 'collection-status' | 'collection-job';
+
+type EventHandler = (data: any) => void;
+type ConnectionHandler = (connected: boolean) => void;
+
+// 화면 전체가 연결 하나를 나눠 쓴다 (구독자가 없어지면 닫음)
+const handlers = new Map<LiveEventType, Set<EventHandler>>();
+const connectionHandlers = new Set<ConnectionHandler>();
+let source: EventSource | null = null;
+let connected = false;
+
+const setConnected = (value: boolean) => {
+  if (connected !== value) {
+    connected = value;
+    connectionHandlers.forEach(handler => handler(value));
+  }
+};
+
+const subscriberCount = () =>
+  Array.from(handlers.values()).reduce((sum, set) => sum + set.size, 0) + connectionHandlers.size;
+
+const open = () => {
+  if (source || typeof EventSource === 'undefined') {
+    return;
+  }
+  source = new EventSource(`${API_BASE_URL}/events`);
+  source.onopen = () => setConnected(true);
+  // 끊기면 브라우저가 알아서 다시 붙는다. 그동안은 구독자들이 폴링으로 버틴다.
+  source.onerror = () => setConnected(false);
+  (['data-version', 'collection-status', 'collection-job'] as LiveEventType[]).forEach(type => {
+    source!.addEventListener(type, (event: MessageEvent) => {
+      try {
+        const data = JSON.parse(event.data);
+        handlers.get(type)?.forEach(handler => handler(data));
+      } catch (error) {
+        console.error('실시간 이벤트 파싱 실패:', error);
+      }
+    });
+  });
+};
+
+const closeIfIdle = () => {
+  if (source && subscriberCount() === 0) {
+    source.close();
+    source = null;
+    setConnected(false);
+  }
+};
+
+export const liveEvents = {
+  subscribe(type: LiveEventType, handler: EventHandler): () => void {
+    if (!handlers.has(type)) {
+      handlers.set(type, new Set());
+    }
+    handlers.get(type)!.add(handler);
+    open();
+    return () => {
+      handlers.get(type)?.delete(handler);
+      closeIfIdle();
+    };
+  },
+
+  // 연결 상태 변화 (연결이 없는 동안 폴링으로 대신하려는 구독자용). 등록 즉시 현재 상태를 한 번 알려 준다.
+  onConnectionChange(handler: ConnectionHandler): () => void {
+    connectionHandlers.add(handler);
+    open();
+    handler(connected);
+    return () => {
+      connectionHandlers.delete(handler);
+      closeIfIdle();
+    };
+  },
+};
@@ -1,5 +1,5 @@
 import { createSlice, createAsyncThunk, PayloadAction } from '@reduxjs/toolkit';
-import { AppState, FilterState, Video } from '../types';
+import { AppState, FilterState, MapData, MapDataChanges, Video } from '../types';
 import { apiService } from '../services/api';
 
 // 초기 상태
@@ -8,8 +8,9 @@ const initialState: AppState = {
   filterOptions: null,
   mapData: null,
   videos: [],
-  videosPage: 0,
+  videosCursor: undefined,
   hasMoreVideos: false,
+  videosCountryCode: undefined,
   selectedVideo: null,
   loading: false,
   error: null,
@@ -30,11 +31,45 @@ export const fetchMapData = createAsyncThunk(
   }
 );
 
+const hasFilters = (filters: FilterState): boolean =>
+  Object.values(filters).some(value => value !== undefined && value !== null && value !== '');
+
+// 바뀐 국가들을 지도 데이터에 덮어쓴다 (방문 0이면 지도에서 뺌)
+const applyMapChanges = (mapData: MapData, delta: MapDataChanges): MapData => {
+  const byCode = new Map(mapData.countries.map(country => [country.countryCode, country]));
+  delta.changes.forEach(country => {
+    if (country.visitCount > 0) {
+      byCode.set(country.countryCode, country);
+    } else {
+      byCode.delete(country.countryCode);
+    }
+  });
+  const countries = Array.from(byCode.values()).sort((a, b) => b.visitCount - a.visitCount);
+  return { countries, version: delta.version };
+};
+
+// 데이터가 바뀌었을 때 지도 갱신: 필터 없는 지도를 이미 갖고 있으면 바뀐 국가만 받고, 아니면 전체를 다시 받는다
+export const syncMapData = createAsyncThunk<MapData, FilterState, { state: { app: AppState } }>(
+  'app/syncMapData',
+  async (filters, { getState }) => {
+    const current = getState().app.mapData;
+    if (!hasFilters(filters) && current?.version !== undefined) {
+      const delta = await apiService.getMapDataChanges(current.version);
+      if (!delta.reset) {
+        return delta.changes.length > 0 || delta.version !== current.version
+          ? applyMapChanges(current, delta)
+          : current;
+      }
+    }
+    return await apiService.getMapData(filters);
+  }
+);
+
 export const fetchVideos = createAsyncThunk(
   'app/fetchVideos',
-  async ({ filters, page = 0, size = 20, append = false }: { filters: FilterState; page?: number; size?: number; append?: boolean }) => {
-    const videos = await apiService.getVideos(filters, page, size);
-    return { videos, page, size, append };
+  async ({ filters, cursor, size = 20, append = false }: { filters: FilterState; cursor?: string; size?: number; append?: boolean }) => {
+    const { videos, nextCursor } = await apiService.getVideos(filters, size, cursor);
+    return { videos, nextCursor, append };
   }
 );
 
@@ -47,8 +82,9 @@ export const fetchVideo = createAsyncThunk(
 
 export const fetchVideosByCountry = createAsyncThunk(
   'app/fetchVideosByCountry',
-  async (countryCode: string) => {
-    return await apiService.getVideosByCountry(countryCode);
+  async ({ countryCode, cursor, limit = 50, append = false }: { countryCode: string; cursor?: string; limit?: number; append?: boolean }) => {
+    const { videos, nextCursor } = await apiService.getVideosByCountry(countryCode, limit, cursor);
+    return { countryCode, videos, nextCursor, append };
   }
 );
 
@@ -80,8 +116,9 @@ const appSlice = createSlice({
     // 비디오 목록 리셋
     resetVideos: (state) => {
       state.videos = [];
-      state.videosPage = 0;
+      state.videosCursor = undefined;
       state.hasMoreVideos = false;
+      state.videosCountryCode = undefined;
     },
   },
   extraReducers: (builder) => {
@@ -115,6 +152,15 @@ const appSlice = createSlice({
         state.error = action.error.message || '지도 데이터를 불러오는 중 오류가 발생했습니다.';
       });
 
+    // syncMapData (백그라운드 갱신이라 로딩 표시는 하지 않는다)
+    builder
+      .addCase(syncMapData.fulfilled, (state, action) => {
+        state.mapData = action.payload;
+      })
+      .addCase(syncMapData.rejected, (state, action) => {
+        state.error = action.error.message || '지도 데이터를 갱신하는 중 오류가 발생했습니다.';
+      });
+
     // fetchVideos
     builder
       .addCase(fetchVideos.pending, (state) => {
@@ -123,10 +169,11 @@ const appSlice = createSlice({
       })
       .addCase(fetchVideos.fulfilled, (state, action) => {
         state.loading = false;
-        const { videos, page, size, append } = action.payload;
+        const { videos, nextCursor, append } = action.payload;
         state.videos = append ? [...state.videos, ...videos] : videos;
-        state.videosPage = page;
-        state.hasMoreVideos = videos.length === size;
+        state.videosCursor = nextCursor;
+        state.hasMoreVideos = !!nextCursor;
+        state.videosCountryCode = undefined;
       })
       .addCase(fetchVideos.rejected, (state, action) => {
         state.loading = false;
@@ -156,9 +203,11 @@ const appSlice = createSlice({
       })
       .addCase(fetchVideosByCountry.fulfilled, (state, action) => {
         state.loading = false;
-        state.videos = action.payload;
-        state.videosPage = 0;
-        state.hasMoreVideos = false;
+        const { countryCode, videos, nextCursor, append } = action.payload;
+        state.videos = append ? [...state.videos, ...videos] : videos;
+        state.videosCursor = nextCursor;
+        state.hasMoreVideos = !!nextCursor;
+        state.videosCountryCode = countryCode;
       })
       .addCase(fetchVideosByCountry.rejected, (state, action) => {
         state.loading = false;
@@ -25,6 +25,12 @@ export interface Video {
   visitCountries: VisitCountry[];
 }
 
+// 영상 목록 한 페이지 (nextCursor가 없으면 마지막 페이지)
+export interface VideoPage {
+  videos: Video[];
+  nextCursor?: string;
+}
+
 // Visit Country Types
 export interface VisitCountry {
   id: number;
@@ -83,6 +89,57 @@ export interface CountryData {
 
 export interface MapData {
   countries: CountryData[];
+  // 응답 헤더 X-Data-Version (필터 없는 지도일 때 /map-data/changes?since=에 넘긴다)
+  version?: number;
+}
+
+// /map-data/changes 응답: reset이면 지도 전체를 다시 받고, 아니면 changes의 국가를 덮어쓴다 (visitCount 0이면 삭제)
+export interface MapDataChanges {
+  version: number;
+  reset: boolean;
+  changes: CountryData[];
+}
+
+// 서버에서 줌/화면 범위별로 미리 묶어 둔 도시 마커 (/map/city-clusters)
+// 도시가 하나뿐인 클러스터면 cityName/countryCode가 채워진다
+export interface CityCluster {
+  latitude: number;
+  longitude: number;
+  cityCount: number;
+  visitCount: number;
+  cityName?: string;
+  countryCode?: string;
+}
+
+export interface MapViewport {
+  zoom: number;
+  north: number;
+  south: number;
+  east: number;
+  west: number;
+}
+
+// 도시 방문 타일(/tiles/{z}/{x}/{y})의 도시 한 곳
+// 서버는 [도시명, 위도, 경도, 국가 코드, 방문 횟수, [[유튜버 id, 이름, 방문 횟수], ...]] 배열로 보낸다
+export interface CityTilePoint {
+  cityName: string;
+  latitude: number;
+  longitude: number;
+  countryCode: string;
+  visitCount: number;
+  topYoutubers: { userId: number; name: string; visitCount: number }[];
+}
+
+// 화면 범위 타일 목록: "x/y" -> 타일 내용 해시
+export type TileManifest = Record<string, string>;
+
+// 백엔드가 줌 구간별로 단순화해 둔 국가 경계 GeoJSON (/geometry/countries)
+export interface GeometryBand {
+  name: string;
+  minZoom: number;
+  maxZoom: number;
+  version: string;
+  path: string;
 }
 
 // Filter State Types
@@ -108,8 +165,10 @@ export interface AppState {
   filterOptions: FilterOptions | null;
   mapData: MapData | null;
   videos: Video[];
-  videosPage: number;
+  videosCursor?: string;
   hasMoreVideos: boolean;
+  // 목록이 국가별 영상 엔드포인트에서 왔으면 그 국가 (더 보기도 같은 엔드포인트로 이어 받는다)
+  videosCountryCode?: string;
   selectedVideo: Video | null;
   loading: boolean;
   error: string | null;